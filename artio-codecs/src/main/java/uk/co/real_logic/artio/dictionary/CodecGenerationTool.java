@@ -80,6 +80,9 @@ public final class CodecGenerationTool
             RejectUnknownEnumValue.class,
             codecRejectUnknownEnumValueEnabled);
 
+        final DecoderProjection projection = DECODER_PROJECTION_FILE == null ?
+            DecoderProjection.NONE : DecoderProjection.load(new File(DECODER_PROJECTION_FILE), dictionary);
+
         final DecoderGenerator decoderGenerator = new DecoderGenerator(
             dictionary,
             1,
@@ -90,7 +93,8 @@ public final class CodecGenerationTool
             RejectUnknownField.class,
             RejectUnknownEnumValue.class,
             false,
-            codecRejectUnknownEnumValueEnabled);
+            codecRejectUnknownEnumValueEnabled,
+            projection);
         final PrinterGenerator printerGenerator = new PrinterGenerator(dictionary, DECODER_PACKAGE, decoderOutput);
         final AcceptorGenerator acceptorGenerator = new AcceptorGenerator(dictionary, DECODER_PACKAGE, decoderOutput);
 
@@ -119,7 +123,8 @@ public final class CodecGenerationTool
                 RejectUnknownField.class,
                 RejectUnknownEnumValue.class,
                 true,
-                codecRejectUnknownEnumValueEnabled);
+                codecRejectUnknownEnumValueEnabled,
+                projection);
 
             flyweightDecoderGenerator.generate();
         }
@@ -17,6 +17,8 @@ package uk.co.real_logic.artio.dictionary.generation;
 
 import org.agrona.MutableDirectBuffer;
 
+import java.util.Arrays;
+
 import static java.nio.charset.StandardCharsets.US_ASCII;
 
 public final class CodecUtil
@@ -35,6 +37,8 @@ public final class CodecUtil
     public static final int ENUM_MISSING_INT = MISSING_INT;
     public static final String ENUM_MISSING_STRING = Character.toString(ENUM_MISSING_CHAR);
 
+    public static final int NO_BIT_INDEX = -1;
+
     public static final char ENUM_UNKNOWN_CHAR = '\002';
     public static final int ENUM_UNKNOWN_INT = Integer.MAX_VALUE;
     public static final String ENUM_UNKNOWN_STRING = Character.toString(ENUM_UNKNOWN_CHAR);
@@ -176,4 +180,40 @@ public final class CodecUtil
 
         return result;
     }
+
+    // Bitsets used by generated decoders to validate fields, indexed by each field's position within the decoder.
+
+    // returns true if the bit wasn't already set
+    public static boolean setBit(final long[] bits, final int index)
+    {
+        final int word = index >>> 6;
+        final long mask = 1L << index;
+        final long value = bits[word];
+        bits[word] = value | mask;
+        return (value & mask) == 0;
+    }
+
+    public static void clearBit(final long[] bits, final int index)
+    {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    public static void clearBits(final long[] bits)
+    {
+        Arrays.fill(bits, 0L);
+    }
+
+    public static int firstSetBit(final long[] bits)
+    {
+        for (int i = 0; i < bits.length; i++)
+        {
+            final long word = bits[i];
+            if (word != 0)
+            {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+
+        return NO_BIT_INDEX;
+    }
 }
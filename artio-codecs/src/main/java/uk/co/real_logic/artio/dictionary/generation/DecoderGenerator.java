@@ -20,6 +20,7 @@ import org.agrona.generation.OutputManager;
 import org.agrona.generation.ResourceConsumer;
 import uk.co.real_logic.artio.builder.Decoder;
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
+import uk.co.real_logic.artio.dictionary.generation.DecoderProjection.ProjectedMessage;
 import uk.co.real_logic.artio.dictionary.ir.Dictionary;
 import uk.co.real_logic.artio.dictionary.ir.*;
 import uk.co.real_logic.artio.dictionary.ir.Field.Type;
@@ -28,6 +29,7 @@ import uk.co.real_logic.artio.fields.*;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.*;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptySet;
@@ -103,6 +105,7 @@ public class DecoderGenerator extends Generator
     private Aggregate currentAggregate = null;
 
     private final int initialBufferSize;
+    private final DecoderProjection projection;
 
     public DecoderGenerator(
         final Dictionary dictionary,
@@ -115,10 +118,29 @@ public class DecoderGenerator extends Generator
         final Class<?> rejectUnknownEnumValueClass,
         final boolean flyweightsEnabled,
         final String codecRejectUnknownEnumValueEnabled)
+    {
+        this(dictionary, initialBufferSize, thisPackage, commonPackage, outputManager, validationClass,
+            rejectUnknownFieldClass, rejectUnknownEnumValueClass, flyweightsEnabled,
+            codecRejectUnknownEnumValueEnabled, DecoderProjection.NONE);
+    }
+
+    public DecoderGenerator(
+        final Dictionary dictionary,
+        final int initialBufferSize,
+        final String thisPackage,
+        final String commonPackage,
+        final OutputManager outputManager,
+        final Class<?> validationClass,
+        final Class<?> rejectUnknownFieldClass,
+        final Class<?> rejectUnknownEnumValueClass,
+        final boolean flyweightsEnabled,
+        final String codecRejectUnknownEnumValueEnabled,
+        final DecoderProjection projection)
     {
         super(dictionary, thisPackage, commonPackage, outputManager, validationClass, rejectUnknownFieldClass,
             rejectUnknownEnumValueClass, flyweightsEnabled, codecRejectUnknownEnumValueEnabled);
         this.initialBufferSize = initialBufferSize;
+        this.projection = projection;
     }
 
     public void generate()
@@ -148,6 +170,12 @@ public class DecoderGenerator extends Generator
         }
 
         final String className = decoderClassName(aggregate);
+        if (type == MESSAGE && REQUIRED_SESSION_CODECS.contains(className) &&
+            projection.projects((Message)aggregate))
+        {
+            throw new IllegalArgumentException(
+                "Session messages are needed in full by the session and can't be projected: " + aggregate.name());
+        }
 
         outputManager.withOutput(
             className,
@@ -180,7 +208,12 @@ public class DecoderGenerator extends Generator
 
         final boolean isMessage = type == MESSAGE;
         final boolean isGroup = type == GROUP;
-        final List<String> interfaces = aggregate
+
+        // A projected message only decodes the entries that it keeps, but validates against all of its fields.
+        final ProjectedMessage projectedMessage = isMessage ? projection.project((Message)aggregate) : null;
+        final Aggregate decodedAggregate = isMessage ? projectedMessage.message() : aggregate;
+
+        final List<String> interfaces = decodedAggregate
             .entriesWith((element) -> element instanceof Component)
             .map((comp) -> decoderClassName((Aggregate)comp.element()))
             .collect(toList());
@@ -200,7 +233,7 @@ public class DecoderGenerator extends Generator
         }
 
         out.append(classDeclaration(className, interfaces, false));
-        generateValidation(out, aggregate, type);
+        generateValidation(out, aggregate, decodedAggregate, type);
         if (isMessage)
         {
             final Message message = (Message)aggregate;
@@ -212,10 +245,11 @@ public class DecoderGenerator extends Generator
         }
         groupMethods(out, aggregate);
         headerMethods(out, aggregate, type);
-        generateGetters(out, className, aggregate.entries());
-        out.append(decodeMethod(aggregate.entries(), aggregate, type));
-        out.append(completeResetMethod(isMessage, aggregate.entries(), additionalReset(isGroup)));
-        out.append(toString(aggregate, isMessage));
+        final List<Entry> entries = decodedAggregate.entries();
+        generateGetters(out, className, entries);
+        out.append(decodeMethod(entries, aggregate, type, isMessage ? decodeSkippedFields(projectedMessage) : ""));
+        out.append(completeResetMethod(isMessage, entries, additionalReset(isGroup)));
+        out.append(toString(decodedAggregate, isMessage));
         out.append("}\n");
         currentAggregate = parentAggregate;
     }
@@ -338,22 +372,25 @@ public class DecoderGenerator extends Generator
             "        {\n" +
             "            invalidTagId = Decoder.NO_ERROR;\n" +
             "            rejectReason = Decoder.NO_ERROR;\n" +
-            "            missingRequiredFields.clear();\n" +
+            "            clearBits(missingRequiredFields);\n" +
             (isGroup ? "" :
                 "            unknownFields.clear();\n" +
+                "            clearBits(visitedFields);\n" +
                 "            alreadyVisitedFields.clear();\n") +
             "        }\n";
     }
 
-    private void generateValidation(final Writer out, final Aggregate aggregate, final AggregateType type)
+    private void generateValidation(
+        final Writer out, final Aggregate aggregate, final Aggregate decodedAggregate, final AggregateType type)
         throws IOException
     {
         final List<Field> requiredFields = requiredFields(aggregate.entries()).collect(toList());
         out.append(generateFieldDictionary(requiredFields, REQUIRED_FIELDS, true));
+        out.append(fieldIndex(aggregate, requiredFields, type));
 
-        if (aggregate.containsGroup())
+        if (decodedAggregate.containsGroup())
         {
-            final List<Field> groupFields = aggregate
+            final List<Field> groupFields = decodedAggregate
                 .allFieldsIncludingComponents()
                 .map(Entry::element)
                 .map(element -> (Field)element)
@@ -362,13 +399,13 @@ public class DecoderGenerator extends Generator
             out.append(groupFieldString);
         }
 
-        final String enumValidation = aggregate
+        final String enumValidation = decodedAggregate
             .allFieldsIncludingComponents()
             .filter((entry) -> entry.element().isEnumField())
             .map((entry) -> validateEnum(entry, out))
             .collect(joining("\n"));
 
-        final String groupValidation = aggregate
+        final String groupValidation = decodedAggregate
             .entriesWith(element -> element instanceof Group)
             .map((entry) -> generateGroupValidation(entry, out))
             .collect(joining("\n"));
@@ -401,7 +438,6 @@ public class DecoderGenerator extends Generator
             (isGroup ? "" :
             "    private final IntHashSet alreadyVisitedFields = new IntHashSet(%5$d);\n\n" +
             "    private final IntHashSet unknownFields = new IntHashSet(10);\n\n") +
-            "    private final IntHashSet missingRequiredFields = new IntHashSet(%1$d);\n\n" +
             "    private int invalidTagId = Decoder.NO_ERROR;\n\n" +
             "    public int invalidTagId()\n" +
             "    {\n" +
@@ -419,12 +455,12 @@ public class DecoderGenerator extends Generator
             "        {\n" +
             "            return false;\n" +
             "        }\n" +
-            "        final IntIterator missingFieldsIterator = missingRequiredFields.iterator();\n" +
+            "        final int missingFieldIndex = firstSetBit(missingRequiredFields);\n" +
             (isMessage ? "        final IntIterator unknownFieldsIterator = unknownFields.iterator();\n" : "") +
             "%2$s" +
-            "        if (missingFieldsIterator.hasNext())\n" +
+            "        if (missingFieldIndex != NO_BIT_INDEX)\n" +
             "        {\n" +
-            "            invalidTagId = missingFieldsIterator.nextValue();\n" +
+            "            invalidTagId = indexedTags[missingFieldIndex];\n" +
             "            rejectReason = " + REQUIRED_TAG_MISSING + ";\n" +
             "            return false;\n" +
             "        }\n" +
@@ -432,13 +468,66 @@ public class DecoderGenerator extends Generator
             "%4$s" +
             "        return true;\n" +
             "    }\n\n",
-            sizeHashSet(requiredFields),
+            requiredFields.size(),
             messageValidation,
             enumValidation,
             groupValidation,
             2 * aggregate.allFieldsIncludingComponents().count()));
     }
 
+    private String fieldIndex(final Aggregate aggregate, final List<Field> requiredFields, final AggregateType type)
+    {
+        // Each field decoded at this level gets a dense index so that validation can use bitsets
+        final Map<Integer, Field> numberToField = new LinkedHashMap<>();
+        decodedFields(aggregate.entries()).forEach((field) -> numberToField.putIfAbsent(field.number(), field));
+        final List<Field> indexedFields = new ArrayList<>(numberToField.values());
+
+        final int wordCount = (indexedFields.size() + 63) / 64;
+        final long[] requiredFieldBits = new long[wordCount];
+        for (final Field field : requiredFields)
+        {
+            final int index = indexedFields.indexOf(numberToField.get(field.number()));
+            requiredFieldBits[index >>> 6] |= 1L << index;
+        }
+
+        final StringBuilder indexCases = new StringBuilder();
+        for (int i = 0; i < indexedFields.size(); i++)
+        {
+            indexCases.append(String.format(
+                "            case Constants.%s: return %d;\n", constantName(indexedFields.get(i).name()), i));
+        }
+
+        return String.format(
+            "    private final int[] indexedTags = { %1$s };\n\n" +
+            "    private final long[] requiredFieldBits = { %2$s };\n\n" +
+            "    private final long[] missingRequiredFields = new long[%3$d];\n\n" +
+            (type == GROUP ? "" :
+            "    private final long[] visitedFields = new long[%3$d];\n\n") +
+            "    private int indexOfTag(final int tag)\n" +
+            "    {\n" +
+            "        switch (tag)\n" +
+            "        {\n" +
+            "%4$s" +
+            "            default: return NO_BIT_INDEX;\n" +
+            "        }\n" +
+            "    }\n\n",
+            indexedFields.stream().map((field) -> String.valueOf(field.number())).collect(joining(", ")),
+            LongStream.of(requiredFieldBits).mapToObj((bits) -> "0x" + Long.toHexString(bits) + "L")
+                .collect(joining(", ")),
+            wordCount,
+            indexCases);
+    }
+
+    private Stream<Field> decodedFields(final List<Entry> entries)
+    {
+        return entries
+            .stream()
+            .flatMap((entry) -> entry.match(
+                (e, field) -> Stream.of(field),
+                (e, group) -> Stream.of((Field)group.numberField().element()),
+                (e, component) -> decodedFields(component.entries())));
+    }
+
     private String generateFieldDictionary(final Collection<Field> fields, final String name,
         final boolean shouldGenerateValidationGating)
     {
@@ -496,18 +585,6 @@ public class DecoderGenerator extends Generator
 
         final boolean isPrimitive = type.isIntBased() || type == Type.CHAR;
 
-        final String enumValidation = String.format(
-            "        if (" + codecRejectUnknownEnumValueEnabled + " && !%1$s.isValid(%2$s%4$s))\n" +
-            "        {\n" +
-            "            invalidTagId = %3$s;\n" +
-            "            rejectReason = " + VALUE_IS_INCORRECT + ";\n" +
-            "            return false;\n" +
-            "        }\n",
-            name,
-            propertyName,
-            tagNumber,
-            isPrimitive ? "()" : "Wrapper");
-
         final String enumValidationMethod;
         if (type.isMultiValue())
         {
@@ -518,26 +595,23 @@ public class DecoderGenerator extends Generator
                     "          {\n" +
                     "            if (%1$s()[i] == ' ')\n" +
                     "            {\n" +
-                    "              %1$sWrapper.wrap(%1$s(), %1$sOffset, i - %1$sOffset);\n" +
                     "%2$s" +
                     "                %1$sOffset = i + 1;\n" +
                     "            }\n" +
                     "          }\n" +
-                    "          %1$sWrapper.wrap(%1$s(), %1$sOffset, %1$sLength - %1$sOffset);\n" +
-                    "%2$s",
+                    "%3$s",
                     propertyName,
-                    enumValidation
+                    enumValidation(name, tagNumber,
+                        String.format("%1$s(), %1$sOffset, i - %1$sOffset", propertyName)),
+                    enumValidation(name, tagNumber,
+                        String.format("%1$s(), %1$sOffset, %1$sLength - %1$sOffset", propertyName))
                 );
         }
         else
         {
-            enumValidationMethod =
-                String.format(
-                    (isPrimitive ? "" : "        %1$sWrapper.wrap(%1$s(), %1$sLength);\n") +
-                    "%2$s",
-                    propertyName,
-                    enumValidation
-                );
+            enumValidationMethod = enumValidation(name, tagNumber, isPrimitive ?
+                propertyName + "()" :
+                String.format("%1$s(), 0, %1$sLength", propertyName));
         }
 
         return
@@ -552,6 +626,20 @@ public class DecoderGenerator extends Generator
             );
     }
 
+    private String enumValidation(final String name, final int tagNumber, final String isValidArguments)
+    {
+        return String.format(
+            "        if (" + codecRejectUnknownEnumValueEnabled + " && !%1$s.isValid(%2$s))\n" +
+            "        {\n" +
+            "            invalidTagId = %3$s;\n" +
+            "            rejectReason = " + VALUE_IS_INCORRECT + ";\n" +
+            "            return false;\n" +
+            "        }\n",
+            name,
+            isValidArguments,
+            tagNumber);
+    }
+
     private CharSequence generateGroupValidation(final Entry entry, final Writer out)
     {
         final Group group = (Group)entry.element();
@@ -953,30 +1041,25 @@ public class DecoderGenerator extends Generator
 
         final String enumValueDecoder = String.format(
             type.isStringBased() ?
-            "%1$s.decode(%2$sWrapper)" :
+            "%1$s.decode(%2$s(), 0, %2$sLength)" :
             // Need to ensure that decode the field
             (flyweightsEnabled && (type.isIntBased() || type.isFloatBased())) ?
             "%1$s.decode(%2$s())" :
             "%1$s.decode(%2$s)",
             name,
             fieldName);
-        final String enumStringBasedWrapperField =
-            String.format("    private final CharArrayWrapper %1$sWrapper = new CharArrayWrapper();\n", fieldName);
         final String enumDecoder = EnumGenerator.hasEnumGenerated(field) && !field.type().isMultiValue() ?
             String.format(
-            "%4$s" +
             "    public %1$s %2$sAsEnum()\n" +
             "    {\n" +
-            (!entry.required() ? "        if (!has%1$s)\n return %1$s.%5$s;\n" : "") +
-            (type.isStringBased() ? "        %2$sWrapper.wrap(%2$s(), %2$sLength);\n" : "") +
+            (!entry.required() ? "        if (!has%1$s)\n return %1$s.%4$s;\n" : "") +
             "        return %3$s;\n" +
             "    }\n\n",
             name,
             fieldName,
             enumValueDecoder,
-            enumStringBasedWrapperField,
             NULL_VAL_NAME
-        ) : field.type().isMultiValue() ? enumStringBasedWrapperField : "";
+        ) : "";
 
         final String lazyInitialisation = fieldLazyInstantialisation(field, fieldName);
 
@@ -1234,7 +1317,33 @@ public class DecoderGenerator extends Generator
         }
     }
 
-    private String decodeMethod(final List<Entry> entries, final Aggregate aggregate, final AggregateType type)
+    private String visitedFieldValidation(final boolean isGroup)
+    {
+        final String clearMissingField =
+            "                if (fieldIndex != NO_BIT_INDEX)\n" +
+            "                {\n" +
+            "                    clearBit(missingRequiredFields, fieldIndex);\n" +
+            "                }\n";
+
+        if (isGroup)
+        {
+            return "                final int fieldIndex = indexOfTag(tag);\n" + clearMissingField;
+        }
+
+        // Tags that aren't decoded at this level, eg: unknown fields, are rare so they fall back to a hash set
+        return
+            "                final int fieldIndex = indexOfTag(tag);\n" +
+            "                if (fieldIndex == NO_BIT_INDEX ?\n" +
+            "                    !alreadyVisitedFields.add(tag) : !setBit(visitedFields, fieldIndex))\n" +
+            "                {\n" +
+            "                    invalidTagId = tag;\n" +
+            "                    rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
+            "                }\n" +
+            clearMissingField;
+    }
+
+    private String decodeMethod(
+        final List<Entry> entries, final Aggregate aggregate, final AggregateType type, final String skippedFields)
     {
         final boolean hasCommonCompounds = type == MESSAGE;
         final boolean isGroup = type == GROUP;
@@ -1248,8 +1357,11 @@ public class DecoderGenerator extends Generator
             "        int seenFieldCount = 0;\n" +
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
-            "            missingRequiredFields.copy(" + REQUIRED_FIELDS + ");\n" +
-            (isGroup ? "" : "            alreadyVisitedFields.clear();\n") +
+            "            System.arraycopy(\n" +
+            "                requiredFieldBits, 0, missingRequiredFields, 0, requiredFieldBits.length);\n" +
+            (isGroup ? "" :
+            "            clearBits(visitedFields);\n" +
+            "            alreadyVisitedFields.clear();\n") +
             "        }\n" +
             "        this.buffer = buffer;\n" +
             "        final int end = offset + length;\n" +
@@ -1283,21 +1395,14 @@ public class DecoderGenerator extends Generator
             "                    rejectReason = " + TAG_SPECIFIED_WITHOUT_A_VALUE + ";\n" +
             "                }\n" +
             headerValidation(isHeader) +
-            (isGroup ? "" :
-            "                if (!alreadyVisitedFields.add(tag))\n" +
-            "                {\n" +
-            "                    invalidTagId = tag;\n" +
-            "                    rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
-            "                }\n") +
-
-            "                missingRequiredFields.remove(tag);\n" +
+            visitedFieldValidation(isGroup) +
             "                seenFieldCount++;\n" +
             "            }\n" +
             "            switch (tag)\n" +
             "            {\n\n";
         final String body = entries.stream()
             .map(this::decodeEntry)
-            .collect(joining("\n", "", "\n"));
+            .collect(joining("\n", "", "\n")) + skippedFields;
         final String suffix =
             "            default:\n" +
             "                if (!" + CODEC_REJECT_UNKNOWN_FIELD_ENABLED + ")\n" +
@@ -1333,6 +1438,36 @@ public class DecoderGenerator extends Generator
         return prefix + body + suffix;
     }
 
+    private String decodeSkippedFields(final ProjectedMessage projectedMessage)
+    {
+        // Skipped fields have their own cases so that they aren't mistaken for the end of the message, they're
+        // validated like any other field but nothing is stored. Fields of skipped groups can legitimately repeat.
+        final Set<String> seenNames = new HashSet<>();
+        extractFields(projectedMessage.message().entries()).forEach((field) -> seenNames.add(field.name()));
+
+        final String skippedFields = projectedMessage
+            .skippedFields()
+            .stream()
+            .filter((field) -> seenNames.add(field.name()))
+            .map((field) -> "            case Constants." + constantName(field.name()) + ":\n")
+            .collect(joining());
+
+        final String skippedRepeatingFields = projectedMessage
+            .skippedRepeatingFields()
+            .stream()
+            .filter((field) -> seenNames.add(field.name()))
+            .map((field) -> "            case Constants." + constantName(field.name()) + ":\n")
+            .collect(joining());
+
+        return (skippedFields.isEmpty() ? "" : skippedFields + "                break;\n\n") +
+            (skippedRepeatingFields.isEmpty() ? "" : skippedRepeatingFields +
+            "                if (" + CODEC_VALIDATION_ENABLED + ")\n" +
+            "                {\n" +
+            "                    alreadyVisitedFields.remove(tag);\n" +
+            "                }\n" +
+            "                break;\n\n");
+    }
+
     private String malformedMessageCheck()
     {
         return "            if (endOfField == AsciiBuffer.UNKNOWN_INDEX || " +
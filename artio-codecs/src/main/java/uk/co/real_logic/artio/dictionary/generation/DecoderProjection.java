@@ -0,0 +1,243 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import uk.co.real_logic.artio.dictionary.ir.Dictionary;
+import uk.co.real_logic.artio.dictionary.ir.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Lists the fields of each message that generated decoders should keep. Any other field of a projected message is
+ * skipped when it's decoded: its tag still counts for validation of required, duplicate and unknown fields, but its
+ * value isn't decoded or stored and the decoder has no getter for it.
+ *
+ * A projection file has a line per projected message, of the message's name followed by a colon and a comma
+ * separated list of field names, for example <code>ExecutionReport: OrderID, ExecID, ExecType, OrdStatus</code>.
+ * Blank lines and lines starting with <code>#</code> are ignored. Messages that aren't listed are decoded in full.
+ *
+ * Components and repeating groups are kept whole if any of their fields are kept, since component decoders are
+ * interfaces shared between messages. Data fields keep the length field that precedes them. Header and trailer
+ * fields are always decoded.
+ */
+public final class DecoderProjection
+{
+    public static final DecoderProjection NONE = new DecoderProjection(Collections.emptyMap());
+
+    private static final String COMMENT = "#";
+
+    private final Map<String, Set<String>> messageToFields;
+
+    public DecoderProjection(final Map<String, Set<String>> messageToFields)
+    {
+        this.messageToFields = messageToFields;
+    }
+
+    public static DecoderProjection load(final File file, final Dictionary dictionary) throws IOException
+    {
+        return parse(Files.readAllLines(file.toPath(), US_ASCII), dictionary);
+    }
+
+    public static DecoderProjection parse(final List<String> lines, final Dictionary dictionary)
+    {
+        final Map<String, Set<String>> messageToFields = new HashMap<>();
+        for (final String rawLine : lines)
+        {
+            final String line = rawLine.trim();
+            if (line.isEmpty() || line.startsWith(COMMENT))
+            {
+                continue;
+            }
+
+            final int colon = line.indexOf(':');
+            if (colon == -1)
+            {
+                throw new IllegalArgumentException("Expected <Message>: <Field>, ... but was: " + line);
+            }
+
+            final String messageName = line.substring(0, colon).trim();
+            final Message message = dictionary.messages().stream()
+                .filter((msg) -> msg.name().equals(messageName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown message in projection: " + messageName));
+
+            final Set<String> fields = messageToFields.computeIfAbsent(messageName, (name) -> new HashSet<>());
+            for (final String rawFieldName : line.substring(colon + 1).split(","))
+            {
+                final String fieldName = rawFieldName.trim();
+                if (fieldName.isEmpty())
+                {
+                    continue;
+                }
+
+                if (allFields(message.entries()).noneMatch((field) -> field.name().equals(fieldName)))
+                {
+                    throw new IllegalArgumentException(String.format(
+                        "Field %s in projection isn't part of message %s", fieldName, messageName));
+                }
+                fields.add(fieldName);
+            }
+        }
+
+        return new DecoderProjection(messageToFields);
+    }
+
+    public boolean projects(final Message message)
+    {
+        return messageToFields.containsKey(message.name());
+    }
+
+    /**
+     * Project a message onto the fields that are kept.
+     *
+     * @param message the message to project.
+     * @return the projection of the message, which is the message itself if it isn't projected.
+     */
+    public ProjectedMessage project(final Message message)
+    {
+        final Set<String> keptFieldNames = messageToFields.get(message.name());
+        if (keptFieldNames == null)
+        {
+            return new ProjectedMessage(message, Collections.emptyList(), Collections.emptyList());
+        }
+
+        final Set<String> fieldNames = new HashSet<>(keptFieldNames);
+        allFields(message.entries())
+            .filter((field) -> fieldNames.contains(field.name()))
+            .map(Field::associatedLengthField)
+            .filter(Objects::nonNull)
+            .forEach((lengthField) -> fieldNames.add(lengthField.name()));
+
+        final Message projected = new Message(message.name(), message.fullType(), message.category());
+        final List<Field> skippedFields = new ArrayList<>();
+        final List<Field> skippedRepeatingFields = new ArrayList<>();
+        project(message.entries(), fieldNames, projected.entries(), skippedFields, skippedRepeatingFields);
+
+        return new ProjectedMessage(projected, skippedFields, skippedRepeatingFields);
+    }
+
+    private static void project(
+        final List<Entry> entries,
+        final Set<String> fieldNames,
+        final List<Entry> keptEntries,
+        final List<Field> skippedFields,
+        final List<Field> skippedRepeatingFields)
+    {
+        for (final Entry entry : entries)
+        {
+            final Entry.Element element = entry.element();
+            if (element instanceof Field)
+            {
+                if (fieldNames.contains(element.name()))
+                {
+                    keptEntries.add(entry);
+                }
+                else
+                {
+                    skippedFields.add((Field)element);
+                }
+            }
+            else if (element instanceof Group)
+            {
+                final Group group = (Group)element;
+                final Field numberField = (Field)group.numberField().element();
+                if (fieldNames.contains(numberField.name()) ||
+                    allFields(group.entries()).anyMatch((field) -> fieldNames.contains(field.name())))
+                {
+                    keptEntries.add(entry);
+                }
+                else
+                {
+                    skippedFields.add(numberField);
+                    allFields(group.entries()).forEach(skippedRepeatingFields::add);
+                }
+            }
+            else
+            {
+                final Component component = (Component)element;
+                if (allFields(component.entries()).anyMatch((field) -> fieldNames.contains(field.name())))
+                {
+                    keptEntries.add(entry);
+                }
+                else
+                {
+                    project(component.entries(), Collections.emptySet(), new ArrayList<>(), skippedFields,
+                        skippedRepeatingFields);
+                }
+            }
+        }
+    }
+
+    private static Stream<Field> allFields(final List<Entry> entries)
+    {
+        return entries.stream().flatMap(
+            (entry) -> entry.match(
+                (e, field) -> Stream.of(field),
+                (e, group) -> Stream.concat(
+                    Stream.of((Field)group.numberField().element()), allFields(group.entries())),
+                (e, component) -> allFields(component.entries())));
+    }
+
+    /**
+     * A message with only the entries that are kept, along with the fields that are skipped.
+     */
+    public static final class ProjectedMessage
+    {
+        private final Message message;
+        private final List<Field> skippedFields;
+        private final List<Field> skippedRepeatingFields;
+
+        ProjectedMessage(
+            final Message message, final List<Field> skippedFields, final List<Field> skippedRepeatingFields)
+        {
+            this.message = message;
+            this.skippedFields = skippedFields;
+            this.skippedRepeatingFields = skippedRepeatingFields;
+        }
+
+        public Message message()
+        {
+            return message;
+        }
+
+        /**
+         * Gets the skipped fields that can appear once in the message, including the number fields of skipped
+         * repeating groups.
+         *
+         * @return the skipped fields that can appear once in the message.
+         */
+        public List<Field> skippedFields()
+        {
+            return skippedFields;
+        }
+
+        /**
+         * Gets the fields within skipped repeating groups, which can appear more than once in the message.
+         *
+         * @return the fields within skipped repeating groups.
+         */
+        public List<Field> skippedRepeatingFields()
+        {
+            return skippedRepeatingFields;
+        }
+    }
+}
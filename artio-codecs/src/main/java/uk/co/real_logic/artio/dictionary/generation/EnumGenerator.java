@@ -21,7 +21,6 @@ import org.agrona.generation.OutputManager;
 import uk.co.real_logic.artio.builder.CharRepresentable;
 import uk.co.real_logic.artio.builder.IntRepresentable;
 import uk.co.real_logic.artio.builder.StringRepresentable;
-import uk.co.real_logic.artio.dictionary.CharArrayMap;
 import uk.co.real_logic.artio.dictionary.CharArrayWrapper;
 import uk.co.real_logic.artio.dictionary.ir.Dictionary;
 import uk.co.real_logic.artio.dictionary.ir.Field;
@@ -30,9 +29,9 @@ import uk.co.real_logic.artio.dictionary.ir.Field.Value;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.joining;
@@ -126,11 +125,8 @@ public final class EnumGenerator
             try
             {
                 out.append(fileHeader(builderPackage));
-                out.append(importFor(CharArrayMap.class));
                 out.append(importFor(CharArrayWrapper.class));
                 out.append(importFor(IntHashSet.class));
-                out.append(importFor(Map.class));
-                out.append(importFor(HashMap.class));
                 out.append(interfaceToImport);
                 out.append(generateEnumDeclaration(enumName, interfaceToImplement));
 
@@ -229,10 +225,17 @@ public final class EnumGenerator
             case MULTIPLESTRINGVALUE:
             case MULTIPLECHARVALUE:
             case STRING:
-                return "    public static boolean isValid(final CharArrayWrapper key)\n" +
-                       "    {\n" +
-                       "        return charMap.containsKey(key);\n" +
-                       "    }\n";
+                return format(
+                    "    public static boolean isValid(final CharArrayWrapper key)\n" +
+                    "    {\n" +
+                    "        return isValid(key.values(), key.offset(), key.length());\n" +
+                    "    }\n" +
+                    "\n" +
+                    "    public static boolean isValid(final char[] value, final int offset, final int length)\n" +
+                    "    {\n" +
+                    "        return decode(value, offset, length) != %1$s;\n" +
+                    "    }\n",
+                    UNKNOWN_NAME);
             default:
                 final String primitiveValues = allValues
                     .stream()
@@ -262,31 +265,39 @@ public final class EnumGenerator
             case MULTIPLESTRINGVALUE:
             case MULTIPLECHARVALUE:
 
-                final String entries = allValues
-                    .stream()
-                    .map((v) -> format("        stringMap.put(%s, %s);\n", literal(v, type), v.description()))
-                    .collect(joining());
+                // Values are distinguished by their length and then a character at a time, so a lookup is a few
+                // switches on primitives rather than hashing the characters.
+                final Map<Integer, List<Value>> valuesByLength = new TreeMap<>();
+                allValues.forEach((value) -> valuesByLength
+                    .computeIfAbsent(value.representation().length(), (length) -> new ArrayList<>())
+                    .add(value));
+
+                final StringBuilder lengthCases = new StringBuilder();
+                valuesByLength.forEach((length, values) ->
+                {
+                    lengthCases.append(format("        case %d:\n", length));
+                    if (charDecision(values, 0, 3, lengthCases))
+                    {
+                        lengthCases.append("            break;\n");
+                    }
+                });
 
                 return format(
-                    "    private static final CharArrayMap<%1$s> charMap;\n" +
-                    "    static\n" +
+                    "    public static %1$s decode(final CharArrayWrapper key)\n" +
                     "    {\n" +
-                    "        final Map<String, %1$s> stringMap = new HashMap<>();\n" +
-                    "%2$s" +
-                    "        charMap = new CharArrayMap<>(stringMap);\n" +
+                    "        return decode(key.values(), key.offset(), key.length());\n" +
                     "    }\n" +
                     "\n" +
-                    "    public static %1$s decode(final CharArrayWrapper key)\n" +
+                    "    public static %1$s decode(final char[] value, final int offset, final int length)\n" +
                     "    {\n" +
-                            "        final %1$s value = charMap.get(key);\n" +
-                            "        if (value == null)\n" +
-                            "        {\n" +
-                            "            return %3$s;\n" +
-                            "        }\n" +
-                            "        return value;\n" +
+                    "        switch (length)\n" +
+                    "        {\n" +
+                    "%2$s" +
+                    "        }\n" +
+                    "        return %3$s;\n" +
                     "    }\n",
                     typeName,
-                    entries,
+                    lengthCases,
                     UNKNOWN_NAME);
 
             default:
@@ -294,6 +305,73 @@ public final class EnumGenerator
         }
     }
 
+    // returns true if the generated code can complete without returning a value
+    private boolean charDecision(
+        final List<Value> values, final int position, final int indent, final StringBuilder out)
+    {
+        final String representation = values.get(0).representation();
+        final int length = representation.length();
+        if (position == length)
+        {
+            // Any values left have the same representation, the last one defined wins
+            out.append(indent(indent, "return " + values.get(values.size() - 1).description() + ";\n"));
+            return false;
+        }
+
+        if (values.size() == 1)
+        {
+            final StringBuilder condition = new StringBuilder();
+            for (int i = position; i < length; i++)
+            {
+                if (i > position)
+                {
+                    condition.append(" && ");
+                }
+                condition.append(format("value[offset + %d] == %s", i, charLiteral(representation.charAt(i))));
+            }
+
+            out.append(indent(indent, "if (" + condition + ")\n"));
+            out.append(indent(indent, "{\n"));
+            out.append(indent(indent + 1, "return " + values.get(0).description() + ";\n"));
+            out.append(indent(indent, "}\n"));
+            return true;
+        }
+
+        final Map<Character, List<Value>> valuesByChar = new TreeMap<>();
+        values.forEach((value) -> valuesByChar
+            .computeIfAbsent(value.representation().charAt(position), (c) -> new ArrayList<>())
+            .add(value));
+
+        out.append(indent(indent, format("switch (value[offset + %d])\n", position)));
+        out.append(indent(indent, "{\n"));
+        valuesByChar.forEach((c, valuesWithChar) ->
+        {
+            out.append(indent(indent, "case " + charLiteral(c) + ":\n"));
+            if (charDecision(valuesWithChar, position + 1, indent + 1, out))
+            {
+                out.append(indent(indent + 1, "break;\n"));
+            }
+        });
+        out.append(indent(indent, "}\n"));
+        return true;
+    }
+
+    private static String indent(final int times, final String suffix)
+    {
+        final StringBuilder indented = new StringBuilder();
+        for (int i = 0; i < times; i++)
+        {
+            indented.append(INDENT);
+        }
+
+        return indented.append(suffix).toString();
+    }
+
+    private static String charLiteral(final char value)
+    {
+        return value == '\'' || value == '\\' ? "'\\" + value + "'" : "'" + value + "'";
+    }
+
     private boolean hasGeneratedValueOf(final Type type)
     {
         switch (type)
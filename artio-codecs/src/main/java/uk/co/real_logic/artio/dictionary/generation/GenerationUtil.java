@@ -31,6 +31,7 @@ public final class GenerationUtil
     public static final String PARENT_PACKAGE =
         System.getProperty("fix.codecs.parent_package", "uk.co.real_logic.artio");
     public static final boolean FLYWEIGHTS_ENABLED = Boolean.getBoolean("fix.codecs.flyweight");
+    public static final String DECODER_PROJECTION_FILE = System.getProperty("fix.codecs.projection");
     public static final Optional<Boolean> HARD_CODED_REJECT_UNKNOWN_EMUM_VALUES =
         Optional.ofNullable(System.getProperty("reject.unknown.enum.value"))
         .map(Boolean::parseBoolean);
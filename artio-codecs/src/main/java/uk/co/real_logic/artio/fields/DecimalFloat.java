@@ -455,10 +455,37 @@ public final class DecimalFloat implements Comparable<DecimalFloat>
     {
         this.value = value;
         this.scale = scale;
-        normalise();
+        if (!normalise())
+        {
+            throw new ArithmeticException("Out of range: value: " + this.value + ", scale: " + this.scale);
+        }
+    }
+
+    /**
+     * Sets the value of the DecimalFloat without throwing an exception if it's out of range.
+     *
+     * @param value the value to set
+     * @param scale the number of digits after the decimal point
+     * @return true if the value was set, false if it's out of range, in which case this is unchanged.
+     */
+    public boolean trySet(final long value, final int scale)
+    {
+        final long oldValue = this.value;
+        final int oldScale = this.scale;
+        this.value = value;
+        this.scale = scale;
+        if (!normalise())
+        {
+            this.value = oldValue;
+            this.scale = oldScale;
+            return false;
+        }
+
+        return true;
     }
 
-    private void normalise()
+    // Returns false if the value is out of range, leaving it unnormalised.
+    private boolean normalise()
     {
         long value = this.value;
         int scale = this.scale;
@@ -485,10 +512,11 @@ public final class DecimalFloat implements Comparable<DecimalFloat>
         if (isOutsideLimits(scale, SCALE_MIN_VAL, SCALE_MAX_VAL) ||
             isOutsideLimits(value, VALUE_MIN_VAL, VALUE_MAX_VAL))
         {
-            throw new ArithmeticException("Out of range: value: " + this.value + ", scale: " + this.scale);
+            return false;
         }
         this.value = value;
         this.scale = scale;
+        return true;
     }
 
     private static double toDouble(final long value, final int scale)
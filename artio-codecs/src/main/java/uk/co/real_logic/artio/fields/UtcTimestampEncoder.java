@@ -43,17 +43,25 @@ public final class UtcTimestampEncoder
 
     private static final int LENGTH_OF_DATE = 8;
     private static final int LENGTH_OF_DATE_AND_DASH = LENGTH_OF_DATE + 1;
-
-    private static final int MILLISECONDS_EPOCH_FRACTION = EpochFractionFormat.MILLISECONDS.ordinal();
-    private static final int MICROSECONDS_EPOCH_FRACTION = EpochFractionFormat.MICROSECONDS.ordinal();
-
-    private final int epochFractionPrecision;
+    // The date, time and '.' before the fractional digits, ie: yyyyMMdd-HH:mm:ss.
+    private static final int LENGTH_OF_SECOND_PREFIX = LENGTH_WITHOUT_MILLISECONDS + 1;
+    private static final long NO_CACHED_SECOND = Long.MIN_VALUE;
+
+    private final long minEpochFraction;
+    private final long maxEpochFraction;
+    private final long fractionInSecond;
+    private final long fractionInDay;
+    private final int fractionFieldLength;
+    private final int lengthWithFraction;
     private final byte[] bytes;
     private final MutableAsciiBuffer flyweight;
 
     private long startOfNextDayInFraction;
     private long beginningOfDayInFraction;
 
+    // The second since the UNIX Epoch whose date and time prefix is currently encoded in the flyweight.
+    private long cachedSecond = NO_CACHED_SECOND;
+
     public UtcTimestampEncoder()
     {
         this(EpochFractionFormat.MILLISECONDS);
@@ -85,29 +93,47 @@ public final class UtcTimestampEncoder
      */
     public UtcTimestampEncoder(final EpochFractionFormat epochFractionPrecision)
     {
-        this.epochFractionPrecision = epochFractionPrecision.ordinal();
         switch (epochFractionPrecision)
         {
             case NANOSECONDS:
-                bytes = new byte[LENGTH_WITH_NANOSECONDS];
+                minEpochFraction = MIN_EPOCH_NANOS;
+                maxEpochFraction = MAX_EPOCH_NANOS;
+                fractionInSecond = NANOS_IN_SECOND;
+                fractionInDay = NANOS_IN_DAY;
+                fractionFieldLength = NANOS_FIELD_LENGTH;
+                lengthWithFraction = LENGTH_WITH_NANOSECONDS;
                 break;
 
             case MICROSECONDS:
-                bytes = new byte[LENGTH_WITH_MICROSECONDS];
+                minEpochFraction = MIN_EPOCH_MICROS;
+                maxEpochFraction = MAX_EPOCH_MICROS;
+                fractionInSecond = MICROS_IN_SECOND;
+                fractionInDay = MICROS_IN_DAY;
+                fractionFieldLength = MICROS_FIELD_LENGTH;
+                lengthWithFraction = LENGTH_WITH_MICROSECONDS;
                 break;
 
             case MILLISECONDS:
-                bytes = new byte[LENGTH_WITH_MILLISECONDS];
+                minEpochFraction = MIN_EPOCH_MILLIS;
+                maxEpochFraction = MAX_EPOCH_MILLIS;
+                fractionInSecond = MILLIS_IN_SECOND;
+                fractionInDay = MILLIS_IN_DAY;
+                fractionFieldLength = MILLIS_FIELD_LENGTH;
+                lengthWithFraction = LENGTH_WITH_MILLISECONDS;
                 break;
 
             default:
                 throw new RuntimeException("Unknown precision: " + epochFractionPrecision);
         }
+        bytes = new byte[lengthWithFraction];
         flyweight = new MutableAsciiBuffer(bytes);
     }
 
     /**
-     * Encode the current time into the buffer as an ascii UTC String
+     * Encode the current time into the buffer as an ascii UTC String.
+     *
+     * The date and time up to the second are cached, so encoding a time within the same second as the previously
+     * encoded time only rewrites the fractional digits.
      *
      * @param epochFraction the current time as the number of milliseconds, microseconds or nanoseconds since the
      *                      start of the UNIX Epoch. The unit of this parameter should align with the constructor
@@ -116,59 +142,13 @@ public final class UtcTimestampEncoder
      */
     public int encode(final long epochFraction)
     {
-        final int epochFractionPrecision = this.epochFractionPrecision;
-        if (epochFractionPrecision == MILLISECONDS_EPOCH_FRACTION)
-        {
-            return encode(epochFraction, flyweight, 0);
-        }
-        else if (epochFractionPrecision == MICROSECONDS_EPOCH_FRACTION)
-        {
-            return encodeMicros(epochFraction, flyweight, 0);
-        }
-        else /*(epochFractionPrecision == NANOSECONDS_EPOCH_FRACTION)*/
-        {
-            return encodeNanos(epochFraction, flyweight, 0);
-        }
+        encodeWithCachedSecond(epochFraction);
+
+        return lengthWithFraction;
     }
 
     public int initialise(final long epochFraction)
     {
-        final long minEpochFraction;
-        final long maxEpochFraction;
-        final long fractionInSecond;
-        final long fractionInDay;
-        final int fractionFieldLength;
-        final int lengthWithFraction;
-
-        final int epochFractionPrecision = this.epochFractionPrecision;
-        if (epochFractionPrecision == MILLISECONDS_EPOCH_FRACTION)
-        {
-            minEpochFraction = MIN_EPOCH_MILLIS;
-            maxEpochFraction = MAX_EPOCH_MILLIS;
-            fractionInSecond = MILLIS_IN_SECOND;
-            fractionInDay = MILLIS_IN_DAY;
-            fractionFieldLength = MILLIS_FIELD_LENGTH;
-            lengthWithFraction = LENGTH_WITH_MILLISECONDS;
-        }
-        else if (epochFractionPrecision == MICROSECONDS_EPOCH_FRACTION)
-        {
-            minEpochFraction = MIN_EPOCH_MICROS;
-            maxEpochFraction = MAX_EPOCH_MICROS;
-            fractionInSecond = MICROS_IN_SECOND;
-            fractionInDay = MICROS_IN_DAY;
-            fractionFieldLength = MICROS_FIELD_LENGTH;
-            lengthWithFraction = LENGTH_WITH_MICROSECONDS;
-        }
-        else /*(epochFractionPrecision == NANOSECONDS_EPOCH_FRACTION)*/
-        {
-            minEpochFraction = MIN_EPOCH_NANOS;
-            maxEpochFraction = MAX_EPOCH_NANOS;
-            fractionInSecond = NANOS_IN_SECOND;
-            fractionInDay = NANOS_IN_DAY;
-            fractionFieldLength = NANOS_FIELD_LENGTH;
-            lengthWithFraction = LENGTH_WITH_NANOSECONDS;
-        }
-
         validate(epochFraction, minEpochFraction, maxEpochFraction);
 
         final long localSecond = localSecond(epochFraction, fractionInSecond);
@@ -182,6 +162,7 @@ public final class UtcTimestampEncoder
         flyweight.putChar(LENGTH_OF_DATE, '-');
         UtcTimeOnlyEncoder.encodeFraction(
             localSecond, fractionOfSecond, flyweight, LENGTH_OF_DATE_AND_DASH, fractionFieldLength);
+        cachedSecond = localSecond;
 
         return fractionOfSecond > 0 ? lengthWithFraction : LENGTH_WITHOUT_MILLISECONDS;
     }
@@ -201,37 +182,33 @@ public final class UtcTimestampEncoder
             return initialise(epochFraction);
         }
 
-        final long fractionInSecond;
-        final int fractionFieldLength;
-        final int lengthWithFraction;
+        final int fractionOfSecond = encodeWithCachedSecond(epochFraction);
 
-        final int epochFractionPrecision = this.epochFractionPrecision;
-        if (epochFractionPrecision == MILLISECONDS_EPOCH_FRACTION)
-        {
-            fractionInSecond = MILLIS_IN_SECOND;
-            fractionFieldLength = MILLIS_FIELD_LENGTH;
-            lengthWithFraction = LENGTH_WITH_MILLISECONDS;
-        }
-        else if (epochFractionPrecision == MICROSECONDS_EPOCH_FRACTION)
-        {
-            fractionInSecond = MICROS_IN_SECOND;
-            fractionFieldLength = MICROS_FIELD_LENGTH;
-            lengthWithFraction = LENGTH_WITH_MICROSECONDS;
-        }
-        else /*(epochFractionPrecision == NANOSECONDS_EPOCH_FRACTION)*/
-        {
-            fractionInSecond = NANOS_IN_SECOND;
-            fractionFieldLength = NANOS_FIELD_LENGTH;
-            lengthWithFraction = LENGTH_WITH_NANOSECONDS;
-        }
+        return fractionOfSecond > 0 ? lengthWithFraction : LENGTH_WITHOUT_MILLISECONDS;
+    }
 
+    private int encodeWithCachedSecond(final long epochFraction)
+    {
         final long localSecond = localSecond(epochFraction, fractionInSecond);
         final int fractionOfSecond = fractionOfSecond(epochFraction, fractionInSecond);
 
-        UtcTimeOnlyEncoder.encodeFraction(
-            localSecond, fractionOfSecond, flyweight, LENGTH_OF_DATE_AND_DASH, fractionFieldLength);
+        // The valid ranges start and end on second boundaries, so a time within an already encoded second is valid.
+        if (localSecond == cachedSecond)
+        {
+            flyweight.putNaturalPaddedIntAscii(LENGTH_OF_SECOND_PREFIX, fractionFieldLength, fractionOfSecond);
+        }
+        else
+        {
+            validate(epochFraction, minEpochFraction, maxEpochFraction);
 
-        return fractionOfSecond > 0 ? lengthWithFraction : LENGTH_WITHOUT_MILLISECONDS;
+            encodeDate(epochDay(localSecond), flyweight, 0);
+            flyweight.putChar(LENGTH_OF_DATE, '-');
+            UtcTimeOnlyEncoder.encodeFraction(
+                localSecond, fractionOfSecond, flyweight, LENGTH_OF_DATE_AND_DASH, fractionFieldLength);
+            cachedSecond = localSecond;
+        }
+
+        return fractionOfSecond;
     }
 
     public byte[] buffer()
@@ -0,0 +1,477 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.otf;
+
+import org.agrona.BitUtil;
+import org.agrona.collections.Hashing;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+
+import java.util.Arrays;
+
+import static uk.co.real_logic.artio.dictionary.SessionConstants.START_OF_HEADER;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Zero allocation index of the fields of a fix message, for reading arbitrary tags without a generated decoder.
+ *
+ * A message is tokenised once by {@link #index(AsciiBuffer, int, int)} into the tag, value offset and value length
+ * of each field, in the order that they appear. The first field with a tag can then be found in constant time with
+ * {@link #find(int)} and later fields with the same tag, eg: in repeating groups, with {@link #findNext(int)}.
+ * Fields are referred to by their position within the message, starting at 0.
+ *
+ * Repeating groups are found without a dictionary: each element of a group starts with the same tag, the one after
+ * the group's number of elements field. The last element of a group has no such delimiter after it, so lookups in it
+ * can return fields from after the end of the group.
+ *
+ * Arrays are only allocated when a message has more fields than any previously indexed message.
+ */
+public final class TagIndex
+{
+    public static final int MISSING = -1;
+
+    private static final int DEFAULT_FIELD_CAPACITY = 64;
+    private static final int EMPTY = 0;
+
+    private AsciiBuffer buffer;
+    private int fieldCount;
+
+    private int[] tags;
+    private int[] valueOffsets;
+    private int[] valueLengths;
+    private int[] nextFieldWithTag;
+
+    // Open addressed from tag to the first and last field with that tag, slots are occupied in the current generation
+    private int[] slotTags;
+    private int[] slotFirstFields;
+    private int[] slotLastFields;
+    private int[] slotGenerations;
+    private int slotMask;
+    private int generation;
+
+    public TagIndex()
+    {
+        this(DEFAULT_FIELD_CAPACITY);
+    }
+
+    public TagIndex(final int initialFieldCapacity)
+    {
+        allocate(BitUtil.findNextPositivePowerOfTwo(Math.max(initialFieldCapacity, 1)));
+    }
+
+    /**
+     * Index the fields of a message, replacing any previously indexed message.
+     *
+     * @param buffer the buffer containing the message.
+     * @param offset the offset of the start of the message within the buffer.
+     * @param length the length of the message.
+     * @return true if the whole message was indexed, false if it's malformed in which case only the fields before
+     * the malformed one are indexed.
+     */
+    public boolean index(final AsciiBuffer buffer, final int offset, final int length)
+    {
+        this.buffer = buffer;
+        fieldCount = 0;
+        nextGeneration();
+
+        final int end = offset + length;
+        int position = offset;
+        while (position < end)
+        {
+            final int equalsPosition = buffer.scan(position, end - 1, '=');
+            if (equalsPosition == UNKNOWN_INDEX)
+            {
+                return false;
+            }
+
+            final int valueOffset = equalsPosition + 1;
+            final int endOfField = buffer.scan(valueOffset, end - 1, START_OF_HEADER);
+            if (endOfField == UNKNOWN_INDEX)
+            {
+                return false;
+            }
+
+            final int tag;
+            try
+            {
+                tag = buffer.getNatural(position, equalsPosition);
+            }
+            catch (final NumberFormatException ex)
+            {
+                return false;
+            }
+
+            if (tag <= 0)
+            {
+                return false;
+            }
+
+            addField(tag, valueOffset, endOfField - valueOffset);
+            position = endOfField + 1;
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the number of fields in the indexed message.
+     *
+     * @return the number of fields in the indexed message.
+     */
+    public int fieldCount()
+    {
+        return fieldCount;
+    }
+
+    /**
+     * Gets the buffer of the indexed message, that value offsets refer to.
+     *
+     * @return the buffer of the indexed message.
+     */
+    public AsciiBuffer buffer()
+    {
+        return buffer;
+    }
+
+    /**
+     * Find the first field with a tag.
+     *
+     * @param tag the tag to find.
+     * @return the position of the field within the message or {@link #MISSING} if there's no field with this tag.
+     */
+    public int find(final int tag)
+    {
+        final int slot = slotOf(tag);
+        return slot == MISSING ? MISSING : slotFirstFields[slot];
+    }
+
+    /**
+     * Find the next field with the same tag as a field.
+     *
+     * @param field the position of a field within the message.
+     * @return the position of the next field with the same tag or {@link #MISSING} if there's none.
+     */
+    public int findNext(final int field)
+    {
+        return nextFieldWithTag[field];
+    }
+
+    /**
+     * Find the first field with a tag at a position within a range.
+     *
+     * @param tag the tag to find.
+     * @param fromField the position to find it from, inclusive.
+     * @param toField the position to find it before, exclusive.
+     * @return the position of the field within the message or {@link #MISSING} if there's none within the range.
+     */
+    public int find(final int tag, final int fromField, final int toField)
+    {
+        for (int field = find(tag); field != MISSING && field < toField; field = nextFieldWithTag[field])
+        {
+            if (field >= fromField)
+            {
+                return field;
+            }
+        }
+
+        return MISSING;
+    }
+
+    public boolean contains(final int tag)
+    {
+        return slotOf(tag) != MISSING;
+    }
+
+    /**
+     * Gets the number of elements of a repeating group, from its number of elements field.
+     *
+     * @param groupTag the tag of the group's number of elements field.
+     * @return the number of elements in the group, or 0 if the group isn't in the message.
+     */
+    public int groupSize(final int groupTag)
+    {
+        final int field = find(groupTag);
+        return field == MISSING ? 0 : getInt(field);
+    }
+
+    /**
+     * Find the first field of an element of a repeating group.
+     *
+     * @param groupTag the tag of the group's number of elements field.
+     * @param elementIndex the index of the element within the group, starting at 0.
+     * @return the position of the first field of the element or {@link #MISSING} if there's no such element.
+     */
+    public int findGroupElement(final int groupTag, final int elementIndex)
+    {
+        final int groupField = find(groupTag);
+        if (groupField == MISSING || elementIndex < 0 || elementIndex >= getInt(groupField))
+        {
+            return MISSING;
+        }
+
+        final int firstField = groupField + 1;
+        if (firstField >= fieldCount)
+        {
+            return MISSING;
+        }
+
+        int field = firstField;
+        for (int i = 0; i < elementIndex && field != MISSING; i++)
+        {
+            field = nextFieldWithTag[field];
+        }
+
+        return field;
+    }
+
+    /**
+     * Find a field within an element of a repeating group.
+     *
+     * @param groupTag the tag of the group's number of elements field.
+     * @param elementIndex the index of the element within the group, starting at 0.
+     * @param tag the tag to find.
+     * @return the position of the field or {@link #MISSING} if it's not within the element.
+     */
+    public int findInGroupElement(final int groupTag, final int elementIndex, final int tag)
+    {
+        final int elementField = findGroupElement(groupTag, elementIndex);
+        if (elementField == MISSING)
+        {
+            return MISSING;
+        }
+
+        final int nextElementField = nextFieldWithTag[elementField];
+        final int endField = elementIndex + 1 < groupSize(groupTag) && nextElementField != MISSING ?
+            nextElementField : fieldCount;
+
+        return find(tag, elementField, endField);
+    }
+
+    public int tag(final int field)
+    {
+        return tags[field];
+    }
+
+    public int valueOffset(final int field)
+    {
+        return valueOffsets[field];
+    }
+
+    public int valueLength(final int field)
+    {
+        return valueLengths[field];
+    }
+
+    public int getInt(final int field)
+    {
+        final int valueOffset = valueOffsets[field];
+        return buffer.getInt(valueOffset, valueOffset + valueLengths[field]);
+    }
+
+    public long getLong(final int field)
+    {
+        final int valueOffset = valueOffsets[field];
+        return buffer.getNaturalLong(valueOffset, valueOffset + valueLengths[field]);
+    }
+
+    public char getChar(final int field)
+    {
+        return buffer.getChar(valueOffsets[field]);
+    }
+
+    public String getAscii(final int field)
+    {
+        return buffer.getAscii(valueOffsets[field], valueLengths[field]);
+    }
+
+    /**
+     * Checks whether the value of a field is equal to some characters, without allocating.
+     *
+     * @param field the position of the field within the message.
+     * @param value the expected value.
+     * @return true if the value of the field is equal to the expected value.
+     */
+    public boolean valueEquals(final int field, final CharSequence value)
+    {
+        final int valueLength = valueLengths[field];
+        if (valueLength != value.length())
+        {
+            return false;
+        }
+
+        final AsciiBuffer buffer = this.buffer;
+        final int valueOffset = valueOffsets[field];
+        for (int i = 0; i < valueLength; i++)
+        {
+            if (buffer.getByte(valueOffset + i) != value.charAt(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether the value of a field is equal to some ascii encoded bytes, without allocating.
+     *
+     * @param field the position of the field within the message.
+     * @param value the expected value.
+     * @return true if the value of the field is equal to the expected value.
+     */
+    public boolean valueEquals(final int field, final byte[] value)
+    {
+        return valueLengths[field] == value.length && valueStartsWith(field, value);
+    }
+
+    /**
+     * Checks whether the value of a field starts with some ascii encoded bytes, without allocating.
+     *
+     * @param field the position of the field within the message.
+     * @param prefix the expected start of the value.
+     * @return true if the value of the field starts with the prefix.
+     */
+    public boolean valueStartsWith(final int field, final byte[] prefix)
+    {
+        final int prefixLength = prefix.length;
+        if (valueLengths[field] < prefixLength)
+        {
+            return false;
+        }
+
+        final AsciiBuffer buffer = this.buffer;
+        final int valueOffset = valueOffsets[field];
+        for (int i = 0; i < prefixLength; i++)
+        {
+            if (buffer.getByte(valueOffset + i) != prefix[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void addField(final int tag, final int valueOffset, final int valueLength)
+    {
+        final int field = fieldCount;
+        if (field == tags.length)
+        {
+            grow();
+        }
+
+        tags[field] = tag;
+        valueOffsets[field] = valueOffset;
+        valueLengths[field] = valueLength;
+        nextFieldWithTag[field] = MISSING;
+        fieldCount = field + 1;
+
+        putSlot(tag, field);
+    }
+
+    private void putSlot(final int tag, final int field)
+    {
+        final int[] slotTags = this.slotTags;
+        final int[] slotGenerations = this.slotGenerations;
+        final int generation = this.generation;
+        final int mask = slotMask;
+
+        int slot = Hashing.hash(tag, mask);
+        while (slotGenerations[slot] == generation)
+        {
+            if (slotTags[slot] == tag)
+            {
+                nextFieldWithTag[slotLastFields[slot]] = field;
+                slotLastFields[slot] = field;
+                return;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        slotTags[slot] = tag;
+        slotFirstFields[slot] = field;
+        slotLastFields[slot] = field;
+        slotGenerations[slot] = generation;
+    }
+
+    private int slotOf(final int tag)
+    {
+        final int[] slotTags = this.slotTags;
+        final int[] slotGenerations = this.slotGenerations;
+        final int generation = this.generation;
+        final int mask = slotMask;
+
+        int slot = Hashing.hash(tag, mask);
+        while (slotGenerations[slot] == generation)
+        {
+            if (slotTags[slot] == tag)
+            {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return MISSING;
+    }
+
+    private void nextGeneration()
+    {
+        generation++;
+        if (generation == EMPTY)
+        {
+            Arrays.fill(slotGenerations, EMPTY);
+            generation++;
+        }
+    }
+
+    private void grow()
+    {
+        final int fieldCount = this.fieldCount;
+        final int[] oldTags = tags;
+        final int[] oldValueOffsets = valueOffsets;
+        final int[] oldValueLengths = valueLengths;
+
+        allocate(oldTags.length * 2);
+
+        System.arraycopy(oldValueOffsets, 0, valueOffsets, 0, fieldCount);
+        System.arraycopy(oldValueLengths, 0, valueLengths, 0, fieldCount);
+        for (int field = 0; field < fieldCount; field++)
+        {
+            final int tag = oldTags[field];
+            tags[field] = tag;
+            nextFieldWithTag[field] = MISSING;
+            putSlot(tag, field);
+        }
+    }
+
+    private void allocate(final int fieldCapacity)
+    {
+        tags = new int[fieldCapacity];
+        valueOffsets = new int[fieldCapacity];
+        valueLengths = new int[fieldCapacity];
+        nextFieldWithTag = new int[fieldCapacity];
+
+        // Keep the table at most half full so that probe sequences stay short
+        final int slotCapacity = fieldCapacity * 2;
+        slotTags = new int[slotCapacity];
+        slotFirstFields = new int[slotCapacity];
+        slotLastFields = new int[slotCapacity];
+        slotGenerations = new int[slotCapacity];
+        slotMask = slotCapacity - 1;
+        generation = EMPTY + 1;
+    }
+}
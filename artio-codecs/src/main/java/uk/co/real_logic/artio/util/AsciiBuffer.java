@@ -69,6 +69,8 @@ public interface AsciiBuffer extends DirectBuffer
 
     DecimalFloat getFloat(DecimalFloat number, int offset, int length);
 
+    boolean tryGetFloat(DecimalFloat number, int offset, int length);
+
     int getLocalMktDate(int offset, int length);
 
     long getUtcTimestamp(int offset, int length);
@@ -21,7 +21,9 @@ import uk.co.real_logic.artio.fields.*;
 
 import java.nio.ByteBuffer;
 
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
 
 public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffer
 {
@@ -32,6 +34,15 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     private static final byte Y = (byte)'Y';
     private static final byte N = (byte)'N';
 
+    // Every byte of a word set to 0x01 and 0x7F respectively, used by the word at a time scans.
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS_CLEAR = 0x7F7F7F7F7F7F7F7FL;
+    private static final int LAST_BYTE_OF_WORD = SIZE_OF_LONG - 1;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long EVEN_BYTES = 0x00FF00FF00FF00FFL;
+    // Each word adds at most 2 * 0xFF to every 16 bit lane, so 128 words can be summed before a lane overflows.
+    private static final int CHECKSUM_BLOCK_WORDS = 128;
+
     private static final byte[] MIN_INTEGER_VALUE = String.valueOf(Integer.MIN_VALUE).getBytes(US_ASCII);
     private static final byte[] MIN_LONG_VALUE = String.valueOf(Long.MIN_VALUE).getBytes(US_ASCII);
 
@@ -167,8 +178,28 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
         }
     }
 
+    public DecimalFloat getFloat(final DecimalFloat number, final int offset, final int length)
+    {
+        parseFloat(number, offset, length, true);
+        return number;
+    }
+
+    /**
+     * Parses a decimal value in the same way as {@link #getFloat(DecimalFloat, int, int)}, but returns false rather
+     * than throwing an exception if it isn't a valid digit or is out of range, so that it never allocates.
+     *
+     * @param number the DecimalFloat to set to the parsed value.
+     * @param offset the offset of the value.
+     * @param length the length of the value.
+     * @return true if the number was set to the value, false if it isn't a valid decimal value.
+     */
+    public boolean tryGetFloat(final DecimalFloat number, final int offset, final int length)
+    {
+        return parseFloat(number, offset, length, false);
+    }
+
     @SuppressWarnings("FinalParameters")
-    public DecimalFloat getFloat(final DecimalFloat number, int offset, int length)
+    private boolean parseFloat(final DecimalFloat number, int offset, final int length, final boolean throwOnError)
     {
         // Throw away trailing spaces or zeros
         int end = offset + length;
@@ -229,18 +260,34 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
             }
             else
             {
+                if (!throwOnError && (byteValue < 0x30 || byteValue > 0x39))
+                {
+                    return false;
+                }
+
                 final int digit = getDigit(index, byteValue);
                 value = value * 10 + digit;
                 if (value < 0)
                 {
+                    if (!throwOnError)
+                    {
+                        return false;
+                    }
+
                     throw new ArithmeticException(
                         "Out of range: when parsing " + getAscii(offset, length));
                 }
             }
         }
 
-        number.set(negative ? -1 * value : value, scale);
-        return number;
+        final long signedValue = negative ? -1 * value : value;
+        if (throwOnError)
+        {
+            number.set(signedValue, scale);
+            return true;
+        }
+
+        return number.trySet(signedValue, scale);
     }
 
     private boolean isSpace(final int index)
@@ -280,7 +327,24 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scanBack(final int startInclusive, final int endExclusive, final byte terminator)
     {
-        for (int index = startInclusive; index >= endExclusive; index--)
+        int index = startInclusive;
+
+        // Search a word at a time, from the end of the range, whilst a whole word fits inside both range and buffer
+        if (index < capacity())
+        {
+            final long pattern = LOW_BITS * (terminator & 0xFF);
+            final int lastWordEnd = Math.max(endExclusive, 0) + LAST_BYTE_OF_WORD;
+            for (; index >= lastWordEnd; index -= SIZE_OF_LONG)
+            {
+                final long matches = matchingBytes(getLong(index - LAST_BYTE_OF_WORD, LITTLE_ENDIAN), pattern);
+                if (matches != 0)
+                {
+                    return index - (Long.numberOfLeadingZeros(matches) >>> 3);
+                }
+            }
+        }
+
+        for (; index >= endExclusive; index--)
         {
             final byte value = getByte(index);
             if (value == terminator)
@@ -299,29 +363,84 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scan(final int startInclusive, final int endInclusive, final byte terminator)
     {
-        int indexValue = UNKNOWN_INDEX;
-        for (int i = startInclusive; i <= endInclusive; i++)
+        int index = startInclusive;
+
+        // Search a word at a time whilst a whole word fits inside both the range and the buffer
+        final long pattern = LOW_BITS * (terminator & 0xFF);
+        final int lastWordStart = Math.min(endInclusive, capacity() - 1) - LAST_BYTE_OF_WORD;
+        for (; index <= lastWordStart; index += SIZE_OF_LONG)
         {
-            final byte value = getByte(i);
+            final long matches = matchingBytes(getLong(index, LITTLE_ENDIAN), pattern);
+            if (matches != 0)
+            {
+                return index + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+        }
+
+        // Unaligned tail of the range
+        for (; index <= endInclusive; index++)
+        {
+            final byte value = getByte(index);
             if (value == terminator)
             {
-                indexValue = i;
-                break;
+                return index;
             }
         }
 
-        return indexValue;
+        return UNKNOWN_INDEX;
+    }
+
+    /**
+     * Find the bytes of a word that are equal to the corresponding bytes of a pattern.
+     *
+     * Unlike the classic (x - 0x01..) &amp; ~x &amp; 0x80.. trick this never reports false positives, so both the
+     * lowest and the highest set bits identify a matching byte.
+     *
+     * @param word the little endian word to search.
+     * @param pattern the terminator repeated in every byte.
+     * @return a word with 0x80 set in every byte that matches, and 0 in every other byte.
+     */
+    private static long matchingBytes(final long word, final long pattern)
+    {
+        final long x = word ^ pattern;
+        final long y = (x & HIGH_BITS_CLEAR) + HIGH_BITS_CLEAR;
+        return ~(y | x | HIGH_BITS_CLEAR);
     }
 
     public int computeChecksum(final int offset, final int end)
     {
-        int total = 0;
-        for (int index = offset; index < end; index++)
+        long total = 0;
+        int index = offset;
+
+        // Sum a word at a time, adding pairs of bytes into 16 bit lanes. Bytes are signed, so correct the unsigned
+        // lane sums by 256 for every byte with its high bit set.
+        final int lastWordStart = end - SIZE_OF_LONG;
+        while (index <= lastWordStart)
+        {
+            final int lastWordOfBlock = Math.min(lastWordStart, index + (CHECKSUM_BLOCK_WORDS - 1) * SIZE_OF_LONG);
+            long laneSums = 0;
+            int highBytes = 0;
+            for (; index <= lastWordOfBlock; index += SIZE_OF_LONG)
+            {
+                final long word = getLong(index);
+                laneSums += (word & EVEN_BYTES) + ((word >>> 8) & EVEN_BYTES);
+                highBytes += Long.bitCount(word & HIGH_BITS);
+            }
+
+            total += sumOfLanes(laneSums) - ((long)highBytes << 8);
+        }
+
+        for (; index < end; index++)
         {
             total += getByte(index);
         }
 
-        return total % 256;
+        return (int)(total % 256);
+    }
+
+    private static long sumOfLanes(final long laneSums)
+    {
+        return (laneSums & 0xFFFF) + ((laneSums >>> 16) & 0xFFFF) + ((laneSums >>> 32) & 0xFFFF) + (laneSums >>> 48);
     }
 
     public int putAscii(final int index, final String string)
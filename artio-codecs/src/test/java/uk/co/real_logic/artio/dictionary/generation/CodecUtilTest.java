@@ -59,4 +59,34 @@ public class CodecUtilTest
         final int secondHash = CodecUtil.hashCode("abczyx".toCharArray(), 3, 3);
         assertEquals(firstHash, secondHash);
     }
+
+    @Test
+    public void shouldSetBitsAcrossWords()
+    {
+        final long[] bits = new long[2];
+
+        assertTrue(CodecUtil.setBit(bits, 70));
+        assertFalse(CodecUtil.setBit(bits, 70));
+        assertTrue(CodecUtil.setBit(bits, 3));
+
+        assertEquals(1L << 3, bits[0]);
+        assertEquals(1L << 6, bits[1]);
+    }
+
+    @Test
+    public void shouldFindFirstSetBit()
+    {
+        final long[] bits = new long[2];
+        assertEquals(CodecUtil.NO_BIT_INDEX, CodecUtil.firstSetBit(bits));
+
+        CodecUtil.setBit(bits, 70);
+        CodecUtil.setBit(bits, 64);
+        assertEquals(64, CodecUtil.firstSetBit(bits));
+
+        CodecUtil.clearBit(bits, 64);
+        assertEquals(70, CodecUtil.firstSetBit(bits));
+
+        CodecUtil.clearBits(bits);
+        assertEquals(CodecUtil.NO_BIT_INDEX, CodecUtil.firstSetBit(bits));
+    }
 }
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.dictionary.ir.Dictionary;
+import uk.co.real_logic.artio.dictionary.ir.Message;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.agrona.generation.CompilerUtil.compileInMemory;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.dictionary.ir.Category.APP;
+import static uk.co.real_logic.artio.fields.RejectReason.REQUIRED_TAG_MISSING;
+import static uk.co.real_logic.artio.fields.RejectReason.TAG_APPEARS_MORE_THAN_ONCE;
+import static uk.co.real_logic.artio.util.Reflection.get;
+
+public class DecoderProjectionTest
+{
+    private static final String PROJECTED_MESSAGE = "ProjectedMessage";
+    private static final String PROJECTED_MESSAGE_DECODER = TEST_PACKAGE + "." + PROJECTED_MESSAGE + "Decoder";
+    private static final String PROJECTION = PROJECTED_MESSAGE + ": TestReqID, IntField, DataField";
+
+    private static final String FULL_MESSAGE =
+        "8=FIX.4.4\0019=0000\00135=P\001115=abc\001112=def\001116=2\001117=1.1\001118=Y\001200=3\001119=123" +
+        "\001127=19700101-00:00:00.001\001120=2\001121=1\001121=2\001124=4\00110=000\001";
+
+    private static final String MISSING_SKIPPED_REQUIRED_FIELD_MESSAGE =
+        "8=FIX.4.4\0019=0000\00135=P\001115=abc\001112=def\001116=2" +
+        "\001127=19700101-00:00:00.001\00110=000\001";
+
+    private static final String REPEATED_SKIPPED_FIELD_MESSAGE =
+        "8=FIX.4.4\0019=0000\00135=P\001115=abc\001112=def\001116=2\001117=1.1\001117=1.2" +
+        "\001127=19700101-00:00:00.001\00110=000\001";
+
+    private static Dictionary dictionary;
+    private static Class<?> projectedMessage;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        // A copy of the example heartbeat that isn't a session message, since those can't be projected
+        final Message heartbeat = findMessage(MESSAGE_EXAMPLE, "Heartbeat");
+        final Message message = new Message(PROJECTED_MESSAGE, "P", APP);
+        message.entries().addAll(heartbeat.entries());
+
+        dictionary = new Dictionary(
+            Collections.singletonList(message),
+            MESSAGE_EXAMPLE.fields(),
+            MESSAGE_EXAMPLE.components(),
+            MESSAGE_EXAMPLE.header(),
+            MESSAGE_EXAMPLE.trailer(),
+            "FIX",
+            4,
+            4);
+
+        final Map<String, CharSequence> sources = generateSources(
+            dictionary, DecoderProjection.parse(Collections.singletonList(PROJECTION), dictionary));
+        projectedMessage = compileInMemory(PROJECTED_MESSAGE_DECODER, sources);
+        if (projectedMessage == null || AbstractDecoderGeneratorTest.CODEC_LOGGING)
+        {
+            System.err.println("sources = " + sources);
+        }
+    }
+
+    @Test
+    public void shouldOnlyGenerateGettersForProjectedFields() throws Exception
+    {
+        projectedMessage.getMethod(TEST_REQ_ID + "AsString");
+        projectedMessage.getMethod(INT_FIELD);
+        projectedMessage.getMethod(DATA_FIELD);
+        projectedMessage.getMethod("dataFieldLength");
+
+        assertNoMethod(FLOAT_FIELD);
+        assertNoMethod(BOOLEAN_FIELD);
+        assertNoMethod(ON_BEHALF_OF_COMP_ID);
+        assertNoMethod("noEgGroup");
+        assertNoMethod(COMPONENT_FIELD);
+    }
+
+    @Test
+    public void shouldNotImplementSkippedComponents() throws Exception
+    {
+        final Class<?> component = projectedMessage.getClassLoader().loadClass(COMPONENT_DECODER);
+
+        assertFalse(component.isAssignableFrom(projectedMessage));
+    }
+
+    @Test
+    public void shouldDecodeProjectedFieldsAndSkipOthers() throws Exception
+    {
+        final Decoder decoder = decode(FULL_MESSAGE);
+
+        assertEquals("def", get(decoder, TEST_REQ_ID + "AsString"));
+        assertEquals(2, get(decoder, INT_FIELD));
+        assertArrayEquals(new byte[]{ '1', '2', '3' }, (byte[])get(decoder, DATA_FIELD));
+        assertValid(decoder);
+    }
+
+    @Test
+    public void shouldDecodeTrailerAfterSkippedFields() throws Exception
+    {
+        final Decoder decoder = decode(FULL_MESSAGE);
+
+        final Object trailer = get(decoder, "trailer");
+        assertEquals("000", get(trailer, "checkSumAsString"));
+    }
+
+    @Test
+    public void shouldValidateMissingSkippedRequiredFields() throws Exception
+    {
+        final Decoder decoder = decode(MISSING_SKIPPED_REQUIRED_FIELD_MESSAGE);
+
+        assertFalse(decoder.validate());
+        assertEquals(REQUIRED_TAG_MISSING.representation(), decoder.rejectReason());
+        assertEquals(117, decoder.invalidTagId());
+    }
+
+    @Test
+    public void shouldValidateRepeatedSkippedFields() throws Exception
+    {
+        final Decoder decoder = decode(REPEATED_SKIPPED_FIELD_MESSAGE);
+
+        assertFalse(decoder.validate());
+        assertEquals(TAG_APPEARS_MORE_THAN_ONCE.representation(), decoder.rejectReason());
+        assertEquals(117, decoder.invalidTagId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotProjectSessionMessages()
+    {
+        generateSources(
+            MESSAGE_EXAMPLE,
+            DecoderProjection.parse(Collections.singletonList("Heartbeat: TestReqID"), MESSAGE_EXAMPLE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectFieldsThatArentPartOfTheMessage()
+    {
+        DecoderProjection.parse(Collections.singletonList(PROJECTED_MESSAGE + ": OtherField"), dictionary);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownMessages()
+    {
+        DecoderProjection.parse(Arrays.asList("# comment", "UnknownMessage: TestReqID"), dictionary);
+    }
+
+    private static Map<String, CharSequence> generateSources(
+        final Dictionary dictionary, final DecoderProjection projection)
+    {
+        final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+        final ConstantGenerator constantGenerator = new ConstantGenerator(dictionary, TEST_PACKAGE, outputManager);
+        final EnumGenerator enumGenerator = new EnumGenerator(dictionary, TEST_PARENT_PACKAGE, outputManager);
+        final DecoderGenerator decoderGenerator = new DecoderGenerator(
+            dictionary, 1, TEST_PACKAGE, TEST_PARENT_PACKAGE, outputManager, ValidationOn.class,
+            RejectUnknownFieldOff.class, RejectUnknownEnumValueOn.class, false, "true", projection);
+
+        constantGenerator.generate();
+        enumGenerator.generate();
+        decoderGenerator.generate();
+        return outputManager.getSources();
+    }
+
+    private static Message findMessage(final Dictionary dictionary, final String name)
+    {
+        return dictionary.messages().stream().filter((msg) -> msg.name().equals(name)).findFirst().get();
+    }
+
+    private Decoder decode(final String example) throws Exception
+    {
+        final Decoder decoder = (Decoder)projectedMessage.getConstructor().newInstance();
+        buffer.putAscii(1, example);
+        decoder.decode(buffer, 1, example.length());
+        return decoder;
+    }
+
+    private void assertNoMethod(final String name)
+    {
+        assertTrue(name + " shouldn't be generated", Arrays.stream(projectedMessage.getMethods())
+            .noneMatch((method) -> method.getName().equals(name)));
+    }
+
+    private void assertValid(final Decoder decoder)
+    {
+        final boolean isValid = decoder.validate();
+        assertTrue(String.format(
+            "Decoder fails validation due to: %s for tag: %d", decoder.rejectReason(), decoder.invalidTagId()),
+            isValid);
+    }
+}
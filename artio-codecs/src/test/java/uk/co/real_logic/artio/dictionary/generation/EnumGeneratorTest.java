@@ -153,6 +153,32 @@ public class EnumGeneratorTest
         assertEquals(values[2], decode.invoke(null, wrapper));
     }
 
+    @Test
+    public void generatesCharArrayOffsetBasedDecode() throws Exception
+    {
+        final Enum[] values = getStringEnumConstants();
+        final Method decode = stringEnumClass.getMethod("decode", char[].class, int.class, int.class);
+        final char[] chars = " 0AAA".toCharArray();
+
+        assertEquals(values[0], decode.invoke(null, chars, 1, 1));
+        assertEquals(values[1], decode.invoke(null, chars, 2, 1));
+        assertEquals(values[2], decode.invoke(null, chars, 2, 2));
+        assertEquals(values[values.length - 1], decode.invoke(null, chars, 2, 3));
+        assertEquals(values[values.length - 1], decode.invoke(null, chars, 0, 1));
+    }
+
+    @Test
+    public void generatesCharArrayOffsetBasedValidation() throws Exception
+    {
+        final Method isValid = stringEnumClass.getMethod("isValid", char[].class, int.class, int.class);
+        final char[] chars = " 0AAA".toCharArray();
+
+        assertEquals(true, isValid.invoke(null, chars, 1, 1));
+        assertEquals(true, isValid.invoke(null, chars, 3, 2));
+        assertEquals(false, isValid.invoke(null, chars, 1, 2));
+        assertEquals(false, isValid.invoke(null, chars, 0, 0));
+    }
+
     @Test
     public void shouldReturnSentinelValueWhenDecodingUnknownRepresentation() throws Exception
     {
@@ -25,6 +25,7 @@ import java.util.Arrays;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(Parameterized.class)
 public class DecimalFloatDecodingTest
@@ -123,6 +124,20 @@ public class DecimalFloatDecodingTest
         canDecodeDecimalFloatFromBytes(bytes);
     }
 
+    @Test
+    public void canTryToDecodeDecimalFloat()
+    {
+        final byte[] bytes = ("  " + input + "  ").getBytes(US_ASCII);
+        final MutableAsciiBuffer string = new MutableAsciiBuffer(new byte[bytes.length + 2]);
+        string.putBytes(1, bytes);
+        final DecimalFloat price = new DecimalFloat();
+
+        assertTrue(string.tryGetFloat(price, 1, bytes.length));
+
+        assertEquals("Incorrect Value", value, price.value());
+        assertEquals("Incorrect Scale", scale, price.scale());
+    }
+
     private void canDecodeDecimalFloatFromBytes(final byte[] bytes)
     {
         final MutableAsciiBuffer string = new MutableAsciiBuffer(new byte[bytes.length + 2]);
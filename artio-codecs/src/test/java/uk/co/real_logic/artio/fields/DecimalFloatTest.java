@@ -125,6 +125,35 @@ public class DecimalFloatTest
         parseNumberFromBuffer("10000000000000000000000");
     }
 
+    @Test
+    public void shouldNotTryToDecodeInvalidOrOutOfRangeValues()
+    {
+        assertThat(tryParseNumberFromBuffer("99999999999999990000000"), is(false));
+        assertThat(tryParseNumberFromBuffer("10000000000000000000000"), is(false));
+        assertThat(tryParseNumberFromBuffer("1000000000000000000"), is(false));
+        assertThat(tryParseNumberFromBuffer("+1"), is(false));
+        assertThat(tryParseNumberFromBuffer("1 2"), is(false));
+        assertThat(tryParseNumberFromBuffer("abc"), is(false));
+    }
+
+    @Test
+    public void shouldNotChangeValueWhenTrySetIsOutOfRange()
+    {
+        final DecimalFloat number = new DecimalFloat(5, 1);
+
+        assertThat(number.trySet(Long.MAX_VALUE, 0), is(false));
+        assertThat(number, comparesEqualTo(new DecimalFloat(5, 1)));
+
+        assertThat(number.trySet(50, 2), is(true));
+        assertThat(number, comparesEqualTo(new DecimalFloat(5, 1)));
+    }
+
+    private boolean tryParseNumberFromBuffer(final String number)
+    {
+        final AsciiBuffer buffer = new MutableAsciiBuffer(number.getBytes(US_ASCII));
+        return buffer.tryGetFloat(new DecimalFloat(), 0, buffer.capacity());
+    }
+
     private void parseNumberFromBuffer(final String number)
     {
         final AsciiBuffer buffer = new MutableAsciiBuffer(number.getBytes(US_ASCII));
@@ -118,6 +118,52 @@ public class UtcTimestampEncoderValidCasesTest
         }
     }
 
+    @Test
+    public void canInstanceEncodeTimestampAfterTimestampInSameSecond()
+    {
+        final UtcTimestampEncoder encoder = new UtcTimestampEncoder();
+        encoder.encode(otherFractionInSameSecond(epochMillis, MILLIS_IN_SECOND));
+
+        final int length = encoder.encode(epochMillis);
+
+        assertEquals(expectedTimestamp, new String(encoder.buffer(), 0, length, US_ASCII));
+        assertEquals("encoded wrong length", expectedLength, length);
+    }
+
+    @Test
+    public void canInstanceEncodeTimestampMicrosAfterTimestampInSameSecond()
+    {
+        final UtcTimestampEncoder encoder = new UtcTimestampEncoder(MICROSECONDS);
+        encoder.encode(otherFractionInSameSecond(epochMicros, MICROS_IN_SECOND));
+
+        final int length = encoder.encode(epochMicros);
+
+        assertEquals(expectedTimestampMicros, new String(encoder.buffer(), 0, length, US_ASCII));
+        assertEquals("encoded wrong length", expectedLengthMicros, length);
+    }
+
+    @Test
+    public void canInstanceEncodeTimestampNanosAfterTimestampInSameSecond()
+    {
+        if (validNanoSecondTestCase)
+        {
+            final UtcTimestampEncoder encoder = new UtcTimestampEncoder(NANOSECONDS);
+            encoder.encode(otherFractionInSameSecond(epochNanos, NANOS_IN_SECOND));
+
+            final int length = encoder.encode(epochNanos);
+
+            assertEquals(expectedTimestampNanos, new String(encoder.buffer(), 0, length, US_ASCII));
+            assertEquals("encoded wrong length", expectedLengthNanos, length);
+        }
+    }
+
+    private static long otherFractionInSameSecond(final long epochFraction, final long fractionInSecond)
+    {
+        final long startOfSecond = Math.floorDiv(epochFraction, fractionInSecond) * fractionInSecond;
+        final long endOfSecond = startOfSecond + fractionInSecond - 1;
+        return epochFraction == endOfSecond ? startOfSecond : endOfSecond;
+    }
+
     static void assertInstanceEncodesTimestampMillisWithOffset(
         final long epochMillis, final String expectedTimestamp, final int expectedLength)
     {
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.otf;
+
+import org.junit.Test;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.otf.TagIndex.MISSING;
+
+public class TagIndexTest
+{
+    private static final int OFFSET = 3;
+
+    private static final String MESSAGE =
+        "8=FIX.4.4\0019=0000\00135=D\00149=abc\0015001=VENUE\001453=2\001448=A\001447=D\001452=1" +
+        "\001448=B\001452=3\00138=100\00110=000\001";
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[16 * 1024]);
+    private final TagIndex tagIndex = new TagIndex(2);
+
+    @Test
+    public void shouldIndexEveryField()
+    {
+        assertTrue(index(MESSAGE));
+
+        assertEquals(13, tagIndex.fieldCount());
+        assertEquals(8, tagIndex.tag(0));
+        assertEquals(10, tagIndex.tag(12));
+    }
+
+    @Test
+    public void shouldFindCustomTags()
+    {
+        index(MESSAGE);
+
+        final int field = tagIndex.find(5001);
+        assertEquals(4, field);
+        assertEquals("VENUE", tagIndex.getAscii(field));
+        assertTrue(tagIndex.valueEquals(field, "VENUE"));
+        assertFalse(tagIndex.valueEquals(field, "VENUF"));
+        assertFalse(tagIndex.valueEquals(field, "VEN"));
+    }
+
+    @Test
+    public void shouldCompareValuesToBytes()
+    {
+        index(MESSAGE);
+
+        final int field = tagIndex.find(5001);
+        assertTrue(tagIndex.valueEquals(field, bytes("VENUE")));
+        assertFalse(tagIndex.valueEquals(field, bytes("VENUF")));
+        assertFalse(tagIndex.valueEquals(field, bytes("VEN")));
+        assertTrue(tagIndex.valueStartsWith(field, bytes("VEN")));
+        assertTrue(tagIndex.valueStartsWith(field, bytes("")));
+        assertFalse(tagIndex.valueStartsWith(field, bytes("VENUES")));
+        assertFalse(tagIndex.valueStartsWith(field, bytes("ENU")));
+    }
+
+    @Test
+    public void shouldReadValues()
+    {
+        index(MESSAGE);
+
+        assertEquals(100, tagIndex.getInt(tagIndex.find(38)));
+        assertEquals(100L, tagIndex.getLong(tagIndex.find(38)));
+        assertEquals('D', tagIndex.getChar(tagIndex.find(35)));
+        assertEquals(OFFSET + MESSAGE.indexOf("abc"), tagIndex.valueOffset(tagIndex.find(49)));
+        assertEquals(3, tagIndex.valueLength(tagIndex.find(49)));
+    }
+
+    @Test
+    public void shouldNotFindMissingTags()
+    {
+        index(MESSAGE);
+
+        assertEquals(MISSING, tagIndex.find(5002));
+        assertFalse(tagIndex.contains(5002));
+        assertTrue(tagIndex.contains(5001));
+    }
+
+    @Test
+    public void shouldFindRepeatedTags()
+    {
+        index(MESSAGE);
+
+        final int first = tagIndex.find(448);
+        final int second = tagIndex.findNext(first);
+        assertEquals("A", tagIndex.getAscii(first));
+        assertEquals("B", tagIndex.getAscii(second));
+        assertEquals(MISSING, tagIndex.findNext(second));
+        assertEquals(second, tagIndex.find(448, first + 1, tagIndex.fieldCount()));
+        assertEquals(MISSING, tagIndex.find(448, first + 1, second));
+    }
+
+    @Test
+    public void shouldFindFieldsInGroupElements()
+    {
+        index(MESSAGE);
+
+        assertEquals(2, tagIndex.groupSize(453));
+        assertEquals("A", tagIndex.getAscii(tagIndex.findGroupElement(453, 0)));
+        assertEquals("B", tagIndex.getAscii(tagIndex.findGroupElement(453, 1)));
+        assertEquals(MISSING, tagIndex.findGroupElement(453, 2));
+
+        assertEquals(1, tagIndex.getInt(tagIndex.findInGroupElement(453, 0, 452)));
+        assertEquals(3, tagIndex.getInt(tagIndex.findInGroupElement(453, 1, 452)));
+        assertEquals("D", tagIndex.getAscii(tagIndex.findInGroupElement(453, 0, 447)));
+        assertEquals(MISSING, tagIndex.findInGroupElement(453, 1, 447));
+    }
+
+    @Test
+    public void shouldNotFindElementsOfMissingGroups()
+    {
+        index(MESSAGE);
+
+        assertEquals(0, tagIndex.groupSize(78));
+        assertEquals(MISSING, tagIndex.findGroupElement(78, 0));
+        assertEquals(MISSING, tagIndex.findInGroupElement(78, 0, 79));
+    }
+
+    @Test
+    public void shouldReplacePreviouslyIndexedMessage()
+    {
+        index(MESSAGE);
+        assertTrue(index("8=FIX.4.4\0019=0000\00135=0\00110=000\001"));
+
+        assertEquals(4, tagIndex.fieldCount());
+        assertEquals(MISSING, tagIndex.find(5001));
+        assertEquals('0', tagIndex.getChar(tagIndex.find(35)));
+        assertEquals(MISSING, tagIndex.findNext(tagIndex.find(35)));
+    }
+
+    @Test
+    public void shouldIndexFieldsBeforeMalformedField()
+    {
+        assertFalse(index("8=FIX.4.4\0019=0000\00135=0\00110000\001"));
+
+        assertEquals(3, tagIndex.fieldCount());
+        assertEquals(MISSING, tagIndex.find(10));
+    }
+
+    @Test
+    public void shouldNotIndexNonNumericTags()
+    {
+        assertFalse(index("8=FIX.4.4\001A=0000\001"));
+
+        assertEquals(1, tagIndex.fieldCount());
+    }
+
+    @Test
+    public void shouldNotIndexTruncatedField()
+    {
+        assertFalse(index("8=FIX.4.4\00135=0"));
+
+        assertEquals(1, tagIndex.fieldCount());
+    }
+
+    private static byte[] bytes(final String value)
+    {
+        return value.getBytes(US_ASCII);
+    }
+
+    private boolean index(final String message)
+    {
+        buffer.putAscii(OFFSET, message);
+        return tagIndex.index(buffer, OFFSET, message.length());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+
+public class MutableAsciiBufferChecksumTest
+{
+    private static final int SIZE = 8 * 1024;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[SIZE]);
+
+    @Test
+    public void shouldComputeChecksumOfFixMessage()
+    {
+        final byte[] message = "8=FIX.4.2\u00019=5\u000135=0\u0001".getBytes(US_ASCII);
+        buffer.putBytes(0, message);
+
+        assertEquals(naiveChecksum(0, message.length), buffer.computeChecksum(0, message.length));
+        assertEquals(161, buffer.computeChecksum(0, message.length));
+    }
+
+    @Test
+    public void shouldComputeChecksumOfAnyRangeOfAsciiData()
+    {
+        fillRandomly(0x7F);
+
+        assertChecksumsOfRangesMatch();
+    }
+
+    @Test
+    public void shouldComputeChecksumWhenHighBitsAreSet()
+    {
+        fillRandomly(0xFF);
+
+        assertChecksumsOfRangesMatch();
+    }
+
+    @Test
+    public void shouldComputeChecksumOfAllHighBytes()
+    {
+        buffer.setMemory(0, SIZE, (byte)0xFF);
+
+        assertEquals(naiveChecksum(0, SIZE), buffer.computeChecksum(0, SIZE));
+        assertEquals(naiveChecksum(3, SIZE - 1), buffer.computeChecksum(3, SIZE - 1));
+    }
+
+    private void assertChecksumsOfRangesMatch()
+    {
+        for (int offset = 0; offset < 17; offset++)
+        {
+            for (int end = offset; end < offset + 80; end++)
+            {
+                assertEquals(naiveChecksum(offset, end), buffer.computeChecksum(offset, end));
+            }
+
+            // Long enough to span several blocks of words
+            assertEquals(naiveChecksum(offset, SIZE - offset), buffer.computeChecksum(offset, SIZE - offset));
+        }
+    }
+
+    private void fillRandomly(final int maxByte)
+    {
+        final Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++)
+        {
+            buffer.putByte(i, (byte)random.nextInt(maxByte + 1));
+        }
+    }
+
+    private int naiveChecksum(final int offset, final int end)
+    {
+        int total = 0;
+        for (int index = offset; index < end; index++)
+        {
+            total += buffer.getByte(index);
+        }
+
+        return total % 256;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+public class MutableAsciiBufferScanTest
+{
+    private static final int SIZE = 48;
+    private static final byte TERMINATOR = '=';
+    // Bytes that differ from the terminator by a single bit or in the high bit, to catch false positives.
+    private static final byte[] FILLERS = { 'A', (byte)('=' ^ 0x01), (byte)('=' ^ 0x80), (byte)0xFF, 0 };
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[SIZE]);
+
+    @Test
+    public void shouldScanForTerminatorAtEveryPosition()
+    {
+        for (final byte filler : FILLERS)
+        {
+            for (int terminatorIndex = -1; terminatorIndex < SIZE; terminatorIndex++)
+            {
+                fill(filler, terminatorIndex);
+
+                for (int start = 0; start < SIZE; start++)
+                {
+                    for (int end = start - 1; end < SIZE; end++)
+                    {
+                        assertEquals(
+                            "scan(" + start + ", " + end + ") terminator @ " + terminatorIndex,
+                            naiveScan(start, end),
+                            buffer.scan(start, end, TERMINATOR));
+
+                        assertEquals(
+                            "scanBack(" + end + ", " + start + ") terminator @ " + terminatorIndex,
+                            naiveScanBack(end, start),
+                            buffer.scanBack(end, start, TERMINATOR));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindFirstOfSeveralTerminators()
+    {
+        fill((byte)'A', 3);
+        buffer.putByte(5, TERMINATOR);
+        buffer.putByte(20, TERMINATOR);
+
+        assertEquals(3, buffer.scan(0, SIZE - 1, TERMINATOR));
+        assertEquals(5, buffer.scan(4, SIZE - 1, TERMINATOR));
+        assertEquals(20, buffer.scanBack(SIZE - 1, 0, TERMINATOR));
+        assertEquals(5, buffer.scanBack(19, 0, TERMINATOR));
+    }
+
+    @Test
+    public void shouldScanForCharTerminator()
+    {
+        fill((byte)'A', 17);
+
+        assertEquals(17, buffer.scan(0, SIZE - 1, '='));
+        assertEquals(17, buffer.scanBack(SIZE - 1, 0, '='));
+    }
+
+    private void fill(final byte filler, final int terminatorIndex)
+    {
+        buffer.setMemory(0, SIZE, filler);
+        if (terminatorIndex >= 0)
+        {
+            buffer.putByte(terminatorIndex, TERMINATOR);
+        }
+    }
+
+    private int naiveScan(final int startInclusive, final int endInclusive)
+    {
+        for (int i = startInclusive; i <= endInclusive; i++)
+        {
+            if (buffer.getByte(i) == TERMINATOR)
+            {
+                return i;
+            }
+        }
+        return UNKNOWN_INDEX;
+    }
+
+    private int naiveScanBack(final int startInclusive, final int endExclusive)
+    {
+        for (int i = startInclusive; i >= endExclusive; i--)
+        {
+            if (buffer.getByte(i) == TERMINATOR)
+            {
+                return i;
+            }
+        }
+        return UNKNOWN_INDEX;
+    }
+}
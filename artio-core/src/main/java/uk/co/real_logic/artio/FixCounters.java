@@ -35,6 +35,7 @@ public class FixCounters implements AutoCloseable
     private static final int INVALID_LIBRARY_ATTEMPTS_TYPE_ID = 10_005;
     private static final int SENT_MSG_SEQ_NO_TYPE_ID = 10_006;
     private static final int RECV_MSG_SEQ_NO_TYPE_ID = 10_007;
+    private static final int INDEX_DURABLE_POSITION_TYPE_ID = 10_008;
 
     private final List<Counter> counters = new ArrayList<>();
     private final AtomicCounter failedInboundPublications;
@@ -91,6 +92,11 @@ public class FixCounters implements AutoCloseable
         return newCounter(RECV_MSG_SEQ_NO_TYPE_ID, "Last Received MsgSeqNo for " + connectionId);
     }
 
+    public AtomicCounter indexDurablePosition(final int streamId)
+    {
+        return newCounter(INDEX_DURABLE_POSITION_TYPE_ID, "Durable Sequence Number Index Position for " + streamId);
+    }
+
     private AtomicCounter newCounter(final int typeId, final String label)
     {
         final Counter counter = aeron.addCounter(typeId, label);
@@ -21,7 +21,6 @@ import org.agrona.concurrent.AtomicBuffer;
 import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
 
-// TODO: optimisation: write and checksum only needed bytes
 public class ChecksumFramer extends SectorFramer
 {
     private final CRC32 crc32 = new CRC32();
@@ -58,6 +57,18 @@ public class ChecksumFramer extends SectorFramer
         withChecksums(saveChecksumFunc);
     }
 
+    /**
+     * Update the checksum of a single sector, for writers that track which sectors they've changed.
+     *
+     * @param sectorStart the offset of the start of the sector within the buffer.
+     */
+    public void updateChecksum(final int sectorStart)
+    {
+        final int checksumOffset = sectorStart + SECTOR_DATA_LENGTH;
+        buffer.putInt(checksumOffset, sectorChecksum(sectorStart));
+        clearByteBuffer();
+    }
+
     private void validateChecksum(final int checksumOffset, final int calculatedChecksum)
     {
         final int savedChecksum = buffer.getInt(checksumOffset);
@@ -68,31 +79,41 @@ public class ChecksumFramer extends SectorFramer
 
     private void withChecksums(final ChecksumConsumer consumer)
     {
-        final byte[] inMemoryBytes = buffer.byteArray();
-        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
-        final int wrapAdjustment = buffer.wrapAdjustment();
         final int capacity = this.capacity;
 
         for (int sectorEnd = SECTOR_SIZE; sectorEnd <= capacity; sectorEnd += SECTOR_SIZE)
         {
-            final int sectorStart = sectorEnd - SECTOR_SIZE + wrapAdjustment;
             final int checksumOffset = sectorEnd - CHECKSUM_SIZE;
+            consumer.accept(checksumOffset, sectorChecksum(sectorEnd - SECTOR_SIZE));
+        }
+
+        clearByteBuffer();
+    }
 
-            crc32.reset();
-            if (inMemoryBytes != null)
-            {
-                crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
-            }
-            else
-            {
-                ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
-                ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
-                crc32.update(inMemoryByteBuffer);
-            }
-            final int sectorChecksum = (int)crc32.getValue();
-            consumer.accept(checksumOffset, sectorChecksum);
+    private int sectorChecksum(final int sectorOffset)
+    {
+        final byte[] inMemoryBytes = buffer.byteArray();
+        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
+        final int sectorStart = sectorOffset + buffer.wrapAdjustment();
+
+        crc32.reset();
+        if (inMemoryBytes != null)
+        {
+            crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
+        }
+        else
+        {
+            ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
+            ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
+            crc32.update(inMemoryByteBuffer);
         }
 
+        return (int)crc32.getValue();
+    }
+
+    private void clearByteBuffer()
+    {
+        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
         if (inMemoryByteBuffer != null)
         {
             inMemoryByteBuffer.clear();
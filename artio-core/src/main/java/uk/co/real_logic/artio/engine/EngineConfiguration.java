@@ -27,6 +27,7 @@ import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.dictionary.SessionConstants;
 import uk.co.real_logic.artio.engine.framer.DefaultTcpChannelSupplier;
 import uk.co.real_logic.artio.engine.framer.TcpChannelSupplier;
+import uk.co.real_logic.artio.engine.logger.IndexFileSyncMode;
 import uk.co.real_logic.artio.library.SessionConfiguration;
 import uk.co.real_logic.artio.validation.AuthenticationStrategy;
 import uk.co.real_logic.artio.validation.SessionPersistenceStrategy;
@@ -70,6 +71,22 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for size of logging index files
      */
     public static final String REPLAY_INDEX_FILE_SIZE_PROP = "logging.index.size";
+    /**
+     * Property name for the number of sessions' replay indices in each segment file of the replay index store
+     */
+    public static final String REPLAY_INDEX_SESSIONS_PER_SEGMENT_PROP = "logging.index.sessions_per_segment";
+    /**
+     * Property name for the maximum number of sessions in the replay index store
+     */
+    public static final String REPLAY_INDEX_MAX_SESSIONS_PROP = "logging.index.max_sessions";
+    /**
+     * Property name for the minimum number of bytes of a stream between records of its time index
+     */
+    public static final String TIME_INDEX_INTERVAL_PROP = "logging.time_index.interval";
+    /**
+     * Property name for how the sequence number indices are synced to disk, the name of an {@link IndexFileSyncMode}
+     */
+    public static final String INDEX_FILE_SYNC_MODE_PROP = "logging.index.sync_mode";
 
     // Care needs to be taken when setting the fragment limits, and buffer sizes
     // The inbound bytes received and buffer sizes should always be set low enough
@@ -92,6 +109,15 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the size in bytes of the receiver end point's framing buffer.
      */
     public static final String RECEIVER_BUFFER_SIZE_PROP = "fix.core.receiver_buffer_size";
+    /**
+     * Property name for the size in bytes of the smallest pooled receive buffer, 0 disables pooling.
+     */
+    public static final String RECEIVER_BUFFER_POOL_MIN_SIZE_PROP = "fix.core.receiver_buffer_pool_min_size";
+    /**
+     * Property name for the minimum number of unread bytes of an inbound message for it to be read straight into the
+     * inbound publication, 0 disables it.
+     */
+    public static final String INBOUND_DIRECT_CLAIM_THRESHOLD_PROP = "fix.core.inbound_direct_claim_threshold";
     /**
      * Property name for the size in bytes of the TCP socket's receive buffer.
      */
@@ -116,6 +142,22 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the timeout before a connection that hasn't sent a logon is disconnected
      */
     public static final String NO_LOGON_DISCONNECT_TIMEOUT_PROP = "fix.core.no_logon_disconnect";
+    /**
+     * Property name for the number of recently sent messages of each session to keep in memory for resend requests.
+     */
+    public static final String RESEND_CACHE_SIZE_PROP = "fix.core.resend_cache_size";
+    /**
+     * Property name for the maximum length in bytes of a message kept in the resend cache.
+     */
+    public static final String RESEND_CACHE_MAX_MESSAGE_LENGTH_PROP = "fix.core.resend_cache_max_message_length";
+    /**
+     * Property name for the maximum number of resend requests that are replayed at the same time.
+     */
+    public static final String MAX_CONCURRENT_REPLAYS_PROP = "fix.core.max_concurrent_replays";
+    /**
+     * Property name for the maximum number of bytes that the resend requests being replayed can read from the archive.
+     */
+    public static final String MAX_REPLAY_BYTES_IN_FLIGHT_PROP = "fix.core.max_replay_bytes_in_flight";
 
     // ------------------------------------------------
     //          Configuration Defaults
@@ -123,6 +165,9 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
 
     public static final String DEFAULT_LOG_FILE_DIR = "logs";
     public static final int DEFAULT_REPLAY_INDEX_FILE_SIZE = 2 * 1024 * 1024 + INITIAL_RECORD_OFFSET;
+    public static final int DEFAULT_REPLAY_INDEX_SESSIONS_PER_SEGMENT = 0;
+    public static final int DEFAULT_REPLAY_INDEX_MAX_SESSIONS = 16 * 1024;
+    public static final long DEFAULT_TIME_INDEX_INTERVAL = 0;
     public static final int DEFAULT_LOGGER_CACHE_NUM_SETS = 8;
     public static final int DEFAULT_LOGGER_CACHE_SET_SIZE = 4;
 
@@ -130,12 +175,18 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final int DEFAULT_REPLAY_FRAGMENT_LIMIT = 5;
     public static final int DEFAULT_INBOUND_BYTES_RECEIVED_LIMIT = 8 * 1024;
     public static final int DEFAULT_RECEIVER_BUFFER_SIZE = 16 * 1024;
+    public static final int DEFAULT_RECEIVER_BUFFER_POOL_MIN_SIZE = 0;
+    public static final int DEFAULT_INBOUND_DIRECT_CLAIM_THRESHOLD = 0;
     public static final int DEFAULT_RECEIVER_SOCKET_BUFFER_SIZE = 1024 * 1024;
     public static final int DEFAULT_SENDER_SOCKET_BUFFER_SIZE = 1024 * 1024;
     public static final int DEFAULT_SEQUENCE_NUMBER_INDEX_SIZE = 8 * 1024 * 1024;
     public static final int DEFAULT_SESSION_ID_BUFFER_SIZE = 4 * 1024 * 1024;
     public static final int DEFAULT_SENDER_MAX_BYTES_IN_BUFFER = 4 * 1024 * 1024;
     public static final int DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT = (int)SECONDS.toMillis(5);
+    public static final int DEFAULT_RESEND_CACHE_SIZE = 0;
+    public static final int DEFAULT_RESEND_CACHE_MAX_MESSAGE_LENGTH = 4 * 1024;
+    public static final int DEFAULT_MAX_CONCURRENT_REPLAYS = 32;
+    public static final long DEFAULT_MAX_REPLAY_BYTES_IN_FLIGHT = 64 * 1024 * 1024;
     public static final String DEFAULT_SESSION_ID_FILE = "session_id_buffer";
     public static final String DEFAULT_SEQUENCE_NUMBERS_SENT_FILE = "sequence_numbers_sent";
     public static final String DEFAULT_SEQUENCE_NUMBERS_RECEIVED_FILE = "sequence_numbers_received";
@@ -148,6 +199,7 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     /** Unmodifiable set of defaults, please make a copy if you wish to modify them. */
     public static final Set<String> DEFAULT_GAPFILL_ON_REPLAY_MESSAGE_TYPES;
     public static final long DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS = 10_000;
+    public static final IndexFileSyncMode DEFAULT_INDEX_FILE_SYNC_MODE = IndexFileSyncMode.FLIP_FILES;
 
     static
     {
@@ -168,6 +220,10 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private String host = null;
     private int port;
     private int replayIndexFileSize = getInteger(REPLAY_INDEX_FILE_SIZE_PROP, DEFAULT_REPLAY_INDEX_FILE_SIZE);
+    private int replayIndexSessionsPerSegment =
+        getInteger(REPLAY_INDEX_SESSIONS_PER_SEGMENT_PROP, DEFAULT_REPLAY_INDEX_SESSIONS_PER_SEGMENT);
+    private int replayIndexMaxSessions = getInteger(REPLAY_INDEX_MAX_SESSIONS_PROP, DEFAULT_REPLAY_INDEX_MAX_SESSIONS);
+    private long timeIndexInterval = Long.getLong(TIME_INDEX_INTERVAL_PROP, DEFAULT_TIME_INDEX_INTERVAL);
     private String logFileDir = getProperty(LOG_FILE_DIR_PROP, DEFAULT_LOG_FILE_DIR);
     private int loggerCacheNumSets = DEFAULT_LOGGER_CACHE_NUM_SETS;
     private int loggerCacheSetSize = DEFAULT_LOGGER_CACHE_SET_SIZE;
@@ -194,6 +250,10 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         getInteger(INBOUND_BYTES_RECEIVED_LIMIT_PROP, DEFAULT_INBOUND_BYTES_RECEIVED_LIMIT);
     private int receiverBufferSize =
         getInteger(RECEIVER_BUFFER_SIZE_PROP, DEFAULT_RECEIVER_BUFFER_SIZE);
+    private int receiverBufferPoolMinSize =
+        getInteger(RECEIVER_BUFFER_POOL_MIN_SIZE_PROP, DEFAULT_RECEIVER_BUFFER_POOL_MIN_SIZE);
+    private int inboundDirectClaimThreshold =
+        getInteger(INBOUND_DIRECT_CLAIM_THRESHOLD_PROP, DEFAULT_INBOUND_DIRECT_CLAIM_THRESHOLD);
     private int receiverSocketBufferSize =
         getInteger(RECEIVER_SOCKET_BUFFER_SIZE_PROP, DEFAULT_RECEIVER_SOCKET_BUFFER_SIZE);
     private int senderSocketBufferSize =
@@ -206,6 +266,13 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         getInteger(SENDER_MAX_BYTES_IN_BUFFER_PROP, DEFAULT_SENDER_MAX_BYTES_IN_BUFFER);
     private int noLogonDisconnectTimeoutInMs =
         getInteger(NO_LOGON_DISCONNECT_TIMEOUT_PROP, DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT);
+    private int resendCacheSize =
+        getInteger(RESEND_CACHE_SIZE_PROP, DEFAULT_RESEND_CACHE_SIZE);
+    private int resendCacheMaxMessageLength =
+        getInteger(RESEND_CACHE_MAX_MESSAGE_LENGTH_PROP, DEFAULT_RESEND_CACHE_MAX_MESSAGE_LENGTH);
+    private int maxConcurrentReplays = getInteger(MAX_CONCURRENT_REPLAYS_PROP, DEFAULT_MAX_CONCURRENT_REPLAYS);
+    private long maxReplayBytesInFlight =
+        Long.getLong(MAX_REPLAY_BYTES_IN_FLIGHT_PROP, DEFAULT_MAX_REPLAY_BYTES_IN_FLIGHT);
 
     private String libraryAeronChannel = null;
     private Function<EngineConfiguration, TcpChannelSupplier> channelSupplierFactory = DefaultTcpChannelSupplier::new;
@@ -222,6 +289,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private boolean soleLibraryMode = false;
     private AuthenticationStrategy authenticationStrategy = AuthenticationStrategy.none();
     private long indexFileStateFlushTimeoutInMs = DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS;
+    private IndexFileSyncMode indexFileSyncMode = IndexFileSyncMode.valueOf(
+        getProperty(INDEX_FILE_SYNC_MODE_PROP, DEFAULT_INDEX_FILE_SYNC_MODE.name()));
     private FixDictionary acceptorfixDictionary;
 
     /**
@@ -256,6 +325,46 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the size of the smallest receive buffer when receive buffers are pooled. By default each connection
+     * allocates its own receiver buffer of {@link #receiverBufferSize(int)} bytes for its whole lifetime. When this
+     * is set to a value greater than 0 connections instead borrow a buffer from a pool shared by the Framer whilst
+     * they read and frame messages, and return it when they hold no partial message. Buffers start at this size and
+     * double in size up to the receiver buffer size for larger messages.
+     *
+     * This substantially reduces the direct memory used by large numbers of mostly idle connections.
+     *
+     * @param receiverBufferPoolMinSize the smallest pooled buffer size, or 0 to disable pooling.
+     * @return this
+     * @see EngineConfiguration#RECEIVER_BUFFER_POOL_MIN_SIZE_PROP
+     */
+    public EngineConfiguration receiverBufferPoolMinSize(final int receiverBufferPoolMinSize)
+    {
+        this.receiverBufferPoolMinSize = receiverBufferPoolMinSize;
+        return this;
+    }
+
+    /**
+     * Sets the threshold at which the rest of a large inbound message is read from the TCP socket straight into a
+     * claim on the inbound publication, rather than into the receiver buffer and then copied into the publication.
+     * Once the header of a message has been received, if at least this many bytes of it are still to be read then
+     * space for the whole message is claimed and the rest of the message is read into it. The claim is kept open
+     * until the whole message has been read, however many reads that takes, and messages published after it aren't
+     * visible on the inbound stream until then. So this suits peers that send large messages without pausing
+     * part way through. Invalid messages fall back to being framed from the receiver buffer.
+     *
+     * Messages that would be fragmented, logon and user request messages are never read directly.
+     *
+     * @param inboundDirectClaimThreshold the minimum number of unread bytes, or 0 to disable direct reads.
+     * @return this
+     * @see EngineConfiguration#INBOUND_DIRECT_CLAIM_THRESHOLD_PROP
+     */
+    public EngineConfiguration inboundDirectClaimThreshold(final int inboundDirectClaimThreshold)
+    {
+        this.inboundDirectClaimThreshold = inboundDirectClaimThreshold;
+        return this;
+    }
+
     /**
      * Sets the receiver socket buffer size.
      *
@@ -311,6 +420,123 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the number of sessions whose replay indices are stored in each segment file of the replay index store.
+     * The store keeps every session's index in a region of a few large memory mapped files, rather than mapping
+     * a file for each session, which avoids repeatedly mapping and unmapping files when there are many sessions.
+     * Each region is replayIndexFileSize bytes and segment files are sparse, so disk space is only used by regions
+     * that are written to.
+     *
+     * @param replayIndexSessionsPerSegment the number of sessions in each segment, or 0 to use a file per session.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_SESSIONS_PER_SEGMENT_PROP
+     * @see EngineConfiguration#replayIndexMaxSessions(int)
+     */
+    public EngineConfiguration replayIndexSessionsPerSegment(final int replayIndexSessionsPerSegment)
+    {
+        this.replayIndexSessionsPerSegment = replayIndexSessionsPerSegment;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of sessions in the replay index store, rounded up to a power of two. Messages of
+     * sessions beyond this limit aren't indexed. Only used when replayIndexSessionsPerSegment is set.
+     *
+     * @param replayIndexMaxSessions the maximum number of sessions in the replay index store.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_MAX_SESSIONS_PROP
+     */
+    public EngineConfiguration replayIndexMaxSessions(final int replayIndexMaxSessions)
+    {
+        this.replayIndexMaxSessions = replayIndexMaxSessions;
+        return this;
+    }
+
+    /**
+     * Sets the interval of the time index, which maps the timestamps of archived messages to their positions so that
+     * the FixArchiveScanner can scan a time range without replaying whole recordings. A record is written to the
+     * index for the first message that's at least this many bytes after the last record, so scans of a time range
+     * replay up to about this many bytes either side of it. The index is disabled by default, and its file isn't
+     * truncated when recordings are purged.
+     *
+     * @param timeIndexInterval the minimum number of bytes of a stream between records, or 0 to disable the index.
+     * @return this
+     * @see EngineConfiguration#TIME_INDEX_INTERVAL_PROP
+     */
+    public EngineConfiguration timeIndexInterval(final long timeIndexInterval)
+    {
+        this.timeIndexInterval = timeIndexInterval;
+        return this;
+    }
+
+    /**
+     * Sets the number of recently sent messages of each session that are kept in memory, so that resend requests
+     * for them are served without replaying the archive. Requests for older messages still replay the archive.
+     * The cache takes resendCacheSize * resendCacheMaxMessageLength bytes for each of the sessions in the logger's
+     * caches.
+     *
+     * @param resendCacheSize the number of messages cached for each session, or 0 to disable the cache.
+     * @return this
+     * @see EngineConfiguration#RESEND_CACHE_SIZE_PROP
+     */
+    public EngineConfiguration resendCacheSize(final int resendCacheSize)
+    {
+        this.resendCacheSize = resendCacheSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum length of a message kept in the resend cache, including its framing. If a longer message is
+     * sent then its session's cache is emptied, so that resend requests that include it replay the archive.
+     *
+     * @param resendCacheMaxMessageLength the maximum length in bytes of a cached message.
+     * @return this
+     * @see EngineConfiguration#RESEND_CACHE_MAX_MESSAGE_LENGTH_PROP
+     */
+    public EngineConfiguration resendCacheMaxMessageLength(final int resendCacheMaxMessageLength)
+    {
+        this.resendCacheMaxMessageLength = resendCacheMaxMessageLength;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of resend requests that are replayed at the same time. Each replay from the archive
+     * is a separate archive replay on the replayer's shared replay subscription, so this bounds the load that many
+     * sessions requesting resends at once puts on the archive. Further resend requests wait, in the order that they
+     * were received, until a replay completes.
+     *
+     * @param maxConcurrentReplays the maximum number of resend requests that are replayed at the same time, must be
+     *                             greater than zero.
+     * @return this
+     * @throws IllegalArgumentException if maxConcurrentReplays isn't greater than zero.
+     * @see EngineConfiguration#MAX_CONCURRENT_REPLAYS_PROP
+     */
+    public EngineConfiguration maxConcurrentReplays(final int maxConcurrentReplays)
+    {
+        if (maxConcurrentReplays <= 0)
+        {
+            throw new IllegalArgumentException("maxConcurrentReplays must be > 0, but was " + maxConcurrentReplays);
+        }
+
+        this.maxConcurrentReplays = maxConcurrentReplays;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes that the resend requests being replayed can read from the archive. A resend
+     * request waits until it fits within this limit, unless no other requests are being replayed so that requests
+     * larger than the limit still get replayed.
+     *
+     * @param maxReplayBytesInFlight the maximum number of bytes being replayed from the archive.
+     * @return this
+     * @see EngineConfiguration#MAX_REPLAY_BYTES_IN_FLIGHT_PROP
+     */
+    public EngineConfiguration maxReplayBytesInFlight(final long maxReplayBytesInFlight)
+    {
+        this.maxReplayBytesInFlight = maxReplayBytesInFlight;
+        return this;
+    }
+
     /**
      * Sets the set size of the logger's caches.
      * <p>
@@ -634,6 +860,24 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets how the sent and received sequence number indices are synced to disk.
+     * <p>
+     * The {@link IndexFileSyncMode#SYNC_DIRTY_SECTORS} mode only copies the parts of the indices that have changed
+     * and forces them to disk on a separate thread, so the index file state flush timeout can be set much lower
+     * than with the default {@link IndexFileSyncMode#FLIP_FILES} mode, which copies and forces the whole of each file
+     * on the archiving thread. The position that each index is durable up to is published in a counter.
+     *
+     * @param indexFileSyncMode the mode to sync the sequence number indices with.
+     * @return this
+     * @see EngineConfiguration#INDEX_FILE_SYNC_MODE_PROP
+     */
+    public EngineConfiguration indexFileSyncMode(final IndexFileSyncMode indexFileSyncMode)
+    {
+        this.indexFileSyncMode = indexFileSyncMode;
+        return this;
+    }
+
     public EngineConfiguration acceptorfixDictionary(final Class<? extends FixDictionary> acceptorfixDictionary)
     {
         this.acceptorfixDictionary = FixDictionary.of(acceptorfixDictionary);
@@ -645,6 +889,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return receiverBufferSize;
     }
 
+    public int receiverBufferPoolMinSize()
+    {
+        return receiverBufferPoolMinSize;
+    }
+
+    public int inboundDirectClaimThreshold()
+    {
+        return inboundDirectClaimThreshold;
+    }
+
     public int receiverSocketBufferSize()
     {
         return receiverSocketBufferSize;
@@ -675,6 +929,41 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return replayIndexFileSize;
     }
 
+    public int replayIndexSessionsPerSegment()
+    {
+        return replayIndexSessionsPerSegment;
+    }
+
+    public int replayIndexMaxSessions()
+    {
+        return replayIndexMaxSessions;
+    }
+
+    public long timeIndexInterval()
+    {
+        return timeIndexInterval;
+    }
+
+    public int resendCacheSize()
+    {
+        return resendCacheSize;
+    }
+
+    public int resendCacheMaxMessageLength()
+    {
+        return resendCacheMaxMessageLength;
+    }
+
+    public int maxConcurrentReplays()
+    {
+        return maxConcurrentReplays;
+    }
+
+    public long maxReplayBytesInFlight()
+    {
+        return maxReplayBytesInFlight;
+    }
+
     public int loggerCacheSetSize()
     {
         return loggerCacheSetSize;
@@ -810,6 +1099,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return indexFileStateFlushTimeoutInMs;
     }
 
+    public IndexFileSyncMode indexFileSyncMode()
+    {
+        return indexFileSyncMode;
+    }
+
     public FixDictionary acceptorfixDictionary()
     {
         return acceptorfixDictionary;
@@ -950,6 +1244,22 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
                 sessionBufferSize()));
         }
 
+        if (receiverBufferPoolMinSize() < 0 || receiverBufferPoolMinSize() > receiverBufferSize())
+        {
+            throw new IllegalArgumentException(String.format(
+                "receiverBufferPoolMinSize(%d) must be between 0 and receiverBufferSize(%d)",
+                receiverBufferPoolMinSize(),
+                receiverBufferSize()));
+        }
+
+        if (inboundDirectClaimThreshold() < 0)
+        {
+            throw new IllegalArgumentException(
+                "inboundDirectClaimThreshold must be >= 0, but was " + inboundDirectClaimThreshold());
+        }
+
+        validateReplayConfiguration();
+
         if (sentSequenceNumberIndex() == null)
         {
             sentSequenceNumberIndex = mapFile(DEFAULT_SEQUENCE_NUMBERS_SENT_FILE, sequenceNumberIndexSize);
@@ -991,6 +1301,49 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    private void validateReplayConfiguration()
+    {
+        if (resendCacheSize() < 0)
+        {
+            throw new IllegalArgumentException("resendCacheSize must be >= 0, but was " + resendCacheSize());
+        }
+
+        if (resendCacheMaxMessageLength() <= 0)
+        {
+            throw new IllegalArgumentException(
+                "resendCacheMaxMessageLength must be > 0, but was " + resendCacheMaxMessageLength());
+        }
+
+        if (maxConcurrentReplays() <= 0)
+        {
+            throw new IllegalArgumentException(
+                "maxConcurrentReplays must be > 0, but was " + maxConcurrentReplays());
+        }
+
+        if (maxReplayBytesInFlight() <= 0)
+        {
+            throw new IllegalArgumentException(
+                "maxReplayBytesInFlight must be > 0, but was " + maxReplayBytesInFlight());
+        }
+
+        if (replayIndexSessionsPerSegment() < 0)
+        {
+            throw new IllegalArgumentException(
+                "replayIndexSessionsPerSegment must be >= 0, but was " + replayIndexSessionsPerSegment());
+        }
+
+        if (replayIndexMaxSessions() <= 0)
+        {
+            throw new IllegalArgumentException(
+                "replayIndexMaxSessions must be > 0, but was " + replayIndexMaxSessions());
+        }
+
+        if (timeIndexInterval() < 0)
+        {
+            throw new IllegalArgumentException("timeIndexInterval must be >= 0, but was " + timeIndexInterval());
+        }
+    }
+
     private MappedFile mapFile(final String file, final int size)
     {
         return MappedFile.map(logFileDir() + File.separator + file, size);
@@ -21,9 +21,11 @@ import io.aeron.Subscription;
 import io.aeron.UnavailableImageHandler;
 import io.aeron.archive.client.AeronArchive;
 import io.aeron.logbuffer.BufferClaim;
+import org.agrona.CloseHelper;
 import org.agrona.ErrorHandler;
 import org.agrona.concurrent.*;
 import uk.co.real_logic.artio.Clock;
+import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.StreamInformation;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
@@ -34,7 +36,6 @@ import uk.co.real_logic.artio.protocol.Streams;
 import java.util.ArrayList;
 import java.util.List;
 
-import static java.util.Arrays.asList;
 import static uk.co.real_logic.artio.dictionary.generation.Exceptions.suppressingClose;
 
 public class EngineContext implements AutoCloseable
@@ -61,6 +62,7 @@ public class EngineContext implements AutoCloseable
     private Indexer inboundIndexer;
     private Indexer outboundIndexer;
     private Agent indexingAgent;
+    private AgentRunner indexFileSyncerRunner;
 
     EngineContext(
         final EngineConfiguration configuration,
@@ -85,24 +87,30 @@ public class EngineContext implements AutoCloseable
         try
         {
             final EpochClock epochClock = new SystemEpochClock();
-            sentSequenceNumberIndex = new SequenceNumberIndexWriter(
+            final IndexFileSyncer indexFileSyncer =
+                configuration.indexFileSyncMode() == IndexFileSyncMode.SYNC_DIRTY_SECTORS ?
+                new IndexFileSyncer() : null;
+            sentSequenceNumberIndex = newSequenceNumberIndexWriter(
                 configuration.sentSequenceNumberBuffer(),
                 configuration.sentSequenceNumberIndex(),
-                errorHandler,
                 configuration.outboundLibraryStream(),
                 recordingCoordinator.outboundRecordingIdLookup(),
-                configuration.indexFileStateFlushTimeoutInMs(),
-                epochClock
-            );
-            receivedSequenceNumberIndex = new SequenceNumberIndexWriter(
+                epochClock,
+                indexFileSyncer);
+            receivedSequenceNumberIndex = newSequenceNumberIndexWriter(
                 configuration.receivedSequenceNumberBuffer(),
                 configuration.receivedSequenceNumberIndex(),
-                errorHandler,
                 configuration.inboundLibraryStream(),
                 recordingCoordinator.inboundRecordingIdLookup(),
-                configuration.indexFileStateFlushTimeoutInMs(),
-                epochClock
-            );
+                epochClock,
+                indexFileSyncer);
+
+            if (indexFileSyncer != null)
+            {
+                indexFileSyncerRunner = new AgentRunner(
+                    CommonConfiguration.backoffIdleStrategy(), errorHandler, null, indexFileSyncer);
+                AgentRunner.startOnThread(indexFileSyncerRunner, configuration.threadFactory());
+            }
 
             newStreams();
             newArchivingAgent();
@@ -117,6 +125,26 @@ public class EngineContext implements AutoCloseable
         }
     }
 
+    private SequenceNumberIndexWriter newSequenceNumberIndexWriter(
+        final AtomicBuffer inMemoryBuffer,
+        final MappedFile indexFile,
+        final int streamId,
+        final RecordingIdLookup recordingIdLookup,
+        final EpochClock epochClock,
+        final IndexFileSyncer indexFileSyncer)
+    {
+        return new SequenceNumberIndexWriter(
+            inMemoryBuffer,
+            indexFile,
+            errorHandler,
+            streamId,
+            recordingIdLookup,
+            configuration.indexFileStateFlushTimeoutInMs(),
+            epochClock,
+            indexFileSyncer,
+            indexFileSyncer == null ? null : fixCounters.indexDurablePosition(streamId));
+    }
+
     private void newStreams()
     {
         final String libraryAeronChannel = configuration.libraryAeronChannel();
@@ -158,7 +186,24 @@ public class EngineContext implements AutoCloseable
             LoggerUtil::map,
             ReplayIndexDescriptor.replayPositionBuffer(logFileDir, streamId),
             errorHandler,
-            recordingIdLookup);
+            recordingIdLookup,
+            newReplayIndexStore(streamId));
+    }
+
+    private ReplayIndexStore newReplayIndexStore(final int streamId)
+    {
+        final int sessionsPerSegment = configuration.replayIndexSessionsPerSegment();
+        if (sessionsPerSegment == 0)
+        {
+            return null;
+        }
+
+        return new ReplayIndexStore(
+            configuration.logFileDir(),
+            streamId,
+            configuration.replayIndexFileSize(),
+            sessionsPerSegment,
+            configuration.replayIndexMaxSessions());
     }
 
     private ReplayQuery newReplayQuery(final IdleStrategy idleStrategy, final int streamId)
@@ -177,19 +222,24 @@ public class EngineContext implements AutoCloseable
             idleStrategy,
             aeronArchive,
             errorHandler,
-            archiveReplayStream);
+            archiveReplayStream,
+            newReplayIndexStore(streamId),
+            streamId == configuration.outboundLibraryStream());
     }
 
     private Replayer newReplayer(
-        final ExclusivePublication replayPublication)
+        final ExclusivePublication replayPublication, final ResendCache resendCache)
     {
         return new Replayer(
             newReplayQuery(configuration.archiverIdleStrategy(), configuration.outboundLibraryStream()),
+            resendCache,
             replayPublication,
             new BufferClaim(),
             configuration.archiverIdleStrategy(),
             errorHandler,
             configuration.outboundMaxClaimAttempts(),
+            configuration.maxConcurrentReplays(),
+            configuration.maxReplayBytesInFlight(),
             inboundLibraryStreams.subscription("replayer"),
             configuration.agentNamePrefix(),
             new SystemEpochClock(),
@@ -199,7 +249,18 @@ public class EngineContext implements AutoCloseable
             new FixSessionCodecsFactory());
     }
 
-    private void newIndexers()
+    private ResendCache newResendCache()
+    {
+        return new ResendCache(
+            configuration.outboundLibraryStream(),
+            configuration.loggerCacheNumSets(),
+            configuration.loggerCacheSetSize(),
+            configuration.resendCacheSize(),
+            configuration.resendCacheMaxMessageLength(),
+            errorHandler);
+    }
+
+    private void newIndexers(final ResendCache resendCache)
     {
         final int cacheSetSize = configuration.loggerCacheSetSize();
         final int cacheNumSets = configuration.loggerCacheNumSets();
@@ -212,8 +273,14 @@ public class EngineContext implements AutoCloseable
             configuration.inboundLibraryStream(),
             recordingCoordinator.inboundRecordingIdLookup());
 
+        final List<Index> inboundIndices = new ArrayList<>();
+        inboundIndices.add(inboundReplayIndex);
+        inboundIndices.add(receivedSequenceNumberIndex);
+        addTimeIndex(
+            inboundIndices, configuration.inboundLibraryStream(), recordingCoordinator.inboundRecordingIdLookup());
+
         inboundIndexer = new Indexer(
-            asList(inboundReplayIndex, receivedSequenceNumberIndex),
+            inboundIndices,
             inboundLibraryStreams.subscription("inboundIndexer"),
             configuration.agentNamePrefix(),
             inboundCompletionPosition,
@@ -230,7 +297,13 @@ public class EngineContext implements AutoCloseable
             configuration.outboundLibraryStream(),
             recordingCoordinator.outboundRecordingIdLookup()));
         outboundIndices.add(sentSequenceNumberIndex);
+        if (configuration.resendCacheSize() > 0)
+        {
+            outboundIndices.add(resendCache);
+        }
         outboundIndices.add(new PositionSender(inboundPublication()));
+        addTimeIndex(
+            outboundIndices, configuration.outboundLibraryStream(), recordingCoordinator.outboundRecordingIdLookup());
 
         outboundIndexer = new Indexer(
             outboundIndices,
@@ -242,13 +315,25 @@ public class EngineContext implements AutoCloseable
             configuration.archiveReplayStream(), configuration.gracefulShutdown());
     }
 
+    private void addTimeIndex(
+        final List<Index> indices, final int streamId, final RecordingIdLookup recordingIdLookup)
+    {
+        final long timeIndexInterval = configuration.timeIndexInterval();
+        if (timeIndexInterval > 0)
+        {
+            indices.add(new TimeIndex(
+                configuration.logFileDir(), streamId, timeIndexInterval, recordingIdLookup, errorHandler));
+        }
+    }
+
     private void newArchivingAgent()
     {
         if (configuration.logOutboundMessages())
         {
-            newIndexers();
+            final ResendCache resendCache = newResendCache();
+            newIndexers(resendCache);
 
-            final Replayer replayer = newReplayer(replayPublication);
+            final Replayer replayer = newReplayer(replayPublication, resendCache);
 
             final List<Agent> agents = new ArrayList<>();
             agents.add(inboundIndexer);
@@ -337,6 +422,9 @@ public class EngineContext implements AutoCloseable
 
     public void close()
     {
+        // Stopped first, as the syncer forces the writers' files until then.
+        CloseHelper.close(indexFileSyncerRunner);
+
         if (configuration.gracefulShutdown())
         {
             Exceptions.closeAll(
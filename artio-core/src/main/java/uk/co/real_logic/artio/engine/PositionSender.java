@@ -22,6 +22,7 @@ import org.agrona.collections.LongLongConsumer;
 import uk.co.real_logic.artio.Pressure;
 import uk.co.real_logic.artio.engine.logger.Index;
 import uk.co.real_logic.artio.engine.logger.IndexedPositionConsumer;
+import uk.co.real_logic.artio.messages.FixMessageBatchDecoder;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
@@ -32,6 +33,7 @@ public class PositionSender implements Index
 
     private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
     private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final FixMessageBatchDecoder fixMessageBatch = new FixMessageBatchDecoder();
     private final Long2LongHashMap libraryIdToPosition = new Long2LongHashMap(MISSING_LIBRARY);
     private final LongLongConsumer resendPositionFunc = this::endPosition;
 
@@ -61,6 +63,14 @@ public class PositionSender implements Index
 
             newPosition(fixMessage.libraryId(), header.position());
         }
+        else if (messageHeader.templateId() == FixMessageBatchDecoder.TEMPLATE_ID)
+        {
+            offset += MessageHeaderDecoder.ENCODED_LENGTH;
+
+            fixMessageBatch.wrap(buffer, offset, messageHeader.blockLength(), messageHeader.version());
+
+            newPosition(fixMessageBatch.libraryId(), header.position());
+        }
     }
 
     public void newPosition(final int libraryId, final long endPosition)
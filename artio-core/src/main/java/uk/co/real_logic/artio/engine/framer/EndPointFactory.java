@@ -30,6 +30,7 @@ class EndPointFactory
     private final ErrorHandler errorHandler;
     private final GatewaySessions gatewaySessions;
     private final SenderSequenceNumbers senderSequenceNumbers;
+    private final ReceiveBufferPool receiveBufferPool;
 
     private SlowPeeker replaySlowPeeker;
 
@@ -49,6 +50,10 @@ class EndPointFactory
         this.errorHandler = errorHandler;
         this.gatewaySessions = gatewaySessions;
         this.senderSequenceNumbers = senderSequenceNumbers;
+
+        final int receiverBufferPoolMinSize = configuration.receiverBufferPoolMinSize();
+        receiveBufferPool = receiverBufferPoolMinSize > 0 ?
+            new ReceiveBufferPool(receiverBufferPoolMinSize, configuration.receiverBufferSize()) : null;
     }
 
     ReceiverEndPoint receiverEndPoint(
@@ -62,6 +67,8 @@ class EndPointFactory
         return new ReceiverEndPoint(
             channel,
             configuration.receiverBufferSize(),
+            receiveBufferPool,
+            configuration.inboundDirectClaimThreshold(),
             inboundLibraryPublication,
             connectionId,
             sessionId,
@@ -67,6 +67,7 @@ import java.util.function.Predicate;
 import static io.aeron.Publication.BACK_PRESSURED;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.agrona.collections.CollectionUtil.removeIf;
 import static uk.co.real_logic.artio.GatewayProcess.NO_CONNECTION_ID;
@@ -160,6 +161,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private long nextConnectionId = (long)(Math.random() * Long.MAX_VALUE);
 
     private boolean performingCloseOperation = false;
+    private boolean isReassembledOutboundMessage = false;
 
     Framer(
         final EpochClock epochClock,
@@ -229,8 +231,14 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
 
         engineBlockablePosition = getOutboundSlowPeeker(outboundPublication);
+        final ControlledFragmentHandler libraryProtocolSubscription =
+            ProtocolSubscription.of(this, new EngineProtocolSubscription(this));
         librarySubscriber = new ControlledFragmentAssembler(
-            ProtocolSubscription.of(this, new EngineProtocolSubscription(this)),
+            (buffer, offset, length, header) ->
+            {
+                isReassembledOutboundMessage = (header.flags() & UNFRAGMENTED) != UNFRAGMENTED;
+                return libraryProtocolSubscription.onFragment(buffer, offset, length, header);
+            },
             0,
             true);
         nonLoggingPositionSender = configuration.logOutboundMessages() ?
@@ -369,6 +377,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private int sendOutboundMessages()
     {
         int messagesRead = librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit);
+        senderEndPoints.flushQueuedMessages();
         messagesRead += librarySlowPeeker.peek(senderEndPointAssembler);
 
         if (nonLoggingPositionSender != null)
@@ -913,7 +922,41 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     {
         final long now = outboundTimer.recordSince(timestamp);
 
-        senderEndPoints.onMessage(libraryId, connectionId, buffer, offset, length, sequenceNumber, position);
+        senderEndPoints.onMessage(
+            libraryId, connectionId, buffer, offset, length, sequenceNumber, position, isReassembledOutboundMessage);
+
+        if (nonLoggingPositionSender != null)
+        {
+            nonLoggingPositionSender.newPosition(libraryId, position);
+        }
+
+        sendTimer.recordSince(now);
+
+        return CONTINUE;
+    }
+
+    public Action onMessageBatch(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final int libraryId,
+        final long connectionId,
+        final long timestamp,
+        final int lastSequenceNumber,
+        final long position)
+    {
+        final long now = outboundTimer.recordSince(timestamp);
+
+        // The bodies are contiguous, so the end point sends the whole batch as if it were one message.
+        senderEndPoints.onMessage(
+            libraryId,
+            connectionId,
+            buffer,
+            offset,
+            length,
+            lastSequenceNumber,
+            position,
+            isReassembledOutboundMessage);
 
         if (nonLoggingPositionSender != null)
         {
@@ -991,6 +1034,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     public Action onDisconnect(final int libraryId, final long connectionId, final DisconnectReason reason)
     {
+        // Messages sent before the disconnect, for example a logout, must be written before the channel is closed.
+        senderEndPoints.flushQueuedMessages();
         receiverEndPoints.removeConnection(connectionId, reason);
         senderEndPoints.removeConnection(connectionId);
         final LiveLibraryInfo library = idToLibrary.get(libraryId);
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.BitUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.engine.ByteBufferUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+
+import static org.agrona.BitUtil.CACHE_LINE_LENGTH;
+
+/**
+ * Lock-free single producer, single consumer ring of bytes that forms one direction of an in memory connection.
+ *
+ * The producer and consumer positions are kept on separate cache lines so that the writing and reading Framers
+ * don't false share.
+ */
+class InMemoryByteRing
+{
+    static final int SOCKET_DISCONNECTED = -1;
+
+    private static final int HEAD_OFFSET = 0;
+    private static final int TAIL_OFFSET = HEAD_OFFSET + 2 * CACHE_LINE_LENGTH;
+    private static final int POSITIONS_LENGTH = TAIL_OFFSET + 2 * CACHE_LINE_LENGTH;
+
+    private final UnsafeBuffer buffer;
+    private final UnsafeBuffer positions;
+    private final int capacity;
+    private final int mask;
+
+    private volatile boolean isWriterClosed = false;
+    private volatile boolean isReaderClosed = false;
+
+    InMemoryByteRing(final int capacity)
+    {
+        if (!BitUtil.isPowerOfTwo(capacity))
+        {
+            throw new IllegalArgumentException("capacity must be a positive power of 2, but was " + capacity);
+        }
+
+        this.capacity = capacity;
+        mask = capacity - 1;
+        buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(capacity));
+        positions = new UnsafeBuffer(ByteBuffer.allocateDirect(POSITIONS_LENGTH));
+    }
+
+    int capacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Write as many bytes from the remaining bytes of src as there is space for, like a non-blocking socket write.
+     *
+     * @param src the buffer to write from, its position is advanced by the number of bytes written.
+     * @return the number of bytes written, possibly 0.
+     * @throws IOException if either end of the ring has been closed.
+     */
+    int write(final ByteBuffer src) throws IOException
+    {
+        if (isWriterClosed)
+        {
+            throw new ClosedChannelException();
+        }
+
+        if (isReaderClosed)
+        {
+            throw new IOException("Connection reset by peer");
+        }
+
+        final UnsafeBuffer positions = this.positions;
+        final long head = positions.getLongVolatile(HEAD_OFFSET);
+        final long tail = positions.getLong(TAIL_OFFSET);
+        final int length = (int)Math.min(src.remaining(), capacity - (tail - head));
+        if (length == 0)
+        {
+            return 0;
+        }
+
+        final int srcPosition = src.position();
+        final int index = (int)tail & mask;
+        final int firstLength = Math.min(length, capacity - index);
+        buffer.putBytes(index, src, srcPosition, firstLength);
+        if (firstLength < length)
+        {
+            buffer.putBytes(0, src, srcPosition + firstLength, length - firstLength);
+        }
+
+        ByteBufferUtil.position(src, srcPosition + length);
+        positions.putLongOrdered(TAIL_OFFSET, tail + length);
+
+        return length;
+    }
+
+    /**
+     * Read as many bytes as are available into the remaining space of dst, like a non-blocking socket read.
+     *
+     * @param dst the buffer to read into, its position is advanced by the number of bytes read.
+     * @return the number of bytes read, possibly 0, or {@link #SOCKET_DISCONNECTED} if the writer has closed
+     * and all written data has been read.
+     * @throws IOException if the reading end of the ring has been closed.
+     */
+    int read(final ByteBuffer dst) throws IOException
+    {
+        if (isReaderClosed)
+        {
+            throw new ClosedChannelException();
+        }
+
+        // Read the closed flag before the tail so that no data written before closing is missed.
+        final boolean isWriterClosed = this.isWriterClosed;
+        final UnsafeBuffer positions = this.positions;
+        final long tail = positions.getLongVolatile(TAIL_OFFSET);
+        final long head = positions.getLong(HEAD_OFFSET);
+        final int available = (int)(tail - head);
+        if (available == 0)
+        {
+            return isWriterClosed ? SOCKET_DISCONNECTED : 0;
+        }
+
+        final int length = Math.min(dst.remaining(), available);
+        if (length == 0)
+        {
+            return 0;
+        }
+
+        final int dstPosition = dst.position();
+        final int index = (int)head & mask;
+        final int firstLength = Math.min(length, capacity - index);
+        buffer.getBytes(index, dst, dstPosition, firstLength);
+        if (firstLength < length)
+        {
+            buffer.getBytes(0, dst, dstPosition + firstLength, length - firstLength);
+        }
+
+        ByteBufferUtil.position(dst, dstPosition + length);
+        positions.putLongOrdered(HEAD_OFFSET, head + length);
+
+        return length;
+    }
+
+    void closeWriter()
+    {
+        isWriterClosed = true;
+    }
+
+    void closeReader()
+    {
+        isReaderClosed = true;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+/**
+ * One end of an in memory connection, reading from one ring and writing to another.
+ */
+class InMemoryTcpChannel extends TcpChannel
+{
+    private final InMemoryByteRing inbound;
+    private final InMemoryByteRing outbound;
+
+    InMemoryTcpChannel(final String remoteAddress, final InMemoryByteRing inbound, final InMemoryByteRing outbound)
+    {
+        super(remoteAddress);
+        this.inbound = inbound;
+        this.outbound = outbound;
+    }
+
+    public SelectionKey register(final Selector sel, final int ops, final Object att)
+    {
+        return null;
+    }
+
+    public int write(final ByteBuffer src) throws IOException
+    {
+        return outbound.write(src);
+    }
+
+    public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException
+    {
+        long written = 0;
+        for (int i = offset, end = offset + length; i < end; i++)
+        {
+            final ByteBuffer src = srcs[i];
+            final int remaining = src.remaining();
+            final int bytesWritten = outbound.write(src);
+            written += bytesWritten;
+            if (bytesWritten < remaining)
+            {
+                break;
+            }
+        }
+
+        return written;
+    }
+
+    public int read(final ByteBuffer dst) throws IOException
+    {
+        return inbound.read(dst);
+    }
+
+    public void close()
+    {
+        outbound.closeWriter();
+        inbound.closeReader();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.ManyToOneConcurrentLinkedQueue;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Supplies connections over an {@link InMemoryTcpNetwork} rather than TCP sockets.
+ *
+ * Connections are accepted from the Framer threads of other engines, but are only handed to this engine's Framer
+ * when it polls, in the same way as with the {@link DefaultTcpChannelSupplier}.
+ */
+public class InMemoryTcpChannelSupplier extends TcpChannelSupplier
+{
+    private final ManyToOneConcurrentLinkedQueue<InMemoryTcpChannel> acceptedChannels =
+        new ManyToOneConcurrentLinkedQueue<>();
+    private final ArrayDeque<PendingConnect> pendingConnects = new ArrayDeque<>();
+    private final InMemoryTcpNetwork network;
+    private final InetSocketAddress bindAddress;
+
+    private volatile boolean isClosed = false;
+
+    public InMemoryTcpChannelSupplier(final InMemoryTcpNetwork network, final EngineConfiguration configuration)
+    {
+        this.network = network;
+
+        if (configuration.hasBindAddress())
+        {
+            bindAddress = configuration.bindAddress();
+            network.bind(bindAddress, this);
+        }
+        else
+        {
+            bindAddress = null;
+        }
+    }
+
+    void onAccept(final InMemoryTcpChannel channel) throws ConnectException
+    {
+        if (isClosed)
+        {
+            throw new ConnectException("Connection refused: " + bindAddress);
+        }
+
+        acceptedChannels.offer(channel);
+    }
+
+    void open(final InetSocketAddress address, final InitiatedChannelHandler channelHandler)
+    {
+        // Completed on the next poll, like a non-blocking connect.
+        try
+        {
+            pendingConnects.add(new PendingConnect(address, channelHandler, network.connect(address), null));
+        }
+        catch (final ConnectException ex)
+        {
+            pendingConnects.add(new PendingConnect(address, channelHandler, null, ex));
+        }
+    }
+
+    void stopConnecting(final InetSocketAddress address)
+    {
+        final Iterator<PendingConnect> it = pendingConnects.iterator();
+        while (it.hasNext())
+        {
+            final PendingConnect pendingConnect = it.next();
+            if (pendingConnect.address.equals(address))
+            {
+                it.remove();
+                pendingConnect.close();
+                break;
+            }
+        }
+    }
+
+    int pollSelector(final long timeInMs, final NewChannelHandler handler) throws IOException
+    {
+        int count = 0;
+
+        InMemoryTcpChannel acceptedChannel;
+        while ((acceptedChannel = acceptedChannels.poll()) != null)
+        {
+            handler.onNewChannel(timeInMs, acceptedChannel);
+            count++;
+        }
+
+        PendingConnect pendingConnect;
+        while ((pendingConnect = pendingConnects.poll()) != null)
+        {
+            pendingConnect.channelHandler.onInitiatedChannel(pendingConnect.channel, pendingConnect.exception);
+            count++;
+        }
+
+        return count;
+    }
+
+    public void close()
+    {
+        isClosed = true;
+
+        if (bindAddress != null)
+        {
+            network.unbind(bindAddress, this);
+        }
+
+        InMemoryTcpChannel acceptedChannel;
+        while ((acceptedChannel = acceptedChannels.poll()) != null)
+        {
+            acceptedChannel.close();
+        }
+
+        pendingConnects.forEach(PendingConnect::close);
+        pendingConnects.clear();
+    }
+
+    private static final class PendingConnect
+    {
+        private final InetSocketAddress address;
+        private final InitiatedChannelHandler channelHandler;
+        private final InMemoryTcpChannel channel;
+        private final IOException exception;
+
+        private PendingConnect(
+            final InetSocketAddress address,
+            final InitiatedChannelHandler channelHandler,
+            final InMemoryTcpChannel channel,
+            final IOException exception)
+        {
+            this.address = address;
+            this.channelHandler = channelHandler;
+            this.channel = channel;
+            this.exception = exception;
+        }
+
+        private void close()
+        {
+            if (channel != null)
+            {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.BitUtil;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in memory network that engines within the same JVM can bind to and connect over without using sockets.
+ *
+ * Each connection is a pair of lock-free single producer, single consumer byte rings, so messages still flow through
+ * the whole of the Framer, but without the noise of the TCP stack. This is intended for benchmarking and testing.
+ *
+ * To use it share a single network between the engines:
+ * <pre>
+ * final InMemoryTcpNetwork network = new InMemoryTcpNetwork();
+ * acceptingConfiguration.channelSupplierFactory(network::newChannelSupplier);
+ * initiatingConfiguration.channelSupplierFactory(network::newChannelSupplier);
+ * </pre>
+ */
+public class InMemoryTcpNetwork
+{
+    public static final int DEFAULT_RING_CAPACITY = 1024 * 1024;
+
+    private static final int FIRST_EPHEMERAL_PORT = 49152;
+
+    private final Map<InetSocketAddress, InMemoryTcpChannelSupplier> addressToAcceptor = new ConcurrentHashMap<>();
+    private final AtomicInteger nextEphemeralPort = new AtomicInteger(FIRST_EPHEMERAL_PORT);
+    private final int ringCapacity;
+
+    public InMemoryTcpNetwork()
+    {
+        this(DEFAULT_RING_CAPACITY);
+    }
+
+    /**
+     * Create a network.
+     *
+     * @param ringCapacity the number of bytes that can be in flight in each direction of a connection, must be a
+     *                     power of 2.
+     */
+    public InMemoryTcpNetwork(final int ringCapacity)
+    {
+        if (!BitUtil.isPowerOfTwo(ringCapacity))
+        {
+            throw new IllegalArgumentException("ringCapacity must be a positive power of 2, but was " + ringCapacity);
+        }
+
+        this.ringCapacity = ringCapacity;
+    }
+
+    public TcpChannelSupplier newChannelSupplier(final EngineConfiguration configuration)
+    {
+        return new InMemoryTcpChannelSupplier(this, configuration);
+    }
+
+    void bind(final InetSocketAddress address, final InMemoryTcpChannelSupplier acceptor)
+    {
+        if (addressToAcceptor.putIfAbsent(address, acceptor) != null)
+        {
+            throw new IllegalStateException("Address already in use: " + address);
+        }
+    }
+
+    void unbind(final InetSocketAddress address, final InMemoryTcpChannelSupplier acceptor)
+    {
+        addressToAcceptor.remove(address, acceptor);
+    }
+
+    InMemoryTcpChannel connect(final InetSocketAddress address) throws ConnectException
+    {
+        InMemoryTcpChannelSupplier acceptor = addressToAcceptor.get(address);
+        if (acceptor == null)
+        {
+            // Acceptors bound to the wildcard address accept connections to any host.
+            acceptor = addressToAcceptor.get(new InetSocketAddress(address.getPort()));
+        }
+
+        if (acceptor == null)
+        {
+            throw new ConnectException("Connection refused: " + address);
+        }
+
+        final InetSocketAddress localAddress = new InetSocketAddress(
+            InetAddress.getLoopbackAddress(), nextEphemeralPort.getAndIncrement());
+        final InMemoryByteRing toAcceptor = new InMemoryByteRing(ringCapacity);
+        final InMemoryByteRing toInitiator = new InMemoryByteRing(ringCapacity);
+
+        acceptor.onAccept(new InMemoryTcpChannel(localAddress.toString(), toAcceptor, toInitiator));
+
+        return new InMemoryTcpChannel(address.toString(), toInitiator, toAcceptor);
+    }
+}
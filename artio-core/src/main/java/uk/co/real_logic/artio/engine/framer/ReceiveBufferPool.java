@@ -0,0 +1,186 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.collections.ArrayUtil;
+import uk.co.real_logic.artio.engine.ByteBufferUtil;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Pool of off-heap receive buffers that are shared between the receiver end points of a Framer.
+ *
+ * Buffers come in size classes that double from the minimum buffer size up to the maximum buffer size. Each size
+ * class is carved out of larger direct memory slabs so that idle connections don't hold their own direct buffer.
+ * Memory is recycled between end points rather than returned to the operating system.
+ *
+ * Not thread safe, only accessed from the Framer thread.
+ */
+class ReceiveBufferPool
+{
+    static final int SLAB_SIZE = 64 * 1024;
+
+    private final int minBufferSize;
+    private final int[] sizes;
+    private final ByteBuffer[][] freeBuffers;
+    private final int[] freeBufferCounts;
+
+    ReceiveBufferPool(final int minBufferSize, final int maxBufferSize)
+    {
+        if (minBufferSize <= 0 || minBufferSize > maxBufferSize)
+        {
+            throw new IllegalArgumentException(String.format(
+                "minBufferSize must be > 0 and <= maxBufferSize, but minBufferSize=%d, maxBufferSize=%d",
+                minBufferSize,
+                maxBufferSize));
+        }
+
+        this.minBufferSize = minBufferSize;
+
+        int sizeClassCount = 1;
+        for (long size = minBufferSize; size < maxBufferSize; size <<= 1)
+        {
+            sizeClassCount++;
+        }
+
+        sizes = new int[sizeClassCount];
+        for (int i = 0; i < sizeClassCount; i++)
+        {
+            sizes[i] = (int)Math.min((long)minBufferSize << i, maxBufferSize);
+        }
+
+        freeBuffers = new ByteBuffer[sizeClassCount][];
+        freeBufferCounts = new int[sizeClassCount];
+        for (int i = 0; i < sizeClassCount; i++)
+        {
+            freeBuffers[i] = new ByteBuffer[buffersPerSlab(sizes[i])];
+        }
+    }
+
+    int minBufferSize()
+    {
+        return minBufferSize;
+    }
+
+    int maxBufferSize()
+    {
+        return sizes[sizes.length - 1];
+    }
+
+    /**
+     * Acquire a cleared buffer from the pool.
+     *
+     * @param minimumCapacity the minimum capacity of the buffer, capped to the maximum buffer size.
+     * @return a cleared buffer of the smallest size class that fits the requested capacity.
+     */
+    ByteBuffer acquire(final int minimumCapacity)
+    {
+        final int sizeClass = sizeClassFor(minimumCapacity);
+        final int count = freeBufferCounts[sizeClass];
+        if (count == 0)
+        {
+            allocateSlab(sizeClass);
+        }
+
+        final ByteBuffer[] freeBuffers = this.freeBuffers[sizeClass];
+        final int index = freeBufferCounts[sizeClass] - 1;
+        final ByteBuffer buffer = freeBuffers[index];
+        freeBuffers[index] = null;
+        freeBufferCounts[sizeClass] = index;
+
+        return buffer;
+    }
+
+    void release(final ByteBuffer buffer)
+    {
+        final int sizeClass = sizeClassOf(buffer.capacity());
+        buffer.clear();
+
+        ByteBuffer[] freeBuffers = this.freeBuffers[sizeClass];
+        final int count = freeBufferCounts[sizeClass];
+        if (count == freeBuffers.length)
+        {
+            freeBuffers = ArrayUtil.ensureCapacity(freeBuffers, count * 2);
+            this.freeBuffers[sizeClass] = freeBuffers;
+        }
+
+        freeBuffers[count] = buffer;
+        freeBufferCounts[sizeClass] = count + 1;
+    }
+
+    int freeBufferCount(final int bufferSize)
+    {
+        return freeBufferCounts[sizeClassOf(bufferSize)];
+    }
+
+    private void allocateSlab(final int sizeClass)
+    {
+        final int size = sizes[sizeClass];
+        final int buffersPerSlab = buffersPerSlab(size);
+        final ByteBuffer slab = ByteBuffer.allocateDirect(size * buffersPerSlab);
+
+        ByteBuffer[] freeBuffers = this.freeBuffers[sizeClass];
+        if (freeBuffers.length < buffersPerSlab)
+        {
+            freeBuffers = ArrayUtil.ensureCapacity(freeBuffers, buffersPerSlab);
+            this.freeBuffers[sizeClass] = freeBuffers;
+        }
+
+        for (int i = 0; i < buffersPerSlab; i++)
+        {
+            final int offset = i * size;
+            ByteBufferUtil.limit(slab, offset + size);
+            ByteBufferUtil.position(slab, offset);
+            freeBuffers[i] = slab.slice();
+        }
+
+        freeBufferCounts[sizeClass] = buffersPerSlab;
+    }
+
+    private int sizeClassFor(final int minimumCapacity)
+    {
+        final int[] sizes = this.sizes;
+        final int lastSizeClass = sizes.length - 1;
+        for (int i = 0; i < lastSizeClass; i++)
+        {
+            if (sizes[i] >= minimumCapacity)
+            {
+                return i;
+            }
+        }
+
+        return lastSizeClass;
+    }
+
+    private int sizeClassOf(final int capacity)
+    {
+        final int[] sizes = this.sizes;
+        for (int i = 0; i < sizes.length; i++)
+        {
+            if (sizes[i] == capacity)
+            {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Buffer of capacity " + capacity + " doesn't belong to this pool");
+    }
+
+    private static int buffersPerSlab(final int size)
+    {
+        return Math.max(1, SLAB_SIZE / size);
+    }
+}
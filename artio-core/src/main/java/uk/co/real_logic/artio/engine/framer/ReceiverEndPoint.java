@@ -15,8 +15,10 @@
  */
 package uk.co.real_logic.artio.engine.framer;
 
+import io.aeron.logbuffer.BufferClaim;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.Clock;
 import uk.co.real_logic.artio.DebugLogger;
@@ -69,11 +71,13 @@ class ReceiverEndPoint
 
     private static final int MIN_CHECKSUM_SIZE = " 10=".length() + 1;
     private static final int CHECKSUM_TAG_SIZE = "10=".length();
+    private static final int CHECKSUM_TRAILER_SIZE = "\u000110=000\u0001".length();
     private static final int SOCKET_DISCONNECTED = -1;
     private static final int UNKNOWN_MESSAGE_TYPE = -1;
     private static final int BREAK = -1;
 
     private static final int UNKNOWN_INDEX_BACKPRESSURED = -2;
+    private static final int NO_CLAIM = -2;
 
     private final AbstractLogonDecoder acceptorLogon;
 
@@ -86,14 +90,18 @@ class ReceiverEndPoint
     private final ErrorHandler errorHandler;
     private final PasswordCleaner passwordCleaner = new PasswordCleaner();
     private final MutableAsciiBuffer buffer;
-    private final ByteBuffer byteBuffer;
+    private final ReceiveBufferPool receiveBufferPool;
+    private final int maxBufferSize;
     private final GatewaySessions gatewaySessions;
     private final Clock clock;
+    private final MutableAsciiBuffer claimedMessage = new MutableAsciiBuffer();
+    private final BufferClaim bufferClaim = new BufferClaim();
 
     private int libraryId;
     private GatewaySession gatewaySession;
     private long sessionId;
     private int sequenceIndex;
+    private ByteBuffer byteBuffer;
     private int usedBufferData = 0;
     private boolean hasDisconnected = false;
     private SelectionKey selectionKey;
@@ -105,9 +113,21 @@ class ReceiverEndPoint
     private int pendingAcceptorLogonMsgLength;
     private long lastReadTimestamp;
 
+    // State for reading the remainder of large messages straight into a claim on the publication, 0 disables it.
+    private int directClaimThreshold;
+    private int partialMessageLength;
+    private int partialMessageEndOfBodyLength;
+    private ByteBuffer logByteBuffer;
+    private ByteBuffer claimByteBuffer;
+    // A claim is kept open until the whole message has been read into it, claimedMessageLength is 0 when there's none.
+    private int claimedMessageLength;
+    private int claimedMessageType;
+
     ReceiverEndPoint(
         final TcpChannel channel,
         final int bufferSize,
+        final ReceiveBufferPool receiveBufferPool,
+        final int directClaimThreshold,
         final GatewayPublication publication,
         final long connectionId,
         final long sessionId,
@@ -140,8 +160,20 @@ class ReceiverEndPoint
         this.clock = clock;
         this.acceptorLogon = acceptorFixDictionary.makeLogonDecoder();
 
-        byteBuffer = ByteBuffer.allocateDirect(bufferSize);
-        buffer = new MutableAsciiBuffer(byteBuffer);
+        this.receiveBufferPool = receiveBufferPool;
+        this.maxBufferSize = bufferSize;
+        this.directClaimThreshold = directClaimThreshold;
+
+        // When pooled the buffer is only borrowed whilst reading and framing, or holding a partial message.
+        if (receiveBufferPool == null)
+        {
+            byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+            buffer = new MutableAsciiBuffer(byteBuffer);
+        }
+        else
+        {
+            buffer = new MutableAsciiBuffer();
+        }
     }
 
     public long connectionId()
@@ -164,10 +196,23 @@ class ReceiverEndPoint
         try
         {
             final long latestReadTimestamp = clock.time();
-            final int bytesRead = readData();
+            int bytesRead = NO_CLAIM;
+            if (claimedMessageLength > 0)
+            {
+                bytesRead = readIntoOpenClaim();
+            }
+            else if (partialMessageLength > 0)
+            {
+                bytesRead = readIntoClaim(latestReadTimestamp);
+            }
+            if (bytesRead == NO_CLAIM)
+            {
+                bytesRead = readData();
+            }
             if (frameMessages(bytesRead == 0 ? lastReadTimestamp : latestReadTimestamp))
             {
                 lastReadTimestamp = latestReadTimestamp;
+                releaseBufferIfEmpty();
                 return bytesRead;
             }
             else
@@ -246,6 +291,7 @@ class ReceiverEndPoint
             // Move any data received after the logon message.
             offset += length;
             moveRemainingDataToBufferStart(offset);
+            releaseBufferIfEmpty();
             return offset;
         }
         else
@@ -256,6 +302,7 @@ class ReceiverEndPoint
 
     private int readData() throws IOException
     {
+        final ByteBuffer byteBuffer = readableBuffer();
         final int dataRead = channel.read(byteBuffer);
         if (dataRead != SOCKET_DISCONNECTED)
         {
@@ -273,9 +320,259 @@ class ReceiverEndPoint
         return dataRead;
     }
 
+    // Reads the rest of a large partial message straight into a claim on the publication, rather than staging it in
+    // the receive buffer and copying it into the publication once it has been framed. Returns NO_CLAIM when the
+    // message isn't eligible, in which case the data should be read as normal.
+    private int readIntoClaim(final long readTimestamp) throws IOException
+    {
+        final GatewayPublication publication = this.publication;
+        final int messageLength = partialMessageLength;
+        final int prefixLength = usedBufferData;
+        if (messageLength - prefixLength < directClaimThreshold ||
+            messageLength > publication.maxUnfragmentedMessageLength() ||
+            messageLength > byteBuffer.capacity() ||
+            requiresAuthentication())
+        {
+            return NO_CLAIM;
+        }
+
+        final int messageType = partialMessageType();
+        if (messageType == UNKNOWN_MESSAGE_TYPE ||
+            messageType == LOGON_MESSAGE_TYPE ||
+            messageType == USER_REQUEST_MESSAGE_TYPE)
+        {
+            return NO_CLAIM;
+        }
+
+        final BufferClaim bufferClaim = this.bufferClaim;
+        final long position = publication.claimMessage(
+            bufferClaim,
+            buffer,
+            0,
+            prefixLength,
+            messageLength,
+            libraryId,
+            messageType,
+            sessionId,
+            sequenceIndex,
+            connectionId,
+            OK,
+            0,
+            readTimestamp);
+
+        if (position < 0)
+        {
+            return NO_CLAIM;
+        }
+
+        final MutableDirectBuffer claimBuffer = bufferClaim.buffer();
+        final ByteBuffer claimByteBuffer = claimByteBuffer(claimBuffer);
+        if (claimByteBuffer == null)
+        {
+            // Log buffers that aren't backed by a ByteBuffer can't be read into, so don't try again.
+            publication.abortMessageClaim(bufferClaim);
+            directClaimThreshold = Integer.MAX_VALUE;
+            return NO_CLAIM;
+        }
+
+        final int startOfBody = claimBuffer.wrapAdjustment() + GatewayPublication.claimedBodyOffset(bufferClaim);
+        ByteBufferUtil.limit(claimByteBuffer, startOfBody + messageLength);
+        ByteBufferUtil.position(claimByteBuffer, startOfBody + prefixLength);
+        claimedMessageLength = messageLength;
+        claimedMessageType = messageType;
+
+        // The prefix has been copied into the claim, so it doesn't need to be staged any more.
+        moveRemainingDataToBufferStart(prefixLength);
+
+        return readIntoOpenClaim();
+    }
+
+    // The claim is kept open over as many reads as it takes for the rest of the message to arrive, it's only aborted
+    // if the connection is disconnected or the message turns out to be invalid.
+    private int readIntoOpenClaim() throws IOException
+    {
+        final BufferClaim bufferClaim = this.bufferClaim;
+        final MutableDirectBuffer claimBuffer = bufferClaim.buffer();
+        final ByteBuffer claimByteBuffer = this.claimByteBuffer;
+        final int readOffset = claimByteBuffer.position() - claimBuffer.wrapAdjustment();
+
+        final int dataRead;
+        try
+        {
+            dataRead = channel.read(claimByteBuffer);
+        }
+        catch (final IOException ex)
+        {
+            abortOpenClaim();
+            throw ex;
+        }
+
+        if (dataRead == SOCKET_DISCONNECTED)
+        {
+            abortOpenClaim();
+            onDisconnectDetected();
+            return dataRead;
+        }
+
+        if (dataRead > 0)
+        {
+            DebugLogger.log(FIX_MESSAGE_TCP, "Read     %s%n", claimBuffer, readOffset, dataRead);
+        }
+
+        if (claimByteBuffer.hasRemaining())
+        {
+            return dataRead;
+        }
+
+        final int messageLength = claimedMessageLength;
+        final int bodyOffset = GatewayPublication.claimedBodyOffset(bufferClaim);
+        claimedMessageLength = 0;
+
+        final MutableAsciiBuffer claimedMessage = this.claimedMessage;
+        claimedMessage.wrap(claimBuffer, bodyOffset, messageLength);
+        if (isValidClaimedMessage(claimedMessage, messageLength))
+        {
+            publication.commitMessageClaim(bufferClaim);
+            messagesRead.incrementOrdered();
+            gatewaySession.onMessage(claimedMessage, 0, messageLength, claimedMessageType, sessionId);
+        }
+        else
+        {
+            // Invalid messages are staged in the receive buffer and framed from there, so they're saved as invalid.
+            if (byteBuffer == null)
+            {
+                wrapBuffer(receiveBufferPool.acquire(messageLength));
+            }
+            buffer.putBytes(0, claimBuffer, bodyOffset, messageLength);
+            usedBufferData = messageLength;
+            ByteBufferUtil.position(byteBuffer, usedBufferData);
+            publication.abortMessageClaim(bufferClaim);
+        }
+
+        return dataRead;
+    }
+
+    private void abortOpenClaim()
+    {
+        if (claimedMessageLength > 0)
+        {
+            claimedMessageLength = 0;
+            publication.abortMessageClaim(bufferClaim);
+        }
+    }
+
+    private ByteBuffer claimByteBuffer(final MutableDirectBuffer claimBuffer)
+    {
+        final ByteBuffer logByteBuffer = claimBuffer.byteBuffer();
+        if (logByteBuffer == null)
+        {
+            return null;
+        }
+
+        // All the terms of a log are normally slices of the same mapped buffer, so this rarely allocates.
+        if (logByteBuffer != this.logByteBuffer)
+        {
+            this.logByteBuffer = logByteBuffer;
+            claimByteBuffer = logByteBuffer.duplicate();
+        }
+
+        return claimByteBuffer;
+    }
+
+    private int partialMessageType()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int endOfBodyLength = partialMessageEndOfBodyLength;
+        final int lastByte = usedBufferData - 1;
+        final int startOfMessageType = buffer.scan(endOfBodyLength, lastByte, '=');
+        if (startOfMessageType == UNKNOWN_INDEX ||
+            buffer.scan(startOfMessageType + 1, lastByte, START_OF_HEADER) == UNKNOWN_INDEX)
+        {
+            return UNKNOWN_MESSAGE_TYPE;
+        }
+
+        return getMessageType(endOfBodyLength, lastByte);
+    }
+
+    private static boolean isValidClaimedMessage(final MutableAsciiBuffer message, final int messageLength)
+    {
+        final int startOfChecksumTag = messageLength - CHECKSUM_TRAILER_SIZE;
+        final int startOfChecksumValue = startOfChecksumTag + CHECKSUM_TAG_SIZE + 1;
+        final int endOfMessage = messageLength - 1;
+        if (!isStartOfChecksum(message, startOfChecksumTag) || message.getByte(endOfMessage) != START_OF_HEADER)
+        {
+            return false;
+        }
+
+        for (int i = startOfChecksumValue; i < endOfMessage; i++)
+        {
+            if (!message.isDigit(i))
+            {
+                return false;
+            }
+        }
+
+        return message.getNatural(startOfChecksumValue, endOfMessage) ==
+            message.computeChecksum(0, startOfChecksumTag + 1);
+    }
+
     boolean retryFrameMessages()
     {
-        return frameMessages(lastReadTimestamp);
+        final boolean framed = frameMessages(lastReadTimestamp);
+        if (framed)
+        {
+            releaseBufferIfEmpty();
+        }
+        return framed;
+    }
+
+    private ByteBuffer readableBuffer()
+    {
+        final ReceiveBufferPool receiveBufferPool = this.receiveBufferPool;
+        ByteBuffer byteBuffer = this.byteBuffer;
+        if (receiveBufferPool != null)
+        {
+            if (byteBuffer == null)
+            {
+                byteBuffer = receiveBufferPool.acquire(receiveBufferPool.minBufferSize());
+                wrapBuffer(byteBuffer);
+            }
+            else if (!byteBuffer.hasRemaining() && byteBuffer.capacity() < maxBufferSize)
+            {
+                // Only grow when a single partial message has filled the whole buffer.
+                final ByteBuffer grownBuffer = receiveBufferPool.acquire(byteBuffer.capacity() + 1);
+                ByteBufferUtil.limit(byteBuffer, usedBufferData);
+                ByteBufferUtil.position(byteBuffer, 0);
+                grownBuffer.put(byteBuffer);
+                receiveBufferPool.release(byteBuffer);
+                byteBuffer = grownBuffer;
+                wrapBuffer(byteBuffer);
+            }
+        }
+
+        return byteBuffer;
+    }
+
+    private void wrapBuffer(final ByteBuffer byteBuffer)
+    {
+        this.byteBuffer = byteBuffer;
+        buffer.wrap(byteBuffer);
+    }
+
+    private void releaseBufferIfEmpty()
+    {
+        final ReceiveBufferPool receiveBufferPool = this.receiveBufferPool;
+        if (receiveBufferPool != null && usedBufferData == 0 && byteBuffer != null && pendingAcceptorLogon == null)
+        {
+            releaseBuffer(receiveBufferPool);
+        }
+    }
+
+    private void releaseBuffer(final ReceiveBufferPool receiveBufferPool)
+    {
+        receiveBufferPool.release(byteBuffer);
+        byteBuffer = null;
+        buffer.wrap(0, 0);
     }
 
     // true - no more framed messages in the buffer data to process. This could mean no more messages, or some data
@@ -284,6 +581,7 @@ class ReceiverEndPoint
     private boolean frameMessages(final long readTimestamp)
     {
         int offset = 0;
+        partialMessageLength = 0;
         while (true)
         {
             if (usedBufferData < offset + SessionConstants.MIN_MESSAGE_SIZE) // Need more data
@@ -310,6 +608,7 @@ class ReceiverEndPoint
                 final int endOfChecksumTag = startOfChecksumTag + MIN_CHECKSUM_SIZE;
                 if (endOfChecksumTag >= usedBufferData)
                 {
+                    onPartialMessage(offset, endOfBodyLength, startOfChecksumTag);
                     break;
                 }
 
@@ -328,6 +627,7 @@ class ReceiverEndPoint
                 if (endOfMessage == UNKNOWN_INDEX)
                 {
                     // Need more data
+                    onPartialMessage(offset, endOfBodyLength, startOfChecksumTag);
                     break;
                 }
 
@@ -377,6 +677,16 @@ class ReceiverEndPoint
         return true;
     }
 
+    // Positions are relative to the start of the message, as it gets moved to the start of the buffer.
+    private void onPartialMessage(final int offset, final int endOfBodyLength, final int startOfChecksumTag)
+    {
+        if (directClaimThreshold > 0)
+        {
+            partialMessageLength = startOfChecksumTag + CHECKSUM_TRAILER_SIZE - offset;
+            partialMessageEndOfBodyLength = endOfBodyLength - offset;
+        }
+    }
+
     private int onInvalidBodyLength(final int offset, final int startOfChecksumTag, final long readTimestamp)
     {
         int checksumTagScanPoint = startOfChecksumTag + 1;
@@ -564,6 +874,11 @@ class ReceiverEndPoint
     }
 
     private boolean isStartOfChecksum(final int startOfChecksumTag)
+    {
+        return isStartOfChecksum(buffer, startOfChecksumTag);
+    }
+
+    private static boolean isStartOfChecksum(final MutableAsciiBuffer buffer, final int startOfChecksumTag)
     {
         return buffer.getByte(startOfChecksumTag) == CHECKSUM0 &&
             buffer.getByte(startOfChecksumTag + 1) == CHECKSUM1 &&
@@ -601,6 +916,11 @@ class ReceiverEndPoint
 
     private void moveRemainingDataToBufferStart(final int offset)
     {
+        if (byteBuffer == null)
+        {
+            return;
+        }
+
         usedBufferData -= offset;
         buffer.putBytes(0, buffer, offset, usedBufferData);
         // position set to ensure that back pressure is applied to TCP when read(byteBuffer) called.
@@ -698,6 +1018,12 @@ class ReceiverEndPoint
         {
             channel.close();
             messagesRead.close();
+
+            if (receiveBufferPool != null && byteBuffer != null)
+            {
+                usedBufferData = 0;
+                releaseBuffer(receiveBufferPool);
+            }
         }
         catch (final Exception ex)
         {
@@ -728,6 +1054,8 @@ class ReceiverEndPoint
 
     private void disconnectEndpoint(final DisconnectReason reason)
     {
+        abortOpenClaim();
+
         framer.schedule(() -> publication.saveDisconnect(libraryId, connectionId, reason));
 
         sessionContexts.onDisconnect(sessionId);
@@ -744,9 +1072,16 @@ class ReceiverEndPoint
         return hasDisconnected;
     }
 
-    public void register(final Selector selector) throws IOException
+    // returns false if the channel can't be selected on and needs to be polled.
+    public boolean register(final Selector selector) throws IOException
     {
         selectionKey = channel.register(selector, OP_READ, this);
+        return selectionKey != null;
+    }
+
+    boolean isSelectable()
+    {
+        return selectionKey != null;
     }
 
     public int libraryId()
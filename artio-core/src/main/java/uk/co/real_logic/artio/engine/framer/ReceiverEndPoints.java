@@ -36,6 +36,8 @@ class ReceiverEndPoints extends TransportPoller
     // complete, so these endpoints are always polled, rather than using the selector.
     private ReceiverEndPoint[] requiredPollingEndPoints = new ReceiverEndPoint[0];
     private ReceiverEndPoint[] endPoints = new ReceiverEndPoint[0];
+    // Channels that aren't backed by a socket, eg: in memory channels, can't be selected so force array polling.
+    private int unselectableEndPointCount = 0;
     // An endpoint that has read data out of the TCP layer but has been back-pressured when attempting to write
     // the data into the Aeron stream.
     private ReceiverEndPoint backpressuredEndPoint = null;
@@ -62,7 +64,10 @@ class ReceiverEndPoints extends TransportPoller
         try
         {
             endPoints = ArrayUtil.add(endPoints, endPoint);
-            endPoint.register(selector);
+            if (!endPoint.register(selector))
+            {
+                unselectableEndPointCount++;
+            }
         }
         catch (final IOException ex)
         {
@@ -77,6 +82,10 @@ class ReceiverEndPoints extends TransportPoller
 
         if (index != UNKNOWN_INDEX)
         {
+            if (!endPoints[index].isSelectable())
+            {
+                unselectableEndPointCount--;
+            }
             this.endPoints = ArrayUtil.remove(endPoints, index);
         }
         else
@@ -186,7 +195,7 @@ class ReceiverEndPoints extends TransportPoller
         final ReceiverEndPoint[] endPoints = this.endPoints;
         final int numEndPoints = endPoints.length;
         final int threshold = ITERATION_THRESHOLD - numRequiredPollingEndPoints;
-        if (numEndPoints <= threshold)
+        if (numEndPoints <= threshold || unselectableEndPointCount > 0)
         {
             bytesReceived = pollArray(bytesReceived, endPoints, numEndPoints);
         }
@@ -38,6 +38,9 @@ import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
 
 class SenderEndPoint
 {
+    // Maximum number of outbound messages gathered into a single write, more than this flushes early.
+    static final int MAX_QUEUED_MESSAGES = 64;
+
     private final long connectionId;
     private final TcpChannel channel;
     private final AtomicCounter bytesInBuffer;
@@ -50,6 +53,14 @@ class SenderEndPoint
     private final StreamTracker replayTracker;
     private final SenderSequenceNumber senderSequenceNumber;
 
+    // Messages from a single poll of the outbound stream that haven't yet been written to the TCP connection.
+    // Views are duplicates of the source buffer, cached by index and only recreated when the source changes.
+    private final ByteBuffer[] queuedBuffers = new ByteBuffer[MAX_QUEUED_MESSAGES];
+    private final ByteBuffer[] queuedBufferSources = new ByteBuffer[MAX_QUEUED_MESSAGES];
+    private final int[] queuedBodyLengths = new int[MAX_QUEUED_MESSAGES];
+    private final long[] queuedPositions = new long[MAX_QUEUED_MESSAGES];
+    private int queuedMessageCount;
+
     private int libraryId;
     private long sessionId;
     private long sendingTimeoutTimeInMs;
@@ -113,6 +124,130 @@ class SenderEndPoint
         senderSequenceNumber.onNewMessage(sequenceNumber);
     }
 
+    // Queue an outbound message to be written along with any other messages from the same poll of the outbound
+    // stream using a single gathering write. The buffer must remain unmodified until flushQueuedMessages() is called,
+    // so this can only be used for messages within the term buffer.
+    // returns true if this is the first message queued since the last flush.
+    boolean queueOutboundMessage(
+        final int libraryId,
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int bodyLength,
+        final int sequenceNumber,
+        final long position,
+        final long timeInMs)
+    {
+        if (isWrongLibraryId(libraryId))
+        {
+            invalidLibraryAttempts.increment();
+            return false;
+        }
+
+        if (replayPaused)
+        {
+            dropFurtherBehind(bodyLength);
+
+            return false;
+        }
+
+        senderSequenceNumber.onNewMessage(sequenceNumber);
+
+        // Nothing is queued whilst a slow consumer, so this preserves the order of writes.
+        if (isSlowConsumer())
+        {
+            dropFurtherBehind(bodyLength);
+
+            return false;
+        }
+
+        if (queuedMessageCount == MAX_QUEUED_MESSAGES)
+        {
+            flushQueuedMessages(timeInMs);
+
+            if (isSlowConsumer())
+            {
+                dropFurtherBehind(bodyLength);
+
+                return false;
+            }
+        }
+
+        final int index = queuedMessageCount;
+        final ByteBuffer source = directBuffer.byteBuffer();
+        ByteBuffer buffer = queuedBuffers[index];
+        if (queuedBufferSources[index] != source)
+        {
+            buffer = source.duplicate();
+            queuedBuffers[index] = buffer;
+            queuedBufferSources[index] = source;
+        }
+
+        ByteBufferUtil.limit(buffer, offset + bodyLength);
+        ByteBufferUtil.position(buffer, offset);
+        queuedBodyLengths[index] = bodyLength;
+        queuedPositions[index] = position;
+        queuedMessageCount = index + 1;
+
+        return index == 0;
+    }
+
+    /**
+     * Writes all queued messages using a single gathering write. If the write is partial then the end point becomes
+     * a slow consumer at the first partially written message and any later queued messages are treated as if they
+     * arrived after it became slow.
+     *
+     * @param timeInMs the current time in milliseconds.
+     */
+    void flushQueuedMessages(final long timeInMs)
+    {
+        final int count = queuedMessageCount;
+        if (count == 0)
+        {
+            return;
+        }
+
+        queuedMessageCount = 0;
+
+        try
+        {
+            final ByteBuffer[] queuedBuffers = this.queuedBuffers;
+            long written = count == 1 ? channel.write(queuedBuffers[0]) : channel.write(queuedBuffers, 0, count);
+            updateSendingTimeoutTimeInMs(timeInMs, written);
+
+            for (int i = 0; i < count; i++)
+            {
+                final int bodyLength = queuedBodyLengths[i];
+                if (isSlowConsumer())
+                {
+                    if (dropFurtherBehind(bodyLength))
+                    {
+                        return;
+                    }
+                }
+                else if (written >= bodyLength)
+                {
+                    DebugLogger.log(FIX_MESSAGE_TCP, "Written  %s%n", queuedBuffers[i], bodyLength);
+                    outboundTracker.sentPosition = queuedPositions[i];
+                    written -= bodyLength;
+                }
+                else
+                {
+                    final int partiallyWritten = (int)written;
+                    if (partiallyWritten > 0)
+                    {
+                        DebugLogger.log(FIX_MESSAGE_TCP, "Written  %s%n", queuedBuffers[i], partiallyWritten);
+                    }
+                    becomeSlowConsumer(partiallyWritten, bodyLength, queuedPositions[i], outboundTracker);
+                    written = 0;
+                }
+            }
+        }
+        catch (final IOException ex)
+        {
+            onError(ex);
+        }
+    }
+
     Action onReplayMessage(
         final DirectBuffer directBuffer,
         final int offset,
@@ -182,15 +317,18 @@ class SenderEndPoint
         }
     }
 
-    private void dropFurtherBehind(final int bodyLength)
+    // returns true if the end point has been removed
+    private boolean dropFurtherBehind(final int bodyLength)
     {
         final long bytesInBuffer = bytesInBufferWeak() + bodyLength;
-        if (bytesInBuffer > maxBytesInBuffer)
+        final boolean removed = bytesInBuffer > maxBytesInBuffer;
+        if (removed)
         {
             removeEndpoint(SLOW_CONSUMER);
         }
 
         this.bytesInBuffer.setOrdered(bytesInBuffer);
+        return removed;
     }
 
     private int writeFramedMessage(
@@ -211,7 +349,7 @@ class SenderEndPoint
         return written;
     }
 
-    private void updateSendingTimeoutTimeInMs(final long timeInMs, final int written)
+    private void updateSendingTimeoutTimeInMs(final long timeInMs, final long written)
     {
         if (written > 0)
         {
@@ -269,6 +407,7 @@ class SenderEndPoint
 
     public void close()
     {
+        queuedMessageCount = 0;
         bytesInBuffer.close();
         invalidLibraryAttempts.close();
     }
@@ -19,14 +19,18 @@ import io.aeron.logbuffer.ControlledFragmentHandler;
 import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.collections.ArrayUtil;
 import org.agrona.collections.Long2ObjectHashMap;
 import uk.co.real_logic.artio.engine.FixEngine;
+import uk.co.real_logic.artio.messages.FixMessageBatchDecoder;
+import uk.co.real_logic.artio.messages.FixMessageBatchDecoder.MessagesDecoder;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
 import java.util.function.LongToIntFunction;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
 
 class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
 {
@@ -34,6 +38,7 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
 
     private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
     private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final FixMessageBatchDecoder fixMessageBatch = new FixMessageBatchDecoder();
     private final Long2ObjectHashMap<SenderEndPoint> connectionIdToSenderEndpoint = new Long2ObjectHashMap<>();
     private final ErrorHandler errorHandler;
     private final LongToIntFunction libraryLookup = this::libraryLookup;
@@ -53,6 +58,11 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
 
     private long timeInMs;
 
+    // End points with messages queued from the current poll of the outbound stream.
+    private SenderEndPoint[] endPointsWithQueuedMessages = new SenderEndPoint[0];
+    private int endPointsWithQueuedMessagesCount;
+    private boolean isFlushing;
+
     SenderEndPoints(final ErrorHandler errorHandler)
     {
         this.errorHandler = errorHandler;
@@ -79,13 +89,73 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         final int offset,
         final int length,
         final int sequenceNumber,
-        final long position)
+        final long position,
+        final boolean isReassembled)
     {
         final SenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
         if (endPoint != null)
         {
-            endPoint.onOutboundMessage(libraryId, buffer, offset, length, sequenceNumber, position, timeInMs);
+            final long timeInMs = this.timeInMs;
+            if (isReassembled)
+            {
+                // The reassembly buffer gets reused by the next fragmented message, so it can't be queued.
+                endPoint.flushQueuedMessages(timeInMs);
+                endPoint.onOutboundMessage(libraryId, buffer, offset, length, sequenceNumber, position, timeInMs);
+            }
+            else if (endPoint.queueOutboundMessage(
+                libraryId, buffer, offset, length, sequenceNumber, position, timeInMs))
+            {
+                addEndPointWithQueuedMessages(endPoint);
+            }
+        }
+    }
+
+    private void addEndPointWithQueuedMessages(final SenderEndPoint endPoint)
+    {
+        SenderEndPoint[] endPoints = endPointsWithQueuedMessages;
+        final int count = endPointsWithQueuedMessagesCount;
+        if (count == endPoints.length)
+        {
+            endPoints = ArrayUtil.ensureCapacity(endPoints, Math.max(8, count * 2));
+            endPointsWithQueuedMessages = endPoints;
+        }
+
+        endPoints[count] = endPoint;
+        endPointsWithQueuedMessagesCount = count + 1;
+    }
+
+    /**
+     * Write out all messages queued from the current poll of the outbound stream, one gathering write per end point.
+     *
+     * @return the number of end points that were flushed.
+     */
+    int flushQueuedMessages()
+    {
+        // Flushing can disconnect an end point which re-enters via Framer.onDisconnect()
+        if (isFlushing)
+        {
+            return 0;
+        }
+
+        isFlushing = true;
+        final int count = endPointsWithQueuedMessagesCount;
+        try
+        {
+            final SenderEndPoint[] endPoints = endPointsWithQueuedMessages;
+            final long timeInMs = this.timeInMs;
+            for (int i = 0; i < count; i++)
+            {
+                endPoints[i].flushQueuedMessages(timeInMs);
+                endPoints[i] = null;
+            }
         }
+        finally
+        {
+            endPointsWithQueuedMessagesCount = 0;
+            isFlushing = false;
+        }
+
+        return count;
     }
 
     Action onReplayMessage(
@@ -160,6 +230,31 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
                     buffer, offset, length - HEADER_LENGTH, position, bodyLength, libraryId, timeInMs);
             }
         }
+        else if (messageHeader.templateId() == FixMessageBatchDecoder.TEMPLATE_ID)
+        {
+            final FixMessageBatchDecoder fixMessageBatch = this.fixMessageBatch;
+            fixMessageBatch.wrap(buffer, offset + HEADER_LENGTH, messageHeader.blockLength(), messageHeader.version());
+            final long connectionId = fixMessageBatch.connection();
+
+            final SenderEndPoint senderEndPoint = connectionIdToSenderEndpoint.get(connectionId);
+            if (senderEndPoint != null)
+            {
+                final int libraryId = fixMessageBatch.libraryId();
+                final MessagesDecoder messages = fixMessageBatch.messages();
+                while (messages.hasNext())
+                {
+                    messages.next(); // step over the messages group to reach the bodies
+                }
+
+                final int bodyLength = fixMessageBatch.bodyLength();
+                final int bodyOffset = fixMessageBatch.limit() + FixMessageBatchDecoder.bodyHeaderLength();
+
+                // Like a FixMessage the bodies are at the end of the fragment, so the end point can treat the batch
+                // as one message if it's given an offset that's a FixMessage frame before them.
+                return senderEndPoint.onSlowOutboundMessage(
+                    buffer, bodyOffset - FRAME_SIZE, length - HEADER_LENGTH, position, bodyLength, libraryId, timeInMs);
+            }
+        }
 
         return CONTINUE;
     }
@@ -35,11 +35,19 @@ public class TcpChannel implements AutoCloseable
         remoteAddress = socketChannel.getRemoteAddress().toString();
     }
 
+    // For channels that aren't backed by a socket, eg: in memory channels.
+    protected TcpChannel(final String remoteAddress)
+    {
+        this.socketChannel = null;
+        this.remoteAddress = remoteAddress;
+    }
+
     public String remoteAddress()
     {
         return remoteAddress;
     }
 
+    // returns null if the channel can't be registered with a selector and must be polled instead.
     public SelectionKey register(final Selector sel, final int ops, final Object att) throws ClosedChannelException
     {
         return socketChannel.register(sel, ops, att);
@@ -50,6 +58,11 @@ public class TcpChannel implements AutoCloseable
         return socketChannel.write(src);
     }
 
+    public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException
+    {
+        return socketChannel.write(srcs, offset, length);
+    }
+
     public int read(final ByteBuffer dst) throws IOException
     {
         return socketChannel.read(dst);
@@ -57,7 +70,7 @@ public class TcpChannel implements AutoCloseable
 
     public void close()
     {
-        if (socketChannel.isOpen())
+        if (socketChannel != null && socketChannel.isOpen())
         {
             try
             {
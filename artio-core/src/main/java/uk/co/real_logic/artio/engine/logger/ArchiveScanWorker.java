@@ -0,0 +1,344 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.Aeron;
+import io.aeron.FragmentAssembler;
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.LangUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+import uk.co.real_logic.artio.CommonConfiguration;
+import uk.co.real_logic.artio.engine.logger.FixArchiveScanner.ArchiveLocation;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Replays recordings from the archive on its own thread for a parallel scan by the {@link FixArchiveScanner}.
+ *
+ * The worker reassembles and decodes the replayed messages, then copies each FIX message into a single producer,
+ * single consumer ring buffer. The scanning thread reads messages from the ring buffer and passes them to the scan's
+ * consumer, so consumers are never called concurrently. The copy of each message is preceded by its timestamp, so
+ * that the scanning thread can merge messages from different workers in timestamp order, and the Aeron header that it
+ * was received with.
+ */
+class ArchiveScanWorker implements Runnable
+{
+    private static final int TIMESTAMP_OFFSET = 0;
+    private static final int INITIAL_TERM_ID_OFFSET = TIMESTAMP_OFFSET + SIZE_OF_LONG;
+    private static final int POSITION_BITS_TO_SHIFT_OFFSET = INITIAL_TERM_ID_OFFSET + SIZE_OF_INT;
+    private static final int DATA_HEADER_OFFSET = POSITION_BITS_TO_SHIFT_OFFSET + SIZE_OF_INT;
+    private static final int MESSAGE_OFFSET = DATA_HEADER_OFFSET + HEADER_LENGTH;
+
+    private static final int MESSAGE_TYPE_ID = 1;
+    private static final int FRAGMENT_LIMIT = 10;
+
+    private final IdleStrategy idleStrategy = CommonConfiguration.backoffIdleStrategy();
+    private final ExpandableArrayBuffer record = new ExpandableArrayBuffer();
+    private final FragmentAssembler fragmentAssembler = new FragmentAssembler(new LogEntryHandler(this::onMessage));
+
+    private final Aeron aeron;
+    private final AeronArchive aeronArchive;
+    private final Queue<ArchiveLocation> archiveLocations;
+    private final int replayStreamId;
+    private final RingBuffer ringBuffer;
+
+    private volatile boolean running = true;
+    private volatile boolean done;
+    private volatile Throwable error;
+
+    // State that is only used by the scanning thread
+    private final MessageHandler deliverHandler = this::deliver;
+    private final MessageHandler headHandler = this::copyHead;
+    private final ExpandableArrayBuffer head = new ExpandableArrayBuffer();
+    private final LogEntryHandler logEntryHandler;
+    private Header header;
+    private boolean hasHead;
+    private int headLength;
+    private long headTimestamp;
+    private boolean finished;
+
+    /**
+     * Create a worker for a parallel scan.
+     *
+     * @param aeron the client to add the worker's replay subscriptions with.
+     * @param aeronArchive the archive to replay recordings from.
+     * @param archiveLocations the recordings to replay, can be shared with other workers.
+     * @param replayStreamId the stream id to replay recordings on, must be different to other workers'.
+     * @param bufferCapacity the capacity of the ring buffer between the worker and the scanning thread.
+     * @param handler the consumer of the messages, only called on the scanning thread.
+     */
+    ArchiveScanWorker(
+        final Aeron aeron,
+        final AeronArchive aeronArchive,
+        final Queue<ArchiveLocation> archiveLocations,
+        final int replayStreamId,
+        final int bufferCapacity,
+        final FixMessageConsumer handler)
+    {
+        this.aeron = aeron;
+        this.aeronArchive = aeronArchive;
+        this.archiveLocations = archiveLocations;
+        this.replayStreamId = replayStreamId;
+
+        ringBuffer = new OneToOneRingBuffer(new UnsafeBuffer(
+            ByteBuffer.allocateDirect(bufferCapacity + RingBufferDescriptor.TRAILER_LENGTH)));
+        logEntryHandler = new LogEntryHandler(handler);
+    }
+
+    public void run()
+    {
+        try
+        {
+            while (running)
+            {
+                final ArchiveLocation archiveLocation = archiveLocations.poll();
+                if (archiveLocation == null)
+                {
+                    break;
+                }
+
+                replay(archiveLocation);
+            }
+        }
+        catch (final Throwable ex)
+        {
+            error = ex;
+        }
+        finally
+        {
+            done = true;
+        }
+    }
+
+    private void replay(final ArchiveLocation archiveLocation)
+    {
+        final long recordingId = archiveLocation.recordingId;
+        final long startPosition = archiveLocation.startPosition;
+        final long stopPosition = archiveLocation.stopPosition == NULL_POSITION ?
+            aeronArchive.getRecordingPosition(recordingId) : archiveLocation.stopPosition;
+        final long length = stopPosition - startPosition;
+        if (length <= 0)
+        {
+            return;
+        }
+
+        // Each replay gets its own subscription, so the only image that it sees is the replay's.
+        try (Subscription subscription = aeron.addSubscription(IPC_CHANNEL, replayStreamId))
+        {
+            final long replaySessionId = aeronArchive.startReplay(
+                recordingId, startPosition, length, IPC_CHANNEL, replayStreamId);
+
+            final IdleStrategy idleStrategy = this.idleStrategy;
+            while (running && subscription.imageCount() == 0)
+            {
+                idleStrategy.idle();
+            }
+            idleStrategy.reset();
+
+            if (running)
+            {
+                final Image image = subscription.imageAtIndex(0);
+                while (running && image.position() < stopPosition && !image.isClosed() && !image.isEndOfStream())
+                {
+                    idleStrategy.idle(image.poll(fragmentAssembler, FRAGMENT_LIMIT));
+                }
+
+                // The replay stopped early, for example the recording was truncated or the archive had an error.
+                if (running && image.position() < stopPosition)
+                {
+                    throw new IllegalStateException(String.format(
+                        "Replay of recording %d ended at position %d before its stop position %d",
+                        recordingId,
+                        image.position(),
+                        stopPosition));
+                }
+            }
+
+            if (!running)
+            {
+                aeronArchive.stopReplay(replaySessionId);
+            }
+        }
+    }
+
+    private void onMessage(
+        final FixMessageDecoder message,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final Header header)
+    {
+        final ExpandableArrayBuffer record = this.record;
+        record.putLong(TIMESTAMP_OFFSET, message.timestamp());
+        record.putInt(INITIAL_TERM_ID_OFFSET, header.initialTermId());
+        record.putInt(POSITION_BITS_TO_SHIFT_OFFSET, header.positionBitsToShift());
+        record.putBytes(DATA_HEADER_OFFSET, header.buffer(), header.offset(), HEADER_LENGTH);
+        // The fragment that the consumer is given starts with the message header, before the offset.
+        record.putBytes(MESSAGE_OFFSET, buffer, offset - MessageHeaderDecoder.ENCODED_LENGTH, length);
+
+        final IdleStrategy idleStrategy = this.idleStrategy;
+        while (!ringBuffer.write(MESSAGE_TYPE_ID, record, 0, MESSAGE_OFFSET + length))
+        {
+            if (!running)
+            {
+                return;
+            }
+
+            idleStrategy.idle();
+        }
+        idleStrategy.reset();
+    }
+
+    /**
+     * Stop replaying recordings, called by the scanning thread when the scan ends, including if it fails.
+     */
+    void stop()
+    {
+        running = false;
+    }
+
+    /**
+     * Pass messages that the worker has copied to the consumer, in the order that they were replayed.
+     *
+     * @return the number of messages passed to the consumer.
+     */
+    int poll()
+    {
+        if (finished)
+        {
+            return 0;
+        }
+
+        // Read done before the ring buffer, so that no message written before it was set can be missed.
+        final boolean done = this.done;
+        final int messagesRead = ringBuffer.read(deliverHandler);
+        if (messagesRead == 0 && done)
+        {
+            onFinished();
+        }
+
+        return messagesRead;
+    }
+
+    /**
+     * Copy the next message that the worker has copied to the head of the worker, without passing it to the consumer.
+     *
+     * @return true if the worker has a head or is finished, false if the next message hasn't been copied yet.
+     */
+    boolean pollHead()
+    {
+        if (hasHead || finished)
+        {
+            return true;
+        }
+
+        final boolean done = this.done;
+        if (ringBuffer.read(headHandler, 1) == 0)
+        {
+            if (done)
+            {
+                onFinished();
+                return true;
+            }
+
+            return false;
+        }
+
+        return true;
+    }
+
+    boolean hasHead()
+    {
+        return hasHead;
+    }
+
+    long headTimestamp()
+    {
+        return headTimestamp;
+    }
+
+    /**
+     * Pass the head message to the consumer.
+     */
+    void deliverHead()
+    {
+        hasHead = false;
+        deliver(MESSAGE_TYPE_ID, head, 0, headLength);
+    }
+
+    boolean isFinished()
+    {
+        return finished;
+    }
+
+    private void onFinished()
+    {
+        finished = true;
+
+        final Throwable error = this.error;
+        if (error != null)
+        {
+            LangUtil.rethrowUnchecked(error);
+        }
+    }
+
+    private void copyHead(final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length)
+    {
+        head.putBytes(0, buffer, index, length);
+        headLength = length;
+        headTimestamp = buffer.getLong(index + TIMESTAMP_OFFSET);
+        hasHead = true;
+    }
+
+    private void deliver(final int msgTypeId, final DirectBuffer buffer, final int index, final int length)
+    {
+        final int initialTermId = buffer.getInt(index + INITIAL_TERM_ID_OFFSET);
+        final int positionBitsToShift = buffer.getInt(index + POSITION_BITS_TO_SHIFT_OFFSET);
+
+        // Only changes between recordings, with a different term length or initial term id.
+        Header header = this.header;
+        if (header == null || header.initialTermId() != initialTermId ||
+            header.positionBitsToShift() != positionBitsToShift)
+        {
+            header = new Header(initialTermId, positionBitsToShift);
+            this.header = header;
+        }
+        header.buffer(buffer);
+        header.offset(index + DATA_HEADER_OFFSET);
+
+        logEntryHandler.onFragment(buffer, index + MESSAGE_OFFSET, length - MESSAGE_OFFSET, header);
+    }
+}
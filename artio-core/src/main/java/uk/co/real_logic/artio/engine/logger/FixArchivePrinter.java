@@ -41,6 +41,9 @@ public final class FixArchivePrinter
     {
         String aeronDirectoryName = null;
         String aeronChannel = null;
+        String logFileDir = null;
+        long fromTimestamp = Long.MIN_VALUE;
+        long toTimestamp = Long.MAX_VALUE;
         int queryStreamId = DEFAULT_OUTBOUND_LIBRARY_STREAM;
         int archiveScannerStreamId = DEFAULT_ARCHIVE_SCANNER_STREAM;
         FixMessagePredicate predicate = FixMessagePredicates.alwaysTrue();
@@ -74,11 +77,11 @@ public final class FixArchivePrinter
             switch (optionName)
             {
                 case "from":
-                    predicate = from(parseLong(optionValue)).and(predicate);
+                    fromTimestamp = parseLong(optionValue);
                     break;
 
                 case "to":
-                    predicate = to(parseLong(optionValue)).and(predicate);
+                    toTimestamp = parseLong(optionValue);
                     break;
 
                 case "message-types":
@@ -86,30 +89,6 @@ public final class FixArchivePrinter
                     predicate = messageTypeOf(messageTypes).and(predicate);
                     break;
 
-                case "sender-comp-id":
-                    headerPredicate = safeAnd(headerPredicate, senderCompIdOf(optionValue));
-                    break;
-
-                case "target-comp-id":
-                    headerPredicate = safeAnd(headerPredicate, targetCompIdOf(optionValue));
-                    break;
-
-                case "sender-sub-id":
-                    headerPredicate = safeAnd(headerPredicate, senderSubIdOf(optionValue));
-                    break;
-
-                case "target-sub-id":
-                    headerPredicate = safeAnd(headerPredicate, targetSubIdOf(optionValue));
-                    break;
-
-                case "sender-location-id":
-                    headerPredicate = safeAnd(headerPredicate, senderLocationIdOf(optionValue));
-                    break;
-
-                case "target-location-id":
-                    headerPredicate = safeAnd(headerPredicate, targetLocationIdOf(optionValue));
-                    break;
-
                 case "query-stream-id":
                     queryStreamId = Integer.parseInt(optionValue);
                     break;
@@ -126,9 +105,16 @@ public final class FixArchivePrinter
                     aeronChannel = optionValue;
                     break;
 
+                case "log-file-dir":
+                    logFileDir = optionValue;
+                    break;
+
                 case "fix-dictionary":
                     fixDictionaryType = FixDictionary.find(optionValue);
                     break;
+
+                default:
+                    headerPredicate = safeAnd(headerPredicate, headerPredicateOf(optionName, optionValue));
             }
         }
 
@@ -136,7 +122,35 @@ public final class FixArchivePrinter
         requiredArgument(aeronChannel, "aeron-channel");
 
         scanArchive(aeronDirectoryName, aeronChannel, queryStreamId, predicate, follow, headerPredicate,
-            archiveScannerStreamId, fixDictionaryType);
+            archiveScannerStreamId, fixDictionaryType, logFileDir, fromTimestamp, toTimestamp);
+    }
+
+    private static Predicate<SessionHeaderDecoder> headerPredicateOf(
+        final String optionName, final String optionValue)
+    {
+        switch (optionName)
+        {
+            case "sender-comp-id":
+                return senderCompIdOf(optionValue);
+
+            case "target-comp-id":
+                return targetCompIdOf(optionValue);
+
+            case "sender-sub-id":
+                return senderSubIdOf(optionValue);
+
+            case "target-sub-id":
+                return targetSubIdOf(optionValue);
+
+            case "sender-location-id":
+                return senderLocationIdOf(optionValue);
+
+            case "target-location-id":
+                return targetLocationIdOf(optionValue);
+
+            default:
+                return null;
+        }
     }
 
     private static void requiredArgument(final int eqIndex)
@@ -157,7 +171,10 @@ public final class FixArchivePrinter
         final boolean follow,
         final Predicate<SessionHeaderDecoder> headerPredicate,
         final int archiveScannerStreamId,
-        final Class<? extends FixDictionary> fixDictionaryType)
+        final Class<? extends FixDictionary> fixDictionaryType,
+        final String logFileDir,
+        final long fromTimestamp,
+        final long toTimestamp)
     {
         final FixDictionary fixDictionary = FixDictionary.of(fixDictionaryType);
         FixMessagePredicate predicate = otherPredicate;
@@ -168,12 +185,15 @@ public final class FixArchivePrinter
 
         final FixArchiveScanner.Context context = new FixArchiveScanner.Context()
             .aeronDirectoryName(aeronDirectoryName)
-            .idleStrategy(CommonConfiguration.backoffIdleStrategy());
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .logFileDir(logFileDir);
 
         final FixArchiveScanner scanner = new FixArchiveScanner(context);
         scanner.scan(
             aeronChannel,
             queryStreamId,
+            fromTimestamp,
+            toTimestamp,
             filterBy(FixArchivePrinter::print, predicate),
             follow,
             archiveScannerStreamId);
@@ -204,6 +224,10 @@ public final class FixArchivePrinter
             "Specifies the aeron channel that was used to by the engine",
             true);
 
+        printOption(
+            "log-file-dir",
+            "Specifies the engine's log file directory, its time index makes scans using --from or --to quicker",
+            false);
         printOption(
             "from",
             "Time in precision of CommonConfiguration.clock() that messages are not earlier than",
@@ -263,6 +287,11 @@ public final class FixArchivePrinter
 
     private static <T> Predicate<T> safeAnd(final Predicate<T> left, final Predicate<T> right)
     {
+        if (right == null)
+        {
+            return left;
+        }
+
         return left == null ? right : left.and(right);
     }
 
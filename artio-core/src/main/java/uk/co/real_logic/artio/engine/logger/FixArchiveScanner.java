@@ -20,33 +20,74 @@ import io.aeron.FragmentAssembler;
 import io.aeron.Image;
 import io.aeron.Subscription;
 import io.aeron.archive.client.AeronArchive;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import org.agrona.LangUtil;
 import org.agrona.concurrent.IdleStrategy;
+import uk.co.real_logic.artio.LogTag;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.archive.client.AeronArchive.NULL_LENGTH;
 import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static java.lang.Integer.getInteger;
 import static java.util.Comparator.comparingLong;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.replayIndexFile;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
+import static uk.co.real_logic.artio.engine.logger.TimeIndexReader.UNKNOWN_POSITION;
 
 /**
  * Scan the archive for fix messages. Can be combined with predicates to create rich queries.
  *
+ * Scans for messages within a time range only replay the parts of each recording that the range covers, when the
+ * engine's {@link TimeIndex} is available in the context's log file directory. Scans for the messages of a single
+ * session use the engine's replay index in the same directory, in order to only replay that session's messages.
+ *
+ * Recordings can also be scanned in parallel, see {@link #parallelScan(String, int[], FixMessageConsumer, boolean, int)}.
+ *
  * @see FixMessageConsumer
  * @see FixMessagePredicate
  * @see FixMessagePredicates
  */
 public class FixArchiveScanner implements AutoCloseable
 {
+    public static final long DEFAULT_SESSION_RANGE_GAP = 64 * 1024;
+    public static final int DEFAULT_SCAN_BUFFER_CAPACITY = 1024 * 1024;
+    public static final int DEFAULT_MAX_ORDERED_SCAN_RECORDINGS = 16;
+
     private final Aeron aeron;
     private final AeronArchive aeronArchive;
     private final IdleStrategy idleStrategy;
+    private final String logFileDir;
+    private final int replayIndexFileSize;
+    private final int replayIndexSessionsPerSegment;
+    private final int replayIndexMaxSessions;
+    private final long sessionRangeGap;
+    private final int scanParallelism;
+    private final int scanBufferCapacity;
+    private final int maxOrderedScanRecordings;
 
     public static class Context
     {
         private String aeronDirectoryName;
         private IdleStrategy idleStrategy;
+        private String logFileDir;
+        private int replayIndexFileSize = getInteger(REPLAY_INDEX_FILE_SIZE_PROP, DEFAULT_REPLAY_INDEX_FILE_SIZE);
+        private int replayIndexSessionsPerSegment =
+            getInteger(REPLAY_INDEX_SESSIONS_PER_SEGMENT_PROP, DEFAULT_REPLAY_INDEX_SESSIONS_PER_SEGMENT);
+        private int replayIndexMaxSessions =
+            getInteger(REPLAY_INDEX_MAX_SESSIONS_PROP, DEFAULT_REPLAY_INDEX_MAX_SESSIONS);
+        private long sessionRangeGap = DEFAULT_SESSION_RANGE_GAP;
+        private int scanParallelism = Runtime.getRuntime().availableProcessors();
+        private int scanBufferCapacity = DEFAULT_SCAN_BUFFER_CAPACITY;
+        private int maxOrderedScanRecordings = DEFAULT_MAX_ORDERED_SCAN_RECORDINGS;
 
         public Context()
         {
@@ -73,11 +114,165 @@ public class FixArchiveScanner implements AutoCloseable
         {
             return idleStrategy;
         }
+
+        /**
+         * Sets the engine's log file directory, so that its time index can be used to scan time ranges.
+         *
+         * @param logFileDir the engine's log file directory, or null to always scan whole recordings.
+         * @return this
+         */
+        public Context logFileDir(final String logFileDir)
+        {
+            this.logFileDir = logFileDir;
+            return this;
+        }
+
+        public String logFileDir()
+        {
+            return logFileDir;
+        }
+
+        /**
+         * Sets the replay index file size that the engine was configured with.
+         *
+         * @param replayIndexFileSize the engine's replay index file size.
+         * @return this
+         * @see EngineConfiguration#replayIndexFileSize(int)
+         */
+        public Context replayIndexFileSize(final int replayIndexFileSize)
+        {
+            this.replayIndexFileSize = replayIndexFileSize;
+            return this;
+        }
+
+        public int replayIndexFileSize()
+        {
+            return replayIndexFileSize;
+        }
+
+        /**
+         * Sets the number of sessions per replay index segment that the engine was configured with.
+         *
+         * @param replayIndexSessionsPerSegment the engine's number of sessions per replay index segment.
+         * @return this
+         * @see EngineConfiguration#replayIndexSessionsPerSegment(int)
+         */
+        public Context replayIndexSessionsPerSegment(final int replayIndexSessionsPerSegment)
+        {
+            this.replayIndexSessionsPerSegment = replayIndexSessionsPerSegment;
+            return this;
+        }
+
+        public int replayIndexSessionsPerSegment()
+        {
+            return replayIndexSessionsPerSegment;
+        }
+
+        /**
+         * Sets the maximum number of sessions in the replay index store that the engine was configured with.
+         *
+         * @param replayIndexMaxSessions the engine's maximum number of sessions in the replay index store.
+         * @return this
+         * @see EngineConfiguration#replayIndexMaxSessions(int)
+         */
+        public Context replayIndexMaxSessions(final int replayIndexMaxSessions)
+        {
+            this.replayIndexMaxSessions = replayIndexMaxSessions;
+            return this;
+        }
+
+        public int replayIndexMaxSessions()
+        {
+            return replayIndexMaxSessions;
+        }
+
+        /**
+         * Sets the largest number of bytes between two of a session's messages that a session scan replays in one go.
+         * Each separate range of a recording is a separate archive replay.
+         *
+         * @param sessionRangeGap the largest number of bytes between two of a session's messages within a replay.
+         * @return this
+         * @see FixArchiveScanner#scanSession(int, long, FixMessageConsumer, int)
+         */
+        public Context sessionRangeGap(final long sessionRangeGap)
+        {
+            this.sessionRangeGap = sessionRangeGap;
+            return this;
+        }
+
+        public long sessionRangeGap()
+        {
+            return sessionRangeGap;
+        }
+
+        /**
+         * Sets the number of threads that an unordered parallel scan replays recordings on.
+         *
+         * @param scanParallelism the number of threads that an unordered parallel scan replays recordings on.
+         * @return this
+         * @see FixArchiveScanner#parallelScan(String, int[], FixMessageConsumer, boolean, int)
+         */
+        public Context scanParallelism(final int scanParallelism)
+        {
+            this.scanParallelism = scanParallelism;
+            return this;
+        }
+
+        public int scanParallelism()
+        {
+            return scanParallelism;
+        }
+
+        /**
+         * Sets the capacity of the buffer between each thread of a parallel scan and the scanning thread. Must be a
+         * power of two and at least eight times the length of the largest message that's scanned.
+         *
+         * @param scanBufferCapacity the capacity of the buffer of each thread of a parallel scan.
+         * @return this
+         */
+        public Context scanBufferCapacity(final int scanBufferCapacity)
+        {
+            this.scanBufferCapacity = scanBufferCapacity;
+            return this;
+        }
+
+        public int scanBufferCapacity()
+        {
+            return scanBufferCapacity;
+        }
+
+        /**
+         * Sets the maximum number of recordings that an ordered parallel scan can merge. An ordered scan replays all
+         * of its recordings at once, each with its own thread, buffer and archive replay, so scans of more recordings
+         * than this are rejected.
+         *
+         * @param maxOrderedScanRecordings the maximum number of recordings that an ordered parallel scan can merge.
+         * @return this
+         * @see FixArchiveScanner#parallelScan(String, int[], FixMessageConsumer, boolean, int)
+         */
+        public Context maxOrderedScanRecordings(final int maxOrderedScanRecordings)
+        {
+            this.maxOrderedScanRecordings = maxOrderedScanRecordings;
+            return this;
+        }
+
+        public int maxOrderedScanRecordings()
+        {
+            return maxOrderedScanRecordings;
+        }
     }
 
     public FixArchiveScanner(final Context context)
     {
         this.idleStrategy = context.idleStrategy();
+        this.logFileDir = context.logFileDir();
+        this.replayIndexFileSize = context.replayIndexFileSize();
+        this.replayIndexSessionsPerSegment = context.replayIndexSessionsPerSegment();
+        this.replayIndexMaxSessions = context.replayIndexMaxSessions();
+        this.sessionRangeGap = context.sessionRangeGap();
+        this.scanParallelism = context.scanParallelism();
+        this.scanBufferCapacity = context.scanBufferCapacity();
+        this.maxOrderedScanRecordings = context.maxOrderedScanRecordings();
 
         final Aeron.Context aeronContext = new Aeron.Context().aeronDirectoryName(context.aeronDirectoryName());
         aeron = Aeron.connect(aeronContext);
@@ -90,6 +285,301 @@ public class FixArchiveScanner implements AutoCloseable
         final FixMessageConsumer handler,
         final boolean follow,
         final int archiveScannerStreamId)
+    {
+        scan(aeronChannel, queryStreamId, handler, follow, archiveScannerStreamId, null, 0, 0);
+    }
+
+    /**
+     * Scan the archive for the messages within a time range. Messages outside of the range aren't passed to the
+     * handler, as if it were filtered by {@link FixMessagePredicates#between(long, long)}.
+     *
+     * @param aeronChannel the channel that messages were archived from.
+     * @param queryStreamId the stream id that messages were archived from.
+     * @param beginTimestampInclusive the message's timestamp must be &gt;= this value.
+     * @param endTimestampExclusive the message's timestamp must be &lt; this value.
+     * @param handler the consumer of the messages.
+     * @param follow true to carry on scanning a recording that's still being archived.
+     * @param archiveScannerStreamId the stream id to replay the archive on.
+     */
+    public void scan(
+        final String aeronChannel,
+        final int queryStreamId,
+        final long beginTimestampInclusive,
+        final long endTimestampExclusive,
+        final FixMessageConsumer handler,
+        final boolean follow,
+        final int archiveScannerStreamId)
+    {
+        final TimeIndexReader timeIndexReader = logFileDir == null ?
+            null : new TimeIndexReader(logFileDir, queryStreamId);
+        final FixMessageConsumer timeRangeHandler = FixMessagePredicates.filterBy(
+            handler, FixMessagePredicates.between(beginTimestampInclusive, endTimestampExclusive));
+
+        scan(
+            aeronChannel,
+            queryStreamId,
+            timeRangeHandler,
+            follow,
+            archiveScannerStreamId,
+            timeIndexReader,
+            beginTimestampInclusive,
+            endTimestampExclusive);
+    }
+
+    /**
+     * Scan the archive for the messages of a single FIX session. Rather than decoding every message of the stream,
+     * the session's entries in the engine's replay index are used to replay only the parts of each recording that
+     * the session's messages are in, so the context's log file directory must be set. Messages are passed to the
+     * handler in the order that they were indexed. Only the messages that are still within the session's replay
+     * index are scanned, older ones have been overwritten.
+     *
+     * @param queryStreamId the stream id that messages were archived from.
+     * @param fixSessionId the id of the FIX session to scan the messages of.
+     * @param handler the consumer of the messages.
+     * @param archiveScannerStreamId the stream id to replay the archive on.
+     */
+    public void scanSession(
+        final int queryStreamId,
+        final long fixSessionId,
+        final FixMessageConsumer handler,
+        final int archiveScannerStreamId)
+    {
+        if (logFileDir == null)
+        {
+            throw new IllegalStateException("Scanning a session requires the engine's log file directory");
+        }
+
+        final ReplayIndexStore replayIndexStore = newReplayIndexStore(queryStreamId);
+        if (replayIndexStore == null && !replayIndexFile(logFileDir, fixSessionId, queryStreamId).exists())
+        {
+            return;
+        }
+
+        final LogEntryHandler logEntryHandler = new LogEntryHandler(handler);
+        final ControlledFragmentHandler replayHandler = (buffer, offset, length, header) ->
+        {
+            logEntryHandler.onFragment(buffer, offset, length, header);
+            return CONTINUE;
+        };
+
+        try (ReplayQuery replayQuery = new ReplayQuery(
+            logFileDir,
+            1,
+            1,
+            LoggerUtil::mapExistingFile,
+            queryStreamId,
+            idleStrategy,
+            aeronArchive,
+            LangUtil::rethrowUnchecked,
+            archiveScannerStreamId,
+            replayIndexStore,
+            false))
+        {
+            final ReplayOperation operation = replayQuery.query(
+                replayHandler,
+                fixSessionId,
+                0,
+                0,
+                MOST_RECENT_MESSAGE,
+                MOST_RECENT_MESSAGE,
+                LogTag.REPLAY,
+                sessionRangeGap);
+
+            while (!operation.attemptReplay())
+            {
+                idleStrategy.idle();
+            }
+            idleStrategy.reset();
+        }
+    }
+
+    /**
+     * Scan the archive for the messages of several streams, replaying recordings in parallel on other threads.
+     * The handler is still only called on this thread, with messages either in timestamp order or in whichever order
+     * they're replayed in. Unlike {@link #scan(String, int, FixMessageConsumer, boolean, int)} this scans up to the
+     * current end of recordings that are still being archived, rather than following them.
+     *
+     * An ordered scan merges messages by their timestamps, so it replays every recording at once, each on its own
+     * thread, and messages within each recording should be in timestamp order. It's rejected if there are more
+     * recordings than the context's maximum ordered scan recordings. An unordered scan replays recordings on up to the
+     * context's scan parallelism threads. Each thread replays recordings on its own stream id, from
+     * archiveScannerStreamId upwards.
+     *
+     * @param aeronChannel the channel that messages were archived from.
+     * @param queryStreamIds the stream ids that messages were archived from.
+     * @param handler the consumer of the messages.
+     * @param ordered true to pass messages to the handler in timestamp order, false for any order.
+     * @param archiveScannerStreamId the first stream id to replay the archive on.
+     * @throws IllegalArgumentException if an ordered scan has more recordings than it can merge.
+     */
+    public void parallelScan(
+        final String aeronChannel,
+        final int[] queryStreamIds,
+        final FixMessageConsumer handler,
+        final boolean ordered,
+        final int archiveScannerStreamId)
+    {
+        final List<ArchiveLocation> archiveLocations = new ArrayList<>();
+        for (final int queryStreamId : queryStreamIds)
+        {
+            archiveLocations.addAll(lookupArchiveLocations(aeronChannel, queryStreamId));
+        }
+
+        final List<ArchiveScanWorker> workers = new ArrayList<>();
+        if (ordered)
+        {
+            if (archiveLocations.size() > maxOrderedScanRecordings)
+            {
+                throw new IllegalArgumentException(String.format(
+                    "An ordered scan can merge at most %d recordings, but there are %d, " +
+                    "use an unordered scan or a higher maxOrderedScanRecordings",
+                    maxOrderedScanRecordings,
+                    archiveLocations.size()));
+            }
+
+            for (final ArchiveLocation archiveLocation : archiveLocations)
+            {
+                final Queue<ArchiveLocation> workerLocations = new ArrayDeque<>();
+                workerLocations.add(archiveLocation);
+                workers.add(newWorker(workerLocations, archiveScannerStreamId + workers.size(), handler));
+            }
+        }
+        else
+        {
+            final Queue<ArchiveLocation> sharedLocations = new ConcurrentLinkedQueue<>(archiveLocations);
+            final int workerCount = Math.min(scanParallelism, archiveLocations.size());
+            for (int i = 0; i < workerCount; i++)
+            {
+                workers.add(newWorker(sharedLocations, archiveScannerStreamId + i, handler));
+            }
+        }
+
+        final List<Thread> threads = new ArrayList<>();
+        try
+        {
+            for (final ArchiveScanWorker worker : workers)
+            {
+                final Thread thread = new Thread(worker, "fix-archive-scanner-" + threads.size());
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+            }
+
+            if (ordered)
+            {
+                mergeInOrder(workers);
+            }
+            else
+            {
+                mergeUnordered(workers);
+            }
+        }
+        finally
+        {
+            workers.forEach(ArchiveScanWorker::stop);
+            joinAll(threads);
+        }
+    }
+
+    private ArchiveScanWorker newWorker(
+        final Queue<ArchiveLocation> archiveLocations, final int replayStreamId, final FixMessageConsumer handler)
+    {
+        return new ArchiveScanWorker(
+            aeron, aeronArchive, archiveLocations, replayStreamId, scanBufferCapacity, handler);
+    }
+
+    private void mergeInOrder(final List<ArchiveScanWorker> workers)
+    {
+        final IdleStrategy idleStrategy = this.idleStrategy;
+        while (true)
+        {
+            // Every unfinished worker needs a head message in order to know which message is next.
+            ArchiveScanWorker next = null;
+            boolean waiting = false;
+            for (int i = 0, size = workers.size(); i < size; i++)
+            {
+                final ArchiveScanWorker worker = workers.get(i);
+                if (!worker.pollHead())
+                {
+                    waiting = true;
+                }
+                else if (worker.hasHead() && (next == null || worker.headTimestamp() < next.headTimestamp()))
+                {
+                    next = worker;
+                }
+            }
+
+            if (waiting)
+            {
+                idleStrategy.idle();
+            }
+            else if (next == null)
+            {
+                break;
+            }
+            else
+            {
+                idleStrategy.reset();
+                next.deliverHead();
+            }
+        }
+    }
+
+    private void mergeUnordered(final List<ArchiveScanWorker> workers)
+    {
+        final IdleStrategy idleStrategy = this.idleStrategy;
+        boolean finished = false;
+        while (!finished)
+        {
+            finished = true;
+            int messagesRead = 0;
+            for (int i = 0, size = workers.size(); i < size; i++)
+            {
+                final ArchiveScanWorker worker = workers.get(i);
+                messagesRead += worker.poll();
+                finished &= worker.isFinished();
+            }
+
+            idleStrategy.idle(messagesRead);
+        }
+    }
+
+    private static void joinAll(final List<Thread> threads)
+    {
+        for (final Thread thread : threads)
+        {
+            try
+            {
+                thread.join();
+            }
+            catch (final InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private ReplayIndexStore newReplayIndexStore(final int streamId)
+    {
+        if (replayIndexSessionsPerSegment == 0)
+        {
+            return null;
+        }
+
+        return new ReplayIndexStore(
+            logFileDir, streamId, replayIndexFileSize, replayIndexSessionsPerSegment, replayIndexMaxSessions);
+    }
+
+    private void scan(
+        final String aeronChannel,
+        final int queryStreamId,
+        final FixMessageConsumer handler,
+        final boolean follow,
+        final int archiveScannerStreamId,
+        final TimeIndexReader timeIndexReader,
+        final long beginTimestampInclusive,
+        final long endTimestampExclusive)
     {
         final LogEntryHandler logEntryHandler = new LogEntryHandler(handler);
         final FragmentAssembler fragmentAssembler = new FragmentAssembler(logEntryHandler);
@@ -103,32 +593,36 @@ public class FixArchiveScanner implements AutoCloseable
                 final long recordingId = archiveLocation.recordingId;
                 final boolean stillArchiving = archiveLocation.stopPosition == NULL_POSITION;
 
-                final long stopPosition;
-                final long length;
+                long startPosition = archiveLocation.startPosition;
+                long stopPosition;
                 if (stillArchiving)
                 {
-                    if (follow)
-                    {
-                        length = NULL_LENGTH;
-                        stopPosition = NULL_POSITION;
-                    }
-                    else
-                    {
-                        stopPosition = aeronArchive.getRecordingPosition(recordingId);
-                        length = stopPosition - archiveLocation.startPosition;
-                    }
+                    stopPosition = follow ? NULL_POSITION : aeronArchive.getRecordingPosition(recordingId);
                 }
                 else
                 {
                     stopPosition = archiveLocation.stopPosition;
-                    length = stopPosition - archiveLocation.startPosition;
                 }
 
-                if (length != 0)
+                if (timeIndexReader != null)
+                {
+                    startPosition = Math.max(
+                        startPosition, timeIndexReader.startPosition(recordingId, beginTimestampInclusive));
+
+                    final long indexedStopPosition = timeIndexReader.stopPosition(recordingId, endTimestampExclusive);
+                    if (indexedStopPosition != UNKNOWN_POSITION &&
+                        (stopPosition == NULL_POSITION || indexedStopPosition < stopPosition))
+                    {
+                        stopPosition = indexedStopPosition;
+                    }
+                }
+
+                final long length = stopPosition == NULL_POSITION ? NULL_LENGTH : stopPosition - startPosition;
+                if (length > 0 || length == NULL_LENGTH)
                 {
                     final int sessionId = (int)aeronArchive.startReplay(
                         recordingId,
-                        archiveLocation.startPosition,
+                        startPosition,
                         length,
                         IPC_CHANNEL,
                         archiveScannerStreamId);
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import uk.co.real_logic.artio.messages.FixMessageBatchDecoder;
+import uk.co.real_logic.artio.messages.FixMessageBatchDecoder.MessagesDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.MAX_BATCH_SIZE;
+
+/**
+ * Turns the messages of a FixMessageBatch back into the FixMessage fragments that they would have been if they had
+ * been sent one at a time, so that code reading the archive can handle batched messages like any other.
+ */
+class FixMessageBatchSplitter
+{
+    private final FixMessageBatchDecoder fixMessageBatch = new FixMessageBatchDecoder();
+    private final MessageHeaderEncoder messageHeader = new MessageHeaderEncoder();
+    private final FixMessageEncoder fixMessage = new FixMessageEncoder();
+    private final MutableDirectBuffer frameBuffer = new ExpandableArrayBuffer();
+
+    private final int[] messageTypes = new int[MAX_BATCH_SIZE];
+    private final int[] sequenceNumbers = new int[MAX_BATCH_SIZE];
+    private final int[] bodyOffsets = new int[MAX_BATCH_SIZE];
+    private final int[] bodyLengths = new int[MAX_BATCH_SIZE];
+
+    private DirectBuffer buffer;
+    private int messageCount;
+
+    /**
+     * Wrap a batch in order to split it.
+     *
+     * @param buffer the buffer containing the batch.
+     * @param offset the offset of the batch after its message header.
+     * @param blockLength the block length from the message header.
+     * @param version the version from the message header.
+     * @return the number of messages in the batch.
+     */
+    int wrap(final DirectBuffer buffer, final int offset, final int blockLength, final int version)
+    {
+        this.buffer = buffer;
+
+        final FixMessageBatchDecoder fixMessageBatch = this.fixMessageBatch;
+        fixMessageBatch.wrap(buffer, offset, blockLength, version);
+
+        final int[] messageTypes = this.messageTypes;
+        final int[] sequenceNumbers = this.sequenceNumbers;
+        final int[] bodyLengths = this.bodyLengths;
+        int messageCount = 0;
+        final MessagesDecoder messages = fixMessageBatch.messages();
+        while (messages.hasNext())
+        {
+            messages.next();
+            messageTypes[messageCount] = messages.messageType();
+            sequenceNumbers[messageCount] = messages.sequenceNumber();
+            bodyLengths[messageCount] = messages.bodyLength();
+            messageCount++;
+        }
+
+        final int[] bodyOffsets = this.bodyOffsets;
+        int bodyOffset = fixMessageBatch.limit() + FixMessageBatchDecoder.bodyHeaderLength();
+        for (int i = 0; i < messageCount; i++)
+        {
+            bodyOffsets[i] = bodyOffset;
+            bodyOffset += bodyLengths[i];
+        }
+
+        this.messageCount = messageCount;
+
+        return messageCount;
+    }
+
+    long session()
+    {
+        return fixMessageBatch.session();
+    }
+
+    int sequenceIndex()
+    {
+        return fixMessageBatch.sequenceIndex();
+    }
+
+    int sequenceNumber(final int index)
+    {
+        return sequenceNumbers[index];
+    }
+
+    int messageCount()
+    {
+        return messageCount;
+    }
+
+    /**
+     * Write a message of the batch into the frame buffer as a FixMessage, starting with its message header.
+     *
+     * @param index the index of the message within the batch.
+     * @return the length of the FixMessage fragment.
+     */
+    int frame(final int index)
+    {
+        final FixMessageBatchDecoder fixMessageBatch = this.fixMessageBatch;
+        final MutableDirectBuffer frameBuffer = this.frameBuffer;
+
+        fixMessage
+            .wrapAndApplyHeader(frameBuffer, 0, messageHeader)
+            .libraryId(fixMessageBatch.libraryId())
+            .messageType(messageTypes[index])
+            .session(fixMessageBatch.session())
+            .sequenceIndex(fixMessageBatch.sequenceIndex())
+            .connection(fixMessageBatch.connection())
+            .timestamp(fixMessageBatch.timestamp())
+            .status(OK)
+            .sequenceNumber(sequenceNumbers[index])
+            .putBody(buffer, bodyOffsets[index], bodyLengths[index]);
+
+        return MessageHeaderEncoder.ENCODED_LENGTH + fixMessage.encodedLength();
+    }
+
+    DirectBuffer frameBuffer()
+    {
+        return frameBuffer;
+    }
+}
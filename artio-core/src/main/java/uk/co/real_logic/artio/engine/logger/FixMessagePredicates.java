@@ -21,6 +21,8 @@ import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.dictionary.generation.CodecUtil;
 import uk.co.real_logic.artio.dictionary.generation.GenerationUtil;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.otf.TagIndex;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.BufferAsciiSequence;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -32,8 +34,15 @@ import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
 /**
  * Filters to be used in conjunction with {@link FixArchiveScanner}.
+ *
+ * The tag predicates, such as {@link #tagValueOf(int, String)}, are checked against the fields of a message body
+ * using {@link #whereTags(Predicate)} and compose with each other using {@link Predicate#and(Predicate)} and
+ * {@link Predicate#or(Predicate)}. They compare the bytes of values without allocating, so they're cheaper than
+ * {@link #bodyMatches(Pattern)} or {@link #whereHeader(FixDictionary, Predicate)} for large scans.
  */
 public final class FixMessagePredicates
 {
@@ -70,6 +79,9 @@ public final class FixMessagePredicates
      *
      * Timestamps filtered in precision of CommonConfiguration.clock().
      *
+     * Filtering a scan of the whole archive replays every message, in order to only replay the messages within
+     * the time range use {@link FixArchiveScanner#scan(String, int, long, long, FixMessageConsumer, boolean, int)}.
+     *
      * @param beginTimestampInclusive the message's timestamp must be &gt;= this value.
      * @param endTimestampExclusive the message's timestamp must be &lt; this value.
      * @return the resulting predicate
@@ -226,6 +238,153 @@ public final class FixMessagePredicates
         };
     }
 
+    /**
+     * Filter the fix message by checking the value of a tag in its body, which needn't be in any dictionary.
+     * Where the tag appears more than once, only its first value is checked.
+     *
+     * @param tag the tag of the field to check.
+     * @param value the value that the field must have.
+     * @return the resulting predicate.
+     */
+    public static Predicate<TagIndex> tagValueOf(final int tag, final String value)
+    {
+        return tagEquals(tag, value.getBytes(US_ASCII));
+    }
+
+    /**
+     * Filter the fix message by checking the value of a tag in its body against some ascii encoded bytes, without
+     * allocating. Where the tag appears more than once, only its first value is checked.
+     *
+     * @param tag the tag of the field to check.
+     * @param value the value that the field must have.
+     * @return the resulting predicate.
+     */
+    public static Predicate<TagIndex> tagEquals(final int tag, final byte[] value)
+    {
+        return tagIndex ->
+        {
+            final int field = tagIndex.find(tag);
+            return field != TagIndex.MISSING && tagIndex.valueEquals(field, value);
+        };
+    }
+
+    /**
+     * Filter the fix message by checking that the value of a tag in its body is one of a set of values, without
+     * allocating. Where the tag appears more than once, only its first value is checked.
+     *
+     * @param tag the tag of the field to check.
+     * @param values the values that the field can have.
+     * @return the resulting predicate.
+     */
+    public static Predicate<TagIndex> tagIn(final int tag, final String... values)
+    {
+        final byte[][] valueBytes = Stream.of(values)
+            .map(value -> value.getBytes(US_ASCII))
+            .toArray(byte[][]::new);
+        return tagIndex ->
+        {
+            final int field = tagIndex.find(tag);
+            if (field == TagIndex.MISSING)
+            {
+                return false;
+            }
+
+            for (final byte[] value : valueBytes)
+            {
+                if (tagIndex.valueEquals(field, value))
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        };
+    }
+
+    /**
+     * Filter the fix message by checking that the value of a tag in its body starts with a prefix, without
+     * allocating. Where the tag appears more than once, only its first value is checked.
+     *
+     * @param tag the tag of the field to check.
+     * @param prefix the start of the value that the field must have.
+     * @return the resulting predicate.
+     */
+    public static Predicate<TagIndex> tagPrefix(final int tag, final String prefix)
+    {
+        final byte[] prefixBytes = prefix.getBytes(US_ASCII);
+        return tagIndex ->
+        {
+            final int field = tagIndex.find(tag);
+            return field != TagIndex.MISSING && tagIndex.valueStartsWith(field, prefixBytes);
+        };
+    }
+
+    /**
+     * Filter the fix message by checking that the numeric value of a tag in its body is within a range, without
+     * allocating. The value can be an int, qty, price or any other decimal field. Where the tag appears more than
+     * once, only its first value is checked, and messages where it isn't a number don't pass the predicate.
+     *
+     * @param tag the tag of the field to check.
+     * @param minInclusive the value of the field must be &gt;= this value.
+     * @param maxInclusive the value of the field must be &lt;= this value.
+     * @return the resulting predicate.
+     */
+    public static Predicate<TagIndex> tagBetween(
+        final int tag, final DecimalFloat minInclusive, final DecimalFloat maxInclusive)
+    {
+        final DecimalFloat min = minInclusive.copy();
+        final DecimalFloat max = maxInclusive.copy();
+        final DecimalFloat number = new DecimalFloat();
+        return tagIndex ->
+        {
+            final int field = tagIndex.find(tag);
+            if (field == TagIndex.MISSING || tagIndex.valueLength(field) == 0)
+            {
+                return false;
+            }
+
+            return tagIndex.buffer().tryGetFloat(number, tagIndex.valueOffset(field), tagIndex.valueLength(field)) &&
+                number.compareTo(min) >= 0 && number.compareTo(max) <= 0;
+        };
+    }
+
+    /**
+     * Filter the fix message by checking that the numeric value of a tag in its body is within a range, without
+     * allocating.
+     *
+     * @param tag the tag of the field to check.
+     * @param minInclusive the value of the field must be &gt;= this value.
+     * @param maxInclusive the value of the field must be &lt;= this value.
+     * @return the resulting predicate.
+     * @see #tagBetween(int, DecimalFloat, DecimalFloat)
+     */
+    public static Predicate<TagIndex> tagBetween(final int tag, final long minInclusive, final long maxInclusive)
+    {
+        return tagBetween(tag, new DecimalFloat(minInclusive), new DecimalFloat(maxInclusive));
+    }
+
+    /**
+     * Filter the fix message by indexing the tags of its body, allowing any field to be checked in constant time.
+     *
+     * @param matches the predicate that the indexed message must pass.
+     * @return the resulting predicate.
+     */
+    public static FixMessagePredicate whereTags(final Predicate<TagIndex> matches)
+    {
+        final TagIndex tagIndex = new TagIndex();
+        final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(1024);
+        final AsciiBuffer asciiBuffer = new MutableAsciiBuffer();
+        return message ->
+        {
+            final int length = message.bodyLength();
+            buffer.checkLimit(length);
+            message.getBody(buffer, 0, length);
+            asciiBuffer.wrap(buffer);
+            tagIndex.index(asciiBuffer, 0, length);
+            return matches.test(tagIndex);
+        };
+    }
+
     /**
      * Filter the fix message by checking the assigned session id field is equal to the given parameter.
      *
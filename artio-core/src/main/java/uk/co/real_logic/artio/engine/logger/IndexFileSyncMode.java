@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+/**
+ * How a {@link SequenceNumberIndexWriter} makes its in-memory state durable.
+ */
+public enum IndexFileSyncMode
+{
+    /**
+     * Checksum and copy the whole index into a second file, force it to disk and then rename it over the index
+     * file. Each update is atomic, as a passing place file can be recovered from if the rename fails, but costs a
+     * copy and force of the whole file on the indexing thread.
+     */
+    FLIP_FILES,
+
+    /**
+     * Checksum and copy only the sectors of the index that have changed since the last update into the index file
+     * in place, then force the file to disk on a separate thread, shared by the inbound and outbound indices so
+     * that both files are forced together. The durable position of each index is published through a counter once
+     * its file has been forced. A sector that's torn by a crash is detected by its checksum on restart, rather than
+     * being recoverable from another file.
+     */
+    SYNC_DIRTY_SECTORS
+}
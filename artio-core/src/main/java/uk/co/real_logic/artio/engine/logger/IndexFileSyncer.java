@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.engine.MappedFile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forces index files to disk on its own thread, so that the indexing thread never blocks on a force. Every index
+ * that's registered with a syncer is forced in the same pass, so updates to the inbound and outbound indices that
+ * are copied close together share the cost of syncing. This is used by the
+ * {@link IndexFileSyncMode#SYNC_DIRTY_SECTORS} mode.
+ *
+ * Files are registered before the syncer's thread is started and must be closed after it has stopped.
+ */
+public class IndexFileSyncer implements Agent
+{
+    private final List<SyncedFile> files = new ArrayList<>();
+
+    /**
+     * Register an index file to be forced by this syncer.
+     *
+     * @param file the file that the index is copied into.
+     * @param durablePosition the counter that's set to the position that the index had been updated to when
+     *                        it was last copied into the file, once the copy has been forced.
+     * @return the handle for the indexing thread to notify the syncer of copies with.
+     */
+    public SyncedFile register(final MappedFile file, final AtomicCounter durablePosition)
+    {
+        final SyncedFile syncedFile = new SyncedFile(file, durablePosition);
+        files.add(syncedFile);
+        return syncedFile;
+    }
+
+    public int doWork()
+    {
+        final List<SyncedFile> files = this.files;
+        int work = 0;
+        for (int i = 0, size = files.size(); i < size; i++)
+        {
+            work += files.get(i).sync();
+        }
+
+        return work;
+    }
+
+    public String roleName()
+    {
+        return "IndexFileSyncer";
+    }
+
+    public static final class SyncedFile
+    {
+        private final MappedFile file;
+        private final AtomicCounter durablePosition;
+
+        // Written by the indexing thread, the count is written last so that it guards the position
+        private volatile long copiedPosition;
+        private volatile long copyCount;
+
+        // Only used by the syncer's thread
+        private long syncedCopyCount;
+
+        private SyncedFile(final MappedFile file, final AtomicCounter durablePosition)
+        {
+            this.file = file;
+            this.durablePosition = durablePosition;
+        }
+
+        /**
+         * Notify the syncer that the index has been copied into the file, called by the indexing thread.
+         *
+         * @param position the position that the index had been updated to when it was copied.
+         */
+        void copied(final long position)
+        {
+            copiedPosition = position;
+            copyCount = copyCount + 1;
+        }
+
+        int sync()
+        {
+            final long copyCount = this.copyCount;
+            if (copyCount == syncedCopyCount)
+            {
+                return 0;
+            }
+
+            final long copiedPosition = this.copiedPosition;
+            file.force();
+            syncedCopyCount = copyCount;
+            durablePosition.setOrdered(copiedPosition);
+            return 1;
+        }
+    }
+}
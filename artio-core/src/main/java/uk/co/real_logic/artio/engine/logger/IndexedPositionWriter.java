@@ -25,6 +25,7 @@ import uk.co.real_logic.artio.storage.messages.IndexedPositionDecoder;
 import uk.co.real_logic.artio.storage.messages.IndexedPositionEncoder;
 
 import static uk.co.real_logic.artio.engine.SectorFramer.OUT_OF_SPACE;
+import static uk.co.real_logic.artio.engine.SectorFramer.SECTOR_SIZE;
 
 /**
  * Writes out a log of the stream positions that we have indexed up to.
@@ -47,6 +48,9 @@ class IndexedPositionWriter
     private final ErrorHandler errorHandler;
     private final ChecksumFramer checksumFramer;
 
+    // The end of the last record that's been written to since startup, earlier records are never moved.
+    private int writtenLimit = HEADER_LENGTH;
+
     IndexedPositionWriter(
         final AtomicBuffer buffer,
         final ErrorHandler errorHandler,
@@ -116,6 +120,7 @@ class IndexedPositionWriter
                         .recordingId(recordingId);
 
                     recordOffsets.put(aeronSessionId, offset);
+                    writtenLimit = Math.max(writtenLimit, offset + RECORD_LENGTH);
                     putPosition(position, buffer, offset);
                     return;
                 }
@@ -139,6 +144,24 @@ class IndexedPositionWriter
         checksumFramer.updateChecksums();
     }
 
+    /**
+     * Update the checksums of only the sectors that can have been written to since startup.
+     *
+     * @return the length of the start of the buffer whose checksums have been updated.
+     */
+    int updateWrittenChecksums()
+    {
+        final int capacity = buffer.capacity();
+        int sectorStart = 0;
+        while (sectorStart < writtenLimit && sectorStart + SECTOR_SIZE <= capacity)
+        {
+            checksumFramer.updateChecksum(sectorStart);
+            sectorStart += SECTOR_SIZE;
+        }
+
+        return sectorStart;
+    }
+
     AtomicBuffer buffer()
     {
         return buffer;
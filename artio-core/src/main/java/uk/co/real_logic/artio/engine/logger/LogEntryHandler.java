@@ -18,6 +18,7 @@ package uk.co.real_logic.artio.engine.logger;
 import io.aeron.logbuffer.FragmentHandler;
 import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
+import uk.co.real_logic.artio.messages.FixMessageBatchDecoder;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
@@ -25,6 +26,7 @@ class LogEntryHandler implements FragmentHandler
 {
     private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
     private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final FixMessageBatchSplitter batchSplitter = new FixMessageBatchSplitter();
     private final FixMessageConsumer handler;
 
     LogEntryHandler(final FixMessageConsumer handler)
@@ -45,5 +47,23 @@ class LogEntryHandler implements FragmentHandler
 
             handler.onMessage(fixMessage, buffer, offset, length, header);
         }
+        else if (messageHeader.templateId() == FixMessageBatchDecoder.TEMPLATE_ID)
+        {
+            offset += MessageHeaderDecoder.ENCODED_LENGTH;
+
+            final FixMessageBatchSplitter batchSplitter = this.batchSplitter;
+            final int messageCount = batchSplitter.wrap(
+                buffer, offset, messageHeader.blockLength(), messageHeader.version());
+            final DirectBuffer frameBuffer = batchSplitter.frameBuffer();
+            for (int i = 0; i < messageCount; i++)
+            {
+                final int frameLength = batchSplitter.frame(i);
+                fixMessage.wrap(
+                    frameBuffer, MessageHeaderDecoder.ENCODED_LENGTH, FixMessageDecoder.BLOCK_LENGTH,
+                    FixMessageDecoder.SCHEMA_VERSION);
+
+                handler.onMessage(fixMessage, frameBuffer, MessageHeaderDecoder.ENCODED_LENGTH, frameLength, header);
+            }
+        }
     }
 }
@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.engine.logger;
 
 import io.aeron.logbuffer.Header;
 import org.agrona.BitUtil;
+import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
@@ -24,6 +25,7 @@ import org.agrona.collections.Long2ObjectCache;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.messages.FixMessageBatchDecoder;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.FixMessageEncoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
@@ -45,6 +47,9 @@ import static uk.co.real_logic.artio.messages.MessageStatus.OK;
  *
  * Written Positions are stored in a separate file at {@link ReplayIndexDescriptor#replayPositionPath(String, int)}.
  *
+ * Each session's index is either in its own file or in a region of a {@link ReplayIndexStore}, both with the same
+ * layout.
+ *
  * Buffer Consists of:
  *
  * MessageHeader
@@ -57,6 +62,7 @@ public class ReplayIndex implements Index
     private final LongFunction<SessionIndex> newSessionIndex = SessionIndex::new;
     private final MessageHeaderDecoder frameHeaderDecoder = new MessageHeaderDecoder();
     private final FixMessageDecoder messageFrame = new FixMessageDecoder();
+    private final FixMessageBatchDecoder batchFrame = new FixMessageBatchDecoder();
     private final ReplayIndexRecordEncoder replayIndexRecord = new ReplayIndexRecordEncoder();
     private final MessageHeaderEncoder indexHeaderEncoder = new MessageHeaderEncoder();
 
@@ -72,6 +78,8 @@ public class ReplayIndex implements Index
     private final BufferFactory bufferFactory;
     private final AtomicBuffer positionBuffer;
     private final RecordingIdLookup recordingIdLookup;
+    private final ReplayIndexStore replayIndexStore;
+    private final ErrorHandler errorHandler;
 
     public ReplayIndex(
         final String logFileDir,
@@ -83,6 +91,46 @@ public class ReplayIndex implements Index
         final AtomicBuffer positionBuffer,
         final ErrorHandler errorHandler,
         final RecordingIdLookup recordingIdLookup)
+    {
+        this(
+            logFileDir,
+            requiredStreamId,
+            indexFileSize,
+            cacheNumSets,
+            cacheSetSize,
+            bufferFactory,
+            positionBuffer,
+            errorHandler,
+            recordingIdLookup,
+            null);
+    }
+
+    /**
+     * Create a replay index.
+     *
+     * @param logFileDir the directory that index files are in.
+     * @param requiredStreamId the stream id of the messages being indexed.
+     * @param indexFileSize the size of each session's index.
+     * @param cacheNumSets the number of sets in the cache of session indices.
+     * @param cacheSetSize the size of each set in the cache of session indices.
+     * @param bufferFactory maps the index file of each session when there's no store.
+     * @param positionBuffer the buffer that indexed positions are written to.
+     * @param errorHandler the handler for errors whilst indexing.
+     * @param recordingIdLookup finds the recording of each message.
+     * @param replayIndexStore the store that holds every session's index, or null to use a file per session. Closed
+     *                         when this index is closed.
+     */
+    public ReplayIndex(
+        final String logFileDir,
+        final int requiredStreamId,
+        final int indexFileSize,
+        final int cacheNumSets,
+        final int cacheSetSize,
+        final BufferFactory bufferFactory,
+        final AtomicBuffer positionBuffer,
+        final ErrorHandler errorHandler,
+        final RecordingIdLookup recordingIdLookup,
+        final ReplayIndexStore replayIndexStore)
     {
         this.logFileDir = logFileDir;
         this.requiredStreamId = requiredStreamId;
@@ -90,6 +138,8 @@ public class ReplayIndex implements Index
         this.bufferFactory = bufferFactory;
         this.positionBuffer = positionBuffer;
         this.recordingIdLookup = recordingIdLookup;
+        this.replayIndexStore = replayIndexStore;
+        this.errorHandler = errorHandler;
 
         sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
         checkIndexFileSize(indexFileSize);
@@ -155,6 +205,11 @@ public class ReplayIndex implements Index
                     }
                 }
             }
+            else if (frameHeaderDecoder.templateId() == FixMessageBatchDecoder.TEMPLATE_ID)
+            {
+                offset += frameHeaderDecoder.encodedLength();
+                onBatch(srcBuffer, offset, endPosition, length, header);
+            }
         }
         else
         {
@@ -169,10 +224,29 @@ public class ReplayIndex implements Index
         positionWriter.updateChecksums();
     }
 
+    // Each message of a batch gets its own record, all covering the whole batch, so that lookups by sequence number
+    // work as they do for unbatched messages.
+    private void onBatch(
+        final DirectBuffer srcBuffer, final int offset, final long endPosition, final int length, final Header header)
+    {
+        final FixMessageBatchDecoder batchFrame = this.batchFrame;
+        batchFrame.wrap(srcBuffer, offset, frameHeaderDecoder.blockLength(), frameHeaderDecoder.version());
+
+        final SessionIndex sessionIndex = fixSessionIdToIndex.computeIfAbsent(batchFrame.session(), newSessionIndex);
+        final int sequenceIndex = batchFrame.sequenceIndex();
+        final FixMessageBatchDecoder.MessagesDecoder messages = batchFrame.messages();
+        while (messages.hasNext())
+        {
+            messages.next();
+            sessionIndex.onRecord(endPosition, length, messages.sequenceNumber(), sequenceIndex, header);
+        }
+    }
+
     public void close()
     {
         positionWriter.close();
         fixSessionIdToIndex.clear();
+        CloseHelper.close(replayIndexStore);
         IoUtil.unmap(positionBuffer.byteBuffer());
     }
 
@@ -189,6 +263,24 @@ public class ReplayIndex implements Index
 
         SessionIndex(final long fixSessionId)
         {
+            if (replayIndexStore != null)
+            {
+                wrappedBuffer = null;
+                buffer = replayIndexStore.claimRegion(fixSessionId);
+                if (buffer == null)
+                {
+                    recordCapacity = 0;
+                    errorHandler.onError(new IllegalStateException(
+                        "Replay index store is full, unable to index session " + fixSessionId));
+                    return;
+                }
+
+                // The store writes the header of new regions.
+                recordCapacity = recordCapacity(buffer.capacity());
+                endChangeOrdered(buffer, beginChange(buffer));
+                return;
+            }
+
             final File logFile = replayIndexFile(logFileDir, fixSessionId, requiredStreamId);
             final boolean exists = logFile.exists();
             this.wrappedBuffer = bufferFactory.map(logFile, indexFileSize);
@@ -219,6 +311,12 @@ public class ReplayIndex implements Index
             final int sequenceIndex,
             final Header header)
         {
+            final AtomicBuffer buffer = this.buffer;
+            if (buffer == null)
+            {
+                return;
+            }
+
             final long beginChangePosition = beginChange(buffer);
             final long changePosition = beginChangePosition + RECORD_LENGTH;
             final int aeronSessionId = header.sessionId();
@@ -243,7 +341,11 @@ public class ReplayIndex implements Index
 
         public void close()
         {
-            IoUtil.unmap(wrappedBuffer);
+            // Regions of a store stay mapped until the store is closed
+            if (wrappedBuffer != null)
+            {
+                IoUtil.unmap(wrappedBuffer);
+            }
         }
     }
 }
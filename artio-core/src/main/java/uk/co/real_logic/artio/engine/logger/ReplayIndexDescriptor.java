@@ -47,6 +47,17 @@ public final class ReplayIndexDescriptor
         return new File(String.format(logFileDir + File.separator + "replay-index-%d-%d", fixSessionId, streamId));
     }
 
+    static File replayIndexDirectoryFile(final String logFileDir, final int streamId)
+    {
+        return new File(String.format(logFileDir + File.separator + "replay-index-directory-%d", streamId));
+    }
+
+    static File replayIndexSegmentFile(final String logFileDir, final int streamId, final int segmentIndex)
+    {
+        return new File(String.format(
+            logFileDir + File.separator + "replay-index-segment-%d-%d", streamId, segmentIndex));
+    }
+
     public static UnsafeBuffer replayPositionBuffer(final String logFileDir, final int streamId)
     {
         final String pathname = replayPositionPath(logFileDir, streamId);
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.BitUtil;
+import org.agrona.IoUtil;
+import org.agrona.collections.Hashing;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.checkIndexFileSize;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.replayIndexDirectoryFile;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.replayIndexSegmentFile;
+
+/**
+ * Stores the replay indices of every session of a stream in a few large memory mapped segment files, rather than
+ * a file per session.
+ *
+ * Each segment is split into fixed size regions, one per session, and each region has the same layout as a per
+ * session replay index file. So readers use the same lap-safe protocol on a region that they would on a file.
+ *
+ * A directory file maps session ids to regions: it's an open addressed table of session ids and the index of an
+ * entry in the table is the index of the session's region. A single writer claims regions, initialising them
+ * before publishing their entry in the directory with an ordered write, and readers can find regions concurrently.
+ * Segments are only mapped when a region within them is first used, and are kept mapped until the store is closed.
+ *
+ * The directory and every segment start with a header that records the region size, regions per segment and
+ * directory capacity that they were laid out with, and stores that are opened with a different layout fail fast.
+ */
+public class ReplayIndexStore implements AutoCloseable
+{
+    private static final int NO_REGION = -1;
+
+    private static final int REGION_SIZE_OFFSET = 0;
+    private static final int REGIONS_PER_SEGMENT_OFFSET = REGION_SIZE_OFFSET + BitUtil.SIZE_OF_INT;
+    private static final int DIRECTORY_CAPACITY_OFFSET = REGIONS_PER_SEGMENT_OFFSET + BitUtil.SIZE_OF_INT;
+    // Keeps directory entries and regions cache line aligned
+    private static final int HEADER_LENGTH = BitUtil.CACHE_LINE_LENGTH;
+
+    // Session ids start at 1, so 0 marks a free entry
+    private static final long FREE = 0;
+
+    private final MessageHeaderEncoder indexHeaderEncoder = new MessageHeaderEncoder();
+    private final ReplayIndexRecordEncoder replayIndexRecord = new ReplayIndexRecordEncoder();
+
+    private final String logFileDir;
+    private final int streamId;
+    private final int regionSize;
+    private final int regionsPerSegment;
+    private final int directoryCapacity;
+    private final int directoryMask;
+    private final MappedByteBuffer mappedDirectory;
+    private final AtomicBuffer directory;
+    private final MappedByteBuffer[] mappedSegments;
+    private final UnsafeBuffer[] segments;
+    private final AtomicBuffer[] regions;
+
+    /**
+     * Open a store, creating its directory if it doesn't exist. Both the writer and each reader of a stream's index
+     * open their own store.
+     *
+     * @param logFileDir the directory that the store's files are in.
+     * @param streamId the stream id of the messages being indexed.
+     * @param regionSize the size of each session's region, with the same constraints as a replay index file size.
+     * @param regionsPerSegment the number of regions in each segment file.
+     * @param maxSessions the maximum number of sessions in the store, rounded up to a power of two.
+     * @throws IllegalStateException if the store's files were laid out with a different region size, number of
+     * regions per segment or maximum number of sessions.
+     */
+    public ReplayIndexStore(
+        final String logFileDir,
+        final int streamId,
+        final int regionSize,
+        final int regionsPerSegment,
+        final int maxSessions)
+    {
+        checkIndexFileSize(regionSize);
+        if (regionsPerSegment <= 0 || HEADER_LENGTH + (long)regionSize * regionsPerSegment > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException(String.format(
+                "Segment size is too large, regionSize=%d, regionsPerSegment=%d", regionSize, regionsPerSegment));
+        }
+
+        this.logFileDir = logFileDir;
+        this.streamId = streamId;
+        this.regionSize = regionSize;
+        this.regionsPerSegment = regionsPerSegment;
+
+        directoryCapacity = BitUtil.findNextPositivePowerOfTwo(maxSessions);
+        directoryMask = directoryCapacity - 1;
+        final File directoryFile = replayIndexDirectoryFile(logFileDir, streamId);
+        mappedDirectory = (MappedByteBuffer)LoggerUtil.map(
+            directoryFile, HEADER_LENGTH + directoryCapacity * BitUtil.SIZE_OF_LONG);
+        directory = new UnsafeBuffer(mappedDirectory);
+        try
+        {
+            checkHeader(directory, directoryFile);
+        }
+        catch (final IllegalStateException ex)
+        {
+            IoUtil.unmap(mappedDirectory);
+            throw ex;
+        }
+
+        final int segmentCount = (directoryCapacity + regionsPerSegment - 1) / regionsPerSegment;
+        mappedSegments = new MappedByteBuffer[segmentCount];
+        segments = new UnsafeBuffer[segmentCount];
+        regions = new AtomicBuffer[directoryCapacity];
+    }
+
+    /**
+     * Find the region of a session, claiming a new one for it if it doesn't have one. Only called by the writer.
+     *
+     * @param fixSessionId the session's id.
+     * @return the session's region, or null if the store is full.
+     */
+    public AtomicBuffer claimRegion(final long fixSessionId)
+    {
+        final AtomicBuffer directory = this.directory;
+        final int mask = directoryMask;
+
+        int entry = Hashing.hash(fixSessionId, mask);
+        for (int i = 0; i <= mask; i++)
+        {
+            final int entryOffset = HEADER_LENGTH + entry * BitUtil.SIZE_OF_LONG;
+            final long entrySessionId = directory.getLongVolatile(entryOffset);
+            if (entrySessionId == fixSessionId)
+            {
+                return region(entry);
+            }
+
+            if (entrySessionId == FREE)
+            {
+                final AtomicBuffer region = region(entry);
+                region.setMemory(0, regionSize, (byte)0);
+                indexHeaderEncoder
+                    .wrap(region, 0)
+                    .blockLength(replayIndexRecord.sbeBlockLength())
+                    .templateId(replayIndexRecord.sbeTemplateId())
+                    .schemaId(replayIndexRecord.sbeSchemaId())
+                    .version(replayIndexRecord.sbeSchemaVersion());
+
+                directory.putLongOrdered(entryOffset, fixSessionId);
+                return region;
+            }
+
+            entry = (entry + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Find the region of a session. Can be called by readers concurrently with the writer claiming regions.
+     *
+     * @param fixSessionId the session's id.
+     * @return the session's region, or null if it doesn't have one.
+     */
+    public AtomicBuffer findRegion(final long fixSessionId)
+    {
+        final int entry = findEntry(fixSessionId);
+        return entry == NO_REGION ? null : region(entry);
+    }
+
+    private int findEntry(final long fixSessionId)
+    {
+        final AtomicBuffer directory = this.directory;
+        final int mask = directoryMask;
+
+        int entry = Hashing.hash(fixSessionId, mask);
+        for (int i = 0; i <= mask; i++)
+        {
+            final long entrySessionId = directory.getLongVolatile(HEADER_LENGTH + entry * BitUtil.SIZE_OF_LONG);
+            if (entrySessionId == fixSessionId)
+            {
+                return entry;
+            }
+
+            if (entrySessionId == FREE)
+            {
+                return NO_REGION;
+            }
+
+            entry = (entry + 1) & mask;
+        }
+
+        return NO_REGION;
+    }
+
+    private AtomicBuffer region(final int entry)
+    {
+        AtomicBuffer region = regions[entry];
+        if (region == null)
+        {
+            final int segmentIndex = entry / regionsPerSegment;
+            UnsafeBuffer segment = segments[segmentIndex];
+            if (segment == null)
+            {
+                final File file = replayIndexSegmentFile(logFileDir, streamId, segmentIndex);
+                final MappedByteBuffer mappedSegment = file.exists() ?
+                    LoggerUtil.mapExistingFile(file) :
+                    IoUtil.mapNewFile(file, HEADER_LENGTH + (long)regionSize * regionsPerSegment, false);
+                mappedSegments[segmentIndex] = mappedSegment;
+                segment = new UnsafeBuffer(mappedSegment);
+                segments[segmentIndex] = segment;
+                checkHeader(segment, file);
+            }
+
+            region = new UnsafeBuffer(
+                segment, HEADER_LENGTH + (entry % regionsPerSegment) * regionSize, regionSize);
+            regions[entry] = region;
+        }
+
+        return region;
+    }
+
+    // The first store to open a file records its layout, whichever process that is, and later ones check it.
+    private void checkHeader(final AtomicBuffer buffer, final File file)
+    {
+        if (!checkHeaderField(buffer, REGION_SIZE_OFFSET, regionSize) ||
+            !checkHeaderField(buffer, REGIONS_PER_SEGMENT_OFFSET, regionsPerSegment) ||
+            !checkHeaderField(buffer, DIRECTORY_CAPACITY_OFFSET, directoryCapacity))
+        {
+            throw new IllegalStateException(String.format(
+                "%s was laid out with regionSize=%d, regionsPerSegment=%d, maxSessions=%d, " +
+                "but was opened with regionSize=%d, regionsPerSegment=%d, maxSessions=%d",
+                file,
+                buffer.getIntVolatile(REGION_SIZE_OFFSET),
+                buffer.getIntVolatile(REGIONS_PER_SEGMENT_OFFSET),
+                buffer.getIntVolatile(DIRECTORY_CAPACITY_OFFSET),
+                regionSize,
+                regionsPerSegment,
+                directoryCapacity));
+        }
+    }
+
+    private static boolean checkHeaderField(final AtomicBuffer buffer, final int offset, final int value)
+    {
+        return buffer.compareAndSetInt(offset, 0, value) || buffer.getIntVolatile(offset) == value;
+    }
+
+    public void close()
+    {
+        for (final MappedByteBuffer mappedSegment : mappedSegments)
+        {
+            IoUtil.unmap(mappedSegment);
+        }
+        IoUtil.unmap(mappedDirectory);
+    }
+}
@@ -28,6 +28,7 @@ import org.agrona.ErrorHandler;
 import org.agrona.concurrent.status.CountersReader;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.LogTag;
+import uk.co.real_logic.artio.messages.FixMessageBatchDecoder;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
@@ -37,6 +38,7 @@ import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
 import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
 
 /**
  * A continuable replay operation that can retried.
@@ -55,6 +57,7 @@ public class ReplayOperation
     private final LogTag logTag;
     private final CountersReader countersReader;
     private final Subscription subscription;
+    private final long replayLength;
 
     // fields reset for each recordingRange
     private int replayedMessages = 0;
@@ -64,6 +67,10 @@ public class ReplayOperation
 
     ReplayOperation(
         final ControlledFragmentHandler handler,
+        final int beginSequenceNumber,
+        final int beginSequenceIndex,
+        final int endSequenceNumber,
+        final int endSequenceIndex,
         final List<RecordingRange> ranges,
         final AeronArchive aeronArchive,
         final ErrorHandler errorHandler,
@@ -71,7 +78,8 @@ public class ReplayOperation
         final int archiveReplayStream,
         final LogTag logTag)
     {
-        messageTracker = new MessageTracker(logTag, handler);
+        messageTracker = new MessageTracker(
+            logTag, handler, beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex);
         assembler = new ControlledFragmentAssembler(messageTracker);
 
         this.ranges = ranges;
@@ -83,6 +91,13 @@ public class ReplayOperation
         final Aeron aeron = aeronArchive.context().aeron();
         countersReader = aeron.countersReader();
         this.subscription = subscription;
+
+        long replayLength = 0;
+        for (int i = 0, size = ranges.size(); i < size; i++)
+        {
+            replayLength += ranges.get(i).length;
+        }
+        this.replayLength = replayLength;
     }
 
     /**
@@ -223,6 +238,16 @@ public class ReplayOperation
         return replayedMessages;
     }
 
+    /**
+     * Gets the number of bytes that this operation replays from the archive.
+     *
+     * @return the number of bytes that this operation replays from the archive.
+     */
+    long replayLength()
+    {
+        return replayLength;
+    }
+
     private boolean archivingNotComplete(final long endPosition, final long recordingId)
     {
         final int counterId = RecordingPos.findCounterIdByRecording(countersReader, recordingId);
@@ -238,18 +263,39 @@ public class ReplayOperation
 
     private static class MessageTracker implements ControlledFragmentHandler
     {
+        private static final long NO_ABORTED_BATCH = -1;
+
         private final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
         private final FixMessageDecoder messageDecoder = new FixMessageDecoder();
+        private final FixMessageBatchSplitter batchSplitter = new FixMessageBatchSplitter();
         private final LogTag logTag;
         private final ControlledFragmentHandler messageHandler;
+        private final int beginSequenceNumber;
+        private final int beginSequenceIndex;
+        private final int endSequenceNumber;
+        private final int endSequenceIndex;
+
+        // A batch that the handler aborted part way through, it resumes from the message that was aborted.
+        private long abortedBatchPosition = NO_ABORTED_BATCH;
+        private int abortedBatchIndex;
 
         int count;
         long sessionId;
 
-        MessageTracker(final LogTag logTag, final ControlledFragmentHandler messageHandler)
+        MessageTracker(
+            final LogTag logTag,
+            final ControlledFragmentHandler messageHandler,
+            final int beginSequenceNumber,
+            final int beginSequenceIndex,
+            final int endSequenceNumber,
+            final int endSequenceIndex)
         {
             this.logTag = logTag;
             this.messageHandler = messageHandler;
+            this.beginSequenceNumber = beginSequenceNumber;
+            this.beginSequenceIndex = beginSequenceIndex;
+            this.endSequenceNumber = endSequenceNumber;
+            this.endSequenceIndex = endSequenceIndex;
         }
 
         @Override
@@ -288,13 +334,66 @@ public class ReplayOperation
                 }
                 return action;
             }
+            else if (messageHeaderDecoder.templateId() == FixMessageBatchDecoder.TEMPLATE_ID)
+            {
+                return onBatch(buffer, offset + MessageHeaderDecoder.ENCODED_LENGTH, header);
+            }
 
             return CONTINUE;
         }
 
+        // A batch's position range can cover messages outside of the query, so they're filtered out here
+        private Action onBatch(final DirectBuffer buffer, final int offset, final Header header)
+        {
+            final FixMessageBatchSplitter batchSplitter = this.batchSplitter;
+            final int messageCount = batchSplitter.wrap(
+                buffer, offset, messageHeaderDecoder.blockLength(), messageHeaderDecoder.version());
+
+            if (sessionId != UNK_SESSION && batchSplitter.session() != sessionId)
+            {
+                return CONTINUE;
+            }
+
+            final long position = header.position();
+            final int sequenceIndex = batchSplitter.sequenceIndex();
+            final int beginIndex = position == abortedBatchPosition ? abortedBatchIndex : 0;
+            for (int i = beginIndex; i < messageCount; i++)
+            {
+                if (withinQuery(sequenceIndex, batchSplitter.sequenceNumber(i)))
+                {
+                    final int frameLength = batchSplitter.frame(i);
+                    final Action action = messageHandler.onFragment(
+                        batchSplitter.frameBuffer(), 0, frameLength, header);
+                    if (action == ABORT)
+                    {
+                        abortedBatchPosition = position;
+                        abortedBatchIndex = i;
+                        return ABORT;
+                    }
+
+                    count++;
+                }
+            }
+
+            abortedBatchPosition = NO_ABORTED_BATCH;
+
+            return CONTINUE;
+        }
+
+        private boolean withinQuery(final int sequenceIndex, final int sequenceNumber)
+        {
+            final boolean afterBegin = sequenceIndex > beginSequenceIndex ||
+                (sequenceIndex == beginSequenceIndex && sequenceNumber >= beginSequenceNumber);
+            final boolean beforeEnd = endSequenceNumber == MOST_RECENT_MESSAGE || sequenceIndex < endSequenceIndex ||
+                (sequenceIndex == endSequenceIndex && sequenceNumber <= endSequenceNumber);
+
+            return afterBegin && beforeEnd;
+        }
+
         void reset()
         {
             count = 0;
+            abortedBatchPosition = NO_ABORTED_BATCH;
         }
     }
 
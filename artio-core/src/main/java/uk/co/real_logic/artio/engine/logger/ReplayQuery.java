@@ -22,6 +22,7 @@ import org.agrona.CloseHelper;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
 import org.agrona.collections.Long2ObjectCache;
+import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.DebugLogger;
@@ -48,6 +49,11 @@ import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
  */
 public class ReplayQuery implements AutoCloseable
 {
+    /**
+     * A range gap that never splits the replay of a recording, so that each recording is replayed in one go.
+     */
+    public static final long UNBOUNDED_RANGE_GAP = Long.MAX_VALUE;
+
     private final MessageHeaderDecoder messageFrameHeader = new MessageHeaderDecoder();
     private final ReplayIndexRecordDecoder indexRecord = new ReplayIndexRecordDecoder();
 
@@ -60,6 +66,8 @@ public class ReplayQuery implements AutoCloseable
     private final AeronArchive aeronArchive;
     private final ErrorHandler errorHandler;
     private final int archiveReplayStream;
+    private final ReplayIndexStore replayIndexStore;
+    private final boolean sequenceOrdered;
 
     private Subscription replaySubscription;
 
@@ -73,6 +81,52 @@ public class ReplayQuery implements AutoCloseable
         final AeronArchive aeronArchive,
         final ErrorHandler errorHandler,
         final int archiveReplayStream)
+    {
+        this(
+            logFileDir,
+            cacheNumSets,
+            cacheSetSize,
+            indexBufferFactory,
+            requiredStreamId,
+            idleStrategy,
+            aeronArchive,
+            errorHandler,
+            archiveReplayStream,
+            null,
+            false);
+    }
+
+    /**
+     * Create a replay query.
+     *
+     * @param logFileDir the directory that index files are in.
+     * @param cacheNumSets the number of sets in the cache of session indices.
+     * @param cacheSetSize the size of each set in the cache of session indices.
+     * @param indexBufferFactory maps the index file of each session when there's no store.
+     * @param requiredStreamId the stream id of the messages being queried.
+     * @param idleStrategy the strategy to idle with whilst the writer is updating a record.
+     * @param aeronArchive the archive to replay messages from.
+     * @param errorHandler the handler for errors whilst replaying.
+     * @param archiveReplayStream the stream id to replay messages on.
+     * @param replayIndexStore the store that holds every session's index, or null to use a file per session. Closed
+     *                         when this query is closed.
+     * @param sequenceOrdered true if every session's index is in sequence index then sequence number order, so that
+     *                        the start of a query can be binary searched for. Outbound streams are, but inbound
+     *                        streams aren't, as PossDup resends and sequence resets are indexed in the order that
+     *                        they're received.
+     */
+    public ReplayQuery(
+        final String logFileDir,
+        final int cacheNumSets,
+        final int cacheSetSize,
+        final ExistingBufferFactory indexBufferFactory,
+        final int requiredStreamId,
+        final IdleStrategy idleStrategy,
+        final AeronArchive aeronArchive,
+        final ErrorHandler errorHandler,
+        final int archiveReplayStream,
+        final ReplayIndexStore replayIndexStore,
+        final boolean sequenceOrdered)
     {
         this.logFileDir = logFileDir;
         this.indexBufferFactory = indexBufferFactory;
@@ -81,6 +135,8 @@ public class ReplayQuery implements AutoCloseable
         this.aeronArchive = aeronArchive;
         this.errorHandler = errorHandler;
         this.archiveReplayStream = archiveReplayStream;
+        this.replayIndexStore = replayIndexStore;
+        this.sequenceOrdered = sequenceOrdered;
 
         fixSessionToIndex = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionQuery::close);
     }
@@ -104,10 +160,54 @@ public class ReplayQuery implements AutoCloseable
         final int endSequenceNumber,
         final int endSequenceIndex,
         final LogTag logTag)
+    {
+        return query(
+            handler,
+            sessionId,
+            beginSequenceNumber,
+            beginSequenceIndex,
+            endSequenceNumber,
+            endSequenceIndex,
+            logTag,
+            UNBOUNDED_RANGE_GAP);
+    }
+
+    /**
+     * Query the index for a session's messages, replaying separate ranges of a recording wherever the session's
+     * messages are more than a gap apart. Each range is a separate archive replay, so a smaller gap replays fewer of
+     * other sessions' messages at the cost of starting more replays.
+     *
+     * @param handler the handler to pass the messages to
+     * @param sessionId the FIX session id of the stream to replay.
+     * @param beginSequenceNumber sequence number to begin replay at (inclusive).
+     * @param beginSequenceIndex the sequence index to begin replay at (inclusive).
+     * @param endSequenceNumber sequence number to end replay at (inclusive).
+     * @param endSequenceIndex the sequence index to end replay at (inclusive).
+     * @param logTag the operation to tag log entries with
+     * @param maxRangeGap the largest number of bytes between two of the session's messages that are replayed within
+     *                    the same range, or {@link #UNBOUNDED_RANGE_GAP}.
+     * @return number of messages replayed
+     */
+    public ReplayOperation query(
+        final ControlledFragmentHandler handler,
+        final long sessionId,
+        final int beginSequenceNumber,
+        final int beginSequenceIndex,
+        final int endSequenceNumber,
+        final int endSequenceIndex,
+        final LogTag logTag,
+        final long maxRangeGap)
     {
         return fixSessionToIndex
             .computeIfAbsent(sessionId, newSessionQuery)
-            .query(handler, beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex, logTag);
+            .query(
+                handler,
+                beginSequenceNumber,
+                beginSequenceIndex,
+                endSequenceNumber,
+                endSequenceIndex,
+                logTag,
+                maxRangeGap);
     }
 
     public void close()
@@ -115,21 +215,43 @@ public class ReplayQuery implements AutoCloseable
         fixSessionToIndex.clear();
 
         CloseHelper.close(replaySubscription);
+        CloseHelper.close(replayIndexStore);
     }
 
     private final class SessionQuery implements AutoCloseable
     {
         private final ByteBuffer wrappedBuffer;
         private final long sessionId;
-        private final UnsafeBuffer buffer;
-        private final int capacity;
+        private AtomicBuffer buffer;
+        private int capacity;
 
         SessionQuery(final long sessionId)
         {
-            wrappedBuffer = indexBufferFactory.map(replayIndexFile(logFileDir, sessionId, requiredStreamId));
-            buffer = new UnsafeBuffer(wrappedBuffer);
-            capacity = recordCapacity(buffer.capacity());
             this.sessionId = sessionId;
+            if (replayIndexStore != null)
+            {
+                wrappedBuffer = null;
+                findRegion();
+            }
+            else
+            {
+                wrappedBuffer = indexBufferFactory.map(replayIndexFile(logFileDir, sessionId, requiredStreamId));
+                buffer = new UnsafeBuffer(wrappedBuffer);
+                capacity = recordCapacity(buffer.capacity());
+            }
+        }
+
+        // A session only has a region in the store once the writer has indexed a message for it.
+        private boolean findRegion()
+        {
+            buffer = replayIndexStore.findRegion(sessionId);
+            if (buffer == null)
+            {
+                return false;
+            }
+
+            capacity = recordCapacity(buffer.capacity());
+            return true;
         }
 
         ReplayOperation query(
@@ -138,8 +260,17 @@ public class ReplayQuery implements AutoCloseable
             final int beginSequenceIndex,
             final int endSequenceNumber,
             final int endSequenceIndex,
-            final LogTag logTag)
+            final LogTag logTag,
+            final long maxRangeGap)
         {
+            if (buffer == null && !findRegion())
+            {
+                return newReplayOperation(
+                    handler, beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex,
+                    new ArrayList<>(), logTag);
+            }
+
+            final AtomicBuffer buffer = this.buffer;
             messageFrameHeader.wrap(buffer, 0);
 
             final int actingBlockLength = messageFrameHeader.blockLength();
@@ -151,11 +282,13 @@ public class ReplayQuery implements AutoCloseable
             final List<RecordingRange> ranges = new ArrayList<>();
             RecordingRange currentRange = null;
 
-            long iteratorPosition = getIteratorPosition();
-            long stopIteratingPosition = iteratorPosition + capacity;
+            final long oldestPosition = getIteratorPosition();
+            long stopIteratingPosition = oldestPosition + capacity;
+            long iteratorPosition = searchStartPosition(
+                oldestPosition, beginSequenceNumber, beginSequenceIndex, actingBlockLength, actingVersion);
 
             int lastSequenceNumber = -1;
-            while (iteratorPosition != stopIteratingPosition)
+            while (iteratorPosition < stopIteratingPosition)
             {
                 final long changePosition = endChangeVolatile(buffer);
 
@@ -199,7 +332,8 @@ public class ReplayQuery implements AutoCloseable
                             beginPosition,
                             sequenceNumber,
                             recordingId,
-                            readLength);
+                            readLength,
+                            maxRangeGap);
                         lastSequenceNumber = sequenceNumber;
                         iteratorPosition += RECORD_LENGTH;
                     }
@@ -219,7 +353,95 @@ public class ReplayQuery implements AutoCloseable
                 ranges.add(currentRange);
             }
 
-            return newReplayOperation(handler, ranges, logTag);
+            return newReplayOperation(
+                handler,
+                beginSequenceNumber,
+                beginSequenceIndex,
+                endSequenceNumber,
+                endSequenceIndex,
+                ranges,
+                logTag);
+        }
+
+        // Binary search for the first record at or after the beginning of the query. Only done for sequence ordered
+        // indices, where records are sorted by sequence index and then sequence number. If the writer laps the search,
+        // or the record before the one that it finds isn't before the query, then the records are scanned from the
+        // oldest one instead.
+        private long searchStartPosition(
+            final long oldestPosition,
+            final int beginSequenceNumber,
+            final int beginSequenceIndex,
+            final int actingBlockLength,
+            final int actingVersion)
+        {
+            if (!sequenceOrdered)
+            {
+                return oldestPosition;
+            }
+
+            // Once the buffer has wrapped positions are a lap ahead of the records that they refer to,
+            // see getIteratorPosition()
+            final long lap = oldestPosition == 0 ? 0 : capacity;
+            long low = oldestPosition;
+            long high = endChangeVolatile(buffer) + lap;
+
+            while (low < high)
+            {
+                final long middle = low + ((high - low) / (2 * RECORD_LENGTH)) * RECORD_LENGTH;
+                indexRecord.wrap(buffer, offset(middle, capacity), actingBlockLength, actingVersion);
+                final int sequenceIndex = indexRecord.sequenceIndex();
+                final int sequenceNumber = indexRecord.sequenceNumber();
+
+                UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+
+                if (beginChangeVolatile(buffer) > middle - lap + capacity)
+                {
+                    return oldestPosition;
+                }
+
+                final boolean beforeStartOfQuery = sequenceIndex < beginSequenceIndex ||
+                    (sequenceIndex == beginSequenceIndex && sequenceNumber < beginSequenceNumber);
+                if (beforeStartOfQuery)
+                {
+                    low = middle + RECORD_LENGTH;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+
+            if (low > oldestPosition && !isBeforeStartOfQuery(
+                low - RECORD_LENGTH, lap, beginSequenceNumber, beginSequenceIndex, actingBlockLength, actingVersion))
+            {
+                return oldestPosition;
+            }
+
+            return low;
+        }
+
+        // False if the record isn't before the query, or if the writer has lapped it.
+        private boolean isBeforeStartOfQuery(
+            final long position,
+            final long lap,
+            final int beginSequenceNumber,
+            final int beginSequenceIndex,
+            final int actingBlockLength,
+            final int actingVersion)
+        {
+            indexRecord.wrap(buffer, offset(position, capacity), actingBlockLength, actingVersion);
+            final int sequenceIndex = indexRecord.sequenceIndex();
+            final int sequenceNumber = indexRecord.sequenceNumber();
+
+            UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+
+            if (beginChangeVolatile(buffer) > position - lap + capacity)
+            {
+                return false;
+            }
+
+            return sequenceIndex < beginSequenceIndex ||
+                (sequenceIndex == beginSequenceIndex && sequenceNumber < beginSequenceNumber);
         }
 
         private long skipToStart(final int beginSequenceNumber, final long iteratorPosition, final int sequenceNumber)
@@ -244,7 +466,13 @@ public class ReplayQuery implements AutoCloseable
         }
 
         private ReplayOperation newReplayOperation(
-            final ControlledFragmentHandler handler, final List<RecordingRange> ranges, final LogTag logTag)
+            final ControlledFragmentHandler handler,
+            final int beginSequenceNumber,
+            final int beginSequenceIndex,
+            final int endSequenceNumber,
+            final int endSequenceIndex,
+            final List<RecordingRange> ranges,
+            final LogTag logTag)
         {
             if (replaySubscription == null)
             {
@@ -258,6 +486,10 @@ public class ReplayQuery implements AutoCloseable
 
             return new ReplayOperation(
                 handler,
+                beginSequenceNumber,
+                beginSequenceIndex,
+                endSequenceNumber,
+                endSequenceIndex,
                 ranges,
                 aeronArchive,
                 errorHandler,
@@ -273,14 +505,17 @@ public class ReplayQuery implements AutoCloseable
             final long beginPosition,
             final int sequenceNumber,
             final long recordingId,
-            final int readLength)
+            final int readLength,
+            final long maxRangeGap)
         {
+            // Ranges are only split between messages, so that each fragment of a message is replayed by one range.
             RecordingRange range = currentRange;
             if (range == null)
             {
                 range = new RecordingRange(recordingId, sessionId);
             }
-            else if (range.recordingId != recordingId)
+            else if (range.recordingId != recordingId ||
+                (lastSequenceNumber != sequenceNumber && gap(range, beginPosition) > maxRangeGap))
             {
                 ranges.add(range);
                 range = new RecordingRange(recordingId, sessionId);
@@ -298,6 +533,11 @@ public class ReplayQuery implements AutoCloseable
             return range;
         }
 
+        private long gap(final RecordingRange range, final long beginPosition)
+        {
+            return (beginPosition - FRAME_ALIGNMENT) - (range.position + range.length);
+        }
+
         private long getIteratorPosition()
         {
             // positions on a monotonically increasing scale
@@ -41,6 +41,7 @@ import uk.co.real_logic.artio.protocol.ProtocolSubscription;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Set;
 
@@ -55,7 +56,12 @@ import static uk.co.real_logic.artio.messages.MessageStatus.OK;
  *
  * This agent subscribes to the stream of incoming fix data messages. It parses
  * Resend Request messages and searches the log, using the replay index to find
- * relevant messages to resend.
+ * relevant messages to resend. Requests for recently sent messages are served from
+ * the {@link ResendCache} instead, when it holds them.
+ *
+ * Resend requests are replayed concurrently, each archive replay on a shared replay subscription. The number of
+ * concurrent replays and the number of bytes that they read from the archive are bounded, further requests wait
+ * in the order that they were received.
  */
 public class Replayer implements ProtocolHandler, Agent
 {
@@ -71,12 +77,16 @@ public class Replayer implements ProtocolHandler, Agent
     private final FixSessionCodecsFactory fixSessionCodecsFactory;
     private final ControlledFragmentHandler protocolSubscription;
     private final ArrayList<ReplayerSession> replayerSessions = new ArrayList<>();
+    private final ArrayDeque<ReplayerSession> pendingReplayerSessions = new ArrayDeque<>();
 
     private final ReplayQuery replayQuery;
+    private final ResendCache resendCache;
     private final ExclusivePublication publication;
     private final IdleStrategy idleStrategy;
     private final ErrorHandler errorHandler;
     private final int maxClaimAttempts;
+    private final int maxConcurrentReplays;
+    private final long maxReplayBytesInFlight;
     private final Subscription inboundSubscription;
     private final String agentNamePrefix;
     private final IntHashSet gapFillMessageTypes;
@@ -84,13 +94,18 @@ public class Replayer implements ProtocolHandler, Agent
     private final ReplayHandler replayHandler;
     private final SenderSequenceNumbers senderSequenceNumbers;
 
+    private long replayBytesInFlight;
+
     public Replayer(
         final ReplayQuery replayQuery,
+        final ResendCache resendCache,
         final ExclusivePublication publication,
         final BufferClaim bufferClaim,
         final IdleStrategy idleStrategy,
         final ErrorHandler errorHandler,
         final int maxClaimAttempts,
+        final int maxConcurrentReplays,
+        final long maxReplayBytesInFlight,
         final Subscription inboundSubscription,
         final String agentNamePrefix,
         final EpochClock clock,
@@ -100,11 +115,14 @@ public class Replayer implements ProtocolHandler, Agent
         final FixSessionCodecsFactory fixSessionCodecsFactory)
     {
         this.replayQuery = replayQuery;
+        this.resendCache = resendCache;
         this.publication = publication;
         this.bufferClaim = bufferClaim;
         this.idleStrategy = idleStrategy;
         this.errorHandler = errorHandler;
         this.maxClaimAttempts = maxClaimAttempts;
+        this.maxConcurrentReplays = maxConcurrentReplays;
+        this.maxReplayBytesInFlight = maxReplayBytesInFlight;
         this.inboundSubscription = inboundSubscription;
         this.agentNamePrefix = agentNamePrefix;
         this.clock = clock;
@@ -184,13 +202,14 @@ public class Replayer implements ProtocolHandler, Agent
                 sessionId,
                 sequenceIndex,
                 replayQuery,
+                resendCache,
                 message,
                 errorHandler,
                 encoder);
 
             replayerSession.query();
 
-            replayerSessions.add(replayerSession);
+            pendingReplayerSessions.add(replayerSession);
 
             return COMMIT;
         }
@@ -206,10 +225,37 @@ public class Replayer implements ProtocolHandler, Agent
     public int doWork()
     {
         int work = senderSequenceNumbers.poll();
+        work += admitReplayerSessions();
         work += pollReplayerSessions();
         return work + inboundSubscription.controlledPoll(protocolSubscription, POLL_LIMIT);
     }
 
+    // A replay that's larger than the limit on bytes in flight is admitted on its own, so that it isn't starved.
+    private int admitReplayerSessions()
+    {
+        final ArrayList<ReplayerSession> replayerSessions = this.replayerSessions;
+        final ArrayDeque<ReplayerSession> pendingReplayerSessions = this.pendingReplayerSessions;
+
+        int admitted = 0;
+        ReplayerSession replayerSession;
+        while ((replayerSession = pendingReplayerSessions.peek()) != null &&
+            replayerSessions.size() < maxConcurrentReplays)
+        {
+            final long replayLength = replayerSession.replayLength();
+            if (!replayerSessions.isEmpty() && replayBytesInFlight + replayLength > maxReplayBytesInFlight)
+            {
+                break;
+            }
+
+            pendingReplayerSessions.poll();
+            replayerSessions.add(replayerSession);
+            replayBytesInFlight += replayLength;
+            admitted++;
+        }
+
+        return admitted;
+    }
+
     private int pollReplayerSessions()
     {
         final ArrayList<ReplayerSession> replayerSessions = this.replayerSessions;
@@ -218,8 +264,14 @@ public class Replayer implements ProtocolHandler, Agent
         for (int lastIndex = size - 1, i = lastIndex; i >= 0; i--)
         {
             final ReplayerSession replayerSession = replayerSessions.get(i);
-            if (replayerSession.attempReplay())
+            final long replayLength = replayerSession.replayLength();
+            final boolean complete = replayerSession.attempReplay();
+
+            // A replay from the resend cache that gets lapped queries the rest of its messages from the archive.
+            replayBytesInFlight += replayerSession.replayLength() - replayLength;
+            if (complete)
             {
+                replayBytesInFlight -= replayerSession.replayLength();
                 fastUnorderedRemove(replayerSessions, i, lastIndex--);
             }
         }
@@ -229,6 +281,7 @@ public class Replayer implements ProtocolHandler, Agent
     public void onClose()
     {
         replayerSessions.forEach(ReplayerSession::close);
+        pendingReplayerSessions.forEach(ReplayerSession::close);
         publication.close();
         replayQuery.close();
     }
@@ -75,6 +75,7 @@ class ReplayerSession implements ControlledFragmentHandler
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final ExclusivePublication publication;
     private final ReplayQuery replayQuery;
+    private final ResendCache resendCache;
     private final ErrorHandler errorHandler;
     private final SequenceNumberExtractor sequenceNumberExtractor;
 
@@ -88,7 +89,10 @@ class ReplayerSession implements ControlledFragmentHandler
 
     private int beginGapFillSeqNum = NONE;
 
+    private ResendCache.CachedReplay cachedReplay;
+    private int cachedReplayedMessages;
     private ReplayOperation replayOperation;
+    private long replayLength;
 
     private State state;
 
@@ -108,6 +112,7 @@ class ReplayerSession implements ControlledFragmentHandler
         final long sessionId,
         final int sequenceIndex,
         final ReplayQuery replayQuery,
+        final ResendCache resendCache,
         final String message,
         final ErrorHandler errorHandler,
         final GapFillEncoder gapFillEncoder)
@@ -128,6 +133,7 @@ class ReplayerSession implements ControlledFragmentHandler
         this.message = message;
         this.errorHandler = errorHandler;
         this.replayQuery = replayQuery;
+        this.resendCache = resendCache;
         this.gapFillEncoder = gapFillEncoder;
 
         sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
@@ -167,6 +173,21 @@ class ReplayerSession implements ControlledFragmentHandler
     }
 
     void query()
+    {
+        cachedReplay = resendCache.replay(this, sessionId, sequenceIndex, beginSeqNo, endSeqNo);
+        if (cachedReplay == null)
+        {
+            queryArchive(beginSeqNo);
+            replayLength = replayOperation.replayLength();
+        }
+        else
+        {
+            DebugLogger.log(
+                REPLAY, "ReplayerSession: replaying [%d, %d] from the resend cache%n", beginSeqNo, endSeqNo);
+        }
+    }
+
+    private void queryArchive(final int beginSeqNo)
     {
         replayOperation = replayQuery.query(
             this,
@@ -308,7 +329,7 @@ class ReplayerSession implements ControlledFragmentHandler
         {
             case REPLAYING:
                 DebugLogger.log(REPLAY, "ReplayerSession: REPLAYING step");
-                if (replayOperation.attemptReplay())
+                if (attemptReplayStep())
                 {
                     state = State.CHECK_REPLAY;
                     return attempReplay();
@@ -331,10 +352,50 @@ class ReplayerSession implements ControlledFragmentHandler
         }
     }
 
+    private boolean attemptReplayStep()
+    {
+        final ResendCache.CachedReplay cachedReplay = this.cachedReplay;
+        if (cachedReplay == null)
+        {
+            return replayOperation.attemptReplay();
+        }
+
+        if (!cachedReplay.attemptReplay())
+        {
+            return false;
+        }
+
+        if (cachedReplay.lapped())
+        {
+            // Newer messages overwrote the cache before it was replayed, so the rest comes from the archive.
+            DebugLogger.log(REPLAY, "ReplayerSession: resend cache lapped after %d%n", lastSeqNo);
+            cachedReplayedMessages = cachedReplay.replayedMessages();
+            this.cachedReplay = null;
+            queryArchive(lastSeqNo + 1);
+            replayLength = replayOperation.replayLength();
+            return false;
+        }
+
+        return true;
+    }
+
+    // The number of bytes read from the archive when the replay was queried. Replays from the cache read none, unless
+    // the cache is lapped and the rest of the replay is queried from the archive.
+    long replayLength()
+    {
+        return replayLength;
+    }
+
+    private int replayedMessages()
+    {
+        return cachedReplay != null ?
+            cachedReplay.replayedMessages() : cachedReplayedMessages + replayOperation.replayedMessages();
+    }
+
     private boolean completeReplay()
     {
         // Load state needed to complete the replay
-        final int replayedMessages = replayOperation.replayedMessages();
+        final int replayedMessages = replayedMessages();
 
         // If the last N messages were admin messages then we need to send a gapfill
         // after the replay query has run.
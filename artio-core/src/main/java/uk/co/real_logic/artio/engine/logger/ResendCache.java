@@ -0,0 +1,350 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectCache;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.messages.FixMessageBatchDecoder;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.util.function.LongFunction;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static uk.co.real_logic.artio.engine.SequenceNumberExtractor.NO_SEQUENCE_NUMBER;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+
+/**
+ * Keeps the last N messages sent on each FIX session in memory, so that resend requests for recent messages can be
+ * served without a replay from the archive.
+ *
+ * This is an index on the outbound stream, so it is written on the same thread as the {@link Replayer} reads it and
+ * isn't thread-safe. Each session's messages are a contiguous run of what was sent on it: if a message can't be
+ * cached, because it's fragmented or longer than the maximum message length, then the session's cache is emptied.
+ * Sessions are held in a {@link Long2ObjectCache}, so only recently active sessions have their messages cached.
+ */
+public class ResendCache implements Index
+{
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final FixMessageBatchDecoder fixMessageBatch = new FixMessageBatchDecoder();
+    private final FixMessageBatchSplitter batchSplitter = new FixMessageBatchSplitter();
+    private final LongFunction<SessionCache> newSessionCache = (sessionId) -> new SessionCache();
+
+    private final SequenceNumberExtractor sequenceNumberExtractor;
+    private final Long2ObjectCache<SessionCache> fixSessionIdToCache;
+    private final int requiredStreamId;
+    private final int messagesPerSession;
+    private final int maxMessageLength;
+
+    /**
+     * Create the cache.
+     *
+     * @param requiredStreamId the stream id of the messages to cache.
+     * @param cacheNumSets the number of sets in the cache of sessions.
+     * @param cacheSetSize the size of each set in the cache of sessions.
+     * @param messagesPerSession the number of messages cached for each session, 0 disables caching.
+     * @param maxMessageLength the maximum length of a cached message, including its framing.
+     * @param errorHandler the handler for errors extracting sequence numbers.
+     */
+    public ResendCache(
+        final int requiredStreamId,
+        final int cacheNumSets,
+        final int cacheSetSize,
+        final int messagesPerSession,
+        final int maxMessageLength,
+        final ErrorHandler errorHandler)
+    {
+        this.requiredStreamId = requiredStreamId;
+        this.messagesPerSession = messagesPerSession;
+        this.maxMessageLength = maxMessageLength;
+
+        sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
+        fixSessionIdToCache = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, (sessionCache) -> {});
+    }
+
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (messagesPerSession == 0 || header.streamId() != requiredStreamId)
+        {
+            return;
+        }
+
+        final byte flags = header.flags();
+        final boolean unfragmented = (flags & UNFRAGMENTED) == UNFRAGMENTED;
+        if (!unfragmented && (flags & BEGIN_FRAG_FLAG) != BEGIN_FRAG_FLAG)
+        {
+            return;
+        }
+
+        final MessageHeaderDecoder messageHeader = this.messageHeader;
+        messageHeader.wrap(buffer, offset);
+        final int templateId = messageHeader.templateId();
+        if (templateId == FixMessageDecoder.TEMPLATE_ID)
+        {
+            final int messageOffset = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+            final FixMessageDecoder fixMessage = this.fixMessage;
+            fixMessage.wrap(buffer, messageOffset, messageHeader.blockLength(), messageHeader.version());
+            if (fixMessage.status() != OK)
+            {
+                return;
+            }
+
+            final SessionCache sessionCache = fixSessionIdToCache.computeIfAbsent(
+                fixMessage.session(), newSessionCache);
+            if (!unfragmented || length > maxMessageLength)
+            {
+                sessionCache.clear();
+                return;
+            }
+
+            final int bodyOffset = messageOffset + messageHeader.blockLength() + FixMessageDecoder.bodyHeaderLength();
+            final int sequenceNumber = sequenceNumberExtractor.extract(buffer, bodyOffset, fixMessage.bodyLength());
+            if (sequenceNumber != NO_SEQUENCE_NUMBER)
+            {
+                sessionCache.add(buffer, offset, length, sequenceNumber, fixMessage.sequenceIndex());
+            }
+        }
+        else if (templateId == FixMessageBatchDecoder.TEMPLATE_ID)
+        {
+            final int batchOffset = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+            if (unfragmented)
+            {
+                onBatch(buffer, batchOffset);
+            }
+            else
+            {
+                fixMessageBatch.wrap(buffer, batchOffset, messageHeader.blockLength(), messageHeader.version());
+                fixSessionIdToCache.computeIfAbsent(fixMessageBatch.session(), newSessionCache).clear();
+            }
+        }
+    }
+
+    private void onBatch(final DirectBuffer buffer, final int offset)
+    {
+        final FixMessageBatchSplitter batchSplitter = this.batchSplitter;
+        final int messageCount = batchSplitter.wrap(
+            buffer, offset, messageHeader.blockLength(), messageHeader.version());
+
+        final SessionCache sessionCache = fixSessionIdToCache.computeIfAbsent(
+            batchSplitter.session(), newSessionCache);
+        final int sequenceIndex = batchSplitter.sequenceIndex();
+        for (int i = 0; i < messageCount; i++)
+        {
+            final int frameLength = batchSplitter.frame(i);
+            if (frameLength > maxMessageLength)
+            {
+                sessionCache.clear();
+            }
+            else
+            {
+                sessionCache.add(
+                    batchSplitter.frameBuffer(), 0, frameLength, batchSplitter.sequenceNumber(i), sequenceIndex);
+            }
+        }
+    }
+
+    /**
+     * Start a replay of cached messages if the cache holds every message of a resend request's range that has been
+     * sent.
+     *
+     * @param handler the handler to pass the messages to, with a null header.
+     * @param sessionId the FIX session id of the messages to replay.
+     * @param sequenceIndex the sequence index of the messages to replay.
+     * @param beginSequenceNumber sequence number to begin replay at (inclusive).
+     * @param endSequenceNumber sequence number to end replay at (inclusive), or {@link Replayer#MOST_RECENT_MESSAGE}.
+     * @return the replay, or null if the range isn't cached and needs to be replayed from the archive.
+     */
+    CachedReplay replay(
+        final ControlledFragmentHandler handler,
+        final long sessionId,
+        final int sequenceIndex,
+        final int beginSequenceNumber,
+        final int endSequenceNumber)
+    {
+        if (messagesPerSession == 0)
+        {
+            return null;
+        }
+
+        final SessionCache sessionCache = fixSessionIdToCache.get(sessionId);
+        if (sessionCache == null || !sessionCache.covers(sequenceIndex, beginSequenceNumber))
+        {
+            return null;
+        }
+
+        return new CachedReplay(handler, sessionCache, sequenceIndex, beginSequenceNumber, endSequenceNumber);
+    }
+
+    public void close()
+    {
+        fixSessionIdToCache.clear();
+    }
+
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+        // Deliberately blank: the cache is only filled by messages sent while the engine is running.
+    }
+
+    private final class SessionCache
+    {
+        private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[messagesPerSession * maxMessageLength]);
+        private final int[] lengths = new int[messagesPerSession];
+        private final int[] sequenceNumbers = new int[messagesPerSession];
+        private final int[] sequenceIndices = new int[messagesPerSession];
+
+        // Positions count every message ever added, the cached messages are those from tail up to head.
+        private long head;
+        private long tail;
+
+        void add(
+            final DirectBuffer srcBuffer,
+            final int srcOffset,
+            final int length,
+            final int sequenceNumber,
+            final int sequenceIndex)
+        {
+            final int slot = slot(head);
+            buffer.putBytes(slot * maxMessageLength, srcBuffer, srcOffset, length);
+            lengths[slot] = length;
+            sequenceNumbers[slot] = sequenceNumber;
+            sequenceIndices[slot] = sequenceIndex;
+
+            head++;
+            if (head - tail > messagesPerSession)
+            {
+                tail = head - messagesPerSession;
+            }
+        }
+
+        void clear()
+        {
+            tail = head;
+        }
+
+        boolean covers(final int sequenceIndex, final int beginSequenceNumber)
+        {
+            if (tail == head)
+            {
+                return false;
+            }
+
+            final int oldestSlot = slot(tail);
+            final int oldestSequenceIndex = sequenceIndices[oldestSlot];
+            return oldestSequenceIndex < sequenceIndex ||
+                (oldestSequenceIndex == sequenceIndex && sequenceNumbers[oldestSlot] <= beginSequenceNumber);
+        }
+
+        int slot(final long position)
+        {
+            return (int)(position % messagesPerSession);
+        }
+    }
+
+    /**
+     * A continuable replay of cached messages, that can be retried when its handler aborts.
+     *
+     * The replay covers the messages cached when it started. If they're overwritten by newer messages before they've
+     * all been replayed then it's lapped and the rest of the range needs to be replayed from the archive.
+     */
+    final class CachedReplay
+    {
+        private final ControlledFragmentHandler handler;
+        private final SessionCache sessionCache;
+        private final int sequenceIndex;
+        private final int beginSequenceNumber;
+        private final int endSequenceNumber;
+        private final long endPosition;
+
+        private long position;
+        private int replayedMessages;
+        private boolean lapped;
+
+        CachedReplay(
+            final ControlledFragmentHandler handler,
+            final SessionCache sessionCache,
+            final int sequenceIndex,
+            final int beginSequenceNumber,
+            final int endSequenceNumber)
+        {
+            this.handler = handler;
+            this.sessionCache = sessionCache;
+            this.sequenceIndex = sequenceIndex;
+            this.beginSequenceNumber = beginSequenceNumber;
+            this.endSequenceNumber = endSequenceNumber;
+
+            position = sessionCache.tail;
+            endPosition = sessionCache.head;
+        }
+
+        /**
+         * Attempt a replay step
+         *
+         * @return true if complete or lapped
+         */
+        boolean attemptReplay()
+        {
+            final SessionCache sessionCache = this.sessionCache;
+            if (position < sessionCache.tail)
+            {
+                lapped = true;
+                return true;
+            }
+
+            final boolean upToMostRecent = endSequenceNumber == MOST_RECENT_MESSAGE;
+            while (position < endPosition)
+            {
+                final int slot = sessionCache.slot(position);
+                final int sequenceNumber = sessionCache.sequenceNumbers[slot];
+                if (sessionCache.sequenceIndices[slot] == sequenceIndex && sequenceNumber >= beginSequenceNumber &&
+                    (upToMostRecent || sequenceNumber <= endSequenceNumber))
+                {
+                    final Action action = handler.onFragment(
+                        sessionCache.buffer, slot * maxMessageLength, sessionCache.lengths[slot], null);
+                    if (action == ABORT)
+                    {
+                        return false;
+                    }
+
+                    replayedMessages++;
+                }
+
+                position++;
+            }
+
+            return true;
+        }
+
+        boolean lapped()
+        {
+            return lapped;
+        }
+
+        int replayedMessages()
+        {
+            return replayedMessages;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.agrona.ErrorHandler;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.engine.ChecksumFramer;
 import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
@@ -35,6 +36,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 
 import static io.aeron.protocol.DataHeaderFlyweight.BEGIN_FLAG;
 import static uk.co.real_logic.artio.engine.SectorFramer.*;
@@ -45,6 +47,10 @@ import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEnc
 /**
  * Writes updates into an in-memory buffer. This buffer is then flushed down to disk. A passing place
  * file is used to ensure that there's a recoverable option if it fails.
+ *
+ * When an {@link IndexFileSyncer} is provided the buffer is flushed in the
+ * {@link IndexFileSyncMode#SYNC_DIRTY_SECTORS} mode instead: only the sectors that have changed are copied into the
+ * index file and the syncer forces the file to disk.
  */
 public class SequenceNumberIndexWriter implements Index
 {
@@ -56,6 +62,7 @@ public class SequenceNumberIndexWriter implements Index
 
     private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
     private final FixMessageDecoder messageFrame = new FixMessageDecoder();
+    private final FixMessageBatchDecoder batchFrame = new FixMessageBatchDecoder();
     private final ResetSequenceNumberDecoder resetSequenceNumber = new ResetSequenceNumberDecoder();
 
     private final MessageHeaderDecoder fileHeaderDecoder = new MessageHeaderDecoder();
@@ -81,6 +88,12 @@ public class SequenceNumberIndexWriter implements Index
     private MappedFile indexFile;
     private long nextRollPosition = UNINITIALISED;
 
+    // Only used when syncing dirty sectors
+    private final IndexFileSyncer.SyncedFile syncedFile;
+    private final boolean[] dirtySectors;
+    private boolean allPositionsDirty;
+    private long indexedPosition;
+
     private final EpochClock clock;
     private final long indexFileStateFlushTimeoutInMs;
     private long lastUpdatedFileTimeInMs;
@@ -94,6 +107,43 @@ public class SequenceNumberIndexWriter implements Index
         final RecordingIdLookup recordingIdLookup,
         final long indexFileStateFlushTimeoutInMs,
         final EpochClock clock)
+    {
+        this(
+            inMemoryBuffer,
+            indexFile,
+            errorHandler,
+            streamId,
+            recordingIdLookup,
+            indexFileStateFlushTimeoutInMs,
+            clock,
+            null,
+            null);
+    }
+
+    /**
+     * Create a writer, which syncs its file in the {@link IndexFileSyncMode#SYNC_DIRTY_SECTORS} mode if a syncer is
+     * provided and in the {@link IndexFileSyncMode#FLIP_FILES} mode otherwise.
+     *
+     * @param inMemoryBuffer the buffer that the index is updated in.
+     * @param indexFile the file that the index is saved to.
+     * @param errorHandler the handler for errors updating the index.
+     * @param streamId the stream id of the messages being indexed.
+     * @param recordingIdLookup finds the recording of each message.
+     * @param indexFileStateFlushTimeoutInMs the longest time between updates to the file.
+     * @param clock the clock to time updates with.
+     * @param indexFileSyncer the syncer to force the file with, or null to flip files.
+     * @param durablePosition the counter for the syncer to publish the durable position with, or null to flip files.
+     */
+    public SequenceNumberIndexWriter(
+        final AtomicBuffer inMemoryBuffer,
+        final MappedFile indexFile,
+        final ErrorHandler errorHandler,
+        final int streamId,
+        final RecordingIdLookup recordingIdLookup,
+        final long indexFileStateFlushTimeoutInMs,
+        final EpochClock clock,
+        final IndexFileSyncer indexFileSyncer,
+        final AtomicCounter durablePosition)
     {
         this.inMemoryBuffer = inMemoryBuffer;
         this.indexFile = indexFile;
@@ -109,11 +159,23 @@ public class SequenceNumberIndexWriter implements Index
         final File writeableFile = writableFile(indexFilePath);
         writablePath = writeableFile.toPath();
         passingPlacePath = passingFile(indexFilePath).toPath();
-        writableFile = MappedFile.map(writeableFile, fileCapacity);
         sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
 
         // TODO: Fsync parent directory
         indexedPositionsOffset = positionTableOffset(fileCapacity);
+        if (indexFileSyncer == null)
+        {
+            writableFile = MappedFile.map(writeableFile, fileCapacity);
+            syncedFile = null;
+            dirtySectors = null;
+        }
+        else
+        {
+            // The index file is updated in place, so a writable file isn't needed.
+            writableFile = null;
+            syncedFile = indexFileSyncer.register(indexFile, durablePosition);
+            dirtySectors = new boolean[indexedPositionsOffset / SECTOR_SIZE];
+        }
         checksumFramer = new ChecksumFramer(
             inMemoryBuffer, indexedPositionsOffset, errorHandler, 0, "SequenceNumberIndex");
         try
@@ -181,6 +243,25 @@ public class SequenceNumberIndexWriter implements Index
                     break;
                 }
 
+                case FixMessageBatchDecoder.TEMPLATE_ID:
+                {
+                    batchFrame.wrap(buffer, offset, actingBlockLength, version);
+
+                    // Only the last message of the batch matters, as the batch's sequence numbers are consecutive
+                    int lastMsgSeqNum = NO_SEQUENCE_NUMBER;
+                    final FixMessageBatchDecoder.MessagesDecoder messages = batchFrame.messages();
+                    while (messages.hasNext())
+                    {
+                        lastMsgSeqNum = messages.next().sequenceNumber();
+                    }
+
+                    if (lastMsgSeqNum != NO_SEQUENCE_NUMBER)
+                    {
+                        saveRecord(lastMsgSeqNum, batchFrame.session());
+                    }
+                    break;
+                }
+
                 case ResetSessionIdsDecoder.TEMPLATE_ID:
                 {
                     resetSequenceNumbers();
@@ -197,6 +278,8 @@ public class SequenceNumberIndexWriter implements Index
 
         checkTermRoll(buffer, srcOffset, endPosition, length);
 
+        indexedPosition = endPosition;
+
         final long recordingId = recordingIdLookup.getRecordingId(aeronSessionId);
         positions.indexedUpTo(aeronSessionId, recordingId, endPosition);
     }
@@ -240,10 +323,18 @@ public class SequenceNumberIndexWriter implements Index
 
     private void updateFile()
     {
-        checksumFramer.updateChecksums();
-        positions.updateChecksums();
-        saveFile();
-        flipFiles();
+        if (syncedFile == null)
+        {
+            checksumFramer.updateChecksums();
+            positions.updateChecksums();
+            saveFile();
+            flipFiles();
+        }
+        else
+        {
+            saveDirtySectors();
+            syncedFile.copied(indexedPosition);
+        }
         hasSavedRecordSinceFileUpdate = false;
         lastUpdatedFileTimeInMs = clock.time();
     }
@@ -254,6 +345,36 @@ public class SequenceNumberIndexWriter implements Index
         writableFile.force();
     }
 
+    private void saveDirtySectors()
+    {
+        final AtomicBuffer inMemoryBuffer = this.inMemoryBuffer;
+        final AtomicBuffer fileBuffer = indexFile.buffer();
+        final boolean[] dirtySectors = this.dirtySectors;
+        for (int sector = 0; sector < dirtySectors.length; sector++)
+        {
+            if (dirtySectors[sector])
+            {
+                final int sectorStart = sector * SECTOR_SIZE;
+                checksumFramer.updateChecksum(sectorStart);
+                fileBuffer.putBytes(sectorStart, inMemoryBuffer, sectorStart, SECTOR_SIZE);
+                dirtySectors[sector] = false;
+            }
+        }
+
+        final int positionsLength;
+        if (allPositionsDirty)
+        {
+            positions.updateChecksums();
+            positionsLength = fileCapacity - indexedPositionsOffset;
+            allPositionsDirty = false;
+        }
+        else
+        {
+            positionsLength = positions.updateWrittenChecksums();
+        }
+        fileBuffer.putBytes(indexedPositionsOffset, inMemoryBuffer, indexedPositionsOffset, positionsLength);
+    }
+
     private void flipFiles()
     {
         if (RUNNING_ON_WINDOWS)
@@ -301,7 +422,7 @@ public class SequenceNumberIndexWriter implements Index
 
     public boolean isOpen()
     {
-        return writableFile.isOpen();
+        return indexFile.isOpen();
     }
 
     public void close()
@@ -311,12 +432,18 @@ public class SequenceNumberIndexWriter implements Index
             if (isOpen() && hasSavedRecordSinceFileUpdate)
             {
                 updateFile();
+
+                // The syncer has stopped before the writer is closed, so the last update is forced here.
+                if (syncedFile != null)
+                {
+                    indexFile.force();
+                }
             }
         }
         finally
         {
             indexFile.close();
-            writableFile.close();
+            CloseHelper.close(writableFile);
         }
     }
 
@@ -419,6 +546,13 @@ public class SequenceNumberIndexWriter implements Index
             lastKnownEncoder.sbeSchemaVersion(),
             lastKnownEncoder.sbeBlockLength(),
             errorHandler);
+
+        // The sectors of a blank file don't have checksums yet, so the whole file is saved on the next update.
+        if (dirtySectors != null)
+        {
+            Arrays.fill(dirtySectors, true);
+            allPositionsDirty = true;
+        }
     }
 
     private boolean fileHasBeenInitialized(final AtomicBuffer fileBuffer)
@@ -463,5 +597,14 @@ public class SequenceNumberIndexWriter implements Index
         final int value)
     {
         inMemoryBuffer.putIntOrdered(recordOffset + SEQUENCE_NUMBER_OFFSET, value);
+        markDirty(recordOffset);
+    }
+
+    private void markDirty(final int offset)
+    {
+        if (dirtySectors != null)
+        {
+            dirtySectors[offset / SECTOR_SIZE] = true;
+        }
     }
 }
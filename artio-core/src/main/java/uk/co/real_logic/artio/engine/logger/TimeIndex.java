@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.CloseHelper;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.LangUtil;
+import org.agrona.collections.Long2LongHashMap;
+import uk.co.real_logic.artio.messages.FixMessageBatchDecoder;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A sparse index from the timestamps of messages to their positions within the archive, so that messages within a
+ * time range can be scanned without replaying whole recordings. Read by {@link TimeIndexReader}.
+ *
+ * Each record consists of a timestamp, recording id and position and the records are appended to a file for each
+ * stream, at {@link #timeIndexFile(String, int)}. A record is written for the first message of each recording that's
+ * indexed and then for the first message that starts at least the interval's number of bytes after the last record.
+ * The timestamp of a record is the latest timestamp of any message up to and including the one that it records, so
+ * every message before a record's position has a timestamp no later than the record's. The position is the start of
+ * the message's frame, where a replay can begin.
+ */
+public class TimeIndex implements Index
+{
+    static final int TIMESTAMP_OFFSET = 0;
+    static final int RECORDING_ID_OFFSET = TIMESTAMP_OFFSET + BitUtil.SIZE_OF_LONG;
+    static final int POSITION_OFFSET = RECORDING_ID_OFFSET + BitUtil.SIZE_OF_LONG;
+    static final int RECORD_LENGTH = POSITION_OFFSET + BitUtil.SIZE_OF_LONG;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final long MISSING = Long.MIN_VALUE;
+
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final FixMessageBatchDecoder batch = new FixMessageBatchDecoder();
+    private final ByteBuffer record = ByteBuffer.allocateDirect(RECORD_LENGTH).order(BYTE_ORDER);
+    private final Long2LongHashMap recordingIdToIndexedPosition = new Long2LongHashMap(MISSING);
+    private final Long2LongHashMap recordingIdToLatestTimestamp = new Long2LongHashMap(MISSING);
+
+    private final int requiredStreamId;
+    private final long intervalInBytes;
+    private final RecordingIdLookup recordingIdLookup;
+    private final ErrorHandler errorHandler;
+    private final FileChannel channel;
+
+    /**
+     * Create a time index, appending to the index of the stream if one exists.
+     *
+     * @param logFileDir the directory that the index file is in.
+     * @param requiredStreamId the stream id of the messages being indexed.
+     * @param intervalInBytes the minimum number of bytes of the stream between records.
+     * @param recordingIdLookup finds the recording of each message.
+     * @param errorHandler the handler for errors writing the index.
+     */
+    public TimeIndex(
+        final String logFileDir,
+        final int requiredStreamId,
+        final long intervalInBytes,
+        final RecordingIdLookup recordingIdLookup,
+        final ErrorHandler errorHandler)
+    {
+        this.requiredStreamId = requiredStreamId;
+        this.intervalInBytes = intervalInBytes;
+        this.recordingIdLookup = recordingIdLookup;
+        this.errorHandler = errorHandler;
+
+        FileChannel channel = null;
+        try
+        {
+            channel = FileChannel.open(timeIndexFile(logFileDir, requiredStreamId).toPath(), CREATE, WRITE);
+
+            // Drop any record that was partially written before a crash.
+            final long size = channel.size();
+            channel.truncate(size - (size % RECORD_LENGTH));
+            channel.position(channel.size());
+        }
+        catch (final IOException ex)
+        {
+            CloseHelper.quietClose(channel);
+            LangUtil.rethrowUnchecked(ex);
+        }
+        this.channel = channel;
+    }
+
+    public static File timeIndexFile(final String logFileDir, final int streamId)
+    {
+        return new File(String.format(logFileDir + File.separator + "time-index-%d", streamId));
+    }
+
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (header.streamId() != requiredStreamId || (header.flags() & BEGIN_FRAG_FLAG) != BEGIN_FRAG_FLAG)
+        {
+            return;
+        }
+
+        final MessageHeaderDecoder messageHeader = this.messageHeader;
+        messageHeader.wrap(buffer, offset);
+        final int templateId = messageHeader.templateId();
+        final int messageOffset = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+        final long timestamp;
+        if (templateId == FixMessageDecoder.TEMPLATE_ID)
+        {
+            fixMessage.wrap(buffer, messageOffset, messageHeader.blockLength(), messageHeader.version());
+            timestamp = fixMessage.timestamp();
+        }
+        else if (templateId == FixMessageBatchDecoder.TEMPLATE_ID)
+        {
+            batch.wrap(buffer, messageOffset, messageHeader.blockLength(), messageHeader.version());
+            timestamp = batch.timestamp();
+        }
+        else
+        {
+            return;
+        }
+
+        final long recordingId = recordingIdLookup.getRecordingId(header.sessionId());
+        final long latestTimestamp = Math.max(timestamp, recordingIdToLatestTimestamp.get(recordingId));
+        recordingIdToLatestTimestamp.put(recordingId, latestTimestamp);
+
+        final long framePosition = header.position() - BitUtil.align(length + HEADER_LENGTH, FRAME_ALIGNMENT);
+        final long indexedPosition = recordingIdToIndexedPosition.get(recordingId);
+        if (indexedPosition == MISSING || framePosition - indexedPosition >= intervalInBytes)
+        {
+            writeRecord(latestTimestamp, recordingId, framePosition);
+            recordingIdToIndexedPosition.put(recordingId, framePosition);
+        }
+    }
+
+    private void writeRecord(final long timestamp, final long recordingId, final long position)
+    {
+        final ByteBuffer record = this.record;
+        record.clear();
+        record.putLong(TIMESTAMP_OFFSET, timestamp);
+        record.putLong(RECORDING_ID_OFFSET, recordingId);
+        record.putLong(POSITION_OFFSET, position);
+
+        try
+        {
+            while (record.hasRemaining())
+            {
+                channel.write(record);
+            }
+        }
+        catch (final IOException ex)
+        {
+            errorHandler.onError(ex);
+        }
+    }
+
+    public void close()
+    {
+        CloseHelper.close(channel);
+    }
+
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+        // Deliberately blank: messages that aren't indexed after a restart only make the index sparser.
+    }
+}
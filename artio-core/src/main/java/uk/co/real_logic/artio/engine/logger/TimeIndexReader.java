@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.LangUtil;
+import org.agrona.collections.Long2ObjectHashMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static uk.co.real_logic.artio.engine.logger.TimeIndex.*;
+
+/**
+ * Reads a snapshot of the {@link TimeIndex} of a stream, in order to find the positions within each recording to
+ * scan messages in a time range from.
+ *
+ * Records' timestamps never decrease within a recording, so positions are found by binary search. The start
+ * position for a time range is exact: no earlier message has a timestamp within the range. The stop position
+ * assumes that timestamps are in order, so a message after it whose timestamp is earlier than a message before it
+ * can be missed.
+ */
+public class TimeIndexReader
+{
+    public static final long UNKNOWN_POSITION = -1;
+
+    private final Long2ObjectHashMap<Records> recordingIdToRecords = new Long2ObjectHashMap<>();
+
+    /**
+     * Read the current contents of the time index of a stream.
+     *
+     * @param logFileDir the directory that the index file is in.
+     * @param streamId the stream id of the indexed messages.
+     */
+    public TimeIndexReader(final String logFileDir, final int streamId)
+    {
+        final File file = timeIndexFile(logFileDir, streamId);
+        if (!file.exists())
+        {
+            return;
+        }
+
+        try
+        {
+            final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(BYTE_ORDER);
+            final int limit = buffer.capacity() - (buffer.capacity() % RECORD_LENGTH);
+            for (int offset = 0; offset < limit; offset += RECORD_LENGTH)
+            {
+                final long recordingId = buffer.getLong(offset + RECORDING_ID_OFFSET);
+                recordingIdToRecords
+                    .computeIfAbsent(recordingId, ignore -> new Records())
+                    .add(buffer.getLong(offset + TIMESTAMP_OFFSET), buffer.getLong(offset + POSITION_OFFSET));
+            }
+        }
+        catch (final IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+    }
+
+    /**
+     * Find the position to start scanning a recording from for messages at or after a time.
+     *
+     * @param recordingId the id of the recording to scan.
+     * @param beginTimestampInclusive the earliest timestamp of a message to scan.
+     * @return the position to start scanning from, or {@link #UNKNOWN_POSITION} if the scan should start at the
+     * beginning of the recording.
+     */
+    public long startPosition(final long recordingId, final long beginTimestampInclusive)
+    {
+        final Records records = recordingIdToRecords.get(recordingId);
+        if (records == null)
+        {
+            return UNKNOWN_POSITION;
+        }
+
+        // The last record before the time, every message before its position is before the time as well.
+        final int index = records.firstIndexAtOrAfter(beginTimestampInclusive) - 1;
+        return index < 0 ? UNKNOWN_POSITION : records.positions[index];
+    }
+
+    /**
+     * Find the position to stop scanning a recording at for messages before a time.
+     *
+     * @param recordingId the id of the recording to scan.
+     * @param endTimestampExclusive the timestamp that scanned messages are before.
+     * @return the position to stop scanning at, or {@link #UNKNOWN_POSITION} if the scan should continue to the end
+     * of the recording.
+     */
+    public long stopPosition(final long recordingId, final long endTimestampExclusive)
+    {
+        final Records records = recordingIdToRecords.get(recordingId);
+        if (records == null)
+        {
+            return UNKNOWN_POSITION;
+        }
+
+        final int index = records.firstIndexAtOrAfter(endTimestampExclusive);
+        return index == records.size ? UNKNOWN_POSITION : records.positions[index];
+    }
+
+    private static final class Records
+    {
+        private long[] timestamps = new long[16];
+        private long[] positions = new long[16];
+        private int size;
+
+        void add(final long timestamp, final long position)
+        {
+            if (size == timestamps.length)
+            {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+
+            timestamps[size] = timestamp;
+            positions[size] = position;
+            size++;
+        }
+
+        int firstIndexAtOrAfter(final long timestamp)
+        {
+            int low = 0;
+            int high = size;
+            while (low < high)
+            {
+                final int middle = (low + high) >>> 1;
+                if (timestamps[middle] < timestamp)
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+    }
+}
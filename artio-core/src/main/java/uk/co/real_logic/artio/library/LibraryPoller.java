@@ -93,6 +93,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private final Long2ObjectHashMap<SessionSubscriber> connectionIdToSession = new Long2ObjectHashMap<>();
     private InternalSession[] sessions = new InternalSession[0];
     private InternalSession[] pendingInitiatorSessions = new InternalSession[0];
+    private final SessionDeadlineHeap sessionDeadlines = new SessionDeadlineHeap();
 
     private final List<Session> unmodifiableSessions = new AbstractList<Session>()
     {
@@ -261,6 +262,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     void disableSession(final InternalSession session)
     {
         sessions = ArrayUtil.remove(sessions, session);
+        sessionDeadlines.remove(session);
         session.disable();
     }
 
@@ -614,16 +616,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     private int pollSessions(final long timeInMs)
     {
-        final InternalSession[] sessions = this.sessions;
-        int total = 0;
-
-        for (int i = 0, size = sessions.length; i < size; i++)
-        {
-            final InternalSession session = sessions[i];
-            total += session.poll(timeInMs);
-        }
-
-        return total;
+        return sessionDeadlines.poll(timeInMs);
     }
 
     private int pollPendingInitiatorSessions(final long timeInMs)
@@ -640,6 +633,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                 this.pendingInitiatorSessions = pendingSessions = ArrayUtil.remove(pendingSessions, i);
                 size--;
                 sessions = ArrayUtil.add(sessions, session);
+                sessionDeadlines.add(session);
             }
             else
             {
@@ -917,6 +911,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         else
         {
             sessions = ArrayUtil.add(sessions, session);
+            sessionDeadlines.add(session);
         }
     }
 
@@ -981,6 +976,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     // session will be in either pendingInitiatorSessions or sessions
                     pendingInitiatorSessions = ArrayUtil.remove(pendingInitiatorSessions, session);
                     sessions = ArrayUtil.remove(sessions, session);
+                    sessionDeadlines.remove(session);
                 }
 
                 return action;
@@ -1158,6 +1154,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     session.close();
                     // TODO(Nick): Maybe we shouldn't be creating a lot of arrays and batch this up?
                     sessions = ArrayUtil.remove(sessions, i);
+                    sessionDeadlines.remove(session);
                     size--;
                 }
                 else
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import org.agrona.collections.ArrayUtil;
+import org.agrona.collections.Object2IntHashMap;
+import uk.co.real_logic.artio.session.InternalSession;
+import uk.co.real_logic.artio.session.Session;
+import uk.co.real_logic.artio.session.SessionPollDeadlineListener;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of sessions ordered by their poll deadline, so that only the sessions that have something due
+ * get polled on a duty cycle.
+ *
+ * A session's deadline is refreshed every time it's polled, so deadlines that are pushed back by sending or receiving
+ * messages are picked up lazily. Deadlines that are brought forward are notified through
+ * {@link SessionPollDeadlineListener}.
+ *
+ * Not thread safe, only accessed from the library's thread.
+ */
+class SessionDeadlineHeap implements SessionPollDeadlineListener
+{
+    private static final int MISSING_INDEX = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Object2IntHashMap<Session> sessionToIndex = new Object2IntHashMap<>(MISSING_INDEX);
+
+    private InternalSession[] sessions = new InternalSession[INITIAL_CAPACITY];
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void add(final InternalSession session)
+    {
+        if (sessionToIndex.containsKey(session))
+        {
+            return;
+        }
+
+        if (size == sessions.length)
+        {
+            final int newCapacity = size * 2;
+            sessions = ArrayUtil.ensureCapacity(sessions, newCapacity);
+            deadlines = Arrays.copyOf(deadlines, newCapacity);
+        }
+
+        final int index = size++;
+        sessions[index] = session;
+        deadlines[index] = session.pollDeadlineInMs();
+        sessionToIndex.put(session, index);
+        siftUp(index);
+
+        session.pollDeadlineListener(this);
+    }
+
+    void remove(final InternalSession session)
+    {
+        final int index = sessionToIndex.removeKey(session);
+        if (index == MISSING_INDEX)
+        {
+            return;
+        }
+
+        session.pollDeadlineListener(null);
+
+        final int lastIndex = --size;
+        final InternalSession lastSession = sessions[lastIndex];
+        final long lastDeadline = deadlines[lastIndex];
+        sessions[lastIndex] = null;
+
+        if (index != lastIndex)
+        {
+            // Fill the gap with the last session, then sift it whichever way its deadline requires
+            sessions[index] = lastSession;
+            sessionToIndex.put(lastSession, index);
+            changeDeadline(index, lastDeadline);
+        }
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Poll the sessions whose deadline has passed. Each session is polled at most once per call: if it still has
+     * something due afterwards, for example because it was back-pressured, it's polled again from the next
+     * millisecond.
+     *
+     * @param timeInMs the current time in milliseconds.
+     * @return the number of actions performed by the polled sessions.
+     */
+    int poll(final long timeInMs)
+    {
+        int total = 0;
+
+        while (size > 0 && deadlines[0] <= timeInMs)
+        {
+            final InternalSession session = sessions[0];
+            total += session.poll(timeInMs);
+
+            final int index = sessionToIndex.getValue(session);
+            if (index != MISSING_INDEX)
+            {
+                changeDeadline(index, Math.max(session.pollDeadlineInMs(), timeInMs + 1));
+            }
+        }
+
+        return total;
+    }
+
+    public void onPollDeadlineChanged(final Session session)
+    {
+        final int index = sessionToIndex.getValue(session);
+        if (index != MISSING_INDEX)
+        {
+            changeDeadline(index, sessions[index].pollDeadlineInMs());
+        }
+    }
+
+    private void changeDeadline(final int index, final long deadline)
+    {
+        final long oldDeadline = deadlines[index];
+        deadlines[index] = deadline;
+        if (deadline < oldDeadline)
+        {
+            siftUp(index);
+        }
+        else
+        {
+            siftDown(index);
+        }
+    }
+
+    private void siftUp(final int startIndex)
+    {
+        final InternalSession session = sessions[startIndex];
+        final long deadline = deadlines[startIndex];
+
+        int index = startIndex;
+        while (index > 0)
+        {
+            final int parentIndex = (index - 1) >>> 1;
+            if (deadlines[parentIndex] <= deadline)
+            {
+                break;
+            }
+
+            move(sessions[parentIndex], deadlines[parentIndex], index);
+            index = parentIndex;
+        }
+
+        move(session, deadline, index);
+    }
+
+    private void siftDown(final int startIndex)
+    {
+        final InternalSession session = sessions[startIndex];
+        final long deadline = deadlines[startIndex];
+        final int size = this.size;
+
+        int index = startIndex;
+        while (true)
+        {
+            int childIndex = (index << 1) + 1;
+            if (childIndex >= size)
+            {
+                break;
+            }
+
+            final int rightIndex = childIndex + 1;
+            if (rightIndex < size && deadlines[rightIndex] < deadlines[childIndex])
+            {
+                childIndex = rightIndex;
+            }
+
+            if (deadline <= deadlines[childIndex])
+            {
+                break;
+            }
+
+            move(sessions[childIndex], deadlines[childIndex], index);
+            index = childIndex;
+        }
+
+        move(session, deadline, index);
+    }
+
+    private void move(final InternalSession session, final long deadline, final int index)
+    {
+        sessions[index] = session;
+        deadlines[index] = deadline;
+        sessionToIndex.put(session, index);
+    }
+}
@@ -89,4 +89,15 @@ public interface EngineEndPointHandler
         DirectBuffer srcBuffer,
         int srcOffset,
         int srcLength);
+
+    // The bodies of the messages in a batch are back to back from the offset
+    Action onMessageBatch(
+        DirectBuffer buffer,
+        int offset,
+        int length,
+        int libraryId,
+        long connectionId,
+        long timestamp,
+        int lastSequenceNumber,
+        long position);
 }
@@ -37,6 +37,7 @@ public final class EngineProtocolSubscription implements ControlledFragmentHandl
     private final ReleaseSessionDecoder releaseSession = new ReleaseSessionDecoder();
     private final RequestSessionDecoder requestSession = new RequestSessionDecoder();
     private final FollowerSessionRequestDecoder followerSessionRequest = new FollowerSessionRequestDecoder();
+    private final FixMessageBatchDecoder fixMessageBatch = new FixMessageBatchDecoder();
 
     private final EngineEndPointHandler handler;
 
@@ -95,6 +96,11 @@ public final class EngineProtocolSubscription implements ControlledFragmentHandl
             {
                 return onFollowerSessionRequest(buffer, offset, blockLength, version, header);
             }
+
+            case FixMessageBatchDecoder.TEMPLATE_ID:
+            {
+                return onFixMessageBatch(buffer, offset, blockLength, version, header);
+            }
         }
 
         return CONTINUE;
@@ -285,4 +291,36 @@ public final class EngineProtocolSubscription implements ControlledFragmentHandl
             offset + FOLLOWER_SESSION_REQUEST_LENGTH,
             messageLength);
     }
+
+    private Action onFixMessageBatch(
+        final DirectBuffer buffer,
+        final int offset,
+        final int blockLength,
+        final int version,
+        final Header header)
+    {
+        final FixMessageBatchDecoder fixMessageBatch = this.fixMessageBatch;
+        fixMessageBatch.wrap(buffer, offset, blockLength, version);
+        final int libraryId = fixMessageBatch.libraryId();
+        final long connectionId = fixMessageBatch.connection();
+        final long timestamp = fixMessageBatch.timestamp();
+
+        int lastSequenceNumber = 0;
+        for (final FixMessageBatchDecoder.MessagesDecoder messages : fixMessageBatch.messages())
+        {
+            lastSequenceNumber = messages.sequenceNumber();
+        }
+
+        final int bodyLength = fixMessageBatch.bodyLength();
+        final int bodyOffset = fixMessageBatch.limit() + FixMessageBatchDecoder.bodyHeaderLength();
+        return handler.onMessageBatch(
+            buffer,
+            bodyOffset,
+            bodyLength,
+            libraryId,
+            connectionId,
+            timestamp,
+            lastSequenceNumber,
+            header.position());
+    }
 }
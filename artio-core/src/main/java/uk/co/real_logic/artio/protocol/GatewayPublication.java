@@ -27,6 +27,7 @@ import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.engine.SessionInfo;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.messages.ControlNotificationEncoder.SessionsEncoder;
+import uk.co.real_logic.artio.messages.FixMessageBatchEncoder.MessagesEncoder;
 
 import java.util.List;
 
@@ -46,7 +47,14 @@ public class GatewayPublication extends ClaimablePublication
 {
     public static final int FRAME_SIZE = FixMessageEncoder.BLOCK_LENGTH + FixMessageDecoder.bodyHeaderLength();
 
+    /**
+     * The maximum number of messages in a batch saved by {@link #saveMessageBatch}.
+     */
+    public static final int MAX_BATCH_SIZE = GroupSizeEncodingEncoder.numInGroupMaxValue();
+
     private static final int FRAMED_MESSAGE_SIZE = MessageHeaderEncoder.ENCODED_LENGTH + FRAME_SIZE;
+    private static final int FRAMED_BATCH_SIZE = HEADER_LENGTH + FixMessageBatchEncoder.BLOCK_LENGTH +
+        MessagesEncoder.HEADER_SIZE + FixMessageBatchEncoder.bodyHeaderLength();
 
     private static final byte[] NO_BYTES = {};
 
@@ -85,6 +93,7 @@ public class GatewayPublication extends ClaimablePublication
     private final MidConnectionDisconnectEncoder midConnectionDisconnect = new MidConnectionDisconnectEncoder();
     private final DisconnectEncoder disconnect = new DisconnectEncoder();
     private final FixMessageEncoder fixMessage = new FixMessageEncoder();
+    private final FixMessageBatchEncoder fixMessageBatch = new FixMessageBatchEncoder();
     private final ErrorEncoder error = new ErrorEncoder();
     private final ApplicationHeartbeatEncoder applicationHeartbeat = new ApplicationHeartbeatEncoder();
     private final LibraryConnectEncoder libraryConnect = new LibraryConnectEncoder();
@@ -174,26 +183,12 @@ public class GatewayPublication extends ClaimablePublication
             return position;
         }
 
-        int offset = bufferClaim.offset();
+        final int offset = bufferClaim.offset() + header.encodedLength();
         final MutableDirectBuffer destBuffer = bufferClaim.buffer();
 
-        header.wrap(destBuffer, offset)
-            .blockLength(fixMessage.sbeBlockLength())
-            .templateId(fixMessage.sbeTemplateId())
-            .schemaId(fixMessage.sbeSchemaId())
-            .version(fixMessage.sbeSchemaVersion());
-
-        offset += header.encodedLength();
-
-        fixMessage.wrap(destBuffer, offset)
-            .libraryId(libraryId)
-            .messageType(messageType)
-            .session(sessionId)
-            .sequenceIndex(sequenceIndex)
-            .connection(connectionId)
-            .timestamp(timestamp)
-            .status(status)
-            .sequenceNumber(sequenceNumber)
+        putFixMessage(
+            destBuffer, bufferClaim.offset(), libraryId, messageType, sessionId, sequenceIndex, connectionId, status,
+            sequenceNumber, timestamp)
             .putBody(srcBuffer, srcFragmentOffset, srcFragmentLength);
 
         if (!fragmented)
@@ -231,6 +226,220 @@ public class GatewayPublication extends ClaimablePublication
         return position;
     }
 
+    /**
+     * Claim space for an unfragmented FIX message whose total length is known, but whose body hasn't all been
+     * received yet. The header and the first part of the body are written, so that the rest of the body can be
+     * written straight into the log buffer at {@link #claimedBodyOffset(BufferClaim)} + srcPrefixLength, eg: by
+     * reading it from a socket over several reads. The claim is held by the caller's buffer claim, so other messages
+     * can be saved whilst it's open. It must then be completed with either
+     * {@link #commitMessageClaim(BufferClaim)} or {@link #abortMessageClaim(BufferClaim)}.
+     *
+     * @param bufferClaim the buffer claim that holds the claim until it's completed.
+     * @param srcBuffer the buffer containing the first part of the message.
+     * @param srcOffset the offset within srcBuffer of the message.
+     * @param srcPrefixLength the length of the part of the message that has already been received.
+     * @param srcLength the length of the whole message, at most {@link #maxUnfragmentedMessageLength()}.
+     * @param libraryId the library that owns the session.
+     * @param messageType the packed message type of the message.
+     * @param sessionId the session of the message.
+     * @param sequenceIndex the sequence index of the session.
+     * @param connectionId the connection that the message was received on.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @param timestamp the time at which the message was received.
+     * @return the position of the claim, or a negative value if back pressured.
+     */
+    public long claimMessage(
+        final BufferClaim bufferClaim,
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcPrefixLength,
+        final int srcLength,
+        final int libraryId,
+        final int messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final long timestamp)
+    {
+        final long position = claim(FRAMED_MESSAGE_SIZE + srcLength, bufferClaim);
+        if (position < 0)
+        {
+            return position;
+        }
+
+        final int offset = bufferClaim.offset() + header.encodedLength();
+        final MutableDirectBuffer destBuffer = bufferClaim.buffer();
+
+        putFixMessage(
+            destBuffer, bufferClaim.offset(), libraryId, messageType, sessionId, sequenceIndex, connectionId, status,
+            sequenceNumber, timestamp)
+            .putBody(srcBuffer, srcOffset, srcPrefixLength);
+        putBodyLength(srcLength, offset, destBuffer);
+
+        return position;
+    }
+
+    public int maxUnfragmentedMessageLength()
+    {
+        return maxInitialBodyLength;
+    }
+
+    public static int claimedBodyOffset(final BufferClaim bufferClaim)
+    {
+        return bufferClaim.offset() + HEADER_LENGTH + FRAME_SIZE;
+    }
+
+    public void commitMessageClaim(final BufferClaim bufferClaim)
+    {
+        bufferClaim.commit();
+
+        DebugLogger.log(
+            FIX_MESSAGE_FLOW,
+            "Enqueued %s%n",
+            bufferClaim.buffer(),
+            claimedBodyOffset(bufferClaim),
+            bufferClaim.length() - FRAMED_MESSAGE_SIZE);
+    }
+
+    public void abortMessageClaim(final BufferClaim bufferClaim)
+    {
+        bufferClaim.abort();
+    }
+
+    /**
+     * Gets the total length of the bodies that a batch of messages can have and still be saved as one fragment.
+     *
+     * @param messageCount the number of messages in the batch.
+     * @return the total length of the bodies that fit in the batch.
+     */
+    public int maxBatchBodyLength(final int messageCount)
+    {
+        return maxPayloadLength - (FRAMED_BATCH_SIZE + messageCount * MessagesEncoder.sbeBlockLength());
+    }
+
+    /**
+     * Save consecutive messages from one session as a single unfragmented fragment. The bodies are put back to back
+     * so that the engine can write the whole batch to the TCP connection in one go.
+     *
+     * @param srcBuffer the buffer that holds the bodies of the messages.
+     * @param bodyOffsets the offsets of the bodies of the messages within the buffer.
+     * @param messageTypes the packed message types of the messages.
+     * @param sequenceNumbers the sequence numbers of the messages.
+     * @param bodyLengths the lengths of the bodies of the messages.
+     * @param messageCount the number of messages, at most {@link #MAX_BATCH_SIZE}.
+     * @param libraryId the library that owns the session.
+     * @param sessionId the session of the messages.
+     * @param sequenceIndex the sequence index of the session.
+     * @param connectionId the connection that the messages are sent on.
+     * @return the position of the batch or a negative value if back pressured.
+     * @throws IllegalArgumentException if the bodies are longer than {@link #maxBatchBodyLength(int)}.
+     */
+    public long saveMessageBatch(
+        final DirectBuffer srcBuffer,
+        final int[] bodyOffsets,
+        final int[] messageTypes,
+        final int[] sequenceNumbers,
+        final int[] bodyLengths,
+        final int messageCount,
+        final int libraryId,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId)
+    {
+        int srcLength = 0;
+        for (int i = 0; i < messageCount; i++)
+        {
+            srcLength += bodyLengths[i];
+        }
+
+        if (srcLength > maxBatchBodyLength(messageCount))
+        {
+            throw new IllegalArgumentException(String.format(
+                "Batch of %d messages with %d bytes of bodies doesn't fit in a fragment of %d bytes",
+                messageCount,
+                srcLength,
+                maxPayloadLength));
+        }
+
+        final BufferClaim bufferClaim = this.bufferClaim;
+        final int claimLength = FRAMED_BATCH_SIZE + messageCount * MessagesEncoder.sbeBlockLength() + srcLength;
+        final long position = claim(claimLength);
+        if (position < 0)
+        {
+            return position;
+        }
+
+        final MutableDirectBuffer destBuffer = bufferClaim.buffer();
+        final FixMessageBatchEncoder fixMessageBatch = this.fixMessageBatch;
+        final MessagesEncoder messages = fixMessageBatch
+            .wrapAndApplyHeader(destBuffer, bufferClaim.offset(), header)
+            .libraryId(libraryId)
+            .session(sessionId)
+            .connection(connectionId)
+            .timestamp(clock.time())
+            .sequenceIndex(sequenceIndex)
+            .messagesCount(messageCount);
+
+        for (int i = 0; i < messageCount; i++)
+        {
+            messages.next()
+                .messageType(messageTypes[i])
+                .sequenceNumber(sequenceNumbers[i])
+                .bodyLength(bodyLengths[i]);
+        }
+
+        final int bodyHeaderOffset = fixMessageBatch.limit();
+        destBuffer.putShort(bodyHeaderOffset, (short)srcLength, LITTLE_ENDIAN);
+        final int bodyStart = bodyHeaderOffset + FixMessageBatchEncoder.bodyHeaderLength();
+        int bodyOffset = bodyStart;
+        for (int i = 0; i < messageCount; i++)
+        {
+            final int bodyLength = bodyLengths[i];
+            destBuffer.putBytes(bodyOffset, srcBuffer, bodyOffsets[i], bodyLength);
+            bodyOffset += bodyLength;
+        }
+
+        bufferClaim.commit();
+
+        DebugLogger.log(FIX_MESSAGE_FLOW, "Enqueued batch %s%n", destBuffer, bodyStart, srcLength);
+
+        return position;
+    }
+
+    private FixMessageEncoder putFixMessage(
+        final MutableDirectBuffer destBuffer,
+        final int headerOffset,
+        final int libraryId,
+        final int messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final long timestamp)
+    {
+        final FixMessageEncoder fixMessage = this.fixMessage;
+
+        header.wrap(destBuffer, headerOffset)
+            .blockLength(fixMessage.sbeBlockLength())
+            .templateId(fixMessage.sbeTemplateId())
+            .schemaId(fixMessage.sbeSchemaId())
+            .version(fixMessage.sbeSchemaVersion());
+
+        return fixMessage.wrap(destBuffer, headerOffset + header.encodedLength())
+            .libraryId(libraryId)
+            .messageType(messageType)
+            .session(sessionId)
+            .sequenceIndex(sequenceIndex)
+            .connection(connectionId)
+            .timestamp(timestamp)
+            .status(status)
+            .sequenceNumber(sequenceNumber);
+    }
+
     private void putBodyLength(final int srcLength, final int offset, final MutableDirectBuffer destBuffer)
     {
         destBuffer.putShort(offset + FixMessageEncoder.BLOCK_LENGTH, (short)srcLength, LITTLE_ENDIAN);
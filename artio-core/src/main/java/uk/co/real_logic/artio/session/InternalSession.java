@@ -78,6 +78,11 @@ public class InternalSession extends Session
         return super.poll(time);
     }
 
+    public long pollDeadlineInMs()
+    {
+        return super.pollDeadlineInMs();
+    }
+
     public void disable()
     {
         super.disable();
@@ -93,6 +98,11 @@ public class InternalSession extends Session
         super.logonListener(logonListener);
     }
 
+    public void pollDeadlineListener(final SessionPollDeadlineListener pollDeadlineListener)
+    {
+        super.pollDeadlineListener(pollDeadlineListener);
+    }
+
     public void address(final String connectedHost, final int connectedPort)
     {
         super.address(connectedHost, connectedPort);
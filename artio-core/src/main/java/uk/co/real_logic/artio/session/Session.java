@@ -158,6 +158,8 @@ public class Session implements AutoCloseable
     private boolean incorrectBeginString = false;
 
     private SessionLogonListener logonListener;
+    private SessionPollDeadlineListener pollDeadlineListener;
+    private SessionBatch batch;
 
     private int logoutRejectReason = NO_LOGOUT_REJECT_REASON;
 
@@ -454,7 +456,11 @@ public class Session implements AutoCloseable
      */
     public int prepare(final SessionHeaderEncoder header)
     {
-        final int sentSeqNum = newSentSeqNum();
+        return prepare(header, newSentSeqNum());
+    }
+
+    int prepare(final SessionHeaderEncoder header, final int sentSeqNum)
+    {
         header
             .msgSeqNum(sentSeqNum)
             .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(time()));
@@ -522,6 +528,94 @@ public class Session implements AutoCloseable
         return position;
     }
 
+    /**
+     * Gets the batch of this session, which sends several messages with consecutive sequence numbers in one go.
+     * The same batch is returned each time and it's reset once it has been sent.
+     *
+     * @return the batch of this session.
+     * @see #sendBatch(SessionBatch)
+     */
+    public SessionBatch batch()
+    {
+        SessionBatch batch = this.batch;
+        if (batch == null)
+        {
+            batch = new SessionBatch(this, publication);
+            this.batch = batch;
+        }
+
+        return batch;
+    }
+
+    /**
+     * Send the messages of a batch on this session in a single fragment, so that the engine writes them out
+     * together. The batch is reset if it's sent, if the publication is back pressured it's kept so that sending
+     * can be retried.
+     *
+     * @param batch the batch of this session to send, see {@link #batch()}.
+     * @return the position in the stream that corresponds to the end of the batch or a negative
+     * number indicating an error status.
+     * @throws IllegalArgumentException if the batch belongs to another session.
+     * @throws IllegalStateException if the session can't send messages, the batch is empty or the session has
+     *                               sent other messages since the batch's messages were added.
+     */
+    public long sendBatch(final SessionBatch batch)
+    {
+        validateCanSendMessage();
+
+        if (batch.session() != this)
+        {
+            throw new IllegalArgumentException("Batch belongs to another session");
+        }
+
+        final int messageCount = batch.messageCount();
+        if (messageCount == 0)
+        {
+            throw new IllegalStateException("Batch has no messages to send");
+        }
+
+        final int firstSequenceNumber = batch.firstSequenceNumber();
+        if (firstSequenceNumber != newSentSeqNum())
+        {
+            throw new IllegalStateException(String.format(
+                "Batch starts at sequence number %d, but other messages have been sent so the next is %d",
+                firstSequenceNumber,
+                newSentSeqNum()));
+        }
+
+        final DirectBuffer bodies = batch.bodies();
+        final int[] bodyOffsets = batch.bodyOffsets();
+        final int[] bodyLengths = batch.bodyLengths();
+        final long position = publication.saveMessageBatch(
+            bodies,
+            bodyOffsets,
+            batch.messageTypes(),
+            batch.sequenceNumbers(),
+            bodyLengths,
+            messageCount,
+            libraryId,
+            id(),
+            sequenceIndex(),
+            connectionId);
+
+        if (position > 0)
+        {
+            lastSentMsgSeqNum(batch.lastSequenceNumber(), position);
+
+            if (DebugLogger.isEnabled(FIX_MESSAGE))
+            {
+                for (int i = 0; i < messageCount; i++)
+                {
+                    DebugLogger.log(FIX_MESSAGE, "Sent batched %s %n", bodies, bodyOffsets[i], bodyLengths[i]);
+                }
+            }
+
+            batch.reset();
+        }
+
+        return position;
+    }
+
     /**
      * Check if the session is in a state where it can send a message.
      *
@@ -659,7 +753,7 @@ public class Session implements AutoCloseable
         }
     }
 
-    private void validateCanSendMessage()
+    void validateCanSendMessage()
     {
         if (!canSendMessage())
         {
@@ -1413,14 +1507,25 @@ public class Session implements AutoCloseable
         incNextReceivedInboundMessageTime(time);
         sendingHeartbeatIntervalInMs = (long)(heartbeatIntervalInMs * HEARTBEAT_PAUSE_FACTOR);
         nextRequiredHeartbeatTimeInMs = time + sendingHeartbeatIntervalInMs;
+        onPollDeadlineChanged();
     }
 
     protected Session state(final SessionState state)
     {
         this.state = state;
+        onPollDeadlineChanged();
         return this;
     }
 
+    private void onPollDeadlineChanged()
+    {
+        final SessionPollDeadlineListener pollDeadlineListener = this.pollDeadlineListener;
+        if (pollDeadlineListener != null)
+        {
+            pollDeadlineListener.onPollDeadlineChanged(this);
+        }
+    }
+
     public Session id(final long id)
     {
         this.id = id;
@@ -1643,6 +1748,30 @@ public class Session implements AutoCloseable
         }
     }
 
+    /**
+     * Gets the earliest time at which {@link #poll(long)} could have something to do for this session. Incoming
+     * and outgoing messages only ever push this deadline back, other changes that bring it forward, such as state
+     * changes, are notified to the {@link SessionPollDeadlineListener}.
+     *
+     * @return the earliest time in milliseconds at which this session needs to be polled.
+     */
+    long pollDeadlineInMs()
+    {
+        switch (state().value())
+        {
+            case DISCONNECTING_VALUE:
+            case LOGGING_OUT_VALUE:
+            case LOGGING_OUT_AND_DISCONNECTING_VALUE:
+                return 0;
+
+            case ACTIVE_VALUE:
+                return Math.min(nextRequiredHeartbeatTimeInMs, nextRequiredInboundMessageTimeInMs);
+
+            default:
+                return nextRequiredInboundMessageTimeInMs;
+        }
+    }
+
     void libraryConnected(final boolean libraryConnected)
     {
         proxy.libraryConnected(libraryConnected);
@@ -1663,6 +1792,11 @@ public class Session implements AutoCloseable
         this.logonListener = logonListener;
     }
 
+    void pollDeadlineListener(final SessionPollDeadlineListener pollDeadlineListener)
+    {
+        this.pollDeadlineListener = pollDeadlineListener;
+    }
+
     void logoutRejectReason(final int logoutRejectReason)
     {
         this.logoutRejectReason = logoutRejectReason;
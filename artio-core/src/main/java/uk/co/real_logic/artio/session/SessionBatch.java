@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import org.agrona.DirectBuffer;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static uk.co.real_logic.artio.protocol.GatewayPublication.MAX_BATCH_SIZE;
+
+/**
+ * Messages for a session that are sent together with {@link Session#sendBatch(SessionBatch)}, obtained from
+ * {@link Session#batch()}.
+ *
+ * The messages are given consecutive sequence numbers as they're added and are published to the engine as a
+ * single fragment, which the engine writes out to the TCP connection in one go. So a batch can hold at most
+ * {@link GatewayPublication#MAX_BATCH_SIZE} messages and only as many as fit in one fragment of the publication.
+ *
+ * Since the sequence numbers are allocated when messages are added, a batch has to be sent before its session
+ * sends any other message.
+ */
+public final class SessionBatch
+{
+    private final int[] bodyOffsets = new int[MAX_BATCH_SIZE];
+    private final int[] messageTypes = new int[MAX_BATCH_SIZE];
+    private final int[] sequenceNumbers = new int[MAX_BATCH_SIZE];
+    private final int[] bodyLengths = new int[MAX_BATCH_SIZE];
+
+    private final Session session;
+    private final GatewayPublication publication;
+    private final MutableAsciiBuffer bodies;
+
+    private int messageCount;
+    private int bodiesLength;
+    private int bodiesEnd;
+
+    SessionBatch(final Session session, final GatewayPublication publication)
+    {
+        this.session = session;
+        this.publication = publication;
+        // Room for any message that the session can encode on its own after a full batch's worth of bodies.
+        bodies = new MutableAsciiBuffer(new byte[publication.maxBatchBodyLength(1) + session.asciiBuffer.capacity()]);
+    }
+
+    /**
+     * Add a message to the batch, encoding it with the next sequence number after the messages already added.
+     *
+     * @param encoder the encoder of the message to be added.
+     * @return true if the message was added, false if the batch is full or the message doesn't fit in it. In that
+     * case send the batch and add the message again, or send the message on its own if the batch is empty.
+     * @throws IllegalStateException if the session isn't in a state where it can send messages.
+     */
+    public boolean add(final Encoder encoder)
+    {
+        session.validateCanSendMessage();
+
+        final int messageCount = this.messageCount;
+        if (messageCount == MAX_BATCH_SIZE)
+        {
+            return false;
+        }
+
+        final int sequenceNumber = session.prepare(encoder.header(), session.newSentSeqNum() + messageCount);
+        final int bodiesEnd = this.bodiesEnd;
+        final long result = encoder.encode(bodies, bodiesEnd);
+        final int offset = Encoder.offset(result);
+        final int length = Encoder.length(result);
+        final int bodiesLength = this.bodiesLength;
+        if (bodiesLength + length > publication.maxBatchBodyLength(messageCount + 1))
+        {
+            return false;
+        }
+
+        bodyOffsets[messageCount] = offset;
+        messageTypes[messageCount] = encoder.messageType();
+        sequenceNumbers[messageCount] = sequenceNumber;
+        bodyLengths[messageCount] = length;
+
+        this.bodiesEnd = offset + length;
+        this.bodiesLength = bodiesLength + length;
+        this.messageCount = messageCount + 1;
+
+        return true;
+    }
+
+    /**
+     * Discard the messages in the batch, their sequence numbers are used by the next messages to be sent.
+     */
+    public void reset()
+    {
+        messageCount = 0;
+        bodiesLength = 0;
+        bodiesEnd = 0;
+    }
+
+    /**
+     * Gets the number of messages in the batch.
+     *
+     * @return the number of messages in the batch.
+     */
+    public int messageCount()
+    {
+        return messageCount;
+    }
+
+    Session session()
+    {
+        return session;
+    }
+
+    DirectBuffer bodies()
+    {
+        return bodies;
+    }
+
+    int[] bodyOffsets()
+    {
+        return bodyOffsets;
+    }
+
+    int[] messageTypes()
+    {
+        return messageTypes;
+    }
+
+    int[] sequenceNumbers()
+    {
+        return sequenceNumbers;
+    }
+
+    int[] bodyLengths()
+    {
+        return bodyLengths;
+    }
+
+    int firstSequenceNumber()
+    {
+        return sequenceNumbers[0];
+    }
+
+    int lastSequenceNumber()
+    {
+        return sequenceNumbers[messageCount - 1];
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.engine.framer.InMemoryByteRing.SOCKET_DISCONNECTED;
+
+public class InMemoryByteRingTest
+{
+    private static final int CAPACITY = 64;
+
+    private final InMemoryByteRing ring = new InMemoryByteRing(CAPACITY);
+
+    @Test
+    public void shouldReadWrittenBytes() throws IOException
+    {
+        final byte[] data = bytes(10, 1);
+        assertEquals(10, ring.write(ByteBuffer.wrap(data)));
+
+        final ByteBuffer dst = ByteBuffer.allocateDirect(CAPACITY);
+        assertEquals(10, ring.read(dst));
+        assertEquals(10, dst.position());
+        assertArrayEquals(data, received(dst));
+
+        assertEquals(0, ring.read(dst));
+    }
+
+    @Test
+    public void shouldOnlyWriteUpToCapacity() throws IOException
+    {
+        final ByteBuffer src = ByteBuffer.wrap(bytes(CAPACITY + 10, 1));
+        assertEquals(CAPACITY, ring.write(src));
+        assertEquals(10, src.remaining());
+        assertEquals(0, ring.write(src));
+    }
+
+    @Test
+    public void shouldWrapAroundTheEndOfTheRing() throws IOException
+    {
+        final ByteBuffer dst = ByteBuffer.allocate(CAPACITY);
+        ring.write(ByteBuffer.wrap(bytes(CAPACITY - 5, 1)));
+        ring.read(dst);
+
+        final byte[] data = bytes(20, 7);
+        assertEquals(20, ring.write(ByteBuffer.wrap(data)));
+
+        dst.clear();
+        assertEquals(20, ring.read(dst));
+        assertArrayEquals(data, received(dst));
+    }
+
+    @Test
+    public void shouldReadRemainingDataBeforeDisconnectAfterWriterCloses() throws IOException
+    {
+        ring.write(ByteBuffer.wrap(bytes(10, 1)));
+        ring.closeWriter();
+
+        final ByteBuffer dst = ByteBuffer.allocate(CAPACITY);
+        assertEquals(10, ring.read(dst));
+        assertEquals(SOCKET_DISCONNECTED, ring.read(dst));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldFailWritesOnceReaderCloses() throws IOException
+    {
+        ring.closeReader();
+
+        ring.write(ByteBuffer.wrap(bytes(10, 1)));
+    }
+
+    @Test(expected = ClosedChannelException.class)
+    public void shouldFailReadsOnceReaderCloses() throws IOException
+    {
+        ring.closeReader();
+
+        ring.read(ByteBuffer.allocate(CAPACITY));
+    }
+
+    private static byte[] bytes(final int length, final int firstValue)
+    {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+        {
+            bytes[i] = (byte)(firstValue + i);
+        }
+        return bytes;
+    }
+
+    private static byte[] received(final ByteBuffer dst)
+    {
+        final byte[] bytes = new byte[dst.position()];
+        dst.flip();
+        dst.get(bytes);
+        return bytes;
+    }
+}
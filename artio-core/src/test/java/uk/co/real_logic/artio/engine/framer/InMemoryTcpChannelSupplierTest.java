@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.junit.After;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.framer.TcpChannelSupplier.InitiatedChannelHandler;
+import uk.co.real_logic.artio.engine.framer.TcpChannelSupplier.NewChannelHandler;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class InMemoryTcpChannelSupplierTest
+{
+    private static final int PORT = 9999;
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("localhost", PORT);
+
+    private final InMemoryTcpNetwork network = new InMemoryTcpNetwork(1024);
+    private final InMemoryTcpChannelSupplier acceptor = new InMemoryTcpChannelSupplier(
+        network, new EngineConfiguration().bindTo("localhost", PORT));
+    private final InMemoryTcpChannelSupplier initiator = new InMemoryTcpChannelSupplier(
+        network, new EngineConfiguration());
+
+    private final NewChannelHandler newChannelHandler = mock(NewChannelHandler.class);
+    private final InitiatedChannelHandler initiatedChannelHandler = mock(InitiatedChannelHandler.class);
+
+    @After
+    public void tearDown()
+    {
+        initiator.close();
+        acceptor.close();
+    }
+
+    @Test
+    public void shouldExchangeDataOverConnection() throws IOException
+    {
+        final TcpChannel initiated = connect();
+        final TcpChannel accepted = accept();
+
+        assertEquals(ADDRESS.toString(), initiated.remoteAddress());
+
+        assertEquals(5, initiated.write(ByteBuffer.wrap("hello".getBytes(US_ASCII))));
+        assertEquals("hello", read(accepted));
+
+        final ByteBuffer[] srcs = {
+            ByteBuffer.wrap("wor".getBytes(US_ASCII)), ByteBuffer.wrap("ld".getBytes(US_ASCII)) };
+        assertEquals(5, accepted.write(srcs, 0, 2));
+        assertEquals("world", read(initiated));
+    }
+
+    @Test
+    public void shouldDisconnectPeerOnClose() throws IOException
+    {
+        final TcpChannel initiated = connect();
+        final TcpChannel accepted = accept();
+
+        initiated.close();
+
+        assertEquals(-1, accepted.read(ByteBuffer.allocate(16)));
+    }
+
+    @Test
+    public void shouldNotBeSelectable() throws IOException
+    {
+        assertNull(connect().register(null, 0, null));
+    }
+
+    @Test
+    public void shouldRefuseConnectionsToUnboundAddresses() throws IOException
+    {
+        initiator.open(new InetSocketAddress("localhost", PORT + 1), initiatedChannelHandler);
+
+        assertEquals(1, initiator.pollSelector(0, newChannelHandler));
+
+        verify(initiatedChannelHandler).onInitiatedChannel(isNull(), any(ConnectException.class));
+    }
+
+    @Test
+    public void shouldOnlyCompleteConnectOnPoll() throws IOException
+    {
+        initiator.open(ADDRESS, initiatedChannelHandler);
+
+        verifyNoMoreInteractions(initiatedChannelHandler);
+    }
+
+    private TcpChannel connect() throws IOException
+    {
+        final TcpChannel[] channel = new TcpChannel[1];
+        initiator.open(ADDRESS, (initiatedChannel, exception) ->
+        {
+            assertNull(exception);
+            channel[0] = initiatedChannel;
+        });
+
+        assertEquals(1, initiator.pollSelector(0, newChannelHandler));
+        assertNotNull(channel[0]);
+        return channel[0];
+    }
+
+    private TcpChannel accept() throws IOException
+    {
+        final TcpChannel[] channel = new TcpChannel[1];
+        assertEquals(1, acceptor.pollSelector(0, (timeInMs, acceptedChannel) -> channel[0] = acceptedChannel));
+        assertNotNull(channel[0]);
+        verify(newChannelHandler, never()).onNewChannel(anyLong(), any());
+        return channel[0];
+    }
+
+    private static String read(final TcpChannel channel) throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        final int length = channel.read(buffer);
+        return new String(buffer.array(), 0, length, US_ASCII);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class ReceiveBufferPoolTest
+{
+    private static final int MIN_SIZE = 1024;
+    private static final int MAX_SIZE = 6000;
+
+    private final ReceiveBufferPool pool = new ReceiveBufferPool(MIN_SIZE, MAX_SIZE);
+
+    @Test
+    public void shouldAcquireSmallestSizeClassThatFits()
+    {
+        assertEquals(MIN_SIZE, pool.acquire(1).capacity());
+        assertEquals(MIN_SIZE, pool.acquire(MIN_SIZE).capacity());
+        assertEquals(2 * MIN_SIZE, pool.acquire(MIN_SIZE + 1).capacity());
+        assertEquals(4 * MIN_SIZE, pool.acquire(3 * MIN_SIZE).capacity());
+        assertEquals(MAX_SIZE, pool.acquire(5 * MIN_SIZE).capacity());
+        assertEquals(MAX_SIZE, pool.acquire(Integer.MAX_VALUE).capacity());
+    }
+
+    @Test
+    public void shouldAcquireDirectClearedBuffers()
+    {
+        final ByteBuffer buffer = pool.acquire(MIN_SIZE);
+        assertTrue(buffer.isDirect());
+        assertEquals(0, buffer.position());
+        assertEquals(MIN_SIZE, buffer.limit());
+    }
+
+    @Test
+    public void shouldCarveBuffersFromSlab()
+    {
+        final ByteBuffer buffer = pool.acquire(MIN_SIZE);
+
+        assertEquals(ReceiveBufferPool.SLAB_SIZE / MIN_SIZE - 1, pool.freeBufferCount(MIN_SIZE));
+
+        buffer.put((byte)1);
+        assertEquals(0, pool.acquire(MIN_SIZE).get(0));
+    }
+
+    @Test
+    public void shouldReuseReleasedBuffers()
+    {
+        final ByteBuffer buffer = pool.acquire(MIN_SIZE);
+        final int freeBufferCount = pool.freeBufferCount(MIN_SIZE);
+        buffer.put((byte)1);
+
+        pool.release(buffer);
+
+        assertEquals(freeBufferCount + 1, pool.freeBufferCount(MIN_SIZE));
+        final ByteBuffer reacquired = pool.acquire(MIN_SIZE);
+        assertSame(buffer, reacquired);
+        assertEquals(0, reacquired.position());
+    }
+
+    @Test
+    public void shouldGrowFreeListWhenMoreBuffersReleasedThanFitInASlab()
+    {
+        final int buffersPerSlab = ReceiveBufferPool.SLAB_SIZE / MIN_SIZE;
+        final ByteBuffer[] buffers = new ByteBuffer[buffersPerSlab * 2];
+        for (int i = 0; i < buffers.length; i++)
+        {
+            buffers[i] = pool.acquire(MIN_SIZE);
+        }
+
+        for (final ByteBuffer buffer : buffers)
+        {
+            pool.release(buffer);
+        }
+
+        assertEquals(buffers.length, pool.freeBufferCount(MIN_SIZE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectBuffersFromOutsideThePool()
+    {
+        pool.release(ByteBuffer.allocateDirect(MIN_SIZE + 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldValidateSizes()
+    {
+        new ReceiveBufferPool(MAX_SIZE, MIN_SIZE);
+    }
+}
@@ -15,9 +15,11 @@
  */
 package uk.co.real_logic.artio.engine.framer;
 
+import io.aeron.logbuffer.BufferClaim;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
 import org.junit.Before;
 import org.junit.Test;
@@ -42,6 +44,7 @@ import java.nio.channels.ClosedChannelException;
 import java.util.function.ToIntFunction;
 
 import static io.aeron.Publication.BACK_PRESSURED;
+import static io.aeron.Publication.NOT_CONNECTED;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.dictionary.ExampleDictionary.TAG_SPECIFIED_OUT_OF_REQUIRED_ORDER_MESSAGE_BYTES;
@@ -59,6 +62,8 @@ public class ReceiverEndPointTest
     private static final int LIBRARY_ID = FixEngine.ENGINE_LIBRARY_ID;
     private static final long POSITION = 1024L;
     private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int POOLED_BUFFER_SIZE = 1024;
+    private static final int POOLED_BUFFERS_PER_SLAB = ReceiveBufferPool.SLAB_SIZE / POOLED_BUFFER_SIZE;
     private static final int SEQUENCE_INDEX = 0;
     private static final int LOGON_LEN = LOGON_MESSAGE.length;
     private static final int OUT_OF_REQUIRED_ORDER_MSG_LEN = TAG_SPECIFIED_OUT_OF_REQUIRED_ORDER_MESSAGE_BYTES.length;
@@ -139,9 +144,20 @@ public class ReceiverEndPointTest
     }
 
     private void givenReceiverEndPoint(final long sessionId)
+    {
+        givenReceiverEndPoint(sessionId, null);
+    }
+
+    private void givenReceiverEndPoint(final long sessionId, final ReceiveBufferPool receiveBufferPool)
+    {
+        givenReceiverEndPoint(sessionId, receiveBufferPool, 0);
+    }
+
+    private void givenReceiverEndPoint(
+        final long sessionId, final ReceiveBufferPool receiveBufferPool, final int directClaimThreshold)
     {
         endPoint = new ReceiverEndPoint(
-            mockChannel, BUFFER_SIZE, publication,
+            mockChannel, BUFFER_SIZE, receiveBufferPool, directClaimThreshold, publication,
             CONNECTION_ID, sessionId, SEQUENCE_INDEX, mockSessionContexts,
             messagesRead, framer, errorHandler, LIBRARY_ID,
             mockGatewaySessions,
@@ -304,6 +320,189 @@ public class ReceiverEndPointTest
         sessionReceivesTwoMessageAtBufferStart();
     }
 
+    @Test
+    public void shouldReleasePooledBufferOnceMessagesFramed()
+    {
+        final ReceiveBufferPool pool = givenAPooledReceiverEndPoint(POOLED_BUFFER_SIZE);
+
+        theEndpointReceivesACompleteMessage();
+        polls(MSG_LEN);
+
+        savesAFramedMessage();
+        assertEquals(POOLED_BUFFERS_PER_SLAB, pool.freeBufferCount(POOLED_BUFFER_SIZE));
+    }
+
+    @Test
+    public void shouldRetainPooledBufferWhilstMessageIsIncomplete()
+    {
+        final ReceiveBufferPool pool = givenAPooledReceiverEndPoint(POOLED_BUFFER_SIZE);
+
+        theEndpointReceivesAnIncompleteMessage();
+        endPoint.poll();
+
+        nothingMoreSaved();
+        assertEquals(POOLED_BUFFERS_PER_SLAB - 1, pool.freeBufferCount(POOLED_BUFFER_SIZE));
+
+        theEndpointReceivesTheRestOfTheMessage();
+        endPoint.poll();
+
+        savesAFramedMessage();
+        sessionReceivesOneMessage();
+        assertEquals(POOLED_BUFFERS_PER_SLAB, pool.freeBufferCount(POOLED_BUFFER_SIZE));
+    }
+
+    @Test
+    public void shouldGrowPooledBufferForMessagesLargerThanTheSmallestBuffer()
+    {
+        final int smallBufferSize = 16;
+        givenAPooledReceiverEndPoint(smallBufferSize);
+
+        final int[] bytesReceived = {0};
+        endpointBufferUpdatedWith(
+            (buffer) ->
+            {
+                final int length = Math.min(buffer.remaining(), MSG_LEN - bytesReceived[0]);
+                buffer.put(EG_MESSAGE, bytesReceived[0], length);
+                bytesReceived[0] += length;
+                return length;
+            });
+
+        for (int i = 0; i < 10 && bytesReceived[0] < MSG_LEN; i++)
+        {
+            endPoint.poll();
+        }
+
+        savesAFramedMessage();
+        sessionReceivesOneMessage();
+    }
+
+    private ReceiveBufferPool givenAPooledReceiverEndPoint(final int minBufferSize)
+    {
+        final ReceiveBufferPool pool = new ReceiveBufferPool(minBufferSize, BUFFER_SIZE);
+        givenReceiverEndPoint(SESSION_ID, pool);
+        return pool;
+    }
+
+    @Test
+    public void shouldReadRestOfMessageDirectlyIntoClaim()
+    {
+        givenADirectClaimReceiverEndPoint();
+
+        theEndpointReceivesAnIncompleteMessage();
+        endPoint.poll();
+
+        theEndpointReceivesTheRestOfTheMessage();
+        endPoint.poll();
+
+        verify(publication).claimMessage(
+            any(BufferClaim.class), anyBuffer(), eq(0), eq(MSG_LEN - 8), eq(MSG_LEN), eq(LIBRARY_ID),
+            eq(MESSAGE_TYPE), eq(SESSION_ID), eq(SEQUENCE_INDEX), eq(CONNECTION_ID), eq(OK), eq(0), eq(TIMESTAMP));
+        committedClaimedMessage();
+    }
+
+    @Test
+    public void shouldKeepClaimOpenUntilRestOfMessageHasBeenRead()
+    {
+        givenADirectClaimReceiverEndPoint();
+
+        theEndpointReceivesAnIncompleteMessage();
+        endPoint.poll();
+
+        theEndpointReceives(EG_MESSAGE, MSG_LEN - 8, 3);
+        endPoint.poll();
+
+        theEndpointReceivesNothing();
+        endPoint.poll();
+
+        verify(publication, never()).commitMessageClaim(any(BufferClaim.class));
+
+        theEndpointReceives(EG_MESSAGE, MSG_LEN - 5, 5);
+        endPoint.poll();
+
+        verify(publication).claimMessage(
+            any(BufferClaim.class), anyBuffer(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(),
+            anyInt(), anyLong(), any(), anyInt(), anyLong());
+        committedClaimedMessage();
+    }
+
+    @Test
+    public void shouldAbortOpenClaimWhenDisconnected() throws IOException
+    {
+        givenADirectClaimReceiverEndPoint();
+
+        theEndpointReceivesAnIncompleteMessage();
+        endPoint.poll();
+
+        theEndpointReceives(EG_MESSAGE, MSG_LEN - 8, 4);
+        endPoint.poll();
+
+        theChannelIsClosed();
+        endPoint.poll();
+
+        verify(publication).abortMessageClaim(any(BufferClaim.class));
+        verify(publication, never()).commitMessageClaim(any(BufferClaim.class));
+        verifyDisconnected();
+    }
+
+    @Test
+    public void shouldNotReadIntoClaimWhenPublicationIsNotConnected()
+    {
+        givenADirectClaimReceiverEndPoint();
+        when(publication.claimMessage(
+            any(BufferClaim.class), anyBuffer(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(),
+            anyInt(), anyLong(), any(), anyInt(), anyLong()))
+            .thenReturn(NOT_CONNECTED);
+
+        theEndpointReceivesAnIncompleteMessage();
+        endPoint.poll();
+
+        theEndpointReceivesTheRestOfTheMessage();
+        endPoint.poll();
+
+        verify(publication, never()).commitMessageClaim(any(BufferClaim.class));
+        verify(publication, never()).abortMessageClaim(any(BufferClaim.class));
+        savesAFramedMessage();
+        sessionReceivesOneMessage();
+    }
+
+    private void givenADirectClaimReceiverEndPoint()
+    {
+        givenReceiverEndPoint(SESSION_ID, null, 1);
+
+        final UnsafeBuffer termBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        when(publication.maxUnfragmentedMessageLength()).thenReturn(BUFFER_SIZE / 2);
+        when(publication.claimMessage(
+            any(BufferClaim.class), anyBuffer(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(),
+            anyInt(), anyLong(), any(), anyInt(), anyLong()))
+            .then((inv) ->
+            {
+                final BufferClaim bufferClaim = inv.getArgument(0);
+                final DirectBuffer srcBuffer = inv.getArgument(1);
+                final int srcLength = inv.getArgument(4);
+                bufferClaim.wrap(termBuffer, 64, GatewayPublication.claimedBodyOffset(bufferClaim) + srcLength);
+                bufferClaim.buffer().putBytes(
+                    GatewayPublication.claimedBodyOffset(bufferClaim), srcBuffer, inv.getArgument(2),
+                    inv.getArgument(3));
+                return POSITION;
+            });
+    }
+
+    private void committedClaimedMessage()
+    {
+        verify(publication).commitMessageClaim(any(BufferClaim.class));
+        verify(publication, never()).abortMessageClaim(any(BufferClaim.class));
+        verify(gatewaySession).onMessage(
+            any(DirectBuffer.class), eq(0), eq(MSG_LEN), eq(MESSAGE_TYPE), eq(SESSION_ID));
+        noMessageSaved();
+    }
+
+    private void noMessageSaved()
+    {
+        verify(publication, never()).saveMessage(
+            anyBuffer(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), anyInt(),
+            anyLong());
+    }
+
     @Test
     public void aClosedSocketSavesItsDisconnect() throws IOException
     {
@@ -173,6 +173,53 @@ public class SenderEndPointTest
         verifyNoMoreErrors();
     }
 
+    @Test
+    public void shouldGatherQueuedMessagesIntoOneWrite() throws IOException
+    {
+        channelWillGatherWrite(2, 2 * BODY_LENGTH);
+
+        assertTrue(queueOutboundMessage(POSITION));
+        assertFalse(queueOutboundMessage(POSITION + FRAGMENT_LENGTH));
+        byteBufferNotWritten();
+
+        endPoint.flushQueuedMessages(100);
+
+        verify(tcpChannel, times(1)).write(any(ByteBuffer[].class), eq(0), eq(2));
+        assertBytesInBuffer(0);
+        verify(framer, never()).slowStatus(anyInt(), anyLong(), anyBoolean());
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldBecomeSlowConsumerOnPartialGatheringWrite() throws IOException
+    {
+        final int secondMessageWrites = 10;
+        channelWillGatherWrite(3, BODY_LENGTH + secondMessageWrites);
+
+        queueOutboundMessage(POSITION);
+        queueOutboundMessage(POSITION + FRAGMENT_LENGTH);
+        queueOutboundMessage(POSITION + 2 * FRAGMENT_LENGTH);
+
+        endPoint.flushQueuedMessages(100);
+
+        assertBytesInBuffer(BODY_LENGTH - secondMessageWrites + BODY_LENGTH);
+        verify(framer).slowStatus(LIBRARY_ID, CONNECTION_ID, true);
+        verifySlowConsumerDisconnect(never());
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldNotWriteQueuedMessagesAfterClose() throws IOException
+    {
+        queueOutboundMessage(POSITION);
+
+        endPoint.close();
+        endPoint.flushQueuedMessages(100);
+
+        verify(tcpChannel, never()).write(any(ByteBuffer[].class), anyInt(), anyInt());
+        byteBufferNotWritten();
+    }
+
     @Test
     public void shouldNotDisconnectAtStartDueToTimeout()
     {
@@ -436,6 +483,11 @@ public class SenderEndPointTest
         endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, position, timeInMs);
     }
 
+    private boolean queueOutboundMessage(final long position)
+    {
+        return endPoint.queueOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, position, 100);
+    }
+
     private void onReplayMessage(final long timeInMs, final long position)
     {
         endPoint.onReplayMessage(buffer, 0, BODY_LENGTH, timeInMs, position);
@@ -511,6 +563,18 @@ public class SenderEndPointTest
         }
     }
 
+    private void channelWillGatherWrite(final int messageCount, final long bytesWritten)
+    {
+        try
+        {
+            when(tcpChannel.write(any(ByteBuffer[].class), eq(0), eq(messageCount))).thenReturn(bytesWritten);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+
     private AtomicCounter fakeCounter()
     {
         final AtomicLong value = new AtomicLong();
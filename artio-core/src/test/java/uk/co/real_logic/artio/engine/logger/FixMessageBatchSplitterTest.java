@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.FixMessageBatchEncoder;
+import uk.co.real_logic.artio.messages.FixMessageBatchEncoder.MessagesEncoder;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+
+public class FixMessageBatchSplitterTest
+{
+    private static final int LIBRARY_ID = 3;
+    private static final long SESSION_ID = 5L;
+    private static final long CONNECTION_ID = 7L;
+    private static final long TIMESTAMP = 11L;
+    private static final int SEQUENCE_INDEX = 2;
+
+    private static final String[] BODIES = {
+        "8=FIX.4.4\0019=5\00135=0\00134=4\00110=000\001",
+        "8=FIX.4.4\0019=17\00135=1\00134=5\001112=abc\00110=000\001",
+        "8=FIX.4.4\0019=5\00135=0\00134=6\00110=000\001",
+    };
+    private static final int[] MESSAGE_TYPES = { '0', '1', '0' };
+    private static final int[] SEQUENCE_NUMBERS = { 4, 5, 6 };
+
+    private final UnsafeBuffer batchBuffer = new UnsafeBuffer(new byte[1024]);
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final FixMessageBatchSplitter batchSplitter = new FixMessageBatchSplitter();
+
+    @Before
+    public void setUp()
+    {
+        final FixMessageBatchEncoder fixMessageBatch = new FixMessageBatchEncoder();
+        final MessagesEncoder messages = fixMessageBatch
+            .wrapAndApplyHeader(batchBuffer, 0, new MessageHeaderEncoder())
+            .libraryId(LIBRARY_ID)
+            .session(SESSION_ID)
+            .connection(CONNECTION_ID)
+            .timestamp(TIMESTAMP)
+            .sequenceIndex(SEQUENCE_INDEX)
+            .messagesCount(BODIES.length);
+
+        final StringBuilder bodies = new StringBuilder();
+        for (int i = 0; i < BODIES.length; i++)
+        {
+            messages.next()
+                .messageType(MESSAGE_TYPES[i])
+                .sequenceNumber(SEQUENCE_NUMBERS[i])
+                .bodyLength(BODIES[i].length());
+            bodies.append(BODIES[i]);
+        }
+        fixMessageBatch.body(bodies.toString());
+    }
+
+    @Test
+    public void shouldReadBatchFields()
+    {
+        assertEquals(BODIES.length, wrap());
+
+        assertEquals(SESSION_ID, batchSplitter.session());
+        assertEquals(SEQUENCE_INDEX, batchSplitter.sequenceIndex());
+        for (int i = 0; i < BODIES.length; i++)
+        {
+            assertEquals(SEQUENCE_NUMBERS[i], batchSplitter.sequenceNumber(i));
+        }
+    }
+
+    @Test
+    public void shouldFrameEachMessageAsFixMessage()
+    {
+        wrap();
+
+        for (int i = 0; i < BODIES.length; i++)
+        {
+            final int frameLength = batchSplitter.frame(i);
+
+            messageHeader.wrap(batchSplitter.frameBuffer(), 0);
+            assertEquals(FixMessageDecoder.TEMPLATE_ID, messageHeader.templateId());
+
+            fixMessage.wrap(
+                batchSplitter.frameBuffer(),
+                MessageHeaderDecoder.ENCODED_LENGTH,
+                messageHeader.blockLength(),
+                messageHeader.version());
+            assertEquals(LIBRARY_ID, fixMessage.libraryId());
+            assertEquals(MESSAGE_TYPES[i], fixMessage.messageType());
+            assertEquals(SESSION_ID, fixMessage.session());
+            assertEquals(SEQUENCE_INDEX, fixMessage.sequenceIndex());
+            assertEquals(CONNECTION_ID, fixMessage.connection());
+            assertEquals(TIMESTAMP, fixMessage.timestamp());
+            assertEquals(OK, fixMessage.status());
+            assertEquals(SEQUENCE_NUMBERS[i], fixMessage.sequenceNumber());
+            assertEquals(BODIES[i], fixMessage.body());
+            assertEquals(frameLength, fixMessage.limit());
+        }
+    }
+
+    @Test
+    public void shouldFrameMessagesOutOfOrder()
+    {
+        wrap();
+
+        batchSplitter.frame(2);
+        batchSplitter.frame(0);
+
+        fixMessage.wrap(
+            batchSplitter.frameBuffer(),
+            MessageHeaderDecoder.ENCODED_LENGTH,
+            FixMessageDecoder.BLOCK_LENGTH,
+            FixMessageDecoder.SCHEMA_VERSION);
+        assertEquals(BODIES[0], fixMessage.body());
+    }
+
+    private int wrap()
+    {
+        messageHeader.wrap(batchBuffer, 0);
+        return batchSplitter.wrap(
+            batchBuffer, MessageHeaderDecoder.ENCODED_LENGTH, messageHeader.blockLength(), messageHeader.version());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.otf.TagIndex;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.*;
+
+public class FixMessagePredicatesTest
+{
+    private static final String MESSAGE =
+        "35=D\00149=abc\00156=venue-1\00138=100\00144=-12.50\0015001=A\00158=text\001";
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[1024]);
+    private final TagIndex tagIndex = new TagIndex();
+
+    @Before
+    public void setUp()
+    {
+        index(MESSAGE);
+    }
+
+    @Test
+    public void shouldMatchTagsWithValue()
+    {
+        assertTrue(tagValueOf(49, "abc").test(tagIndex));
+        assertFalse(tagValueOf(49, "abd").test(tagIndex));
+        assertFalse(tagValueOf(50, "abc").test(tagIndex));
+    }
+
+    @Test
+    public void shouldMatchTagsEqualToBytes()
+    {
+        assertTrue(tagEquals(49, "abc".getBytes(US_ASCII)).test(tagIndex));
+        assertFalse(tagEquals(49, "abd".getBytes(US_ASCII)).test(tagIndex));
+        assertFalse(tagEquals(50, "abc".getBytes(US_ASCII)).test(tagIndex));
+    }
+
+    @Test
+    public void shouldMatchTagsInSetOfValues()
+    {
+        assertTrue(tagIn(35, "8", "D", "G").test(tagIndex));
+        assertFalse(tagIn(35, "8", "G").test(tagIndex));
+        assertFalse(tagIn(50, "D").test(tagIndex));
+    }
+
+    @Test
+    public void shouldMatchTagsWithPrefix()
+    {
+        assertTrue(tagPrefix(56, "venue-").test(tagIndex));
+        assertFalse(tagPrefix(56, "venue-2").test(tagIndex));
+        assertFalse(tagPrefix(50, "venue-").test(tagIndex));
+    }
+
+    @Test
+    public void shouldMatchTagsWithinNumericRange()
+    {
+        assertTrue(tagBetween(38, 100, 100).test(tagIndex));
+        assertFalse(tagBetween(38, 101, 200).test(tagIndex));
+        assertTrue(tagBetween(44, new DecimalFloat(-13), new DecimalFloat(-12)).test(tagIndex));
+        assertFalse(tagBetween(44, new DecimalFloat(-1250, 3), new DecimalFloat(0)).test(tagIndex));
+    }
+
+    @Test
+    public void shouldNotMatchNonNumericTagsWithinNumericRange()
+    {
+        assertFalse(tagBetween(58, DecimalFloat.MIN_VALUE, DecimalFloat.MAX_VALUE).test(tagIndex));
+        assertFalse(tagBetween(50, DecimalFloat.MIN_VALUE, DecimalFloat.MAX_VALUE).test(tagIndex));
+    }
+
+    @Test
+    public void shouldNotMatchMalformedOrOutOfRangeNumbersWithinNumericRange()
+    {
+        assertNotBetween("+1");
+        assertNotBetween("1 2");
+        assertNotBetween("1234567890123456789");
+        assertNotBetween("1.2345678901234567890");
+    }
+
+    @Test
+    public void shouldMatchPaddedNumbersWithinNumericRange()
+    {
+        index("38= 12.5000 \001");
+        assertTrue(tagBetween(38, new DecimalFloat(125, 1), new DecimalFloat(125, 1)).test(tagIndex));
+
+        index("38=123456789012345678.000\001");
+        assertTrue(tagBetween(38, DecimalFloat.MIN_VALUE, DecimalFloat.MAX_VALUE).test(tagIndex));
+    }
+
+    @Test
+    public void shouldComposeTagPredicates()
+    {
+        assertTrue(tagIn(35, "D").and(tagPrefix(56, "venue")).test(tagIndex));
+        assertFalse(tagIn(35, "D").and(tagBetween(38, 0, 10)).test(tagIndex));
+        assertTrue(tagValueOf(5001, "B").or(tagBetween(38, 0, 100)).test(tagIndex));
+    }
+
+    private void assertNotBetween(final String value)
+    {
+        index("38=" + value + "\001");
+        assertFalse(value, tagBetween(38, DecimalFloat.MIN_VALUE, DecimalFloat.MAX_VALUE).test(tagIndex));
+    }
+
+    private void index(final String message)
+    {
+        buffer.putAscii(0, message);
+        tagIndex.index(buffer, 0, message.length());
+    }
+}
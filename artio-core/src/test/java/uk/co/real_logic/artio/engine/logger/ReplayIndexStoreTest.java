@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.AtomicBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordDecoder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.INITIAL_RECORD_OFFSET;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.RECORD_LENGTH;
+
+public class ReplayIndexStoreTest
+{
+    private static final String LOG_FILE_DIR = IoUtil.tmpDirName() + "replay-index-store-test";
+    private static final int STREAM_ID = 1;
+    private static final int REGION_SIZE = INITIAL_RECORD_OFFSET + 16 * RECORD_LENGTH;
+    private static final int REGIONS_PER_SEGMENT = 2;
+    private static final int MAX_SESSIONS = 4;
+
+    private ReplayIndexStore writer;
+    private ReplayIndexStore reader;
+
+    @Before
+    public void setUp()
+    {
+        final File logFileDir = new File(LOG_FILE_DIR);
+        IoUtil.delete(logFileDir, true);
+        IoUtil.ensureDirectoryExists(logFileDir, LOG_FILE_DIR);
+
+        writer = newStore();
+        reader = newStore();
+    }
+
+    @After
+    public void tearDown()
+    {
+        writer.close();
+        reader.close();
+        IoUtil.delete(new File(LOG_FILE_DIR), true);
+    }
+
+    @Test
+    public void shouldClaimARegionPerSession()
+    {
+        final AtomicBuffer region = writer.claimRegion(1);
+        final AtomicBuffer otherRegion = writer.claimRegion(2);
+
+        assertEquals(REGION_SIZE, region.capacity());
+        assertNotEquals(region.addressOffset(), otherRegion.addressOffset());
+        assertSame(region, writer.claimRegion(1));
+    }
+
+    @Test
+    public void shouldWriteHeaderOfNewRegions()
+    {
+        final AtomicBuffer region = writer.claimRegion(1);
+
+        final MessageHeaderDecoder header = new MessageHeaderDecoder().wrap(region, 0);
+        assertEquals(ReplayIndexRecordDecoder.TEMPLATE_ID, header.templateId());
+        assertEquals(ReplayIndexRecordDecoder.BLOCK_LENGTH, header.blockLength());
+    }
+
+    @Test
+    public void shouldFindRegionsClaimedByTheWriter()
+    {
+        assertNull(reader.findRegion(1));
+
+        writer.claimRegion(1).putLong(INITIAL_RECORD_OFFSET, 42L);
+
+        assertEquals(42L, reader.findRegion(1).getLong(INITIAL_RECORD_OFFSET));
+        assertNull(reader.findRegion(2));
+    }
+
+    @Test
+    public void shouldKeepRegionsWhenReopened()
+    {
+        writer.claimRegion(3).putLong(INITIAL_RECORD_OFFSET, 42L);
+        writer.close();
+
+        writer = newStore();
+
+        assertEquals(42L, writer.claimRegion(3).getLong(INITIAL_RECORD_OFFSET));
+    }
+
+    @Test
+    public void shouldNotClaimRegionsOnceFull()
+    {
+        for (int sessionId = 1; sessionId <= MAX_SESSIONS; sessionId++)
+        {
+            assertNotNull(writer.claimRegion(sessionId));
+        }
+
+        assertNull(writer.claimRegion(MAX_SESSIONS + 1));
+        assertNotNull(writer.claimRegion(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectStoreWithADifferentRegionSize()
+    {
+        new ReplayIndexStore(LOG_FILE_DIR, STREAM_ID, INITIAL_RECORD_OFFSET + 32 * RECORD_LENGTH,
+            REGIONS_PER_SEGMENT, MAX_SESSIONS);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectStoreWithADifferentNumberOfRegionsPerSegment()
+    {
+        new ReplayIndexStore(LOG_FILE_DIR, STREAM_ID, REGION_SIZE, REGIONS_PER_SEGMENT * 2, MAX_SESSIONS);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectStoreWithADifferentMaximumNumberOfSessions()
+    {
+        new ReplayIndexStore(LOG_FILE_DIR, STREAM_ID, REGION_SIZE, REGIONS_PER_SEGMENT, MAX_SESSIONS * 2);
+    }
+
+    private ReplayIndexStore newStore()
+    {
+        return new ReplayIndexStore(LOG_FILE_DIR, STREAM_ID, REGION_SIZE, REGIONS_PER_SEGMENT, MAX_SESSIONS);
+    }
+}
@@ -52,6 +52,7 @@ import static uk.co.real_logic.artio.TestFixtures.largeTestReqId;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
 import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.RECORD_LENGTH;
 import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.REPLAY_POSITION_BUFFER_SIZE;
+import static uk.co.real_logic.artio.engine.logger.ReplayQuery.UNBOUNDED_RANGE_GAP;
 import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
 
 public class ReplayIndexTest extends AbstractLogTest
@@ -126,7 +127,9 @@ public class ReplayIndexTest extends AbstractLogTest
             new NoOpIdleStrategy(),
             aeronArchive,
             errorHandler,
-            DEFAULT_ARCHIVE_REPLAY_STREAM);
+            DEFAULT_ARCHIVE_REPLAY_STREAM,
+            null,
+            true);
 
         returnBuffer(indexBuffer, SESSION_ID);
         returnBuffer(ByteBuffer.allocate(16 * 1024), SESSION_ID_2);
@@ -242,6 +245,21 @@ public class ReplayIndexTest extends AbstractLogTest
         verifyMessagesRead(2);
     }
 
+    @Test(timeout = 20_000L)
+    public void shouldReplaySeparateRangesAroundOtherSessionsMessages()
+    {
+        indexExampleMessage(SESSION_ID, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+        indexExampleMessage(SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+        indexExampleMessage(SESSION_ID_2, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexExampleMessage(SESSION_ID, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+
+        final int msgCount = query(
+            SESSION_ID, SEQUENCE_NUMBER, SEQUENCE_INDEX, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX, 0);
+
+        assertEquals(2, msgCount);
+        verifyMessagesRead(2);
+    }
+
     @Test(timeout = 20_000L)
     public void shouldNotReturnLogEntriesWithOutOfRangeSequenceNumbers()
     {
@@ -269,6 +287,25 @@ public class ReplayIndexTest extends AbstractLogTest
         assertEquals(2, msgCount);
     }
 
+    @Test(timeout = 20_000L)
+    public void shouldQueryWithinASequenceIndexAfterSequenceResets()
+    {
+        final int messagesPerSequenceIndex = 50;
+        for (int sequenceIndex = SEQUENCE_INDEX; sequenceIndex < SEQUENCE_INDEX + 3; sequenceIndex++)
+        {
+            for (int sequenceNumber = 1; sequenceNumber <= messagesPerSequenceIndex; sequenceNumber++)
+            {
+                indexExampleMessage(SESSION_ID, sequenceNumber, sequenceIndex);
+            }
+        }
+
+        final int nextSequenceIndex = SEQUENCE_INDEX + 1;
+        final int msgCount = query(10, nextSequenceIndex, 20, nextSequenceIndex);
+
+        assertEquals(11, msgCount);
+        verifyMessagesRead(11);
+    }
+
     @Test //(timeout = 20_000L)
     public void shouldNotStopIndexingWhenBufferFull()
     {
@@ -421,6 +458,23 @@ public class ReplayIndexTest extends AbstractLogTest
         final int beginSequenceIndex,
         final int endSequenceNumber,
         final int endSequenceIndex)
+    {
+        return query(
+            sessionId,
+            beginSequenceNumber,
+            beginSequenceIndex,
+            endSequenceNumber,
+            endSequenceIndex,
+            UNBOUNDED_RANGE_GAP);
+    }
+
+    private int query(
+        final long sessionId,
+        final int beginSequenceNumber,
+        final int beginSequenceIndex,
+        final int endSequenceNumber,
+        final int endSequenceIndex,
+        final long maxRangeGap)
     {
         final ReplayOperation operation = query.query(
             mockHandler,
@@ -429,7 +483,8 @@ public class ReplayIndexTest extends AbstractLogTest
             beginSequenceIndex,
             endSequenceNumber,
             endSequenceIndex,
-            REPLAY);
+            REPLAY,
+            maxRangeGap);
 
         final IdleStrategy idleStrategy = CommonConfiguration.backoffIdleStrategy();
         while (!operation.attemptReplay())
@@ -73,6 +73,8 @@ public class ReplayerTest extends AbstractLogTest
             "112=a12345678910123456789101234567891012345\00110=005\001").getBytes(US_ASCII);
 
     private static final int MAX_CLAIM_ATTEMPTS = 100;
+    private static final int MAX_CONCURRENT_REPLAYS = 2;
+    private static final long MAX_REPLAY_BYTES_IN_FLIGHT = 1024;
 
     private ReplayQuery replayQuery = mock(ReplayQuery.class);
     private Subscription subscription = mock(Subscription.class);
@@ -104,11 +106,14 @@ public class ReplayerTest extends AbstractLogTest
 
         replayer = new Replayer(
             replayQuery,
+            new ResendCache(STREAM_ID, 1, 1, 0, 0, errorHandler),
             publication,
             claim,
             idleStrategy,
             errorHandler,
             MAX_CLAIM_ATTEMPTS,
+            MAX_CONCURRENT_REPLAYS,
+            MAX_REPLAY_BYTES_IN_FLIGHT,
             subscription,
             DEFAULT_NAME_PREFIX,
             clock,
@@ -196,6 +201,47 @@ public class ReplayerTest extends AbstractLogTest
         assertHasResentWithPossDupFlag(srcLength, times(2));
     }
 
+    @Test
+    public void shouldLimitConcurrentReplays()
+    {
+        final ReplayOperation[] operations = onResendRequests(MAX_CONCURRENT_REPLAYS + 1, 0);
+
+        replayer.doWork();
+
+        verify(operations[0]).attemptReplay();
+        verify(operations[1]).attemptReplay();
+        verify(operations[2], never()).attemptReplay();
+
+        completeReplay(operations[0]);
+
+        verify(operations[2], atLeastOnce()).attemptReplay();
+    }
+
+    @Test
+    public void shouldLimitReplayBytesInFlight()
+    {
+        final ReplayOperation[] operations = onResendRequests(2, MAX_REPLAY_BYTES_IN_FLIGHT - 1);
+
+        replayer.doWork();
+
+        verify(operations[0]).attemptReplay();
+        verify(operations[1], never()).attemptReplay();
+
+        completeReplay(operations[0]);
+
+        verify(operations[1], atLeastOnce()).attemptReplay();
+    }
+
+    @Test
+    public void shouldReplayRequestsLargerThanBytesInFlightLimit()
+    {
+        final ReplayOperation[] operations = onResendRequests(1, MAX_REPLAY_BYTES_IN_FLIGHT + 1);
+
+        replayer.doWork();
+
+        verify(operations[0]).attemptReplay();
+    }
+
     @Test
     public void shouldGapFillAdminMessages()
     {
@@ -652,6 +698,44 @@ public class ReplayerTest extends AbstractLogTest
         onMessage(ResendRequestDecoder.MESSAGE_TYPE, result, COMMIT);
     }
 
+    private ReplayOperation[] onResendRequests(final int count, final long replayLength)
+    {
+        setupCapturingClaim();
+
+        final ReplayOperation[] operations = new ReplayOperation[count];
+        for (int i = 0; i < count; i++)
+        {
+            final ReplayOperation operation = mock(ReplayOperation.class);
+            when(operation.replayedMessages()).thenReturn(1);
+            when(operation.replayLength()).thenReturn(replayLength);
+            operations[i] = operation;
+        }
+
+        OngoingStubbing<ReplayOperation> stubbing =
+            when(replayQuery.query(any(), anyLong(), anyInt(), anyInt(), anyInt(), anyInt(), any()));
+        for (final ReplayOperation operation : operations)
+        {
+            stubbing = stubbing.thenReturn(operation);
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            onRequestResendMessage(bufferHasResendRequest(END_SEQ_NO));
+        }
+
+        return operations;
+    }
+
+    // Completing a replay takes a few duty cycles, sending any gap fill and then the replay complete message
+    private void completeReplay(final ReplayOperation operation)
+    {
+        when(operation.attemptReplay()).thenReturn(true);
+        for (int i = 0; i < 4; i++)
+        {
+            replayer.doWork();
+        }
+    }
+
     private void onReplayOtherSession(final int endSeqNo)
     {
         whenReplayQueried().thenReturn(true);
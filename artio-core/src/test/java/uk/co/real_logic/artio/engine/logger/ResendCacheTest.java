@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.ErrorHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
+
+public class ResendCacheTest extends AbstractLogTest
+{
+    private static final int CACHE_SIZE = 2;
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final Header fragmentHeader = mock(Header.class);
+    private final ControlledFragmentHandler handler = mock(ControlledFragmentHandler.class);
+
+    private final ResendCache resendCache = new ResendCache(
+        STREAM_ID, 1, 1, CACHE_SIZE, MAX_MESSAGE_LENGTH, errorHandler);
+
+    @Before
+    public void setUp()
+    {
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID);
+        when(fragmentHeader.flags()).thenReturn(UNFRAGMENTED);
+        when(handler.onFragment(any(), anyInt(), anyInt(), any())).thenReturn(CONTINUE);
+    }
+
+    @Test
+    public void shouldReplayCachedMessages()
+    {
+        final int length = indexExampleMessage(SEQUENCE_NUMBER);
+        indexExampleMessage(SEQUENCE_NUMBER + 1);
+
+        final ResendCache.CachedReplay replay = resendCache.replay(
+            handler, SESSION_ID, SEQUENCE_INDEX, SEQUENCE_NUMBER, SEQUENCE_NUMBER);
+
+        assertNotNull(replay);
+        assertTrue(replay.attemptReplay());
+        assertFalse(replay.lapped());
+        assertEquals(1, replay.replayedMessages());
+        verify(handler).onFragment(any(), anyInt(), eq(length), any());
+    }
+
+    @Test
+    public void shouldReplayUpToMostRecentMessage()
+    {
+        indexExampleMessage(SEQUENCE_NUMBER);
+        indexExampleMessage(SEQUENCE_NUMBER + 1);
+
+        final ResendCache.CachedReplay replay = resendCache.replay(
+            handler, SESSION_ID, SEQUENCE_INDEX, SEQUENCE_NUMBER, MOST_RECENT_MESSAGE);
+
+        assertTrue(replay.attemptReplay());
+        assertEquals(2, replay.replayedMessages());
+    }
+
+    @Test
+    public void shouldNotReplayRangesThatStartBeforeTheCache()
+    {
+        indexExampleMessage(SEQUENCE_NUMBER);
+        indexExampleMessage(SEQUENCE_NUMBER + 1);
+        indexExampleMessage(SEQUENCE_NUMBER + 2);
+
+        assertNull(resendCache.replay(handler, SESSION_ID, SEQUENCE_INDEX, SEQUENCE_NUMBER, MOST_RECENT_MESSAGE));
+        assertNotNull(resendCache.replay(
+            handler, SESSION_ID, SEQUENCE_INDEX, SEQUENCE_NUMBER + 1, MOST_RECENT_MESSAGE));
+    }
+
+    @Test
+    public void shouldNotReplayUnknownSessions()
+    {
+        indexExampleMessage(SEQUENCE_NUMBER);
+
+        assertNull(resendCache.replay(handler, SESSION_ID_2, SEQUENCE_INDEX, SEQUENCE_NUMBER, MOST_RECENT_MESSAGE));
+    }
+
+    @Test
+    public void shouldNotReplayAfterFragmentedMessage()
+    {
+        indexExampleMessage(SEQUENCE_NUMBER);
+        when(fragmentHeader.flags()).thenReturn(BEGIN_FRAG_FLAG);
+        indexExampleMessage(SEQUENCE_NUMBER + 1);
+
+        assertNull(resendCache.replay(handler, SESSION_ID, SEQUENCE_INDEX, SEQUENCE_NUMBER, MOST_RECENT_MESSAGE));
+    }
+
+    @Test
+    public void shouldResumeReplayAfterAbort()
+    {
+        indexExampleMessage(SEQUENCE_NUMBER);
+        indexExampleMessage(SEQUENCE_NUMBER + 1);
+        when(handler.onFragment(any(), anyInt(), anyInt(), any())).thenReturn(CONTINUE, ABORT, CONTINUE);
+
+        final ResendCache.CachedReplay replay = resendCache.replay(
+            handler, SESSION_ID, SEQUENCE_INDEX, SEQUENCE_NUMBER, MOST_RECENT_MESSAGE);
+
+        assertFalse(replay.attemptReplay());
+        assertEquals(1, replay.replayedMessages());
+        assertTrue(replay.attemptReplay());
+        assertEquals(2, replay.replayedMessages());
+    }
+
+    @Test
+    public void shouldBeLappedWhenMessagesAreOverwrittenDuringReplay()
+    {
+        indexExampleMessage(SEQUENCE_NUMBER);
+        indexExampleMessage(SEQUENCE_NUMBER + 1);
+        when(handler.onFragment(any(), anyInt(), anyInt(), any())).thenReturn(ABORT);
+
+        final ResendCache.CachedReplay replay = resendCache.replay(
+            handler, SESSION_ID, SEQUENCE_INDEX, SEQUENCE_NUMBER, MOST_RECENT_MESSAGE);
+        assertFalse(replay.attemptReplay());
+
+        indexExampleMessage(SEQUENCE_NUMBER + 2);
+
+        assertTrue(replay.attemptReplay());
+        assertTrue(replay.lapped());
+        assertEquals(0, replay.replayedMessages());
+    }
+
+    private int indexExampleMessage(final int sequenceNumber)
+    {
+        bufferContainsExampleMessage(true, SESSION_ID, sequenceNumber, SEQUENCE_INDEX);
+        final int length = fragmentLength();
+        resendCache.onFragment(buffer, START, length, fragmentHeader);
+        return length;
+    }
+}
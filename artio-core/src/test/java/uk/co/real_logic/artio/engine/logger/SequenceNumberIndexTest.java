@@ -25,6 +25,7 @@ import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.hamcrest.Matchers;
 import org.junit.After;
 import org.junit.Before;
@@ -41,6 +42,7 @@ import java.io.File;
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static org.agrona.IoUtil.deleteIfExists;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
@@ -203,6 +205,38 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         }
     }
 
+    @Test
+    public void shouldSyncDirtySectorsOnTimeout()
+    {
+        writer.close();
+        deleteFiles();
+
+        final IndexFileSyncer indexFileSyncer = new IndexFileSyncer();
+        final AtomicCounter durablePosition = new AtomicCounter(new UnsafeBuffer(new byte[128]), 0);
+        writer = new SequenceNumberIndexWriter(inMemoryBuffer, newIndexFile(), errorHandler, STREAM_ID,
+            recordingIdLookup, DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS, clock, indexFileSyncer, durablePosition);
+
+        bufferContainsExampleMessage(true);
+        final long position = indexRecord();
+        assertEquals(0, indexFileSyncer.doWork());
+
+        clock.advanceMilliSeconds(DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS + 1);
+        assertEquals(1, writer.doWork());
+        assertEquals(1, indexFileSyncer.doWork());
+        assertEquals(0, indexFileSyncer.doWork());
+        assertEquals(position, durablePosition.get());
+
+        try (MappedFile mappedFile = newIndexFile())
+        {
+            final SequenceNumberIndexReader newReader = new SequenceNumberIndexReader(
+                mappedFile.buffer(), errorHandler);
+
+            assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER, newReader);
+            assertEquals(position, newReader.indexedPosition(publication.sessionId()));
+        }
+        assertFalse(writableFile(INDEX_FILE_PATH).exists());
+    }
+
     /**
      * Simulate scenario that you've crashed halfway through file flip.
      */
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+
+import java.io.File;
+
+import static io.aeron.logbuffer.FrameDescriptor.END_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.logger.TimeIndexReader.UNKNOWN_POSITION;
+
+public class TimeIndexTest
+{
+    private static final String LOG_FILE_DIR = IoUtil.tmpDirName() + "time-index-test";
+    private static final int STREAM_ID = 1;
+    private static final int AERON_SESSION_ID = 2;
+    private static final long RECORDING_ID = 3;
+    private static final long OTHER_RECORDING_ID = 4;
+    private static final int MESSAGE_LENGTH = 96;
+    private static final int FRAME_LENGTH = MESSAGE_LENGTH + DataHeaderFlyweight.HEADER_LENGTH;
+    private static final long INTERVAL = 2 * FRAME_LENGTH;
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[MESSAGE_LENGTH]);
+    private final Header header = mock(Header.class);
+    private final RecordingIdLookup recordingIdLookup = mock(RecordingIdLookup.class);
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+
+    private TimeIndex timeIndex;
+    private long position;
+
+    @Before
+    public void setUp()
+    {
+        final File logFileDir = new File(LOG_FILE_DIR);
+        IoUtil.delete(logFileDir, true);
+        IoUtil.ensureDirectoryExists(logFileDir, LOG_FILE_DIR);
+
+        when(header.streamId()).thenReturn(STREAM_ID);
+        when(header.sessionId()).thenReturn(AERON_SESSION_ID);
+        when(header.flags()).thenReturn(UNFRAGMENTED);
+        when(header.position()).then(inv -> position);
+        when(recordingIdLookup.getRecordingId(AERON_SESSION_ID)).thenReturn(RECORDING_ID);
+
+        timeIndex = newTimeIndex();
+    }
+
+    @After
+    public void tearDown()
+    {
+        timeIndex.close();
+        IoUtil.delete(new File(LOG_FILE_DIR), true);
+    }
+
+    @Test
+    public void shouldFindPositionsOfATimeRange()
+    {
+        indexMessages(0, 10);
+
+        final TimeIndexReader reader = newReader();
+
+        // Records are written every other message, with timestamps 0, 2, 4, ...
+        assertEquals(2 * FRAME_LENGTH, reader.startPosition(RECORDING_ID, 3));
+        assertEquals(2 * FRAME_LENGTH, reader.startPosition(RECORDING_ID, 4));
+        assertEquals(6 * FRAME_LENGTH, reader.stopPosition(RECORDING_ID, 5));
+        assertEquals(6 * FRAME_LENGTH, reader.stopPosition(RECORDING_ID, 6));
+    }
+
+    @Test
+    public void shouldScanWholeRecordingOutsideOfIndexedTimes()
+    {
+        indexMessages(10, 10);
+
+        final TimeIndexReader reader = newReader();
+
+        assertEquals(UNKNOWN_POSITION, reader.startPosition(RECORDING_ID, 5));
+        assertEquals(UNKNOWN_POSITION, reader.stopPosition(RECORDING_ID, 100));
+        assertEquals(UNKNOWN_POSITION, reader.startPosition(OTHER_RECORDING_ID, 15));
+    }
+
+    @Test
+    public void shouldNotStartAfterOutOfOrderMessages()
+    {
+        indexMessage(10);
+        indexMessage(11);
+        indexMessage(5);
+        indexMessage(12);
+
+        final TimeIndexReader reader = newReader();
+
+        // The record at the third message has timestamp 11, so a scan from 6 starts at the first message.
+        assertEquals(UNKNOWN_POSITION, reader.startPosition(RECORDING_ID, 6));
+        assertEquals(2 * FRAME_LENGTH, reader.startPosition(RECORDING_ID, 12));
+    }
+
+    @Test
+    public void shouldIndexRecordingsSeparately()
+    {
+        indexMessages(0, 4);
+        when(recordingIdLookup.getRecordingId(AERON_SESSION_ID)).thenReturn(OTHER_RECORDING_ID);
+        position = 0;
+        indexMessages(100, 4);
+
+        final TimeIndexReader reader = newReader();
+
+        assertEquals(2 * FRAME_LENGTH, reader.startPosition(RECORDING_ID, 50));
+        assertEquals(2 * FRAME_LENGTH, reader.startPosition(OTHER_RECORDING_ID, 150));
+        assertEquals(0, reader.stopPosition(OTHER_RECORDING_ID, 50));
+    }
+
+    @Test
+    public void shouldAppendToExistingIndex()
+    {
+        indexMessages(0, 2);
+        timeIndex.close();
+
+        timeIndex = newTimeIndex();
+        indexMessages(2, 2);
+
+        assertEquals(2 * FRAME_LENGTH, newReader().startPosition(RECORDING_ID, 3));
+    }
+
+    @Test
+    public void shouldNotIndexContinuationFragments()
+    {
+        when(header.flags()).thenReturn(END_FRAG_FLAG);
+        indexMessages(0, 4);
+
+        assertEquals(UNKNOWN_POSITION, newReader().startPosition(RECORDING_ID, 10));
+    }
+
+    private void indexMessages(final long firstTimestamp, final int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            indexMessage(firstTimestamp + i);
+        }
+    }
+
+    private void indexMessage(final long timestamp)
+    {
+        new FixMessageEncoder()
+            .wrapAndApplyHeader(buffer, 0, new MessageHeaderEncoder())
+            .timestamp(timestamp);
+
+        position += FRAME_LENGTH;
+        timeIndex.onFragment(buffer, 0, MESSAGE_LENGTH, header);
+    }
+
+    private TimeIndex newTimeIndex()
+    {
+        return new TimeIndex(LOG_FILE_DIR, STREAM_ID, INTERVAL, recordingIdLookup, errorHandler);
+    }
+
+    private TimeIndexReader newReader()
+    {
+        return new TimeIndexReader(LOG_FILE_DIR, STREAM_ID);
+    }
+}
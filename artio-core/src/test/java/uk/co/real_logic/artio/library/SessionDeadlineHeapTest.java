@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import uk.co.real_logic.artio.session.InternalSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class SessionDeadlineHeapTest
+{
+    private final SessionDeadlineHeap heap = new SessionDeadlineHeap();
+
+    @Test
+    public void shouldOnlyPollSessionsWithExpiredDeadlines()
+    {
+        final InternalSession due = session(100);
+        final InternalSession notDue = session(200);
+        heap.add(notDue);
+        heap.add(due);
+
+        heap.poll(150);
+
+        verify(due).poll(150);
+        verify(notDue, never()).poll(anyLong());
+    }
+
+    @Test
+    public void shouldPollSessionsInDeadlineOrder()
+    {
+        final InternalSession[] sessions = new InternalSession[8];
+        final int[] deadlines = { 50, 10, 70, 30, 80, 20, 60, 40 };
+        for (int i = 0; i < sessions.length; i++)
+        {
+            sessions[i] = session(deadlines[i]);
+            heap.add(sessions[i]);
+        }
+
+        heap.poll(100);
+
+        final InOrder inOrder = inOrder((Object[])sessions);
+        for (final int index : new int[]{ 1, 5, 3, 7, 0, 6, 2, 4 })
+        {
+            inOrder.verify(sessions[index]).poll(100);
+        }
+    }
+
+    @Test
+    public void shouldRescheduleSessionWithRefreshedDeadlineAfterPolling()
+    {
+        final InternalSession session = session(100);
+        heap.add(session);
+
+        when(session.pollDeadlineInMs()).thenReturn(300L);
+        heap.poll(100);
+        heap.poll(200);
+
+        verify(session, times(1)).poll(anyLong());
+
+        heap.poll(300);
+
+        verify(session).poll(300);
+    }
+
+    @Test
+    public void shouldPollSessionWhoseDeadlineWasBroughtForward()
+    {
+        final InternalSession session = session(300);
+        heap.add(session);
+
+        when(session.pollDeadlineInMs()).thenReturn(0L);
+        heap.onPollDeadlineChanged(session);
+        heap.poll(100);
+
+        verify(session).poll(100);
+    }
+
+    @Test
+    public void shouldPollSessionThatStillHasSomethingDueOnlyOncePerPoll()
+    {
+        final InternalSession session = session(0);
+        heap.add(session);
+
+        heap.poll(100);
+        heap.poll(100);
+
+        verify(session, times(1)).poll(anyLong());
+
+        heap.poll(101);
+
+        verify(session).poll(101);
+    }
+
+    @Test
+    public void shouldNotPollRemovedSessions()
+    {
+        final InternalSession removed = session(100);
+        final InternalSession remaining = session(100);
+        heap.add(removed);
+        heap.add(remaining);
+
+        heap.remove(removed);
+        heap.poll(100);
+
+        verify(removed, never()).poll(anyLong());
+        verify(removed).pollDeadlineListener(null);
+        verify(remaining).poll(100);
+        assertEquals(1, heap.size());
+    }
+
+    private InternalSession session(final long pollDeadlineInMs)
+    {
+        final InternalSession session = mock(InternalSession.class);
+        when(session.pollDeadlineInMs()).thenReturn(pollDeadlineInMs);
+        return session;
+    }
+}
@@ -35,13 +35,17 @@ import uk.co.real_logic.artio.messages.SessionState;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
+import java.util.Arrays;
+
 import static io.aeron.Publication.BACK_PRESSURED;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_REASONABLE_TRANSMISSION_TIME_IN_S;
@@ -891,6 +895,91 @@ public abstract class AbstractSessionTest
         assertThat(secondMessage, containsString(":01.000\001"));
     }
 
+    @Test
+    public void shouldSendBatchOfMessagesWithConsecutiveSequenceNumbers()
+    {
+        givenActive();
+        final SessionBatch batch = givenBatchOfTestRequests(3);
+        when(saveMessageBatch()).thenReturn(POSITION);
+
+        assertEquals(POSITION, session().sendBatch(batch));
+
+        final ArgumentCaptor<int[]> bodyOffsets = ArgumentCaptor.forClass(int[].class);
+        final ArgumentCaptor<int[]> sequenceNumbers = ArgumentCaptor.forClass(int[].class);
+        final ArgumentCaptor<int[]> bodyLengths = ArgumentCaptor.forClass(int[].class);
+        verify(mockPublication).saveMessageBatch(
+            bufferCaptor.capture(),
+            bodyOffsets.capture(),
+            any(int[].class),
+            sequenceNumbers.capture(),
+            bodyLengths.capture(),
+            eq(3),
+            eq(LIBRARY_ID),
+            anyLong(),
+            eq(SEQUENCE_INDEX),
+            eq(CONNECTION_ID));
+        assertArrayEquals(new int[]{ 1, 2, 3 }, Arrays.copyOf(sequenceNumbers.getValue(), 3));
+
+        for (int i = 0; i < 3; i++)
+        {
+            final String body = bufferCaptor.getValue().getStringWithoutLengthAscii(
+                bodyOffsets.getValue()[i], bodyLengths.getValue()[i]);
+            assertThat(body, startsWith("8=FIX"));
+            assertThat(body, containsString("\00134=" + (i + 1) + "\001"));
+            assertThat(body, endsWith("\001"));
+        }
+        assertEquals(3, session().lastSentMsgSeqNum());
+        assertEquals(0, batch.messageCount());
+    }
+
+    @Test
+    public void shouldKeepBatchWhenBackPressured()
+    {
+        givenActive();
+        final SessionBatch batch = givenBatchOfTestRequests(2);
+        when(saveMessageBatch()).thenReturn(BACK_PRESSURED, POSITION);
+
+        assertEquals(BACK_PRESSURED, session().sendBatch(batch));
+        assertEquals(2, batch.messageCount());
+        assertEquals(0, session().lastSentMsgSeqNum());
+
+        assertEquals(POSITION, session().sendBatch(batch));
+        assertEquals(0, batch.messageCount());
+        assertEquals(2, session().lastSentMsgSeqNum());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotSendBatchOnceSessionHasSentAnotherMessage()
+    {
+        givenActive();
+        final SessionBatch batch = givenBatchOfTestRequests(2);
+
+        sendTestRequest(0);
+
+        session().sendBatch(batch);
+    }
+
+    private SessionBatch givenBatchOfTestRequests(final int messageCount)
+    {
+        when(mockPublication.maxBatchBodyLength(anyInt())).thenReturn(1024);
+
+        final SessionBatch batch = session().batch();
+        for (int i = 0; i < messageCount; i++)
+        {
+            testRequest.reset();
+            testRequest.testReqID("testReqID");
+            assertTrue(batch.add(testRequest));
+        }
+
+        return batch;
+    }
+
+    private long saveMessageBatch()
+    {
+        return mockPublication.saveMessageBatch(
+            any(), any(), any(), any(), any(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong());
+    }
+
     // See http://www.fixtradingcommunity.org/pg/discussions/topicpost/164720/fix-4x-sessionlevel-protocol-tests
     // 1d_InvalidLogonBadSendingTime.def
     @Test
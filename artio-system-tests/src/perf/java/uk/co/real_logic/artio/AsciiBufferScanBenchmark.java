@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Compares the word at a time scans of {@link MutableAsciiBuffer} against a byte at a time loop.
+ *
+ * distance is the number of bytes before the terminator, eg: small for a tag, larger for free text fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AsciiBufferScanBenchmark
+{
+    private static final byte TERMINATOR = '=';
+    private static final int BUFFER_SIZE = 1024;
+
+    @Param({"1", "3", "7", "15", "32", "100", "500"})
+    int distance;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[BUFFER_SIZE]);
+    private int terminatorIndex;
+
+    @Setup
+    public void setup()
+    {
+        buffer.setMemory(0, BUFFER_SIZE, (byte)'A');
+        terminatorIndex = distance;
+        buffer.putByte(terminatorIndex, TERMINATOR);
+    }
+
+    @Benchmark
+    public int scan()
+    {
+        return buffer.scan(0, BUFFER_SIZE - 1, TERMINATOR);
+    }
+
+    @Benchmark
+    public int byteAtATimeScan()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        for (int i = 0; i < BUFFER_SIZE; i++)
+        {
+            if (buffer.getByte(i) == TERMINATOR)
+            {
+                return i;
+            }
+        }
+        return UNKNOWN_INDEX;
+    }
+
+    @Benchmark
+    public int scanBack()
+    {
+        return buffer.scanBack(terminatorIndex + distance, 0, TERMINATOR);
+    }
+
+    @Benchmark
+    public int byteAtATimeScanBack()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        for (int i = terminatorIndex + distance; i >= 0; i--)
+        {
+            if (buffer.getByte(i) == TERMINATOR)
+            {
+                return i;
+            }
+        }
+        return UNKNOWN_INDEX;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the word at a time {@link MutableAsciiBuffer#computeChecksum(int, int)} against a byte at a time loop
+ * for typical small and large inbound message sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChecksumBenchmark
+{
+    @Param({"200", "4096"})
+    int messageSize;
+
+    private MutableAsciiBuffer buffer;
+
+    @Setup
+    public void setup()
+    {
+        final byte[] message = new byte[messageSize];
+        final Random random = new Random(42);
+        for (int i = 0; i < messageSize; i++)
+        {
+            message[i] = (byte)(' ' + random.nextInt('~' - ' '));
+        }
+        buffer = new MutableAsciiBuffer(message);
+    }
+
+    @Benchmark
+    public int computeChecksum()
+    {
+        return buffer.computeChecksum(0, messageSize);
+    }
+
+    @Benchmark
+    public int byteAtATimeChecksum()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = messageSize;
+        int total = 0;
+        for (int index = 0; index < end; index++)
+        {
+            total += buffer.getByte(index);
+        }
+
+        return total % 256;
+    }
+}
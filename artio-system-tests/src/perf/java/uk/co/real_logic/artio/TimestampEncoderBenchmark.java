@@ -18,6 +18,7 @@ package uk.co.real_logic.artio;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.util.concurrent.TimeUnit;
 
@@ -30,6 +31,11 @@ import java.util.concurrent.TimeUnit;
 public class TimestampEncoderBenchmark
 {
     private UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
+    private UtcTimestampEncoder microsTimestampEncoder =
+        new UtcTimestampEncoder(UtcTimestampEncoder.EpochFractionFormat.MICROSECONDS);
+    private UtcTimestampEncoder nanosTimestampEncoder =
+        new UtcTimestampEncoder(UtcTimestampEncoder.EpochFractionFormat.NANOSECONDS);
+    private MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[UtcTimestampEncoder.LENGTH_WITH_NANOSECONDS]);
 
     @Setup
     public void initialiseTimestamp()
@@ -46,6 +52,43 @@ public class TimestampEncoderBenchmark
         bh.consume(timestampEncoder.buffer());
     }
 
+    @Benchmark
+    public void encodeTimestampMicros(final Blackhole bh)
+    {
+        final UtcTimestampEncoder timestampEncoder = this.microsTimestampEncoder;
+
+        bh.consume(timestampEncoder.encode(TimeUnit.NANOSECONDS.toMicros(epochNanos())));
+        bh.consume(timestampEncoder.buffer());
+    }
+
+    @Benchmark
+    public void encodeTimestampNanos(final Blackhole bh)
+    {
+        final UtcTimestampEncoder timestampEncoder = this.nanosTimestampEncoder;
+
+        bh.consume(timestampEncoder.encode(epochNanos()));
+        bh.consume(timestampEncoder.buffer());
+    }
+
+    // Encodes the whole timestamp every time, for comparison with the encoders that cache the date and second.
+    @Benchmark
+    public void encodeWholeTimestamp(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+
+        bh.consume(UtcTimestampEncoder.encode(System.currentTimeMillis(), buffer, 0));
+        bh.consume(buffer);
+    }
+
+    @Benchmark
+    public void encodeWholeTimestampNanos(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+
+        bh.consume(UtcTimestampEncoder.encodeNanos(epochNanos(), buffer, 0));
+        bh.consume(buffer);
+    }
+
     @Benchmark
     public void updateTimestamp(final Blackhole bh)
     {
@@ -63,4 +106,9 @@ public class TimestampEncoderBenchmark
         bh.consume(System.currentTimeMillis());
     }
 
+    private static long epochNanos()
+    {
+        return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) + Math.floorMod(System.nanoTime(), 1_000_000L);
+    }
+
 }
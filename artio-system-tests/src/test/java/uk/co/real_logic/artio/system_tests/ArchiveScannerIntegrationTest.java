@@ -19,13 +19,18 @@ import org.agrona.CloseHelper;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
+import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.logger.FixArchiveScanner;
 import uk.co.real_logic.artio.library.LibraryConfiguration;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_ARCHIVE_SCANNER_STREAM;
 import static uk.co.real_logic.artio.TestFixtures.largeTestReqId;
 import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
 import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
@@ -91,6 +96,78 @@ public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySyste
         assertArchiveContainsMessages("hi");
     }
 
+    @Test
+    public void canScanArchiveInParallelInTimestampOrder()
+    {
+        setupAndExchangeMessages();
+
+        final List<Long> timestamps = new ArrayList<>();
+        final List<String> messages = parallelScan(true, timestamps);
+
+        assertThat(messages.toString(), messages, hasItems(
+            Matchers.containsString("35=A\00149=acceptor\00156=initiator\00134=1"),
+            Matchers.containsString("35=A\00149=initiator\00156=acceptor\00134=1"),
+            Matchers.containsString("\001112=hi")));
+
+        for (int i = 1; i < timestamps.size(); i++)
+        {
+            assertThat(timestamps.get(i - 1), lessThanOrEqualTo(timestamps.get(i)));
+        }
+    }
+
+    @Test
+    public void canScanArchiveInParallelUnordered()
+    {
+        setupAndExchangeMessages();
+
+        final List<String> messages = parallelScan(false, new ArrayList<>());
+
+        assertThat(messages.toString(), messages, hasItems(
+            Matchers.containsString("35=A\00149=acceptor\00156=initiator\00134=1"),
+            Matchers.containsString("35=A\00149=initiator\00156=acceptor\00134=1")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectOrderedParallelScanOfMoreRecordingsThanItCanMerge()
+    {
+        setupAndExchangeMessages();
+
+        parallelScan(true, new ArrayList<>(), 1);
+    }
+
+    private List<String> parallelScan(final boolean ordered, final List<Long> timestamps)
+    {
+        return parallelScan(ordered, timestamps, FixArchiveScanner.DEFAULT_MAX_ORDERED_SCAN_RECORDINGS);
+    }
+
+    private List<String> parallelScan(
+        final boolean ordered, final List<Long> timestamps, final int maxOrderedScanRecordings)
+    {
+        final EngineConfiguration configuration = acceptingEngine.configuration();
+        final List<String> messages = new ArrayList<>();
+
+        final FixArchiveScanner.Context context = new FixArchiveScanner.Context()
+            .aeronDirectoryName(configuration.aeronContext().aeronDirectoryName())
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .maxOrderedScanRecordings(maxOrderedScanRecordings);
+
+        try (FixArchiveScanner scanner = new FixArchiveScanner(context))
+        {
+            scanner.parallelScan(
+                configuration.libraryAeronChannel(),
+                new int[]{ configuration.inboundLibraryStream(), configuration.outboundLibraryStream() },
+                (message, buffer, offset, length, header) ->
+                {
+                    timestamps.add(message.timestamp());
+                    messages.add(message.body());
+                },
+                ordered,
+                DEFAULT_ARCHIVE_SCANNER_STREAM);
+        }
+
+        return messages;
+    }
+
     private void setupAndExchangeMessages()
     {
         messagesCanBeExchanged();
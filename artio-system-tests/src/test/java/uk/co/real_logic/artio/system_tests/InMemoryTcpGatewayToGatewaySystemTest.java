@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.system_tests;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.FixEngine;
+import uk.co.real_logic.artio.engine.framer.InMemoryTcpNetwork;
+import uk.co.real_logic.artio.library.LibraryConfiguration;
+
+import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
+import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
+
+public class InMemoryTcpGatewayToGatewaySystemTest extends AbstractGatewayToGatewaySystemTest
+{
+    private final FakeConnectHandler fakeConnectHandler = new FakeConnectHandler();
+    private final InMemoryTcpNetwork network = new InMemoryTcpNetwork();
+
+    @Before
+    public void launch()
+    {
+        delete(ACCEPTOR_LOGS);
+        delete(CLIENT_LOGS);
+
+        mediaDriver = launchMediaDriver();
+
+        acceptingEngine = FixEngine.launch(acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID)
+            .channelSupplierFactory(network::newChannelSupplier));
+
+        initiatingEngine = FixEngine.launch(initiatingConfig(libraryAeronPort)
+            .channelSupplierFactory(network::newChannelSupplier));
+
+        final LibraryConfiguration acceptingLibraryConfig = acceptingLibraryConfig(acceptingHandler);
+        acceptingLibraryConfig.libraryConnectHandler(fakeConnectHandler);
+        acceptingLibrary = connect(acceptingLibraryConfig);
+        initiatingLibrary = newInitiatingLibrary(libraryAeronPort, initiatingHandler);
+        testSystem = new TestSystem(acceptingLibrary, initiatingLibrary);
+
+        connectSessions();
+    }
+
+    @Test
+    public void messagesCanBeSentFromInitiatorToAcceptor()
+    {
+        messagesCanBeExchanged();
+
+        assertInitiatingSequenceIndexIs(0);
+    }
+
+    @Test
+    public void messagesCanBeSentFromInitiatorToAcceptingLibrary()
+    {
+        acquireAcceptingSession();
+
+        messagesCanBeExchanged();
+
+        assertSequenceIndicesAre(0);
+    }
+
+    @Test
+    public void sessionsCanReconnect()
+    {
+        super.sessionsCanReconnect();
+    }
+}